@@ -0,0 +1,29 @@
+#!/usr/bin/env bash
+# Compares JVM and native-image startup of the sample application.
+# Requires a GraalVM JDK (JAVA_HOME) with native-image installed.
+# JVM / native-image 기동 시간을 비교합니다. native-image가 포함된 GraalVM JDK가 필요합니다.
+set -euo pipefail
+
+RUNS="${RUNS:-5}"
+cd "$(dirname "$0")"
+
+../../gradlew -q bootJar nativeCompile
+
+measure() {
+    local label="$1"; shift
+    for i in $(seq 1 "$RUNS"); do
+        local log
+        log="$(mktemp)"
+        "$@" --server.port=0 >"$log" 2>&1 &
+        local pid=$!
+        until grep -q "Started NativeSampleApplication" "$log"; do sleep 0.05; done
+        echo "$label $(grep -o 'process running for [0-9.]*' "$log" | awk '{print $4}')"
+        kill "$pid"; wait "$pid" 2>/dev/null || true
+        rm -f "$log"
+    done
+}
+
+{
+    measure jvm java -jar build/libs/native-sample-0.1.0.jar
+    measure native build/native/nativeCompile/native-sample
+} | awk '{ sum[$1] += $2; n[$1]++ } END { for (k in sum) printf "%-6s avg startup: %.3f s over %d runs\n", k, sum[k] / n[k], n[k] }'
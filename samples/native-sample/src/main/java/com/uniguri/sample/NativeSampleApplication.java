@@ -0,0 +1,43 @@
+package com.uniguri.sample;
+
+import com.uniguri.XssIgnore;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Minimal application used to verify XSS Shield under Spring AOT and GraalVM native-image.
+ * <p>
+ * Spring AOT 및 GraalVM native-image 환경에서 XSS Shield 동작을 확인하기 위한 최소 애플리케이션입니다.
+ */
+@SpringBootApplication
+public class NativeSampleApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(NativeSampleApplication.class, args);
+    }
+
+    @RestController
+    static class EchoController {
+
+        @GetMapping("/echo")
+        public String echo(@RequestParam String input) {
+            return input;
+        }
+
+        @PostMapping("/api/comments")
+        public Comment comment(@RequestBody Comment comment) {
+            return comment;
+        }
+    }
+
+    public static class Comment {
+        public String body;
+        @XssIgnore
+        public String rawMarkup;
+    }
+}
@@ -0,0 +1,37 @@
+package com.uniguri.sample;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class NativeSampleApplicationTests {
+
+    @LocalServerPort
+    int port;
+
+    private final TestRestTemplate rest = new TestRestTemplate();
+
+    @Test
+    void sanitizesQueryParameters() {
+        String body = rest.getForObject("http://localhost:" + port + "/echo?input=<script>x</script>hi", String.class);
+        assertThat(body).isEqualTo("hi");
+    }
+
+    @Test
+    void sanitizesJsonAndHonoursXssIgnore() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        String json = "{\"body\":\"<script>x</script>ok\",\"rawMarkup\":\"<b>kept</b>\"}";
+        NativeSampleApplication.Comment comment = rest.postForObject("http://localhost:" + port + "/api/comments",
+                new HttpEntity<>(json, headers), NativeSampleApplication.Comment.class);
+        assertThat(comment.body).isEqualTo("ok");
+        assertThat(comment.rawMarkup).isEqualTo("<b>kept</b>");
+    }
+}
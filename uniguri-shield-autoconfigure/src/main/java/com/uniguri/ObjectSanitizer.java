@@ -0,0 +1,507 @@
+package com.uniguri;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ * Sanitizes every {@code String} reachable from an object graph, for objects that never pass through the
+ * Jackson deserializer (message converters, {@code @ModelAttribute} binding, internal queues).
+ * <p>
+ * The structure of each class is resolved once into a plan held in a {@link ClassValue}: String fields, nested
+ * beans, records, arrays, collections, maps and {@link Optional}s, with {@link MethodHandle} accessors and
+ * {@link XssIgnore} applied. Walking a graph then needs no reflection. Mutable beans, arrays and collections are
+ * updated in place; records, {@link Optional}s and unmodifiable collections are rebuilt and written back to
+ * their owner when the rebuilt copy fits the declared type of the field or component; otherwise (a field declared
+ * as a concrete immutable type such as Guava's {@code ImmutableList}) the original is kept and a warning is logged.
+ * Every object is sanitized once, so shared references and cycles are safe. A rebuilt object that is
+ * reached again before its rebuild finished (through a cycle, or from another thread of a parallel walk) cannot
+ * be replaced there yet; such references are relinked to the rebuilt instance by a second, string-free pass.
+ * <p>
+ * JDK types other than the containers above are treated as leaves, as are classes whose members cannot be made
+ * accessible.
+ * <p>
+ * Jackson 역직렬화를 거치지 않는 객체(메시지 컨버터, {@code @ModelAttribute} 바인딩, 내부 큐 등)의 그래프에서
+ * 도달 가능한 모든 {@code String}을 살균합니다.
+ * <p>
+ * 클래스 구조는 {@link ClassValue}에 보관되는 계획으로 한 번만 해석됩니다. String 필드, 중첩 빈, 레코드, 배열, 컬렉션, 맵,
+ * {@link Optional}을 {@link MethodHandle} 접근자와 {@link XssIgnore} 적용 여부와 함께 기록하므로 그래프 순회 시 리플렉션이
+ * 필요 없습니다. 가변 빈, 배열, 컬렉션은 제자리에서 갱신하고, 레코드, {@link Optional}, 수정 불가 컬렉션은 새로 만들어 소유자에
+ * 다시 기록합니다. 새로 만든 사본이 필드나 컴포넌트의 선언 타입에 맞지 않으면(Guava {@code ImmutableList}처럼 구체적인
+ * 불변 타입으로 선언된 필드) 원래 값을 유지하고 경고를 남깁니다. 모든 객체는 한 번만 살균하므로 공유 참조와 순환 참조에도 안전합니다. 새로 만드는 객체를 그 작업이 끝나기 전에
+ * (순환 또는 병렬 순회의 다른 스레드에서) 다시 만나면 그 자리에서는 교체할 수 없으므로, 문자열을 건드리지 않는 두 번째 순회로
+ * 새 인스턴스에 다시 연결합니다.
+ * <p>
+ * 위 컨테이너 이외의 JDK 타입과 멤버에 접근할 수 없는 클래스는 더 이상 순회하지 않습니다.
+ */
+public final class ObjectSanitizer {
+
+    private static final Logger log = LoggerFactory.getLogger(ObjectSanitizer.class);
+
+    /** Marks an object whose replacement is still being built. */
+    private static final Object PENDING = new Object();
+
+    private static final ClassValue<Plan> PLANS = new ClassValue<>() {
+        @Override
+        protected Plan computeValue(Class<?> type) {
+            return Plan.of(type);
+        }
+    };
+
+    private final UnaryOperator<String> sanitizer;
+    private final int parallelThreshold;
+
+    /**
+     * @param sanitizer         Applied to every reachable string. / 도달 가능한 모든 문자열에 적용할 함수
+     * @param parallelThreshold Lists and arrays with at least this many elements are walked in parallel; 0 disables it.
+     *                          / 이 값 이상의 요소를 가진 리스트와 배열은 병렬로 순회 (0이면 사용 안 함)
+     */
+    public ObjectSanitizer(UnaryOperator<String> sanitizer, int parallelThreshold) {
+        if (sanitizer == null) {
+            throw new IllegalArgumentException("sanitizer must not be null");
+        }
+        if (parallelThreshold < 0) {
+            throw new IllegalArgumentException("parallelThreshold must be >= 0");
+        }
+        this.sanitizer = sanitizer;
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Sanitizes the object graph rooted at {@code value}.
+     * <p>
+     * {@code value}를 루트로 하는 객체 그래프를 살균합니다.
+     *
+     * @param value The root object, which may itself be a string, record or collection. / 루트 객체
+     * @return {@code value} updated in place, or a rebuilt instance for strings, records, {@link Optional}s and
+     * unmodifiable collections. / 제자리에서 갱신된 {@code value}, 또는 문자열/레코드/Optional/수정 불가 컬렉션의 새 인스턴스
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T sanitize(T value) {
+        if (value == null) {
+            return null;
+        }
+        Map<Object, Object> seen = new IdentityHashMap<>();
+        Walk walk = new Walk(sanitizer, parallelThreshold > 0 ? Collections.synchronizedMap(seen) : seen, null);
+        Object result = walk.value(value);
+        if (walk.stale) {
+            // Strings are already sanitized, so the relinking pass leaves them alone and runs sequentially.
+            result = new Walk(UnaryOperator.identity(), new IdentityHashMap<>(), walk.seen).value(result);
+        }
+        return (T) result;
+    }
+
+    private final class Walk {
+        private final UnaryOperator<String> strings;
+        /** Maps every visited object to its replacement (itself for objects updated in place, or PENDING). */
+        private final Map<Object, Object> seen;
+        /** Replacements found by an earlier walk, or {@code null}. */
+        private final Map<Object, Object> replacements;
+        private final boolean parallel;
+        /** Set when a reference to an object still being rebuilt was kept. */
+        private volatile boolean stale;
+
+        private Walk(UnaryOperator<String> strings, Map<Object, Object> seen, Map<Object, Object> replacements) {
+            this.strings = strings;
+            this.seen = seen;
+            this.replacements = replacements;
+            this.parallel = replacements == null && parallelThreshold > 0;
+        }
+
+        @SuppressWarnings("unchecked")
+        Object value(Object value) {
+            if (value == null) {
+                return null;
+            }
+            if (value instanceof String string) {
+                return strings.apply(string);
+            }
+            if (replacements != null) {
+                Object replacement = replacements.get(value);
+                if (replacement != null && replacement != PENDING) {
+                    value = replacement;
+                }
+            }
+            Plan plan = PLANS.get(value.getClass());
+            if (plan.kind == Kind.LEAF) {
+                return value;
+            }
+            // Beans and arrays are always updated in place, so they can be published before they are done. Other
+            // kinds may be rebuilt; until then other visitors must not take the original as the result.
+            boolean inPlace = plan.kind == Kind.BEAN || plan.kind == Kind.ARRAY;
+            Object previous = seen.putIfAbsent(value, inPlace ? value : PENDING);
+            if (previous == PENDING) {
+                stale = true;
+                return value;
+            }
+            if (previous != null) {
+                return previous;
+            }
+            Object result = switch (plan.kind) {
+                case BEAN -> bean(plan, value);
+                case RECORD -> record(plan, value);
+                case ARRAY -> array((Object[]) value);
+                case LIST -> list((List<Object>) value);
+                case COLLECTION -> collection((Collection<Object>) value);
+                case MAP -> map((Map<Object, Object>) value);
+                case OPTIONAL -> optional((Optional<?>) value);
+                case LEAF -> value;
+            };
+            if (!inPlace) {
+                seen.put(value, result);
+            }
+            return result;
+        }
+
+        private Object bean(Plan plan, Object bean) {
+            for (Slot slot : plan.slots) {
+                Object current = slot.get(bean);
+                Object sanitized = value(current);
+                if (sanitized != current && slot.accepts(sanitized)) {
+                    slot.set(bean, sanitized);
+                }
+            }
+            return bean;
+        }
+
+        private Object record(Plan plan, Object record) {
+            Object[] components = new Object[plan.slots.length];
+            boolean changed = false;
+            for (int i = 0; i < components.length; i++) {
+                Slot slot = plan.slots[i];
+                Object current = slot.get(record);
+                Object sanitized = slot.ignored ? current : value(current);
+                components[i] = sanitized != current && slot.accepts(sanitized) ? sanitized : current;
+                changed |= components[i] != current;
+            }
+            return changed ? plan.construct(components) : record;
+        }
+
+        private Object optional(Optional<?> optional) {
+            if (optional.isEmpty()) {
+                return optional;
+            }
+            Object current = optional.get();
+            Object sanitized = value(current);
+            return sanitized != current ? Optional.ofNullable(sanitized) : optional;
+        }
+
+        private Object array(Object[] array) {
+            Object[] sanitized = values(array);
+            Class<?> componentType = array.getClass().getComponentType();
+            for (int i = 0; i < array.length; i++) {
+                if (sanitized[i] != array[i] && (sanitized[i] == null || componentType.isInstance(sanitized[i]))) {
+                    array[i] = sanitized[i];
+                }
+            }
+            return array;
+        }
+
+        private Object list(List<Object> list) {
+            Object[] original = list.toArray();
+            Object[] sanitized = values(original);
+            if (Arrays.equals(original, sanitized, (a, b) -> a == b ? 0 : 1)) {
+                return list;
+            }
+            try {
+                ListIterator<Object> iterator = list.listIterator();
+                for (int i = 0; i < sanitized.length; i++) {
+                    iterator.next();
+                    if (sanitized[i] != original[i]) {
+                        iterator.set(sanitized[i]);
+                    }
+                }
+                return list;
+            } catch (UnsupportedOperationException e) {
+                return Collections.unmodifiableList(new ArrayList<>(Arrays.asList(sanitized)));
+            }
+        }
+
+        private Object collection(Collection<Object> collection) {
+            Object[] original = collection.toArray();
+            Object[] sanitized = values(original);
+            if (Arrays.equals(original, sanitized, (a, b) -> a == b ? 0 : 1)) {
+                return collection;
+            }
+            try {
+                collection.clear();
+                collection.addAll(Arrays.asList(sanitized));
+                return collection;
+            } catch (UnsupportedOperationException e) {
+                return collection instanceof Set
+                        ? Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(sanitized)))
+                        : Collections.unmodifiableList(new ArrayList<>(Arrays.asList(sanitized)));
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private Object map(Map<Object, Object> map) {
+            Map.Entry<Object, Object>[] entries = map.entrySet().toArray(new Map.Entry[0]);
+            Object[] original = new Object[entries.length];
+            for (int i = 0; i < entries.length; i++) {
+                original[i] = entries[i].getValue();
+            }
+            Object[] sanitized = values(original);
+            if (Arrays.equals(original, sanitized, (a, b) -> a == b ? 0 : 1)) {
+                return map;
+            }
+            try {
+                for (int i = 0; i < entries.length; i++) {
+                    if (sanitized[i] != original[i]) {
+                        entries[i].setValue(sanitized[i]);
+                    }
+                }
+                return map;
+            } catch (UnsupportedOperationException e) {
+                Map<Object, Object> copy = new LinkedHashMap<>();
+                for (int i = 0; i < entries.length; i++) {
+                    copy.put(entries[i].getKey(), sanitized[i]);
+                }
+                return Collections.unmodifiableMap(copy);
+            }
+        }
+
+        private Object[] values(Object[] elements) {
+            Object[] sanitized = new Object[elements.length];
+            if (parallel && elements.length >= parallelThreshold) {
+                IntStream.range(0, elements.length).parallel().forEach(i -> sanitized[i] = value(elements[i]));
+            } else {
+                for (int i = 0; i < elements.length; i++) {
+                    sanitized[i] = value(elements[i]);
+                }
+            }
+            return sanitized;
+        }
+    }
+
+    private enum Kind {
+        LEAF, BEAN, RECORD, ARRAY, LIST, COLLECTION, MAP, OPTIONAL
+    }
+
+    /**
+     * The resolved structure of one class.
+     */
+    private static final class Plan {
+        private static final Plan LEAF = new Plan(Kind.LEAF, new Slot[0], null);
+
+        private final Kind kind;
+        private final Slot[] slots;
+        /** Canonical record constructor taking {@code Object[]}, or {@code null}. */
+        private final MethodHandle constructor;
+
+        private Plan(Kind kind, Slot[] slots, MethodHandle constructor) {
+            this.kind = kind;
+            this.slots = slots;
+            this.constructor = constructor;
+        }
+
+        private static Plan container(Kind kind) {
+            return new Plan(kind, new Slot[0], null);
+        }
+
+        static Plan of(Class<?> type) {
+            if (type.isArray()) {
+                return type.getComponentType().isPrimitive() ? LEAF : container(Kind.ARRAY);
+            }
+            if (List.class.isAssignableFrom(type)) {
+                return container(Kind.LIST);
+            }
+            if (Collection.class.isAssignableFrom(type)) {
+                return container(Kind.COLLECTION);
+            }
+            if (Map.class.isAssignableFrom(type)) {
+                return container(Kind.MAP);
+            }
+            if (type == Optional.class) {
+                return container(Kind.OPTIONAL);
+            }
+            if (isLeaf(type)) {
+                return LEAF;
+            }
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+                return type.isRecord() ? record(type, lookup) : bean(type, lookup);
+            } catch (IllegalAccessException | RuntimeException e) {
+                // Classes in modules that are not open to us are not walked.
+                return LEAF;
+            }
+        }
+
+        private static Plan record(Class<?> type, MethodHandles.Lookup lookup) throws IllegalAccessException {
+            RecordComponent[] components = type.getRecordComponents();
+            Slot[] slots = new Slot[components.length];
+            Class<?>[] parameterTypes = new Class<?>[components.length];
+            for (int i = 0; i < components.length; i++) {
+                RecordComponent component = components[i];
+                parameterTypes[i] = component.getType();
+                boolean ignored = component.getType().isPrimitive()
+                        || component.getAccessor().isAnnotationPresent(XssIgnore.class)
+                        || declaredField(type, component.getName()).isAnnotationPresent(XssIgnore.class);
+                slots[i] = new Slot(getter(lookup.unreflect(component.getAccessor())), null, ignored,
+                        component.getType(), type.getName() + '.' + component.getName());
+            }
+            MethodHandle constructor;
+            try {
+                constructor = lookup.findConstructor(type, MethodType.methodType(void.class, parameterTypes))
+                        .asSpreader(Object[].class, components.length)
+                        .asType(MethodType.methodType(Object.class, Object[].class));
+            } catch (NoSuchMethodException e) {
+                throw new IllegalStateException("No canonical constructor in " + type.getName(), e);
+            }
+            return new Plan(Kind.RECORD, slots, constructor);
+        }
+
+        private static Plan bean(Class<?> type, MethodHandles.Lookup lookup) throws IllegalAccessException {
+            List<Slot> slots = new ArrayList<>();
+            for (Class<?> c = type; c != null && !isLeaf(c); c = c.getSuperclass()) {
+                MethodHandles.Lookup owner = c == type ? lookup : MethodHandles.privateLookupIn(c, MethodHandles.lookup());
+                for (Field field : c.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic() || isLeafField(field.getType())
+                            || field.isAnnotationPresent(XssIgnore.class) || hasIgnoredGetter(c, field)) {
+                        continue;
+                    }
+                    field.setAccessible(true);
+                    slots.add(new Slot(getter(owner.unreflectGetter(field)), setter(owner.unreflectSetter(field)), false,
+                            field.getType(), c.getName() + '.' + field.getName()));
+                }
+            }
+            return slots.isEmpty() ? LEAF : new Plan(Kind.BEAN, slots.toArray(new Slot[0]), null);
+        }
+
+        Object construct(Object[] components) {
+            try {
+                return constructor.invokeExact(components);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private static MethodHandle getter(MethodHandle handle) {
+            return handle.asType(MethodType.methodType(Object.class, Object.class));
+        }
+
+        private static MethodHandle setter(MethodHandle handle) {
+            return handle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+        }
+
+        private static Field declaredField(Class<?> type, String name) {
+            try {
+                return type.getDeclaredField(name);
+            } catch (NoSuchFieldException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        /**
+         * Honours {@link XssIgnore} on the getter, as the Jackson deserializer does per property.
+         */
+        private static boolean hasIgnoredGetter(Class<?> type, Field field) {
+            String suffix = Character.toUpperCase(field.getName().charAt(0)) + field.getName().substring(1);
+            for (String name : new String[]{"get" + suffix, "is" + suffix}) {
+                try {
+                    Method getter = type.getDeclaredMethod(name);
+                    if (getter.isAnnotationPresent(XssIgnore.class)) {
+                        return true;
+                    }
+                } catch (NoSuchMethodException e) {
+                    // no such getter
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Field types that can never hold a string or a walkable object.
+         */
+        private static boolean isLeafField(Class<?> type) {
+            return type.isPrimitive() || type.isEnum() || Number.class.isAssignableFrom(type)
+                    || type == Boolean.class || type == Character.class;
+        }
+
+        private static boolean isLeaf(Class<?> type) {
+            if (isLeafField(type) || type == Object.class) {
+                return true;
+            }
+            String name = type.getName();
+            return name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("jdk.")
+                    || name.startsWith("sun.") || name.startsWith("com.sun.");
+        }
+    }
+
+    /**
+     * Accessors of one field or record component.
+     */
+    private static final class Slot {
+        private final MethodHandle getter;
+        /** {@code null} for record components. */
+        private final MethodHandle setter;
+        private final boolean ignored;
+        /** Declared type; a rebuilt value is written back only if it is an instance of it. */
+        private final Class<?> type;
+        private final String name;
+
+        private Slot(MethodHandle getter, MethodHandle setter, boolean ignored, Class<?> type, String name) {
+            this.getter = getter;
+            this.setter = setter;
+            this.ignored = ignored;
+            this.type = type;
+            this.name = name;
+        }
+
+        /**
+         * Returns whether {@code value} can be stored here; logs a warning if it cannot, as the original then stays
+         * unsanitized.
+         */
+        boolean accepts(Object value) {
+            if (value == null || type.isInstance(value)) {
+                return true;
+            }
+            log.warn("Sanitized {} does not fit {} declared as {}; the original value is kept unsanitized",
+                    value.getClass().getName(), name, type.getName());
+            return false;
+        }
+
+        Object get(Object owner) {
+            try {
+                return getter.invokeExact(owner);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        void set(Object owner, Object value) {
+            try {
+                setter.invokeExact(owner, value);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
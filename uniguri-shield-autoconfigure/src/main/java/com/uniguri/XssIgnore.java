@@ -13,8 +13,14 @@ import java.lang.annotation.Target;
  * XSS 살균에서 제외할 필드를 표시하는 어노테이션입니다.
  * 필드에 적용하면 {@link XssStringJsonDeserializer}가 JSON 역직렬화 중에
  * 해당 필드의 살균을 건너뜁니다.
+ * <p>
+ * The annotation is resolved per property by Jackson, so it may also be placed on the
+ * setter or getter of the property; it applies to {@code String} collections and arrays too.
+ * <p>
+ * 어노테이션은 Jackson이 속성 단위로 판별하므로 setter/getter에도 지정할 수 있으며,
+ * {@code String} 컬렉션 및 배열 속성에도 적용됩니다.
  */
-@Target({ElementType.FIELD})
+@Target({ElementType.FIELD, ElementType.METHOD})
 @Retention(RetentionPolicy.RUNTIME)
 public @interface XssIgnore {
 }
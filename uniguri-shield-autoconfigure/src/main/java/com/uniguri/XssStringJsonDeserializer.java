@@ -2,16 +2,14 @@ package com.uniguri;
 
 import java.io.IOException;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.web.context.request.RequestContextHolder;
-import org.springframework.web.context.request.ServletRequestAttributes;
-
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.BeanProperty;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.deser.ContextualDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StringDeserializer;
 import com.uniguri.config.XssShieldProperties;
-import java.lang.reflect.Field;
 
 
 /**
@@ -20,13 +18,36 @@ import java.lang.reflect.Field;
  * <p>
  * XSS를 방지하기 위해 문자열 값을 살균하는 사용자 정의 JsonDeserializer입니다.
  * API 경로 패턴을 기준으로 엄격하거나 완화된 정책을 선택합니다.
+ * <p>
+ * Properties annotated with {@link XssIgnore} are resolved once per property through
+ * Jackson's own introspection ({@link #createContextual}), so no per-value reflection
+ * is needed and the lookup works under Spring AOT / native-image.
+ * <p>
+ * {@link XssIgnore}가 지정된 속성은 Jackson의 인트로스펙션을 통해 속성별로 한 번만 판별되므로
+ * 값마다 리플렉션을 수행하지 않으며 Spring AOT / native-image 환경에서도 동작합니다.
+ * <p>
+ * String tokens are first checked in place in the parser's text buffer with {@link MarkupPrefilter}; inert
+ * tokens take Jackson's normal path (or the {@link StringCanonicalizer}) and never reach the sanitizer or its
+ * cache. Only tokens that could change are materialized for sanitization. The shortcut is taken only for policies
+ * that leave inert text unchanged ({@link XssShield#passesInertText()}).
+ * <p>
+ * 문자열 토큰은 먼저 파서의 텍스트 버퍼에서 복사 없이 {@link MarkupPrefilter}로 검사합니다. 무해한 토큰은 Jackson의
+ * 일반 경로(또는 {@link StringCanonicalizer})로 처리되어 살균기와 캐시를 거치지 않으며, 바뀔 수 있는 토큰만 살균합니다.
+ * 이 생략은 무해한 텍스트를 바꾸지 않는 정책({@link XssShield#passesInertText()})에만 적용됩니다.
+ * <p>
+ * In {@code BLOCK} mode, requests the filter already scanned and found clean are not sanitized again.
+ * <p>
+ * {@code BLOCK} 모드에서는 필터가 이미 검사해 깨끗하다고 판정한 요청을 다시 살균하지 않습니다.
  */
-public class XssStringJsonDeserializer extends JsonDeserializer<String> {
+public class XssStringJsonDeserializer extends JsonDeserializer<String> implements ContextualDeserializer {
 
-    private static final Logger log = LoggerFactory.getLogger(XssStringJsonDeserializer.class);
     private final XssUtils xssUtils;
     private final XssShieldProperties properties;
-    
+    private final boolean inertPrefilter;
+    private final boolean htmlPassesInert;
+    private final boolean strictPassesInert;
+    private final StringCanonicalizer canonicalizer;
+    private final boolean blockMode;
 
     /**
      * Constructor for XssStringJsonDeserializer.
@@ -37,6 +58,27 @@ public class XssStringJsonDeserializer extends JsonDeserializer<String> {
     public XssStringJsonDeserializer(XssUtils xssUtils, XssShieldProperties properties) {
         this.xssUtils = xssUtils;
         this.properties = properties;
+        XssShieldProperties.JsonConfig json = properties.getJson();
+        this.htmlPassesInert = json.isInertPrefilter() && xssUtils.getShield().passesInertText();
+        this.strictPassesInert = json.isInertPrefilter() && xssUtils.getShield().strictPassesInertText();
+        this.inertPrefilter = htmlPassesInert || strictPassesInert;
+        this.canonicalizer = inertPrefilter && json.isCanonicalStrings()
+                ? new StringCanonicalizer(json.getCanonicalTableSize(), json.getCanonicalMaxLength())
+                : null;
+        this.blockMode = properties.getMode() == XssShieldProperties.Mode.BLOCK;
+    }
+
+    /**
+     * Returns Jackson's plain {@link StringDeserializer} for properties annotated with {@link XssIgnore}.
+     * <p>
+     * {@link XssIgnore}가 지정된 속성에는 Jackson 기본 {@link StringDeserializer}를 반환합니다.
+     */
+    @Override
+    public JsonDeserializer<?> createContextual(DeserializationContext ctxt, BeanProperty property) {
+        if (property != null && property.getAnnotation(XssIgnore.class) != null) {
+            return StringDeserializer.instance;
+        }
+        return this;
     }
 
     /**
@@ -50,29 +92,24 @@ public class XssStringJsonDeserializer extends JsonDeserializer<String> {
      */
     @Override
     public String deserialize(JsonParser jsonParser, DeserializationContext ctxt) throws IOException {
+        if (inertPrefilter && jsonParser.hasToken(JsonToken.VALUE_STRING)) {
+            char[] chars = jsonParser.getTextCharacters();
+            int offset = jsonParser.getTextOffset();
+            int length = jsonParser.getTextLength();
+            if (chars != null && MarkupPrefilter.isInert(chars, offset, length) && policyPassesInert()) {
+                return canonicalizer != null ? canonicalizer.canonicalize(chars, offset, length) : jsonParser.getText();
+            }
+        }
         String value = jsonParser.getValueAsString();
         if (value == null) {
             return null;
         }
-
-        try {
-            // Check for @XssIgnore annotation on the field
-            String currentName = jsonParser.currentName();
-            Object currentValue = jsonParser.getCurrentValue();
-            if (currentName != null && currentValue != null) {
-                Field field = currentValue.getClass().getDeclaredField(currentName);
-                if (field.isAnnotationPresent(XssIgnore.class)) {
-                    return value;
-                }
-            }
-        } catch (NoSuchFieldException e) {
-            // Field not found, proceed with sanitization
-        } catch (Exception e) {
-            log.error("Error checking for @XssIgnore annotation, proceeding with sanitization.", e);
+        if (blockMode && xssUtils.isScannedValue(value)) {
+            return value;
         }
 
         try {
-            if (xssUtils.isApiRequestForCurrentRequest(properties.getJson().getApiPatterns())) {
+            if (isApiRequest()) {
                 return xssUtils.strictSanitize(value);
             }
             return xssUtils.sanitize(value);
@@ -80,6 +117,20 @@ public class XssStringJsonDeserializer extends JsonDeserializer<String> {
             return xssUtils.handleSanitizationError(ex, properties, value);
         }
     }
+
+    /**
+     * Whether the policy that would sanitize this token leaves inert text unchanged.
+     */
+    private boolean policyPassesInert() {
+        if (htmlPassesInert == strictPassesInert) {
+            return htmlPassesInert;
+        }
+        return isApiRequest() ? strictPassesInert : htmlPassesInert;
+    }
+
+    private boolean isApiRequest() {
+        return xssUtils.isApiRequestForCurrentRequest(properties.getJson().getApiPatterns());
+    }
 }
 
 
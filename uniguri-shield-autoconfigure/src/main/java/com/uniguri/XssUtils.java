@@ -1,71 +1,72 @@
 package com.uniguri;
 
-import com.github.benmanes.caffeine.cache.Caffeine;
-import com.github.benmanes.caffeine.cache.Cache;
 import com.uniguri.config.XssShieldProperties;
 import org.owasp.html.PolicyFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.util.AntPathMatcher;
+import org.springframework.web.context.request.RequestAttributes;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 import org.springframework.web.util.HtmlUtils;
 import jakarta.servlet.http.HttpServletRequest;
 
-import java.net.URLDecoder;
-import java.nio.charset.StandardCharsets;
-import java.util.Base64;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Stream;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Set;
 
 /**
  * Utility class providing sanitization helpers for XSS protection.
  * OWASP Java HTML Sanitizer를 내부적으로 사용합니다.
+ * The engine itself is the Spring-free {@link XssShield}; this class configures it from {@link XssShieldProperties}
+ * and adds the servlet request context.
  * <p>
  * XSS 방지를 위한 살균 헬퍼를 제공하는 유틸리티 클래스입니다.
  * 내부적으로 OWASP Java HTML Sanitizer를 사용합니다.
+ * 엔진은 Spring에 의존하지 않는 {@link XssShield}이며, 이 클래스는 {@link XssShieldProperties}로 엔진을 구성하고
+ * 서블릿 요청 컨텍스트를 제공합니다.
  */
-public class XssUtils {
+public class XssUtils implements DisposableBean {
 
     private static final Logger log = LoggerFactory.getLogger(XssUtils.class);
     private static final ThreadLocal<RequestInfo> requestInfoHolder = new ThreadLocal<>();
 
-    private static final Pattern[] XSS_PATTERNS = {
-        // Script-related tags
-        Pattern.compile("<script>(.*?)</script>", Pattern.CASE_INSENSITIVE),
-        // src='...' attributes
-        Pattern.compile("src[\r\n]*=[\r\n]*\\\'(.*?)\\\'", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL),
-        Pattern.compile("src[\r\n]*=[\r\n]*\\\"(.*?)\\\"", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL),
-        // lonely script tags
-        Pattern.compile("</script>", Pattern.CASE_INSENSITIVE),
-        Pattern.compile("<script(.*?)>", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL),
-        // eval(...) expressions
-        Pattern.compile("eval\\((.*?)\\)", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL),
-        // expression(...) expressions
-        Pattern.compile("expression\\((.*?)\\)", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL),
-        // javascript:... expressions
-        Pattern.compile("javascript:", Pattern.CASE_INSENSITIVE),
-        // vbscript:... expressions
-        Pattern.compile("vbscript:", Pattern.CASE_INSENSITIVE),
-        // onload= expressions
-        Pattern.compile("onload(.*?)=", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL),
-        // Other event handlers
-        Pattern.compile("(on[a-z]+)=[^>]+", Pattern.CASE_INSENSITIVE),
-        // URL encoded characters
-        Pattern.compile("%(25)*3Cscript", Pattern.CASE_INSENSITIVE), // <script
-        Pattern.compile("%(25)*3E", Pattern.CASE_INSENSITIVE), // >
-    };
-
-    private final PolicyFactory htmlSanitizer;
-    private final PolicyFactory strictHtmlSanitizer;
-    private final PolicyFactory formInputSanitizer;
-
-    private final boolean sanitizeCacheEnabled;
-    private final Cache<String, String> sanitizeCache;
-    private final Cache<String, String> strictSanitizeCache;
-    private final Cache<String, String> formInputSanitizeCache;
-    private final XssShieldProperties.LogLevel logLevel;
+    /**
+     * Request attribute set by the filter in {@code BLOCK} mode on requests whose JSON body it scanned and found
+     * clean; holds the set of string values of that body.
+     * <p>
+     * {@code BLOCK} 모드의 필터가 JSON 본문을 검사해 깨끗하다고 판정한 요청에 설정하는 요청 속성입니다. 본문의 문자열 값 집합을 담습니다.
+     */
+    public static final String SCANNED_ATTRIBUTE = "com.uniguri.xssShield.scanned";
+
+    /**
+     * Request attribute holding the {@link SanitizeCost} of the request when {@code xss.shield.cost.enabled}; its
+     * counters are also exposed as {@code .values}, {@code .cacheHits}, {@code .characters},
+     * {@code .detectionMicros} and {@code .totalMicros} attributes for access-log patterns.
+     * <p>
+     * {@code xss.shield.cost.enabled}일 때 요청의 {@link SanitizeCost}를 담는 요청 속성입니다. 액세스 로그 패턴용으로
+     * {@code .values}, {@code .cacheHits}, {@code .characters}, {@code .detectionMicros}, {@code .totalMicros} 속성도 설정됩니다.
+     */
+    public static final String COST_ATTRIBUTE = "com.uniguri.xssShield.cost";
+
+    /**
+     * Request attribute holding the client IP resolved by the filter through the configured trusted proxies.
+     * <p>
+     * 필터가 신뢰하는 프록시 설정으로 결정한 클라이언트 IP를 담는 요청 속성입니다.
+     */
+    public static final String CLIENT_IP_ATTRIBUTE = "com.uniguri.xssShield.clientIp";
+
+    private final XssShield shield;
+    private final XssShieldProperties properties;
+    private final ObjectSanitizer objectSanitizer;
+    private final ObjectSanitizer strictObjectSanitizer;
     private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
 
     /**
@@ -79,14 +80,7 @@ public class XssUtils {
             PolicyFactory htmlSanitizer,
             PolicyFactory strictHtmlSanitizer,
             PolicyFactory formInputSanitizer) {
-        this.htmlSanitizer = htmlSanitizer;
-        this.strictHtmlSanitizer = strictHtmlSanitizer;
-        this.formInputSanitizer = formInputSanitizer;
-        this.sanitizeCacheEnabled = false;
-        this.sanitizeCache = null;
-        this.strictSanitizeCache = null;
-        this.formInputSanitizeCache = null;
-        this.logLevel = XssShieldProperties.LogLevel.WARN;
+        this(htmlSanitizer, strictHtmlSanitizer, formInputSanitizer, null);
     }
 
     /**
@@ -99,21 +93,174 @@ public class XssUtils {
             PolicyFactory strictHtmlSanitizer,
             PolicyFactory formInputSanitizer,
             XssShieldProperties properties) {
-        this.htmlSanitizer = htmlSanitizer;
-        this.strictHtmlSanitizer = strictHtmlSanitizer;
-        this.formInputSanitizer = formInputSanitizer;
-        this.sanitizeCacheEnabled = properties != null && properties.getCache() != null && properties.getCache().isSanitizeEnabled();
-        int sanitizeCacheMaxEntries = properties != null && properties.getCache() != null ? properties.getCache().getSanitizeMaxEntries() : 1000;
-        if (this.sanitizeCacheEnabled) {
-            this.sanitizeCache = Caffeine.newBuilder().maximumSize(sanitizeCacheMaxEntries).build();
-            this.strictSanitizeCache = Caffeine.newBuilder().maximumSize(sanitizeCacheMaxEntries).build();
-            this.formInputSanitizeCache = Caffeine.newBuilder().maximumSize(sanitizeCacheMaxEntries).build();
-        } else {
-            this.sanitizeCache = null;
-            this.strictSanitizeCache = null;
-            this.formInputSanitizeCache = null;
+        this.properties = properties;
+        XssShield.Builder builder = XssShield.builder()
+                .htmlPolicy(htmlSanitizer)
+                .strictPolicy(strictHtmlSanitizer)
+                .formInputPolicy(formInputSanitizer)
+                .clientInfo(XssUtils::currentRequestInfo);
+        if (properties != null) {
+            XssShieldProperties.CacheConfig cache = properties.getCache();
+            if (cache != null && cache.isSanitizeEnabled()) {
+                builder.sanitizeCache(cache.getSanitizeMaxEntries());
+                if (cache.getLoading() != null) {
+                    builder.cacheLoading(XssShield.CacheLoading.valueOf(cache.getLoading().name()));
+                }
+                if (cache.isLocalEnabled()) {
+                    builder.localCache(cache.getLocalSlots(), cache.getLocalMaxLength());
+                }
+            }
+            if (cache != null) {
+                builder.policyVersion(cache.getPolicyVersion());
+            }
+            if (cache != null && cache.isDetectionEnabled()) {
+                builder.detectionCache(cache.getDetectionMaxEntries(), Math.max(0, cache.getDetectionMaxLength()));
+            }
+            if (cache != null && cache.isDocumentEnabled()) {
+                builder.documentCache(cache.getDocumentMaxCharacters());
+            }
+            builder.detectionLogLevel(Level.valueOf(properties.getLogLevel().name()));
+            XssShieldProperties.DetectionConfig detection = properties.getDetection();
+            if (detection != null && detection.getMode() == XssShieldProperties.DetectionMode.SAMPLED) {
+                builder.sampledDetection(detection.getSampleRate(),
+                        detection.getSampleBy() == XssShieldProperties.SampleUnit.REQUEST,
+                        detection.getFlaggedClientTtl(), detection.getFlaggedClientMaxEntries());
+            }
+            XssShieldProperties.AttackTrackingConfig attackTracking = properties.getAttackTracking();
+            if (attackTracking != null && attackTracking.isEnabled()) {
+                builder.attackTracker(AttackTracker.builder()
+                        .threshold(attackTracking.getThreshold())
+                        .halfLife(attackTracking.getHalfLife())
+                        .width(attackTracking.getWidth())
+                        .depth(attackTracking.getDepth())
+                        .stripes(attackTracking.getStripes())
+                        .build());
+            }
+        }
+        this.shield = builder.build();
+        int parallelThreshold = properties != null && properties.getObject() != null
+                ? properties.getObject().getParallelThreshold() : 0;
+        this.objectSanitizer = new ObjectSanitizer(value -> sanitizeValue(value, false), parallelThreshold);
+        this.strictObjectSanitizer = new ObjectSanitizer(value -> sanitizeValue(value, true), parallelThreshold);
+    }
+
+    /**
+     * Returns the Spring-free engine this instance delegates to, e.g. to hand it to non-web code.
+     * <p>
+     * 이 인스턴스가 위임하는 Spring 비의존 엔진을 반환합니다(예: 웹 외부 코드에 전달할 때).
+     */
+    public XssShield getShield() {
+        return shield;
+    }
+
+    /**
+     * Closes the engine when the bean is destroyed, stopping the write-behind thread of the second-level cache.
+     * <p>
+     * 빈이 제거될 때 엔진을 닫아 2차 캐시의 write-behind 스레드를 종료합니다.
+     */
+    @Override
+    public void destroy() {
+        shield.close();
+    }
+
+    /**
+     * Attaches the adaptive overload controller. While it reports overload, the strict and form-input
+     * policies fall back to HTML escaping (cache hits are still served); the HTML policy is unaffected.
+     * <p>
+     * 적응형 과부하 컨트롤러를 연결합니다. 과부하 상태에서는 엄격/폼 입력 정책이 HTML 이스케이프로 대체되며
+     * (캐시 적중은 그대로 사용), HTML 정책은 영향을 받지 않습니다.
+     *
+     * @param overloadController The controller, or {@code null} to detach. / 컨트롤러 (해제 시 null)
+     */
+    public void setOverloadController(OverloadController overloadController) {
+        shield.setOverloadController(overloadController);
+    }
+
+    /**
+     * Returns the attached overload controller, or {@code null}.
+     * <p>
+     * 연결된 과부하 컨트롤러를 반환합니다. 없으면 {@code null}입니다.
+     */
+    public OverloadController getOverloadController() {
+        return shield.getOverloadController();
+    }
+
+    /**
+     * Returns the per-client attack tracker, or {@code null} unless {@code xss.shield.attack-tracking.enabled}.
+     * <p>
+     * 클라이언트별 공격 추적기를 반환합니다. {@code xss.shield.attack-tracking.enabled}가 아니면 {@code null}입니다.
+     */
+    public AttackTracker getAttackTracker() {
+        return shield.getAttackTracker();
+    }
+
+    /**
+     * Returns the {@code containsXssPattern} result cache, or {@code null} unless {@code xss.shield.cache.detection-enabled}.
+     * <p>
+     * {@code containsXssPattern} 결과 캐시를 반환합니다. {@code xss.shield.cache.detection-enabled}가 아니면 {@code null}입니다.
+     */
+    public DetectionVerdictCache getDetectionCache() {
+        return shield.getDetectionCache();
+    }
+
+    /**
+     * Returns the block-incremental document sanitizer, or {@code null} unless {@code xss.shield.cache.document-enabled}.
+     * <p>
+     * 블록 단위 증분 문서 살균기를 반환합니다. {@code xss.shield.cache.document-enabled}가 아니면 {@code null}입니다.
+     */
+    public IncrementalSanitizer getDocumentSanitizer() {
+        return shield.getDocumentSanitizer();
+    }
+
+    /**
+     * Places a shared second-level cache behind the local sanitize caches.
+     * Requires {@code xss.shield.cache.sanitize-enabled}; ignored otherwise.
+     * <p>
+     * 로컬 sanitize 캐시 뒤에 공유 2차 캐시를 연결합니다. {@code xss.shield.cache.sanitize-enabled}가 필요하며,
+     * 비활성화 상태에서는 무시됩니다.
+     *
+     * @param l2Cache The second-level cache, or {@code null} to detach. / 2차 캐시 (해제 시 null)
+     */
+    public void setSecondLevelCache(SanitizeL2Cache l2Cache) {
+        XssShieldProperties.SecondLevelCacheConfig config = properties != null ? properties.getCache().getL2() : new XssShieldProperties.SecondLevelCacheConfig();
+        if (!shield.setSecondLevelCache(l2Cache, config.getLookupTimeout(), config.getWriteQueueCapacity()) && l2Cache != null) {
+            log.warn("A second-level sanitize cache was configured but xss.shield.cache.sanitize-enabled is false; it will not be used.");
         }
-        this.logLevel = properties != null ? properties.getLogLevel() : XssShieldProperties.LogLevel.WARN;
+    }
+
+    /**
+     * Maps a cache snapshot written by {@link #writeSnapshot} and serves local cache misses from it.
+     * Sections whose policy fingerprint no longer matches are discarded.
+     * <p>
+     * {@link #writeSnapshot}으로 기록된 캐시 스냅샷을 매핑하여 로컬 캐시 미스 시 사용합니다.
+     * 정책 지문이 일치하지 않는 섹션은 폐기됩니다.
+     *
+     * @param file The snapshot file. / 스냅샷 파일
+     * @return true if at least one policy section was attached. / 하나 이상의 섹션이 연결되면 true
+     */
+    public boolean loadSnapshot(Path file) {
+        return shield.loadSnapshot(file);
+    }
+
+    /**
+     * Writes the hottest entries of every sanitize cache to a snapshot file. No-op when caching is disabled.
+     * <p>
+     * 각 sanitize 캐시에서 가장 자주 쓰이는 엔트리를 스냅샷 파일로 기록합니다. 캐시 비활성화 시 아무 동작도 하지 않습니다.
+     *
+     * @param file             The snapshot file. / 스냅샷 파일
+     * @param hottestPerPolicy Maximum entries per policy. / 정책별 최대 엔트리 수
+     */
+    public void writeSnapshot(Path file, int hottestPerPolicy) throws IOException {
+        shield.writeSnapshot(file, hottestPerPolicy);
+    }
+
+    /**
+     * Returns inspection handles for the local sanitize caches, one per policy; empty when caching is disabled.
+     * <p>
+     * 정책별 로컬 sanitize 캐시의 조회 핸들을 반환합니다. 캐시 비활성화 시 비어 있습니다.
+     */
+    public List<SanitizeCacheView> getSanitizeCacheViews() {
+        return shield.getSanitizeCacheViews();
     }
 
     /**
@@ -123,13 +270,21 @@ public class XssUtils {
      * @return The sanitized string. / 살균된 문자열
      */
     public String sanitize(String input) {
-        if (input == null) {
-            return null;
-        }
-        if (sanitizeCacheEnabled) {
-            return sanitizeCache.get(input, k -> htmlSanitizer.sanitize(k));
-        }
-        return htmlSanitizer.sanitize(input);
+        return shield.sanitize(input);
+    }
+
+    /**
+     * Sanitizes a rich-text document with the default HTML policy, re-sanitizing only changed top-level blocks
+     * when {@code xss.shield.cache.document-enabled}; the result always equals {@link #sanitize(String)}.
+     * <p>
+     * 기본 HTML 정책으로 리치 텍스트 문서를 살균합니다. {@code xss.shield.cache.document-enabled}이면 바뀐 최상위 블록만
+     * 다시 살균하며, 결과는 항상 {@link #sanitize(String)}와 같습니다.
+     *
+     * @param document The document to sanitize. / 살균할 문서
+     * @return The sanitized document. / 살균된 문서
+     */
+    public String sanitizeDocument(String document) {
+        return shield.sanitizeDocument(document);
     }
 
     /**
@@ -139,13 +294,7 @@ public class XssUtils {
      * @return The sanitized string. / 살균된 문자열
      */
     public String strictSanitize(String input) {
-        if (input == null) {
-            return null;
-        }
-        if (sanitizeCacheEnabled) {
-            return strictSanitizeCache.get(input, k -> strictHtmlSanitizer.sanitize(k));
-        }
-        return strictHtmlSanitizer.sanitize(input);
+        return shield.strictSanitize(input);
     }
 
     /**
@@ -155,13 +304,201 @@ public class XssUtils {
      * @return The sanitized string. / 살균된 문자열
      */
     public String sanitizeFormInput(String input) {
-        if (input == null) {
-            return null;
-        }
-        if (sanitizeCacheEnabled) {
-            return formInputSanitizeCache.get(input, k -> formInputSanitizer.sanitize(k));
+        return shield.sanitizeFormInput(input);
+    }
+
+    /**
+     * Sanitizes every {@code String} reachable from {@code value} with the default HTML policy, for objects that do
+     * not pass through the JSON deserializer. Fields and properties annotated with {@link XssIgnore} are skipped;
+     * see {@link ObjectSanitizer} for how records and unmodifiable collections are handled.
+     * <p>
+     * JSON 역직렬화를 거치지 않는 객체에서 도달 가능한 모든 {@code String}을 기본 HTML 정책으로 살균합니다.
+     * {@link XssIgnore}가 지정된 필드와 속성은 건너뛰며, 레코드와 수정 불가 컬렉션의 처리는 {@link ObjectSanitizer}를 참고하세요.
+     *
+     * @param value The object to sanitize. / 살균할 객체
+     * @return {@code value}, or a rebuilt instance when it is a string, record or unmodifiable container.
+     * / {@code value} 또는 문자열/레코드/수정 불가 컨테이너인 경우 새 인스턴스
+     */
+    public <T> T sanitizeObject(T value) {
+        return objectSanitizer.sanitize(value);
+    }
+
+    /**
+     * Sanitizes every {@code String} reachable from {@code value} with the strict policy; see {@link #sanitizeObject(Object)}.
+     * <p>
+     * 도달 가능한 모든 {@code String}을 엄격한 정책으로 살균합니다.
+     */
+    public <T> T strictSanitizeObject(T value) {
+        return strictObjectSanitizer.sanitize(value);
+    }
+
+    private String sanitizeValue(String value, boolean strict) {
+        try {
+            return strict ? shield.strictSanitize(value) : shield.sanitize(value);
+        } catch (Exception ex) {
+            if (properties == null) {
+                throw ex;
+            }
+            return handleSanitizationError(ex, properties, value);
         }
-        return formInputSanitizer.sanitize(input);
+    }
+
+    /**
+     * Sanitizes a batch of strings with the default HTML policy using one bulk cache lookup.
+     * <p>
+     * 기본 HTML 정책으로 문자열 묶음을 한 번의 캐시 조회로 살균합니다.
+     */
+    public List<String> sanitizeAll(List<String> inputs) {
+        return shield.sanitizeAll(inputs);
+    }
+
+    /**
+     * Sanitizes a batch of strings with the strict policy; see {@link #sanitizeAll(List)}.
+     * <p>
+     * 엄격한 정책으로 문자열 묶음을 한 번의 캐시 조회로 살균합니다.
+     */
+    public List<String> strictSanitizeAll(List<String> inputs) {
+        return shield.strictSanitizeAll(inputs);
+    }
+
+    /**
+     * Sanitizes a batch of strings with the form input policy; see {@link #sanitizeAll(List)}.
+     * <p>
+     * 폼 입력 정책으로 문자열 묶음을 한 번의 캐시 조회로 살균합니다.
+     */
+    public List<String> sanitizeFormInputAll(List<String> inputs) {
+        return shield.sanitizeFormInputAll(inputs);
+    }
+
+    /**
+     * Streams a document through the default HTML policy, writing the sanitized output as it goes.
+     * Suited to large documents such as file uploads; the sanitize cache is not used.
+     * <p>
+     * 기본 HTML 정책으로 문서를 스트리밍 살균하여 결과를 바로 출력에 기록합니다.
+     * 파일 업로드처럼 큰 문서에 적합하며 sanitize 캐시는 사용하지 않습니다.
+     *
+     * @param input  The document to sanitize; not closed. / 살균할 문서 (닫지 않음)
+     * @param output Receives the sanitized document. / 살균된 문서를 받을 대상
+     * @throws IOException If reading or writing fails. / 읽기 또는 쓰기 실패 시
+     */
+    public void sanitize(Reader input, Appendable output) throws IOException {
+        shield.sanitize(input, output);
+    }
+
+    /**
+     * Streams a document through the strict policy, writing the sanitized output as it goes.
+     * <p>
+     * 엄격한 정책으로 문서를 스트리밍 살균합니다.
+     *
+     * @param input  The document to sanitize; not closed. / 살균할 문서 (닫지 않음)
+     * @param output Receives the sanitized document. / 살균된 문서를 받을 대상
+     * @throws IOException If reading or writing fails. / 읽기 또는 쓰기 실패 시
+     */
+    public void strictSanitize(Reader input, Appendable output) throws IOException {
+        shield.strictSanitize(input, output);
+    }
+
+    /**
+     * Streams a document through the form input policy, writing the sanitized output as it goes.
+     * <p>
+     * 폼 입력 정책으로 문서를 스트리밍 살균합니다.
+     *
+     * @param input  The document to sanitize; not closed. / 살균할 문서 (닫지 않음)
+     * @param output Receives the sanitized document. / 살균된 문서를 받을 대상
+     * @throws IOException If reading or writing fails. / 읽기 또는 쓰기 실패 시
+     */
+    public void sanitizeFormInput(Reader input, Appendable output) throws IOException {
+        shield.sanitizeFormInput(input, output);
+    }
+
+    /**
+     * Sanitizes a character view with the default HTML policy without converting inert or large views to a string.
+     * <p>
+     * 무해하거나 큰 문자 뷰를 문자열로 변환하지 않고 기본 HTML 정책으로 살균합니다.
+     *
+     * @see XssShield#sanitize(CharSequence, Appendable)
+     */
+    public void sanitize(CharSequence input, Appendable output) throws IOException {
+        shield.sanitize(input, output);
+    }
+
+    /**
+     * Sanitizes a character view with the strict policy; see {@link #sanitize(CharSequence, Appendable)}.
+     * <p>
+     * 엄격한 정책으로 문자 뷰를 살균합니다.
+     */
+    public void strictSanitize(CharSequence input, Appendable output) throws IOException {
+        shield.strictSanitize(input, output);
+    }
+
+    /**
+     * Sanitizes a character view with the form input policy; see {@link #sanitize(CharSequence, Appendable)}.
+     * <p>
+     * 폼 입력 정책으로 문자 뷰를 살균합니다.
+     */
+    public void sanitizeFormInput(CharSequence input, Appendable output) throws IOException {
+        shield.sanitizeFormInput(input, output);
+    }
+
+    /**
+     * Sanitizes UTF-8 bytes with the default HTML policy, returning the same array when the content is clean.
+     * <p>
+     * UTF-8 바이트를 기본 HTML 정책으로 살균하며, 내용이 깨끗하면 같은 배열을 반환합니다.
+     *
+     * @see XssShield#sanitizeUtf8(byte[])
+     */
+    public byte[] sanitizeUtf8(byte[] input) {
+        return shield.sanitizeUtf8(input);
+    }
+
+    /**
+     * Sanitizes UTF-8 bytes with the strict policy; see {@link #sanitizeUtf8(byte[])}.
+     * <p>
+     * UTF-8 바이트를 엄격한 정책으로 살균합니다.
+     */
+    public byte[] strictSanitizeUtf8(byte[] input) {
+        return shield.strictSanitizeUtf8(input);
+    }
+
+    /**
+     * Sanitizes UTF-8 bytes with the form input policy; see {@link #sanitizeUtf8(byte[])}.
+     * <p>
+     * UTF-8 바이트를 폼 입력 정책으로 살균합니다.
+     */
+    public byte[] sanitizeFormInputUtf8(byte[] input) {
+        return shield.sanitizeFormInputUtf8(input);
+    }
+
+    /**
+     * Sanitizes the remaining UTF-8 bytes of a buffer into {@code output}; returns {@code false} and touches
+     * neither buffer when the content is clean.
+     * <p>
+     * 버퍼의 남은 UTF-8 바이트를 {@code output}으로 살균합니다. 내용이 깨끗하면 두 버퍼를 건드리지 않고 {@code false}를 반환합니다.
+     *
+     * @see XssShield#sanitizeUtf8(ByteBuffer, ByteBuffer)
+     */
+    public boolean sanitizeUtf8(ByteBuffer input, ByteBuffer output) {
+        return shield.sanitizeUtf8(input, output);
+    }
+
+    /**
+     * Sanitizes the remaining UTF-8 bytes of a buffer with the strict policy;
+     * see {@link #sanitizeUtf8(ByteBuffer, ByteBuffer)}.
+     * <p>
+     * 버퍼의 남은 UTF-8 바이트를 엄격한 정책으로 살균합니다.
+     */
+    public boolean strictSanitizeUtf8(ByteBuffer input, ByteBuffer output) {
+        return shield.strictSanitizeUtf8(input, output);
+    }
+
+    /**
+     * Sanitizes the remaining UTF-8 bytes of a buffer with the form input policy;
+     * see {@link #sanitizeUtf8(ByteBuffer, ByteBuffer)}.
+     * <p>
+     * 버퍼의 남은 UTF-8 바이트를 폼 입력 정책으로 살균합니다.
+     */
+    public boolean sanitizeFormInputUtf8(ByteBuffer input, ByteBuffer output) {
+        return shield.sanitizeFormInputUtf8(input, output);
     }
 
     /**
@@ -187,108 +524,84 @@ public class XssUtils {
     }
 
     /**
-     * Escapes HTML characters in a string.
+     * Escapes HTML characters in a string, exactly like {@link HtmlUtils#htmlEscape(String)}.
+     * Returns the same instance when no character needs escaping.
+     * <p>
+     * 문자열의 HTML 문자를 {@link HtmlUtils#htmlEscape(String)}와 동일하게 이스케이프합니다.
+     * 이스케이프할 문자가 없으면 같은 인스턴스를 반환합니다.
      *
      * @param input The string to escape. / 이스케이프할 문자열
      * @return The escaped string. / 이스케이프된 문자열
      */
     public String escape(String input) {
-        if (input == null) {
-            return null;
-        }
-        return HtmlUtils.htmlEscape(input);
+        return shield.escape(input);
+    }
+
+    /**
+     * Escapes HTML characters directly into a builder.
+     * <p>
+     * HTML 문자를 빌더에 직접 이스케이프하여 기록합니다.
+     *
+     * @param input The text to escape; {@code null} appends nothing. / 이스케이프할 텍스트 (null이면 기록하지 않음)
+     * @param out   The target buffer. / 대상 버퍼
+     * @return {@code out}
+     */
+    public StringBuilder escape(CharSequence input, StringBuilder out) {
+        return shield.escape(input, out);
+    }
+
+    /**
+     * Escapes HTML characters directly into an {@link Appendable} (e.g. a template engine's writer).
+     * <p>
+     * HTML 문자를 {@link Appendable}(예: 템플릿 엔진의 Writer)에 직접 이스케이프하여 기록합니다.
+     *
+     * @param input The text to escape; {@code null} appends nothing. / 이스케이프할 텍스트 (null이면 기록하지 않음)
+     * @param out   The target. / 대상
+     * @throws IOException If writing fails. / 쓰기 실패 시
+     */
+    public void escape(CharSequence input, Appendable out) throws IOException {
+        shield.escape(input, out);
     }
 
     /**
      * Detects if a string contains common XSS patterns.
+     * With {@code xss.shield.detection.mode=SAMPLED} only a sample of plain values is inspected;
+     * values containing markup are always inspected.
+     * <p>
+     * 문자열에 일반적인 XSS 패턴이 포함되어 있는지 탐지합니다.
+     * {@code xss.shield.detection.mode=SAMPLED}이면 일반 값은 표본만 검사하고 마크업을 포함한 값은 항상 검사합니다.
      *
      * @param input The string to check. / 확인할 문자열
      * @return true if an XSS pattern is found, false otherwise. / XSS 패턴이 발견되면 true, 그렇지 않으면 false
      */
     public boolean containsXssPattern(String input) {
-        if (input == null) {
-            return false;
-        }
-        return checkXssPatterns(input);
+        return shield.containsXssPattern(input);
     }
 
-    private boolean checkXssPatterns(String value) {
-        // 1. Plain text check
-        if (findXssPattern(value)) {
-            return true;
-        }
-
-        // 2. HTML entity decoding
-        String decodedHtml = HtmlUtils.htmlUnescape(value);
-        if (!decodedHtml.equals(value) && findXssPattern(decodedHtml)) {
-            log.warn("XSS pattern found after HTML entity decoding.");
-            return true;
-        }
-        
-        // 3. URL decoding
-        try {
-            String decodedUrl = URLDecoder.decode(value, StandardCharsets.UTF_8);
-            if (!decodedUrl.equals(value) && findXssPattern(decodedUrl)) {
-                log.warn("XSS pattern found after URL decoding.");
-                return true;
-            }
-        } catch (IllegalArgumentException e) {
-            // Ignore malformed URL encoding
-        }
-
-        // 4. Base64 decoding
-        try {
-            if (value.matches("^(?:[A-Za-z0-9+/]{4})*(?:[A-Za-z0-9+/]{2}==|[A-Za-z0-9+/]{3}=)?$")) {
-                byte[] decodedBytes = Base64.getDecoder().decode(value);
-                String decodedBase64 = new String(decodedBytes, StandardCharsets.UTF_8);
-                if (findXssPattern(decodedBase64)) {
-                    log.warn("XSS pattern found after Base64 decoding.");
-                    return true;
-                }
-            }
-        } catch (IllegalArgumentException e) {
-            // Not a valid Base64 string, ignore.
-        }
-
-        return false;
+    /**
+     * Detects XSS patterns without sampling; see {@link XssShield#scanXssPattern(String)}.
+     * <p>
+     * 샘플링 없이 XSS 패턴을 탐지합니다.
+     */
+    public boolean scanXssPattern(String input) {
+        return shield.scanXssPattern(input);
     }
 
-    private boolean findXssPattern(String input) {
-        if (input == null) {
-            return false;
-        }
-
-        for (Pattern pattern : XSS_PATTERNS) {
-            Matcher matcher = pattern.matcher(input);
-            if (matcher.find()) {
-                RequestInfo info = getRequestInfo();
-                String message = "XSS detected - URI: {}, IP: {}, User-Agent: {}, Pattern: {}, Matched: '{}'";
-                Object[] args;
-                if (info != null) {
-                    args = new Object[]{info.getUri(), info.getClientIp(), info.getUserAgent(), pattern.pattern(), matcher.group()};
-                } else {
-                    message = "XSS detected - Pattern: {}, Matched: '{}'";
-                    args = new Object[]{pattern.pattern(), matcher.group()};
-                }
-
-                switch (logLevel) {
-                    case INFO:
-                        log.info(message, args);
-                        break;
-                    case WARN:
-                        log.warn(message, args);
-                        break;
-                    case ERROR:
-                        log.error(message, args);
-                        break;
-                }
-                return true;
-            }
-        }
-        return false;
+    /**
+     * Returns whether the filter already scanned {@code value} in the JSON body of the current request in
+     * {@code BLOCK} mode and found it clean, in which case it is passed on without sanitization. Values that did not
+     * come from the scanned body (other deserializations on the request thread) are never matched.
+     * <p>
+     * {@code BLOCK} 모드의 필터가 현재 요청의 JSON 본문에서 {@code value}를 이미 검사해 깨끗하다고 판정했는지 반환합니다. 이 경우 값은
+     * 살균 없이 전달됩니다. 검사한 본문에 없던 값(같은 스레드의 다른 역직렬화)은 해당하지 않습니다.
+     */
+    public boolean isScannedValue(String value) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes != null
+                && attributes.getAttribute(SCANNED_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof Set<?> values
+                && values.contains(value);
     }
 
-
     /**
      * Checks if a string is safe from XSS attacks.
      * A string is considered safe if it does not contain any XSS patterns
@@ -296,30 +609,94 @@ public class XssUtils {
      *
      * @param input The string to check. / 확인할 문자열
      * @return true if the string is safe, false otherwise. / 문자열이 안전하면 true, 그렇지 않으면 false
+     * @see #checkSafety(String)
      */
     public boolean isSafeString(String input) {
-        if (input == null) {
-            return true;
-        }
-        if (containsXssPattern(input)) {
-            return false;
-        }
-        String sanitized = sanitize(input);
-        return input.equals(sanitized);
+        return shield.isSafeString(input);
+    }
+
+    /**
+     * Returns a structured safety verdict for the input under the default HTML policy.
+     * The policy is applied once and aborted at the first character it would change, so no sanitized
+     * output is built; the XSS pattern detection (always in full, regardless of sampling) runs for every
+     * computed verdict so that attacks are logged, with a policy rewrite reported as the reason when both apply.
+     * Verdicts are cached alongside the sanitize cache, so a repeated unsafe input is reported (logged) only the first time.
+     * <p>
+     * 기본 HTML 정책 기준의 구조화된 안전성 판정을 반환합니다. 정책을 한 번 적용하되 입력이 변경되는 첫 문자에서 중단하므로
+     * 살균 결과를 만들지 않으며, 공격이 로그로 남도록 계산하는 모든 판정에 XSS 패턴 탐지(샘플링과 무관하게 전체)를 수행합니다.
+     * 둘 다 해당하면 정책 변경을 사유로 보고합니다. 판정은 sanitize 캐시와 함께 캐시되므로 반복되는 위험 입력은 처음 한 번만 로그로 보고됩니다.
+     *
+     * @param input The string to check. / 확인할 문자열
+     * @return {@code SAFE}, or {@code UNSAFE} with reason and offset. / {@code SAFE} 또는 사유와 위치를 포함한 {@code UNSAFE}
+     */
+    public SafetyVerdict checkSafety(String input) {
+        return shield.checkSafety(input);
     }
 
     /**
      * Returns a safe string for output by first sanitizing and then escaping it.
+     * Both steps run in a single pass: the sanitizer renders straight into the escaper
+     * (a cached sanitize result is escaped instead when available).
+     * <p>
+     * 살균 후 이스케이프한 안전한 출력 문자열을 반환합니다. 살균기가 이스케이퍼로 직접 렌더링하므로 한 번의 패스로 처리됩니다
+     * (캐시된 살균 결과가 있으면 그것을 이스케이프합니다).
      *
      * @param input The string to process. / 처리할 문자열
      * @return A sanitized and escaped string. / 살균 및 이스케이프된 문자열
      */
     public String toSafeOutput(String input) {
-        if (input == null) {
-            return "";
-        }
-        String cleaned = sanitize(input);
-        return escape(cleaned);
+        return shield.toSafeOutput(input);
+    }
+
+    /**
+     * Sanitizes and escapes into a builder in a single pass.
+     * <p>
+     * 살균과 이스케이프를 한 번의 패스로 빌더에 기록합니다.
+     *
+     * @param input The string to process; {@code null} appends nothing. / 처리할 문자열 (null이면 기록하지 않음)
+     * @param out   The target buffer. / 대상 버퍼
+     * @return {@code out}
+     */
+    public StringBuilder toSafeOutput(String input, StringBuilder out) {
+        return shield.toSafeOutput(input, out);
+    }
+
+    /**
+     * Sanitizes and escapes into an {@link Appendable} in a single pass, without intermediate strings.
+     * <p>
+     * 중간 문자열 없이 살균과 이스케이프를 한 번의 패스로 {@link Appendable}에 기록합니다.
+     *
+     * @param input The string to process; {@code null} appends nothing. / 처리할 문자열 (null이면 기록하지 않음)
+     * @param out   The target. / 대상
+     * @throws IOException If writing fails. / 쓰기 실패 시
+     */
+    public void toSafeOutput(String input, Appendable out) throws IOException {
+        shield.toSafeOutput(input, out);
+    }
+
+    /**
+     * Runs a single warm-up pass for the given input: every policy is applied directly
+     * (bypassing the sanitize caches) and the detector runs without logging.
+     * Intended to let the JIT compile the hot paths before real traffic arrives.
+     * <p>
+     * 워밍업 1회를 수행합니다. 캐시를 거치지 않고 모든 정책을 직접 적용하며,
+     * 탐지 로직은 로그 없이 실행됩니다. 실제 트래픽 이전에 JIT 컴파일을 유도하기 위한 용도입니다.
+     *
+     * @param input The warm-up sample. / 워밍업 샘플
+     */
+    public void warmUp(String input) {
+        shield.warmUp(input);
+    }
+
+    /**
+     * Removes the given inputs from every sanitize cache. No-op when caching is disabled.
+     * <p>
+     * 주어진 입력값들을 모든 sanitize 캐시에서 제거합니다. 캐시 비활성화 시 아무 동작도 하지 않습니다.
+     *
+     * @param inputs The cache keys to invalidate. / 무효화할 캐시 키
+     */
+    public void invalidate(Iterable<String> inputs) {
+        shield.invalidate(inputs);
     }
 
     /**
@@ -372,6 +749,10 @@ public class XssUtils {
     }
 
     private RequestInfo getRequestInfo() {
+        return currentRequestInfo();
+    }
+
+    private static RequestInfo currentRequestInfo() {
         if (requestInfoHolder.get() == null) {
             ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
             if (attributes != null) {
@@ -384,46 +765,71 @@ public class XssUtils {
         return requestInfoHolder.get();
     }
 
+    /**
+     * Binds the request to the current thread before Spring's request context exists, e.g. inside a servlet filter.
+     * <p>
+     * Spring 요청 컨텍스트가 생기기 전(예: 서블릿 필터 안)에 요청을 현재 스레드에 연결합니다.
+     */
+    public static void bindRequestInfo(HttpServletRequest request) {
+        requestInfoHolder.set(new RequestInfo(request));
+    }
+
     public static void clearRequestInfo() {
         requestInfoHolder.remove();
     }
 
-    public static class RequestInfo {
-        private final String uri;
-        private final String clientIp;
-        private final String userAgent;
+    /**
+     * {@link ClientInfo} of the current servlet request; the client IP is the one resolved by the filter, or the
+     * remote address. {@code X-Forwarded-For} is never trusted on its own since any client can set it.
+     * <p>
+     * 현재 서블릿 요청의 {@link ClientInfo}입니다. 클라이언트 IP는 필터가 결정한 값, 없으면 원격 주소입니다.
+     * {@code X-Forwarded-For}는 누구나 설정할 수 있으므로 단독으로 신뢰하지 않습니다.
+     */
+    public static class RequestInfo extends ClientInfo {
 
         public RequestInfo(HttpServletRequest request) {
-            if (request == null) {
-                this.uri = null;
-                this.clientIp = null;
-                this.userAgent = null;
-                return;
-            }
-            this.uri = request.getRequestURI();
-            this.userAgent = request.getHeader("User-Agent");
-
-            String ip = request.getHeader("X-Forwarded-For");
-            if (ip != null && !ip.isBlank()) {
-                int idx = ip.indexOf(',');
-                this.clientIp = idx > 0 ? ip.substring(0, idx).trim() : ip.trim();
-            } else {
-                this.clientIp = request.getRemoteAddr();
-            }
+            super(request != null ? request.getRequestURI() : null,
+                    request != null ? clientIp(request) : null,
+                    request != null ? request.getHeader("User-Agent") : null);
         }
 
-        public String getUri() {
-            return uri;
+        /**
+         * Returns the client IP the filter resolved for the request ({@link #CLIENT_IP_ATTRIBUTE}), or its remote address.
+         * <p>
+         * 필터가 결정한 요청의 클라이언트 IP({@link #CLIENT_IP_ATTRIBUTE}), 없으면 원격 주소를 반환합니다.
+         */
+        public static String clientIp(HttpServletRequest request) {
+            return request.getAttribute(CLIENT_IP_ATTRIBUTE) instanceof String ip ? ip : request.getRemoteAddr();
         }
 
-        public String getClientIp() {
-            return clientIp;
-        }
-
-        public String getUserAgent() {
-            return userAgent;
+        /**
+         * Resolves the client IP: the remote address, unless it is a trusted proxy, in which case
+         * {@code X-Forwarded-For} is walked from the right and the first untrusted entry is returned.
+         * <p>
+         * 클라이언트 IP를 결정합니다. 원격 주소가 신뢰하는 프록시일 때만 {@code X-Forwarded-For}를 오른쪽부터 읽어
+         * 신뢰하지 않는 첫 항목을 반환하고, 그렇지 않으면 원격 주소를 반환합니다.
+         */
+        public static String clientIp(HttpServletRequest request, Set<String> trustedProxies) {
+            String ip = request.getRemoteAddr();
+            if (trustedProxies.isEmpty() || !trustedProxies.contains(ip)) {
+                return ip;
+            }
+            Enumeration<String> headers = request.getHeaders("X-Forwarded-For");
+            List<String> hops = new ArrayList<>();
+            while (headers != null && headers.hasMoreElements()) {
+                for (String hop : headers.nextElement().split(",")) {
+                    if (!hop.isBlank()) {
+                        hops.add(hop.trim());
+                    }
+                }
+            }
+            for (int i = hops.size() - 1; i >= 0; i--) {
+                ip = hops.get(i);
+                if (!trustedProxies.contains(ip)) {
+                    return ip;
+                }
+            }
+            return ip;
         }
     }
 }
-
-
@@ -1,21 +1,42 @@
 package com.uniguri.config;
 
+import com.uniguri.FileSanitizeL2Cache;
+import com.uniguri.InMemorySanitizeL2Cache;
+import com.uniguri.AttackTracker;
+import com.uniguri.OverloadController;
+import com.uniguri.OverloadSignal;
+import com.uniguri.SanitizeCost;
+import com.uniguri.SanitizeL2Cache;
 import com.uniguri.XssStringJsonDeserializer;
 import com.uniguri.XssUtils;
+import com.uniguri.jfr.FilterDecisionEvent;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.Filter;
 import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
 import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletOutputStream;
 import jakarta.servlet.ServletRequest;
 import jakarta.servlet.ServletResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
 import org.owasp.html.HtmlPolicyBuilder;
 import org.owasp.html.PolicyFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
@@ -23,15 +44,28 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
 import org.springframework.core.Ordered;
 import org.springframework.util.AntPathMatcher;
 
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.SequenceInputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 
 /**
@@ -43,6 +77,7 @@ import java.util.LinkedHashMap;
  */
 @Configuration
 @EnableConfigurationProperties(XssShieldProperties.class)
+@ImportRuntimeHints(XssShieldRuntimeHints.class)
 @ConditionalOnProperty(prefix = "xss.shield", name = "enabled", havingValue = "true", matchIfMissing = true)
 public class XssShieldAutoConfiguration {
 
@@ -55,6 +90,8 @@ public class XssShieldAutoConfiguration {
      * @param htmlSanitizer       일반 HTML 콘텐츠용 Sanitizer
      * @param strictHtmlSanitizer 엄격한 Sanitizer (API 등)
      * @param formInputSanitizer  폼 입력용 Sanitizer
+     * @param l2Cache             2차 sanitize 캐시 (선택)
+     * @param overloadController  과부하 컨트롤러 (선택)
      * @return XssUtils 인스턴스
      */
     @Bean("com.uniguri.xssShield.xssUtils")
@@ -63,9 +100,120 @@ public class XssShieldAutoConfiguration {
             @Qualifier("com.uniguri.xssShield.htmlSanitizer") PolicyFactory htmlSanitizer,
             @Qualifier("com.uniguri.xssShield.strictHtmlSanitizer") PolicyFactory strictHtmlSanitizer,
             @Qualifier("com.uniguri.xssShield.formInputSanitizer") PolicyFactory formInputSanitizer,
-            XssShieldProperties properties) {
+            XssShieldProperties properties,
+            ObjectProvider<SanitizeL2Cache> l2Cache,
+            ObjectProvider<OverloadController> overloadController) {
         log.info("Initializing XssUtils bean.");
-        return new XssUtils(htmlSanitizer, strictHtmlSanitizer, formInputSanitizer, properties);
+        XssUtils xssUtils = new XssUtils(htmlSanitizer, strictHtmlSanitizer, formInputSanitizer, properties);
+        l2Cache.ifAvailable(xssUtils::setSecondLevelCache);
+        overloadController.ifAvailable(xssUtils::setOverloadController);
+        XssShieldProperties.SnapshotConfig snapshot = properties.getCache().getSnapshot();
+        if (snapshot.isEnabled() && xssUtils.loadSnapshot(Paths.get(snapshot.getFile()))) {
+            log.info("Sanitize cache snapshot {} mapped.", snapshot.getFile());
+        }
+        return xssUtils;
+    }
+
+    /**
+     * sanitize 캐시 스냅샷을 주기적으로, 그리고 종료 시 기록하는 빈을 등록합니다.
+     *
+     * @param xssUtils   XSS 처리 유틸리티
+     * @param properties XSS 설정 프로퍼티
+     * @return XssShieldCacheSnapshotter 인스턴스
+     */
+    @Bean("com.uniguri.xssShield.cacheSnapshotter")
+    @ConditionalOnProperty(prefix = "xss.shield.cache.snapshot", name = "enabled", havingValue = "true")
+    public XssShieldCacheSnapshotter xssShieldCacheSnapshotter(XssUtils xssUtils, XssShieldProperties properties) {
+        log.info("Registering sanitize cache snapshotter ({}).", properties.getCache().getSnapshot().getFile());
+        return new XssShieldCacheSnapshotter(xssUtils, properties);
+    }
+
+    /**
+     * 노드 간 공유 가능한 2차 sanitize 캐시의 내장 구현을 등록합니다.
+     * 사용자 정의 {@link SanitizeL2Cache} 빈이 있으면 그것을 사용합니다.
+     *
+     * @param properties XSS 설정 프로퍼티
+     * @return SanitizeL2Cache 인스턴스
+     */
+    @Bean("com.uniguri.xssShield.sanitizeL2Cache")
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "xss.shield.cache.l2", name = "enabled", havingValue = "true")
+    public SanitizeL2Cache sanitizeL2Cache(XssShieldProperties properties) {
+        XssShieldProperties.SecondLevelCacheConfig config = properties.getCache().getL2();
+        log.info("Initializing {} second-level sanitize cache.", config.getType());
+        if (config.getType() == XssShieldProperties.L2Type.FILE) {
+            if (config.getDirectory() == null || config.getDirectory().isBlank()) {
+                throw new IllegalStateException("xss.shield.cache.l2.directory must be set when xss.shield.cache.l2.type=FILE");
+            }
+            return new FileSanitizeL2Cache(Paths.get(config.getDirectory()));
+        }
+        return new InMemorySanitizeL2Cache(config.getMaxEntries());
+    }
+
+    /**
+     * 부하 시 엄격/폼 입력 정책을 이스케이프로 전환하거나 요청을 거절하는 적응형 과부하 컨트롤러를 등록합니다.
+     * {@link OverloadSignal} 빈이 있으면 외부 부하 신호로 사용합니다.
+     *
+     * @param properties XSS 설정 프로퍼티
+     * @param signal     외부 부하 신호 (선택)
+     * @return OverloadController 인스턴스
+     */
+    @Bean("com.uniguri.xssShield.overloadController")
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "xss.shield.overload", name = "enabled", havingValue = "true")
+    public OverloadController overloadController(XssShieldProperties properties, ObjectProvider<OverloadSignal> signal) {
+        log.info("Initializing overload controller (action: {}).", properties.getOverload().getAction());
+        return overloadControllerBuilder(properties.getOverload())
+                .signal(signal.getIfAvailable())
+                .build();
+    }
+
+    /**
+     * {@code xss.shield.overload.*} 설정으로 {@link OverloadController} 빌더를 구성합니다.
+     *
+     * @param config 과부하 설정
+     * @return 설정이 반영된 빌더
+     */
+    public static OverloadController.Builder overloadControllerBuilder(XssShieldProperties.OverloadConfig config) {
+        return OverloadController.builder()
+                .action(OverloadController.Action.valueOf(config.getAction().name()))
+                .latencyThreshold(config.getLatencyThreshold())
+                .maxInFlight(config.getMaxInFlight())
+                .recoveryRatio(config.getRecoveryRatio())
+                .minDegradedTime(config.getMinDegradedTime())
+                .evaluationInterval(config.getEvaluationInterval())
+                .probeRate(config.getProbeRate());
+    }
+
+    /**
+     * Micrometer가 있으면 과부하 모드 전환을 메트릭으로 노출합니다.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "io.micrometer.core.instrument.binder.MeterBinder")
+    @ConditionalOnProperty(prefix = "xss.shield.overload", name = "enabled", havingValue = "true")
+    static class OverloadMetricsConfiguration {
+
+        @Bean("com.uniguri.xssShield.overloadMetrics")
+        XssShieldOverloadMetrics xssShieldOverloadMetrics(OverloadController overloadController) {
+            return new XssShieldOverloadMetrics(overloadController);
+        }
+    }
+
+    /**
+     * Spring Boot Actuator가 있으면 캐시 통계 조회와 런타임 튜닝을 위한 {@code xssshield} 엔드포인트를 등록합니다.
+     * 엔드포인트는 {@code management.endpoints.web.exposure.include}에 포함될 때만 노출됩니다.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "org.springframework.boot.actuate.endpoint.annotation.Endpoint")
+    static class EndpointConfiguration {
+
+        @Bean("com.uniguri.xssShield.endpoint")
+        @ConditionalOnMissingBean
+        @ConditionalOnAvailableEndpoint(endpoint = XssShieldEndpoint.class)
+        XssShieldEndpoint xssShieldEndpoint(XssUtils xssUtils,
+                @Qualifier("com.uniguri.xssShield.customXssFilter") ObjectProvider<FilterRegistrationBean<Filter>> filter) {
+            return new XssShieldEndpoint(xssUtils, filter);
+        }
     }
 
     /**
@@ -117,6 +265,23 @@ public class XssShieldAutoConfiguration {
         };
     }
 
+    /**
+     * 트래픽 유입 전에 Sanitizer, 탐지 로직, JSON Deserializer를 미리 실행하는 워밍업 빈을 등록합니다.
+     * JSON 필터링이 활성화된 경우 애플리케이션의 ObjectMapper를 사용합니다.
+     *
+     * @param xssUtils     XSS 처리 유틸리티
+     * @param properties   XSS 설정 프로퍼티
+     * @param objectMapper 애플리케이션 ObjectMapper (선택)
+     * @return XssShieldWarmup 인스턴스
+     */
+    @Bean("com.uniguri.xssShield.warmup")
+    @ConditionalOnProperty(prefix = "xss.shield.warmup", name = "enabled", havingValue = "true")
+    public XssShieldWarmup xssShieldWarmup(XssUtils xssUtils, XssShieldProperties properties, ObjectProvider<ObjectMapper> objectMapper) {
+        log.info("Registering XSS Shield warm-up.");
+        ObjectMapper mapper = properties.getJson().isEnabled() ? objectMapper.getIfAvailable() : null;
+        return new XssShieldWarmup(xssUtils, properties, mapper);
+    }
+
     /**
      * 기본 HTML Sanitizer 정책을 정의합니다.
      * 대부분의 웹 콘텐츠에 적합한 비교적 너그러운 정책입니다.
@@ -205,6 +370,13 @@ public class XssShieldAutoConfiguration {
         private final XssShieldProperties properties;
         private final AntPathMatcher pathMatcher;
         private final Cache<String, Boolean> excludeCache;
+        private final Set<String> trustedProxies;
+        private final LongAdder excluded = new LongAdder();
+        private final LongAdder blocked = new LongAdder();
+        private final LongAdder wrapped = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder detected = new LongAdder();
+        private final LongAdder passed = new LongAdder();
         private static final Set<String> STATIC_EXTENSIONS = Set.of(
                 ".css", ".js", ".map", ".png", ".jpg", ".jpeg", ".gif", ".webp", ".svg", ".ico"
         );
@@ -216,7 +388,9 @@ public class XssShieldAutoConfiguration {
             this.excludeCache = Caffeine.newBuilder()
                 .maximumSize(properties.getCache().getExcludeMaxEntries())
                 .expireAfterWrite(1, TimeUnit.HOURS)
+                .recordStats()
                 .build();
+            this.trustedProxies = Set.copyOf(properties.getAttackTracking().getTrustedProxies());
         }
 
         @Override
@@ -224,14 +398,32 @@ public class XssShieldAutoConfiguration {
                 throws IOException, ServletException {
             try {
                 if (request instanceof HttpServletRequest httpRequest) {
+                        FilterDecisionEvent event = new FilterDecisionEvent();
+                        event.begin();
                         String requestURI = httpRequest.getRequestURI();
                         if (shouldSkipFiltering(requestURI, properties.getFilter().getExcludePatterns())) {
+                            excluded.increment();
+                            commit(event, requestURI, "EXCLUDED");
                             chain.doFilter(request, response);
                             return;
                         }
 
-                        XssRequestWrapper wrappedRequest = new XssRequestWrapper(httpRequest, xssUtils, properties);
-                        chain.doFilter(wrappedRequest, response);
+                        if (!properties.getCost().isEnabled()) {
+                            protect(httpRequest, response, chain, event, requestURI);
+                            return;
+                        }
+                        SanitizeCost cost = SanitizeCost.begin();
+                        CostReportingResponse reporting = properties.getCost().isServerTiming()
+                                ? new CostReportingResponse((HttpServletResponse) response, cost) : null;
+                        try {
+                            protect(httpRequest, reporting != null ? reporting : response, chain, event, requestURI);
+                        } finally {
+                            cost.end();
+                            if (reporting != null) {
+                                reporting.addServerTiming();
+                            }
+                            exposeCost(httpRequest, cost);
+                        }
                 } else {
                     chain.doFilter(request, response);
                 }
@@ -240,6 +432,166 @@ public class XssShieldAutoConfiguration {
             }
         }
 
+        /**
+         * Applies attack tracking, overload rejection and the configured mode to a request that is not excluded.
+         */
+        private void protect(HttpServletRequest httpRequest, ServletResponse response, FilterChain chain,
+                FilterDecisionEvent event, String requestURI) throws IOException, ServletException {
+            String clientIp = XssUtils.RequestInfo.clientIp(httpRequest, trustedProxies);
+            if (!trustedProxies.isEmpty()) {
+                httpRequest.setAttribute(XssUtils.CLIENT_IP_ATTRIBUTE, clientIp);
+            }
+            AttackTracker tracker = xssUtils.getAttackTracker();
+            if (tracker != null && tracker.isOffender(clientIp)) {
+                blocked.increment();
+                commit(event, requestURI, "BLOCKED");
+                ((HttpServletResponse) response).setStatus(properties.getAttackTracking().getRejectStatus());
+                return;
+            }
+
+            OverloadController overload = xssUtils.getOverloadController();
+            if (overload != null && overload.shouldReject()) {
+                rejected.increment();
+                commit(event, requestURI, "REJECTED");
+                reject((HttpServletResponse) response);
+                return;
+            }
+
+            if (properties.getMode() == XssShieldProperties.Mode.BLOCK) {
+                XssUtils.bindRequestInfo(httpRequest);
+                ScannedRequest scan = scan(httpRequest);
+                if (scan == null) {
+                    detected.increment();
+                    commit(event, requestURI, "DETECTED");
+                    ((HttpServletResponse) response).setStatus(properties.getBlock().getStatus());
+                    return;
+                }
+                if (scan.clean()) {
+                    passed.increment();
+                    commit(event, requestURI, "PASSED");
+                    scan.request().setAttribute(XssUtils.SCANNED_ATTRIBUTE, scan.values());
+                    proceed(overload, scan.request(), response, chain);
+                    return;
+                }
+                // The body could not be scanned: sanitize this request as in SANITIZE mode.
+                httpRequest = scan.request();
+            }
+
+            XssRequestWrapper wrappedRequest = new XssRequestWrapper(httpRequest, xssUtils, properties);
+            wrapped.increment();
+            commit(event, requestURI, "WRAPPED");
+            proceed(overload, wrappedRequest, response, chain);
+        }
+
+        private static void exposeCost(HttpServletRequest request, SanitizeCost cost) {
+            request.setAttribute(XssUtils.COST_ATTRIBUTE, cost);
+            request.setAttribute(XssUtils.COST_ATTRIBUTE + ".values", cost.getValues());
+            request.setAttribute(XssUtils.COST_ATTRIBUTE + ".cacheHits", cost.getCacheHits());
+            request.setAttribute(XssUtils.COST_ATTRIBUTE + ".characters", cost.getCharacters());
+            request.setAttribute(XssUtils.COST_ATTRIBUTE + ".detectionMicros", cost.getDetectionNanos() / 1000);
+            request.setAttribute(XssUtils.COST_ATTRIBUTE + ".totalMicros", cost.getTotalNanos() / 1000);
+        }
+
+        private static void proceed(OverloadController overload, HttpServletRequest request, ServletResponse response,
+                FilterChain chain) throws IOException, ServletException {
+            if (overload == null) {
+                chain.doFilter(request, response);
+                return;
+            }
+            overload.requestStarted();
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                overload.requestFinished();
+            }
+        }
+
+        /**
+         * Scans parameter values and a JSON body once. Returns {@code null} when a pattern is found; otherwise the
+         * request to pass on (replaying a consumed body) and whether everything could be scanned.
+         */
+        private ScannedRequest scan(HttpServletRequest request) throws IOException {
+            for (String[] values : request.getParameterMap().values()) {
+                for (String value : values) {
+                    if (xssUtils.scanXssPattern(value)) {
+                        return null;
+                    }
+                }
+            }
+            // Only a body parsed here as JSON counts as scanned; anything else (form or multipart bodies,
+            // disabled body scanning) is sanitized as in SANITIZE mode.
+            XssShieldProperties.BlockConfig block = properties.getBlock();
+            if (!block.isScanJsonBody() || !isJson(request.getContentType())) {
+                return new ScannedRequest(request, false, null);
+            }
+            if (request.getContentLengthLong() > block.getMaxBodySize()) {
+                return new ScannedRequest(request, false, null);
+            }
+            InputStream in = request.getInputStream();
+            byte[] body = in.readNBytes(block.getMaxBodySize() + 1);
+            if (body.length > block.getMaxBodySize()) {
+                return new ScannedRequest(new ReplayingRequest(request, body, in), false, null);
+            }
+            ReplayingRequest replaying = new ReplayingRequest(request, body, null);
+            Set<String> values = new HashSet<>();
+            try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+                for (JsonToken token = parser.nextToken(); token != null; token = parser.nextToken()) {
+                    if (token == JsonToken.VALUE_STRING) {
+                        String value = parser.getText();
+                        if (xssUtils.scanXssPattern(value)) {
+                            return null;
+                        }
+                        values.add(value);
+                    }
+                }
+            } catch (JsonProcessingException e) {
+                // Malformed JSON is left to the application, with the usual sanitization.
+                return new ScannedRequest(replaying, false, null);
+            }
+            return new ScannedRequest(replaying, true, Collections.unmodifiableSet(values));
+        }
+
+        private static boolean isJson(String contentType) {
+            if (contentType == null) {
+                return false;
+            }
+            String type = contentType.toLowerCase(Locale.ROOT);
+            return type.startsWith("application/json") || type.contains("+json");
+        }
+
+        Cache<String, Boolean> excludeCache() {
+            return excludeCache;
+        }
+
+        /**
+         * Returns the number of requests per filter decision since startup.
+         */
+        Map<String, Long> decisionCounts() {
+            Map<String, Long> counts = new LinkedHashMap<>();
+            counts.put("excluded", excluded.sum());
+            counts.put("blocked", blocked.sum());
+            counts.put("wrapped", wrapped.sum());
+            counts.put("rejected", rejected.sum());
+            counts.put("detected", detected.sum());
+            counts.put("passed", passed.sum());
+            return counts;
+        }
+
+        private void reject(HttpServletResponse response) {
+            long retryAfter = Math.max(1, properties.getOverload().getMinDegradedTime().toSeconds());
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader("Retry-After", Long.toString(retryAfter));
+        }
+
+        private static void commit(FilterDecisionEvent event, String requestURI, String decision) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.uri = requestURI;
+                event.decision = decision;
+                event.commit();
+            }
+        }
+
         private boolean shouldSkipFiltering(String requestURI, List<String> patterns) {
             if (requestURI == null) return false;
             if (patterns == null || patterns.isEmpty()) return false;
@@ -268,6 +620,140 @@ public class XssShieldAutoConfiguration {
 
     }
 
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /**
+     * Outcome of a {@code BLOCK} mode scan; {@code values} holds the string values of a clean JSON body.
+     */
+    private record ScannedRequest(HttpServletRequest request, boolean clean, Set<String> values) {
+    }
+
+    /**
+     * Replays a request body that was already read for scanning, followed by any unread remainder.
+     */
+    static class ReplayingRequest extends HttpServletRequestWrapper {
+        private final ServletInputStream body;
+        private BufferedReader reader;
+
+        ReplayingRequest(HttpServletRequest request, byte[] head, InputStream rest) {
+            super(request);
+            InputStream in = rest != null
+                    ? new SequenceInputStream(new ByteArrayInputStream(head), rest)
+                    : new ByteArrayInputStream(head);
+            this.body = new ServletInputStream() {
+                private boolean finished;
+
+                @Override
+                public int read() throws IOException {
+                    int b = in.read();
+                    finished = b < 0;
+                    return b;
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException {
+                    int n = in.read(buffer, offset, length);
+                    finished = n < 0;
+                    return n;
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return finished;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    // The scanned part is in memory, so the whole body is announced at once; a remainder beyond
+                    // the scan limit is then read with blocking I/O.
+                    try {
+                        readListener.onDataAvailable();
+                        readListener.onAllDataRead();
+                    } catch (IOException | RuntimeException e) {
+                        readListener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            return body;
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            if (reader == null) {
+                String encoding = getCharacterEncoding();
+                reader = new BufferedReader(new InputStreamReader(body,
+                        encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+            }
+            return reader;
+        }
+    }
+
+    /**
+     * Adds the {@code Server-Timing} header just before the response is committed, so it covers the sanitization
+     * done while the request was read; responses without a body get it when the filter returns.
+     */
+    static class CostReportingResponse extends HttpServletResponseWrapper {
+        private final SanitizeCost cost;
+        private boolean reported;
+
+        CostReportingResponse(HttpServletResponse response, SanitizeCost cost) {
+            super(response);
+            this.cost = cost;
+        }
+
+        void addServerTiming() {
+            if (!reported && !isCommitted()) {
+                addHeader("Server-Timing", cost.toServerTiming());
+            }
+            reported = true;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addServerTiming();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addServerTiming();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addServerTiming();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            addServerTiming();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            addServerTiming();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            addServerTiming();
+            super.sendRedirect(location);
+        }
+    }
+
     static class XssRequestWrapper extends HttpServletRequestWrapper {
         private final XssUtils xssUtils;
         private final XssShieldProperties properties;
@@ -0,0 +1,81 @@
+package com.uniguri.config;
+
+import com.uniguri.XssUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes sanitize cache snapshots periodically and once more when the context shuts down.
+ * <p>
+ * sanitize 캐시 스냅샷을 주기적으로, 그리고 컨텍스트 종료 시 한 번 더 기록합니다.
+ */
+public class XssShieldCacheSnapshotter implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(XssShieldCacheSnapshotter.class);
+
+    private final XssUtils xssUtils;
+    private final XssShieldProperties.SnapshotConfig config;
+    private final Path file;
+    private ScheduledExecutorService scheduler;
+    private volatile boolean running;
+
+    public XssShieldCacheSnapshotter(XssUtils xssUtils, XssShieldProperties properties) {
+        this.xssUtils = xssUtils;
+        this.config = properties.getCache().getSnapshot();
+        this.file = Paths.get(config.getFile());
+    }
+
+    @Override
+    public void start() {
+        Duration interval = config.getInterval();
+        if (interval != null && !interval.isZero() && !interval.isNegative()) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "xss-shield-snapshot");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long millis = interval.toMillis();
+            scheduler.scheduleWithFixedDelay(this::snapshot, millis, millis, TimeUnit.MILLISECONDS);
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        snapshot();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Writes a snapshot now.
+     * <p>
+     * 즉시 스냅샷을 기록합니다.
+     */
+    public void snapshot() {
+        long start = System.nanoTime();
+        try {
+            xssUtils.writeSnapshot(file, config.getHottestEntries());
+            log.debug("Sanitize cache snapshot written to {} in {} ms.", file, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to write sanitize cache snapshot to {}.", file, e);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.uniguri.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.uniguri.DetectionVerdictCache;
+import com.uniguri.IncrementalSanitizer;
+import com.uniguri.SanitizeCacheView;
+import com.uniguri.XssUtils;
+import jakarta.servlet.Filter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.lang.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Actuator endpoint ({@code /actuator/xssshield}) for the XSS Shield caches:
+ * <ul>
+ *   <li>{@code GET /actuator/xssshield?top=N} - per-policy Caffeine stats, estimated memory, the top-N hot keys
+ *   (hashed), the {@code containsXssPattern} result cache and the exclude-decision stats of the filter</li>
+ *   <li>{@code GET /actuator/xssshield/{cache}} - the same for one cache ({@code html}, {@code strict},
+ *   {@code formInput} or {@code exclude})</li>
+ *   <li>{@code POST /actuator/xssshield/{cache}} with {@code {"maximumSize": N}} - resizes the cache at runtime</li>
+ *   <li>{@code DELETE /actuator/xssshield/{cache}} - invalidates the cache</li>
+ * </ul>
+ * <p>
+ * XSS Shield 캐시용 액추에이터 엔드포인트입니다. 정책별 Caffeine 통계, 추정 메모리, 해시된 상위 N개 핫 키,
+ * 필터의 제외 판정 통계를 조회하고, 재시작 없이 캐시 크기 변경과 무효화를 수행합니다.
+ */
+@Endpoint(id = "xssshield")
+public class XssShieldEndpoint {
+
+    static final String EXCLUDE_CACHE = "exclude";
+    private static final int DEFAULT_TOP = 10;
+
+    private final XssUtils xssUtils;
+    private final ObjectProvider<FilterRegistrationBean<Filter>> filter;
+
+    public XssShieldEndpoint(XssUtils xssUtils, ObjectProvider<FilterRegistrationBean<Filter>> filter) {
+        this.xssUtils = xssUtils;
+        this.filter = filter;
+    }
+
+    @ReadOperation
+    public Map<String, Object> caches(@Nullable Integer top) {
+        int limit = top != null ? top : DEFAULT_TOP;
+        Map<String, Object> sanitize = new LinkedHashMap<>();
+        for (SanitizeCacheView view : xssUtils.getSanitizeCacheViews()) {
+            sanitize.put(view.getPolicy(), describe(view, limit));
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("sanitize", sanitize);
+        DetectionVerdictCache detection = xssUtils.getDetectionCache();
+        if (detection != null) {
+            result.put("detection", describe(detection));
+        }
+        IncrementalSanitizer document = xssUtils.getDocumentSanitizer();
+        if (document != null) {
+            result.put("document", describe(document));
+        }
+        XssShieldAutoConfiguration.CustomXssFilter customFilter = customFilter();
+        if (customFilter != null) {
+            result.put("filter", describe(customFilter));
+        }
+        return result;
+    }
+
+    @ReadOperation
+    public Map<String, Object> cache(@Selector String name, @Nullable Integer top) {
+        if (EXCLUDE_CACHE.equals(name)) {
+            XssShieldAutoConfiguration.CustomXssFilter customFilter = customFilter();
+            return customFilter != null ? describe(customFilter) : null;
+        }
+        SanitizeCacheView view = view(name);
+        return view != null ? describe(view, top != null ? top : DEFAULT_TOP) : null;
+    }
+
+    @WriteOperation
+    public Map<String, Object> resize(@Selector String name, long maximumSize) {
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("maximumSize must be >= 0");
+        }
+        if (EXCLUDE_CACHE.equals(name)) {
+            XssShieldAutoConfiguration.CustomXssFilter customFilter = customFilter();
+            if (customFilter == null) {
+                return null;
+            }
+            customFilter.excludeCache().policy().eviction().ifPresent(eviction -> eviction.setMaximum(maximumSize));
+            return describe(customFilter);
+        }
+        SanitizeCacheView view = view(name);
+        if (view == null) {
+            return null;
+        }
+        view.setMaximumSize(maximumSize);
+        return describe(view, DEFAULT_TOP);
+    }
+
+    @DeleteOperation
+    public Map<String, Object> invalidate(@Selector String name) {
+        if (EXCLUDE_CACHE.equals(name)) {
+            XssShieldAutoConfiguration.CustomXssFilter customFilter = customFilter();
+            if (customFilter == null) {
+                return null;
+            }
+            customFilter.excludeCache().invalidateAll();
+            return describe(customFilter);
+        }
+        SanitizeCacheView view = view(name);
+        if (view == null) {
+            return null;
+        }
+        view.invalidateAll();
+        return describe(view, DEFAULT_TOP);
+    }
+
+    private SanitizeCacheView view(String name) {
+        for (SanitizeCacheView view : xssUtils.getSanitizeCacheViews()) {
+            if (view.getPolicy().equals(name)) {
+                return view;
+            }
+        }
+        return null;
+    }
+
+    private XssShieldAutoConfiguration.CustomXssFilter customFilter() {
+        FilterRegistrationBean<Filter> registration = filter.getIfAvailable();
+        return registration != null && registration.getFilter() instanceof XssShieldAutoConfiguration.CustomXssFilter custom
+                ? custom : null;
+    }
+
+    private static Map<String, Object> describe(DetectionVerdictCache cache) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("capacity", cache.getCapacity());
+        result.put("maxLength", cache.getMaxLength());
+        result.put("memoryBytes", cache.getMemoryBytes());
+        result.put("hitCount", cache.getHitCount());
+        result.put("missCount", cache.getMissCount());
+        result.put("evictionCount", cache.getEvictionCount());
+        return result;
+    }
+
+    private static Map<String, Object> describe(IncrementalSanitizer sanitizer) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("documentCount", sanitizer.getDocumentCount());
+        result.put("fullPassCount", sanitizer.getFullPassCount());
+        result.put("blockStats", describe(sanitizer.getBlockStats()));
+        return result;
+    }
+
+    private static Map<String, Object> describe(SanitizeCacheView view, int top) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("estimatedSize", view.getEstimatedSize());
+        view.getMaximumSize().ifPresent(max -> result.put("maximumSize", max));
+        result.put("estimatedMemoryBytes", view.getEstimatedMemoryBytes());
+        result.put("stats", describe(view.getStats()));
+        List<Map<String, Object>> hottest = view.getHottestKeys(top).stream()
+                .map(key -> Map.<String, Object>of("hash", key.getHash(), "length", key.getLength()))
+                .toList();
+        result.put("hottestKeys", hottest);
+        return result;
+    }
+
+    private static Map<String, Object> describe(XssShieldAutoConfiguration.CustomXssFilter customFilter) {
+        Cache<String, Boolean> excludeCache = customFilter.excludeCache();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("decisions", customFilter.decisionCounts());
+        Map<String, Object> cache = new LinkedHashMap<>();
+        cache.put("estimatedSize", excludeCache.estimatedSize());
+        excludeCache.policy().eviction().ifPresent(eviction -> cache.put("maximumSize", eviction.getMaximum()));
+        cache.put("stats", describe(excludeCache.stats()));
+        result.put("excludeCache", cache);
+        return result;
+    }
+
+    private static Map<String, Object> describe(CacheStats stats) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictionCount", stats.evictionCount());
+        result.put("averageLoadPenaltyNanos", stats.averageLoadPenalty());
+        return result;
+    }
+}
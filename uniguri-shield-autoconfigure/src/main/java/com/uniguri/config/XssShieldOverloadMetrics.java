@@ -0,0 +1,58 @@
+package com.uniguri.config;
+
+import com.uniguri.OverloadController;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exposes the state of the {@link OverloadController} as Micrometer meters:
+ * <ul>
+ *   <li>{@code xss.shield.overload.degraded} - 1 while degraded, otherwise 0</li>
+ *   <li>{@code xss.shield.overload.transitions} - mode switches, tagged with the target {@code mode}</li>
+ *   <li>{@code xss.shield.overload.sanitize.latency} - average OWASP sanitize latency (seconds)</li>
+ *   <li>{@code xss.shield.overload.in.flight} - requests currently inside the XSS filter</li>
+ * </ul>
+ * <p>
+ * {@link OverloadController}의 상태를 Micrometer 메트릭으로 노출합니다.
+ */
+public class XssShieldOverloadMetrics implements MeterBinder {
+
+    private final OverloadController controller;
+
+    public XssShieldOverloadMetrics(OverloadController controller) {
+        this.controller = controller;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("xss.shield.overload.degraded", controller,
+                        c -> c.getMode() == OverloadController.Mode.DEGRADED ? 1 : 0)
+                .description("1 while XSS Shield runs in degraded overload mode")
+                .tag("action", controller.getAction().name())
+                .register(registry);
+        Gauge.builder("xss.shield.overload.sanitize.latency", controller,
+                        c -> c.getLatencyAverageNanos() / TimeUnit.SECONDS.toNanos(1))
+                .description("Moving average of the OWASP sanitize latency")
+                .baseUnit("seconds")
+                .register(registry);
+        Gauge.builder("xss.shield.overload.in.flight", controller, OverloadController::getInFlight)
+                .description("Requests currently inside the XSS filter")
+                .register(registry);
+        for (OverloadController.Mode mode : OverloadController.Mode.values()) {
+            // Register both series up front so that dashboards see zero rather than no data.
+            transitions(registry, mode);
+        }
+        controller.addListener((from, to, reason) -> transitions(registry, to).increment());
+    }
+
+    private static Counter transitions(MeterRegistry registry, OverloadController.Mode mode) {
+        return Counter.builder("xss.shield.overload.transitions")
+                .description("Overload mode switches")
+                .tag("mode", mode.name())
+                .register(registry);
+    }
+}
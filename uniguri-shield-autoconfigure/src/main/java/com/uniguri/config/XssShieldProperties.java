@@ -1,5 +1,6 @@
 package com.uniguri.config;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -53,7 +54,7 @@ public class XssShieldProperties {
      * <p>
      * XSS 패턴 탐지(로깅/모니터링 전용) 설정입니다.
      */
-    // PatternDetectionConfig removed (logging-only, low practical value)
+    private final DetectionConfig detection = new DetectionConfig();
 
     /**
      * Configuration for caching strategies.
@@ -62,6 +63,56 @@ public class XssShieldProperties {
      */
     private final CacheConfig cache = new CacheConfig();
 
+    /**
+     * Configuration for the startup warm-up phase.
+     * <p>
+     * 기동 시 워밍업 단계 설정입니다.
+     */
+    private final WarmupConfig warmup = new WarmupConfig();
+
+    /**
+     * Configuration for the adaptive overload mode.
+     * <p>
+     * 적응형 과부하 모드 설정입니다.
+     */
+    private final OverloadConfig overload = new OverloadConfig();
+
+    /**
+     * Configuration for per-client attack tracking.
+     * <p>
+     * 클라이언트별 공격 추적 설정입니다.
+     */
+    private final AttackTrackingConfig attackTracking = new AttackTrackingConfig();
+
+    /**
+     * Configuration for object-graph sanitization.
+     * <p>
+     * 객체 그래프 살균 설정입니다.
+     */
+    private final ObjectConfig object = new ObjectConfig();
+
+    /**
+     * Configuration for per-request cost accounting.
+     * <p>
+     * 요청별 비용 집계 설정입니다.
+     */
+    private final CostConfig cost = new CostConfig();
+
+    /**
+     * Configuration for the {@code BLOCK} mode.
+     * <p>
+     * {@code BLOCK} 모드 설정입니다.
+     */
+    private final BlockConfig block = new BlockConfig();
+
+    /**
+     * Whether requests are sanitized value by value or scanned once and rejected when malicious.
+     * <p>
+     * 요청을 값마다 살균할지, 한 번 검사해 악성이면 거부할지 정합니다.
+     * 기본값: SANITIZE
+     */
+    private Mode mode = Mode.SANITIZE;
+
     /**
      * Preset policy level for sanitization strength.
      * <p>
@@ -99,6 +150,47 @@ public class XssShieldProperties {
             log.warn("xss.shield.cache.exclude-max-entries is {}, which is less than 1. Setting to default 10000.", cache.getExcludeMaxEntries());
             cache.setExcludeMaxEntries(10000);
         }
+        if (cache.getLocalSlots() < 1 || cache.getLocalMaxLength() < 1) {
+            log.warn("xss.shield.cache.local-slots and local-max-length must be positive. Setting to defaults 256 and 32.");
+            cache.setLocalSlots(256);
+            cache.setLocalMaxLength(32);
+        }
+        if (cache.getDetectionMaxEntries() < 1) {
+            log.warn("xss.shield.cache.detection-max-entries is {}, which is less than 1. Setting to default 65536.", cache.getDetectionMaxEntries());
+            cache.setDetectionMaxEntries(65536);
+        }
+        if (cache.getDocumentMaxCharacters() < 1) {
+            log.warn("xss.shield.cache.document-max-characters is {}, which is less than 1. Setting to default 4000000.", cache.getDocumentMaxCharacters());
+            cache.setDocumentMaxCharacters(4_000_000);
+        }
+        if (warmup.getIterations() < 1) {
+            log.warn("xss.shield.warmup.iterations is {}, which is less than 1. Setting to default 200.", warmup.getIterations());
+            warmup.setIterations(200);
+        }
+        if (detection.getSampleRate() < 0.0 || detection.getSampleRate() > 1.0) {
+            log.warn("xss.shield.detection.sample-rate is {}, which is outside [0, 1]. Setting to default 0.1.", detection.getSampleRate());
+            detection.setSampleRate(0.1);
+        }
+        if (overload.getRecoveryRatio() <= 0.0 || overload.getRecoveryRatio() > 1.0) {
+            log.warn("xss.shield.overload.recovery-ratio is {}, which is outside (0, 1]. Setting to default 0.5.", overload.getRecoveryRatio());
+            overload.setRecoveryRatio(0.5);
+        }
+        if (attackTracking.getThreshold() < 1) {
+            log.warn("xss.shield.attack-tracking.threshold is {}, which is less than 1. Setting to default 20.", attackTracking.getThreshold());
+            attackTracking.setThreshold(20);
+        }
+        if (object.getParallelThreshold() < 0) {
+            log.warn("xss.shield.object.parallel-threshold is {}, which is negative. Setting to default 0.", object.getParallelThreshold());
+            object.setParallelThreshold(0);
+        }
+        if (block.getStatus() < 400 || block.getStatus() > 599) {
+            log.warn("xss.shield.block.status is {}, which is not an HTTP error status. Setting to default 400.", block.getStatus());
+            block.setStatus(400);
+        }
+        if (block.getMaxBodySize() < 0) {
+            log.warn("xss.shield.block.max-body-size is {}, which is negative. Setting to default 1048576.", block.getMaxBodySize());
+            block.setMaxBodySize(1_048_576);
+        }
         if (json.getApiPatterns() == null || json.getApiPatterns().isEmpty()) {
             log.info("xss.shield.json.api-patterns is empty. Applying default patterns: [\"/api/**\", \"/v1/**\", \"/v2/**\"]");
             json.setApiPatterns(Arrays.asList("/api/**", "/v1/**", "/v2/**"));
@@ -122,12 +214,46 @@ public class XssShieldProperties {
         return json;
     }
 
-    // getPatternDetection() removed
+    public DetectionConfig getDetection() {
+        return detection;
+    }
 
     public CacheConfig getCache() {
         return cache;
     }
 
+    public WarmupConfig getWarmup() {
+        return warmup;
+    }
+
+    public OverloadConfig getOverload() {
+        return overload;
+    }
+
+    public AttackTrackingConfig getAttackTracking() {
+        return attackTracking;
+    }
+
+    public ObjectConfig getObject() {
+        return object;
+    }
+
+    public BlockConfig getBlock() {
+        return block;
+    }
+
+    public CostConfig getCost() {
+        return cost;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
     public OnError getOnError() {
         return onError;
     }
@@ -270,6 +396,36 @@ public class XssShieldProperties {
             )
         );
 
+        /**
+         * Returns string tokens without markup-significant characters straight from the parser's buffer,
+         * skipping the sanitizer. Policies with a text pre- or postprocessor always sanitize every token.
+         * <p>
+         * 마크업에 의미 있는 문자가 없는 문자열 토큰은 살균기를 거치지 않고 파서 버퍼에서 바로 반환합니다.
+         * 텍스트 전처리/후처리가 있는 정책은 항상 모든 토큰을 살균합니다. (기본값: true)
+         */
+        private boolean inertPrefilter = true;
+
+        /**
+         * Shares one String instance for repeated short inert values (enum-like codes) through a small lossy table.
+         * <p>
+         * 반복되는 짧은 무해한 값(열거형 같은 코드)이 작은 손실형 테이블을 통해 하나의 String 인스턴스를 공유합니다. (기본값: false)
+         */
+        private boolean canonicalStrings = false;
+
+        /**
+         * Maximum length of values eligible for {@code canonical-strings}.
+         * <p>
+         * {@code canonical-strings} 대상 값의 최대 길이입니다. (기본값: 32)
+         */
+        private int canonicalMaxLength = 32;
+
+        /**
+         * Number of slots of the canonical string table.
+         * <p>
+         * 공유 문자열 테이블의 슬롯 수입니다. (기본값: 4096)
+         */
+        private int canonicalTableSize = 4096;
+
         public boolean isEnabled() {
             return enabled;
         }
@@ -282,6 +438,38 @@ public class XssShieldProperties {
             return apiPatterns;
         }
 
+        public boolean isInertPrefilter() {
+            return inertPrefilter;
+        }
+
+        public void setInertPrefilter(boolean inertPrefilter) {
+            this.inertPrefilter = inertPrefilter;
+        }
+
+        public boolean isCanonicalStrings() {
+            return canonicalStrings;
+        }
+
+        public void setCanonicalStrings(boolean canonicalStrings) {
+            this.canonicalStrings = canonicalStrings;
+        }
+
+        public int getCanonicalMaxLength() {
+            return canonicalMaxLength;
+        }
+
+        public void setCanonicalMaxLength(int canonicalMaxLength) {
+            this.canonicalMaxLength = canonicalMaxLength;
+        }
+
+        public int getCanonicalTableSize() {
+            return canonicalTableSize;
+        }
+
+        public void setCanonicalTableSize(int canonicalTableSize) {
+            this.canonicalTableSize = canonicalTableSize;
+        }
+
         public void setApiPatterns(List<String> apiPatterns) {
             this.apiPatterns = apiPatterns;
         }
@@ -314,6 +502,39 @@ public class XssShieldProperties {
          */
         private int sanitizeMaxEntries = 1000;
 
+        /**
+         * How sanitize cache misses are loaded. {@link CacheLoading#ASYNC} runs the sanitizer outside the
+         * cache's map lock and lets concurrent callers of the same input share one computation, which keeps
+         * slow values from blocking other keys or pinning virtual threads.
+         * <p>
+         * sanitize 캐시 미스의 적재 방식입니다. {@link CacheLoading#ASYNC}는 캐시 맵 잠금 밖에서 살균하고 같은 입력의
+         * 동시 호출이 하나의 계산을 공유하므로, 느린 값이 다른 키를 막거나 가상 스레드를 고정하지 않습니다. (기본값: COMPUTE)
+         */
+        private CacheLoading loading = CacheLoading.COMPUTE;
+
+        /**
+         * Enables a per-thread L0 cache in front of each sanitize cache, so hot keys skip the shared cache.
+         * Requires {@code sanitize-enabled}; virtual threads bypass it.
+         * <p>
+         * 각 sanitize 캐시 앞에 스레드별 L0 캐시를 두어 핫 키가 공유 캐시를 거치지 않게 합니다.
+         * {@code sanitize-enabled}가 필요하며 가상 스레드는 사용하지 않습니다. (기본값: false)
+         */
+        private boolean localEnabled = false;
+
+        /**
+         * Entries of the L0 cache per thread and policy.
+         * <p>
+         * 스레드·정책별 L0 캐시 엔트리 수입니다. (기본값: 256)
+         */
+        private int localSlots = 256;
+
+        /**
+         * Longest input and result kept in the L0 cache; bounds its memory per thread.
+         * <p>
+         * L0 캐시에 저장할 입력·결과의 최대 길이로, 스레드당 메모리를 제한합니다. (기본값: 32)
+         */
+        private int localMaxLength = 32;
+
         /**
          * Maximum number of entries to keep in the exclude-pattern cache.
          * <p>
@@ -321,6 +542,66 @@ public class XssShieldProperties {
          */
         private int excludeMaxEntries = 10000;
 
+        /**
+         * Enables caching of {@code containsXssPattern} results in a fixed-size primitive table.
+         * <p>
+         * {@code containsXssPattern} 결과를 고정 크기 원시 테이블에 캐싱합니다. (기본값: false)
+         */
+        private boolean detectionEnabled = false;
+
+        /**
+         * Number of slots in the detection cache (rounded up to a power of two, about 14 bytes each).
+         * <p>
+         * 탐지 캐시의 슬롯 수입니다. 2의 거듭제곱으로 올림되며 슬롯당 약 14바이트입니다. (기본값: 65536)
+         */
+        private int detectionMaxEntries = 65536;
+
+        /**
+         * Longest input whose detection result is cached.
+         * <p>
+         * 탐지 결과를 캐시할 최대 입력 길이입니다. (기본값: 256)
+         */
+        private int detectionMaxLength = 256;
+
+        /**
+         * Enables block-incremental sanitizing of rich-text documents passed to {@code sanitizeDocument}:
+         * unchanged top-level blocks reuse their earlier sanitized output.
+         * <p>
+         * {@code sanitizeDocument}에 전달된 리치 텍스트 문서를 블록 단위로 증분 살균합니다.
+         * 바뀌지 않은 최상위 블록은 이전 살균 결과를 재사용합니다. (기본값: false)
+         */
+        private boolean documentEnabled = false;
+
+        /**
+         * Upper bound of cached block input plus output characters (2 bytes each).
+         * <p>
+         * 캐시할 블록 입력+출력 문자 수 상한입니다. 문자당 2바이트입니다. (기본값: 4000000)
+         */
+        private long documentMaxCharacters = 4_000_000;
+
+        /**
+         * Optional version string mixed into policy fingerprints. Bump it to invalidate shared or
+         * persisted cache entries after a policy change the fingerprint probe does not cover.
+         * <p>
+         * 정책 지문에 섞이는 선택적 버전 문자열입니다. 지문 프로브가 감지하지 못하는 정책 변경 시
+         * 값을 올려 공유/영속 캐시 엔트리를 무효화하세요.
+         */
+        private String policyVersion;
+
+        /**
+         * Second-level (shared) sanitize cache configuration.
+         * <p>
+         * 2차(공유) sanitize 캐시 설정입니다.
+         */
+        private final SecondLevelCacheConfig l2 = new SecondLevelCacheConfig();
+
+        /**
+         * Persistent snapshot configuration.
+         * <p>
+         * 영속 스냅샷 설정입니다.
+         */
+        private final SnapshotConfig snapshot = new SnapshotConfig();
+
         public boolean isSanitizeEnabled() {
             return sanitizeEnabled;
         }
@@ -337,6 +618,38 @@ public class XssShieldProperties {
             this.sanitizeMaxEntries = sanitizeMaxEntries;
         }
 
+        public CacheLoading getLoading() {
+            return loading;
+        }
+
+        public void setLoading(CacheLoading loading) {
+            this.loading = loading;
+        }
+
+        public boolean isLocalEnabled() {
+            return localEnabled;
+        }
+
+        public void setLocalEnabled(boolean localEnabled) {
+            this.localEnabled = localEnabled;
+        }
+
+        public int getLocalSlots() {
+            return localSlots;
+        }
+
+        public void setLocalSlots(int localSlots) {
+            this.localSlots = localSlots;
+        }
+
+        public int getLocalMaxLength() {
+            return localMaxLength;
+        }
+
+        public void setLocalMaxLength(int localMaxLength) {
+            this.localMaxLength = localMaxLength;
+        }
+
         public int getExcludeMaxEntries() {
             return excludeMaxEntries;
         }
@@ -344,6 +657,872 @@ public class XssShieldProperties {
         public void setExcludeMaxEntries(int excludeMaxEntries) {
             this.excludeMaxEntries = excludeMaxEntries;
         }
+
+        public boolean isDetectionEnabled() {
+            return detectionEnabled;
+        }
+
+        public void setDetectionEnabled(boolean detectionEnabled) {
+            this.detectionEnabled = detectionEnabled;
+        }
+
+        public int getDetectionMaxEntries() {
+            return detectionMaxEntries;
+        }
+
+        public void setDetectionMaxEntries(int detectionMaxEntries) {
+            this.detectionMaxEntries = detectionMaxEntries;
+        }
+
+        public int getDetectionMaxLength() {
+            return detectionMaxLength;
+        }
+
+        public void setDetectionMaxLength(int detectionMaxLength) {
+            this.detectionMaxLength = detectionMaxLength;
+        }
+
+        public boolean isDocumentEnabled() {
+            return documentEnabled;
+        }
+
+        public void setDocumentEnabled(boolean documentEnabled) {
+            this.documentEnabled = documentEnabled;
+        }
+
+        public long getDocumentMaxCharacters() {
+            return documentMaxCharacters;
+        }
+
+        public void setDocumentMaxCharacters(long documentMaxCharacters) {
+            this.documentMaxCharacters = documentMaxCharacters;
+        }
+
+        public String getPolicyVersion() {
+            return policyVersion;
+        }
+
+        public void setPolicyVersion(String policyVersion) {
+            this.policyVersion = policyVersion;
+        }
+
+        public SecondLevelCacheConfig getL2() {
+            return l2;
+        }
+
+        public SnapshotConfig getSnapshot() {
+            return snapshot;
+        }
+    }
+
+    /**
+     * Persistent sanitize cache snapshot configuration.
+     * <p>
+     * The hottest entries of each sanitize cache are written to {@code file} periodically and on
+     * shutdown, and mapped again on startup (requires cache.sanitize-enabled).
+     * <p>
+     * 각 sanitize 캐시의 인기 엔트리를 주기적으로, 그리고 종료 시 {@code file}에 기록하고
+     * 기동 시 다시 매핑합니다. (cache.sanitize-enabled 필요)
+     */
+    public static class SnapshotConfig {
+        /**
+         * Enables the snapshot.
+         * <p>
+         * 스냅샷을 활성화합니다. (기본값: false)
+         */
+        private boolean enabled = false;
+
+        /**
+         * Snapshot file location.
+         * <p>
+         * 스냅샷 파일 경로입니다. (기본값: xss-shield-cache.snapshot)
+         */
+        private String file = "xss-shield-cache.snapshot";
+
+        /**
+         * Maximum entries written per policy.
+         * <p>
+         * 정책별로 기록할 최대 엔트리 수입니다. (기본값: 1000)
+         */
+        private int hottestEntries = 1000;
+
+        /**
+         * Interval between periodic snapshots; zero disables periodic writes.
+         * <p>
+         * 주기적 스냅샷 간격입니다. 0이면 종료 시에만 기록합니다. (기본값: 5m)
+         */
+        private Duration interval = Duration.ofMinutes(5);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getFile() {
+            return file;
+        }
+
+        public void setFile(String file) {
+            this.file = file;
+        }
+
+        public int getHottestEntries() {
+            return hottestEntries;
+        }
+
+        public void setHottestEntries(int hottestEntries) {
+            this.hottestEntries = hottestEntries;
+        }
+
+        public Duration getInterval() {
+            return interval;
+        }
+
+        public void setInterval(Duration interval) {
+            this.interval = interval;
+        }
+    }
+
+    /**
+     * Second-level sanitize cache configuration.
+     * <p>
+     * Entries are keyed by (policy fingerprint, SHA-256 of the input). Lookups wait at most
+     * {@code lookup-timeout}; writes are queued and performed in the background.
+     * <p>
+     * 2차 sanitize 캐시 설정입니다. 엔트리는 (정책 지문, 입력값 SHA-256)으로 식별되며,
+     * 조회는 최대 {@code lookup-timeout}만큼만 기다리고 쓰기는 백그라운드에서 수행됩니다.
+     */
+    public static class SecondLevelCacheConfig {
+        /**
+         * Enables the built-in second-level cache (requires cache.sanitize-enabled).
+         * <p>
+         * 내장 2차 캐시를 활성화합니다. (cache.sanitize-enabled 필요, 기본값: false)
+         */
+        private boolean enabled = false;
+
+        /**
+         * Built-in implementation to use when no {@code SanitizeL2Cache} bean is defined.
+         * <p>
+         * {@code SanitizeL2Cache} 빈이 없을 때 사용할 내장 구현입니다. (기본값: MEMORY)
+         */
+        private L2Type type = L2Type.MEMORY;
+
+        /**
+         * Directory used by the FILE implementation.
+         * <p>
+         * FILE 구현이 사용할 디렉터리입니다.
+         */
+        private String directory;
+
+        /**
+         * Maximum number of entries kept by the MEMORY implementation.
+         * <p>
+         * MEMORY 구현의 최대 엔트리 수입니다. (기본값: 100000)
+         */
+        private long maxEntries = 100_000;
+
+        /**
+         * Maximum time a local cache miss waits for the second-level cache.
+         * <p>
+         * 로컬 캐시 미스 시 2차 캐시 응답을 기다리는 최대 시간입니다. (기본값: 5ms)
+         */
+        private Duration lookupTimeout = Duration.ofMillis(5);
+
+        /**
+         * Capacity of the write-behind queue; writes beyond it are dropped.
+         * <p>
+         * write-behind 큐 용량입니다. 초과분은 버려집니다. (기본값: 10000)
+         */
+        private int writeQueueCapacity = 10_000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public L2Type getType() {
+            return type;
+        }
+
+        public void setType(L2Type type) {
+            this.type = type;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public long getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(long maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public Duration getLookupTimeout() {
+            return lookupTimeout;
+        }
+
+        public void setLookupTimeout(Duration lookupTimeout) {
+            this.lookupTimeout = lookupTimeout;
+        }
+
+        public int getWriteQueueCapacity() {
+            return writeQueueCapacity;
+        }
+
+        public void setWriteQueueCapacity(int writeQueueCapacity) {
+            this.writeQueueCapacity = writeQueueCapacity;
+        }
+    }
+
+    /**
+     * Built-in second-level cache implementations.
+     * <p>
+     * 내장 2차 캐시 구현 종류입니다.
+     */
+    public enum L2Type {
+        MEMORY,
+        FILE
+    }
+
+    /**
+     * Warm-up configuration.
+     * <p>
+     * When enabled, sanitizers, the detector and the JSON deserializer are driven with a
+     * built-in corpus (plus {@code corpus}) before the web server starts accepting traffic.
+     * <p>
+     * 워밍업 설정입니다. 활성화 시 웹 서버가 트래픽을 받기 전에 내장 코퍼스(및 {@code corpus})로
+     * Sanitizer, 탐지 로직, JSON Deserializer를 미리 실행합니다.
+     */
+    public static class WarmupConfig {
+        /**
+         * Enables the warm-up phase.
+         * <p>
+         * 워밍업 단계를 활성화합니다. (기본값: false)
+         */
+        private boolean enabled = false;
+
+        /**
+         * Number of passes over the warm-up corpus.
+         * <p>
+         * 워밍업 코퍼스 반복 횟수입니다. (기본값: 200)
+         */
+        private int iterations = 200;
+
+        /**
+         * Upper bound for the time spent warming up.
+         * <p>
+         * 워밍업에 사용할 최대 시간입니다. (기본값: 10s)
+         */
+        private Duration maxDuration = Duration.ofSeconds(10);
+
+        /**
+         * Additional samples appended to the built-in warm-up corpus.
+         * <p>
+         * 내장 워밍업 코퍼스에 추가할 샘플 목록입니다.
+         */
+        private List<String> corpus = new ArrayList<>();
+
+        /**
+         * Values pre-populated into the sanitize caches (requires cache.sanitize-enabled).
+         * <p>
+         * sanitize 캐시에 미리 적재할 값 목록입니다. (cache.sanitize-enabled 필요)
+         */
+        private List<String> hotValues = new ArrayList<>();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getIterations() {
+            return iterations;
+        }
+
+        public void setIterations(int iterations) {
+            this.iterations = iterations;
+        }
+
+        public Duration getMaxDuration() {
+            return maxDuration;
+        }
+
+        public void setMaxDuration(Duration maxDuration) {
+            this.maxDuration = maxDuration;
+        }
+
+        public List<String> getCorpus() {
+            return corpus;
+        }
+
+        public void setCorpus(List<String> corpus) {
+            this.corpus = corpus;
+        }
+
+        public List<String> getHotValues() {
+            return hotValues;
+        }
+
+        public void setHotValues(List<String> hotValues) {
+            this.hotValues = hotValues;
+        }
+    }
+
+    /**
+     * Adaptive overload configuration.
+     * <p>
+     * When enabled, sustained pressure (sanitize latency, concurrent requests or a custom
+     * {@code OverloadSignal} bean) switches the strict and form-input policies to HTML escaping
+     * ({@link OverloadAction#ESCAPE}) or makes the filter answer 503 ({@link OverloadAction#REJECT}).
+     * The rich-text HTML policy is never degraded.
+     * <p>
+     * 적응형 과부하 설정입니다. 활성화 시 지속적인 부하(살균 지연 시간, 동시 요청 수, 사용자 정의 {@code OverloadSignal} 빈)가 감지되면
+     * 엄격/폼 입력 정책을 HTML 이스케이프로 전환하거나({@link OverloadAction#ESCAPE}) 필터가 503으로 응답합니다({@link OverloadAction#REJECT}).
+     * 리치 텍스트용 HTML 정책은 저하되지 않습니다.
+     */
+    public static class OverloadConfig {
+        /**
+         * Enables the overload controller.
+         * <p>
+         * 과부하 컨트롤러를 활성화합니다. (기본값: false)
+         */
+        private boolean enabled = false;
+
+        /**
+         * What to do while degraded.
+         * <p>
+         * 저하 모드에서의 동작입니다. (기본값: ESCAPE)
+         */
+        private OverloadAction action = OverloadAction.ESCAPE;
+
+        /**
+         * Average OWASP sanitize latency (cache misses) that triggers degraded mode; 0 disables this input.
+         * <p>
+         * 저하 모드로 전환되는 OWASP 살균 평균 지연 시간(캐시 미스)입니다. 0이면 사용하지 않습니다. (기본값: 2ms)
+         */
+        private Duration latencyThreshold = Duration.ofMillis(2);
+
+        /**
+         * Number of concurrent requests inside the XSS filter that triggers degraded mode; 0 disables this input.
+         * <p>
+         * 저하 모드로 전환되는 XSS 필터 내부 동시 요청 수입니다. 0이면 사용하지 않습니다. (기본값: 256)
+         */
+        private int maxInFlight = 256;
+
+        /**
+         * Fraction of each threshold every input must fall below before full sanitization is restored.
+         * <p>
+         * 전체 살균으로 복귀하려면 모든 입력이 임계값의 이 비율 아래로 내려가야 합니다. (기본값: 0.5)
+         */
+        private double recoveryRatio = 0.5;
+
+        /**
+         * Minimum time spent in degraded mode before recovering; also sent as {@code Retry-After}.
+         * <p>
+         * 복귀 전 저하 모드에 머무는 최소 시간이며 {@code Retry-After}로도 전송됩니다. (기본값: 10s)
+         */
+        private Duration minDegradedTime = Duration.ofSeconds(10);
+
+        /**
+         * How often the inputs are evaluated.
+         * <p>
+         * 입력 평가 주기입니다. (기본값: 100ms)
+         */
+        private Duration evaluationInterval = Duration.ofMillis(100);
+
+        /**
+         * Fraction of work that still takes the full path while degraded, to keep measuring.
+         * <p>
+         * 측정을 위해 저하 모드에서도 전체 경로를 거치는 작업 비율입니다. (기본값: 0.05)
+         */
+        private double probeRate = 0.05;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public OverloadAction getAction() {
+            return action;
+        }
+
+        public void setAction(OverloadAction action) {
+            this.action = action;
+        }
+
+        public Duration getLatencyThreshold() {
+            return latencyThreshold;
+        }
+
+        public void setLatencyThreshold(Duration latencyThreshold) {
+            this.latencyThreshold = latencyThreshold;
+        }
+
+        public int getMaxInFlight() {
+            return maxInFlight;
+        }
+
+        public void setMaxInFlight(int maxInFlight) {
+            this.maxInFlight = maxInFlight;
+        }
+
+        public double getRecoveryRatio() {
+            return recoveryRatio;
+        }
+
+        public void setRecoveryRatio(double recoveryRatio) {
+            this.recoveryRatio = recoveryRatio;
+        }
+
+        public Duration getMinDegradedTime() {
+            return minDegradedTime;
+        }
+
+        public void setMinDegradedTime(Duration minDegradedTime) {
+            this.minDegradedTime = minDegradedTime;
+        }
+
+        public Duration getEvaluationInterval() {
+            return evaluationInterval;
+        }
+
+        public void setEvaluationInterval(Duration evaluationInterval) {
+            this.evaluationInterval = evaluationInterval;
+        }
+
+        public double getProbeRate() {
+            return probeRate;
+        }
+
+        public void setProbeRate(double probeRate) {
+            this.probeRate = probeRate;
+        }
+    }
+
+    /**
+     * Loading mode of the sanitize caches.
+     * <p>
+     * sanitize 캐시 적재 방식입니다.
+     */
+    public enum CacheLoading {
+        COMPUTE,
+        ASYNC
+    }
+
+    /**
+     * Behaviour of the degraded mode.
+     * <p>
+     * 저하 모드 동작입니다.
+     */
+    public enum OverloadAction {
+        ESCAPE,
+        REJECT
+    }
+
+    /**
+     * Per-client attack tracking configuration.
+     * <p>
+     * When enabled, every XSS detection is counted against the client IP in a fixed-size, time-decayed
+     * Count-Min sketch. Once a client's estimate reaches {@link #threshold}, the filter rejects its requests
+     * with {@link #rejectStatus} before any wrapping or sanitization; the count halves every {@link #halfLife}.
+     * <p>
+     * 클라이언트별 공격 추적 설정입니다. 활성화 시 모든 XSS 탐지를 고정 크기의 시간 감쇠 Count-Min 스케치에 클라이언트 IP별로 집계합니다.
+     * 추정값이 {@link #threshold}에 도달한 클라이언트의 요청은 래핑이나 살균 전에 {@link #rejectStatus}로 거부되며,
+     * 카운트는 {@link #halfLife}마다 절반으로 줄어듭니다.
+     */
+    public static class AttackTrackingConfig {
+        /**
+         * Enables attack tracking.
+         * <p>
+         * 공격 추적을 활성화합니다. (기본값: false)
+         */
+        private boolean enabled = false;
+
+        /**
+         * Decayed detection count at which a client is rejected.
+         * <p>
+         * 클라이언트를 거부하는 감쇠된 탐지 횟수입니다. (기본값: 20)
+         */
+        private int threshold = 20;
+
+        /**
+         * Interval after which detection counts are halved.
+         * <p>
+         * 탐지 횟수가 절반으로 줄어드는 주기입니다. (기본값: 5m)
+         */
+        private Duration halfLife = Duration.ofMinutes(5);
+
+        /**
+         * Counters per sketch row; more counters mean fewer collisions between clients.
+         * <p>
+         * 스케치 행당 카운터 수입니다. 많을수록 클라이언트 간 충돌이 줄어듭니다. (기본값: 4096)
+         */
+        private int width = 4096;
+
+        /**
+         * Number of sketch rows (hash functions).
+         * <p>
+         * 스케치 행(해시 함수) 수입니다. (기본값: 4)
+         */
+        private int depth = 4;
+
+        /**
+         * Number of independently locked sketch stripes.
+         * <p>
+         * 독립적으로 잠기는 스케치 스트라이프 수입니다. (기본값: 16)
+         */
+        private int stripes = 16;
+
+        /**
+         * HTTP status sent to offending clients.
+         * <p>
+         * 공격 클라이언트에 보내는 HTTP 상태 코드입니다. (기본값: 403)
+         */
+        private int rejectStatus = 403;
+
+        /**
+         * Addresses of reverse proxies whose {@code X-Forwarded-For} header is trusted. Clients are keyed by
+         * {@code getRemoteAddr()}; only when it is one of these proxies is the header walked from the right, skipping
+         * trusted entries, to find the client. Leave empty when Spring's {@code ForwardedHeaderFilter} or the
+         * container already resolves the remote address. Also used for the client IP in detection logs.
+         * <p>
+         * {@code X-Forwarded-For} 헤더를 신뢰할 리버스 프록시 주소 목록입니다. 클라이언트는 {@code getRemoteAddr()}로 식별하며,
+         * 그 주소가 이 목록의 프록시일 때만 헤더를 오른쪽부터 읽어 신뢰하는 항목을 건너뛴 첫 주소를 클라이언트로 봅니다.
+         * Spring의 {@code ForwardedHeaderFilter}나 컨테이너가 이미 원격 주소를 결정한다면 비워 두세요. 탐지 로그의 클라이언트 IP에도 사용됩니다.
+         * (기본값: 비어 있음)
+         */
+        private List<String> trustedProxies = new ArrayList<>();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getThreshold() {
+            return threshold;
+        }
+
+        public void setThreshold(int threshold) {
+            this.threshold = threshold;
+        }
+
+        public Duration getHalfLife() {
+            return halfLife;
+        }
+
+        public void setHalfLife(Duration halfLife) {
+            this.halfLife = halfLife;
+        }
+
+        public int getWidth() {
+            return width;
+        }
+
+        public void setWidth(int width) {
+            this.width = width;
+        }
+
+        public int getDepth() {
+            return depth;
+        }
+
+        public void setDepth(int depth) {
+            this.depth = depth;
+        }
+
+        public int getStripes() {
+            return stripes;
+        }
+
+        public void setStripes(int stripes) {
+            this.stripes = stripes;
+        }
+
+        public int getRejectStatus() {
+            return rejectStatus;
+        }
+
+        public void setRejectStatus(int rejectStatus) {
+            this.rejectStatus = rejectStatus;
+        }
+
+        public List<String> getTrustedProxies() {
+            return trustedProxies;
+        }
+
+        public void setTrustedProxies(List<String> trustedProxies) {
+            this.trustedProxies = trustedProxies;
+        }
+    }
+
+    /**
+     * Per-request cost accounting configuration. When enabled, the filter counts the values sanitized, cache hits,
+     * characters, detections and time spent for every request it handles, exposes them as request attributes
+     * ({@code XssUtils.COST_ATTRIBUTE}) and optionally in a {@code Server-Timing} response header.
+     * <p>
+     * 요청별 비용 집계 설정입니다. 활성화하면 필터가 처리하는 요청마다 살균한 값 수, 캐시 적중, 문자 수, 탐지 횟수, 소요 시간을 집계하여
+     * 요청 속성({@code XssUtils.COST_ATTRIBUTE})과 선택적으로 {@code Server-Timing} 응답 헤더로 노출합니다.
+     */
+    public static class CostConfig {
+        /**
+         * Enables cost accounting.
+         * <p>
+         * 비용 집계를 활성화합니다. (기본값: false)
+         */
+        private boolean enabled = false;
+
+        /**
+         * Adds a {@code Server-Timing} header (durations, value and character counts) to responses. Its timings are
+         * visible to every client and can hint at what the shared caches hold, so only enable it where clients are trusted.
+         * <p>
+         * 응답에 {@code Server-Timing} 헤더(소요 시간, 값 수, 문자 수)를 추가합니다. 모든 클라이언트가 볼 수 있고 시간으로 공유 캐시의
+         * 내용을 추측할 수 있으므로 신뢰할 수 있는 환경에서만 활성화하세요. (기본값: false)
+         */
+        private boolean serverTiming = false;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public boolean isServerTiming() {
+            return serverTiming;
+        }
+
+        public void setServerTiming(boolean serverTiming) {
+            this.serverTiming = serverTiming;
+        }
+    }
+
+    /**
+     * {@code BLOCK} mode configuration. The filter scans query and form parameters and, up to
+     * {@link #maxBodySize}, JSON request bodies once; a request with a detected pattern is answered with
+     * {@link #status} and never reaches the application, a clean one is passed on without sanitization.
+     * <p>
+     * {@code BLOCK} 모드 설정입니다. 필터가 쿼리/폼 파라미터와 {@link #maxBodySize} 이하의 JSON 본문을 한 번 검사하여,
+     * 패턴이 탐지된 요청은 {@link #status}로 응답하고 애플리케이션에 전달하지 않으며 깨끗한 요청은 살균 없이 전달합니다.
+     */
+    public static class BlockConfig {
+        /**
+         * Response status for rejected requests.
+         * <p>
+         * 거부한 요청의 응답 상태 코드입니다. (기본값: 400)
+         */
+        private int status = 400;
+
+        /**
+         * Scans JSON request bodies in addition to parameters.
+         * <p>
+         * 파라미터 외에 JSON 요청 본문도 검사합니다. (기본값: true)
+         */
+        private boolean scanJsonBody = true;
+
+        /**
+         * Largest JSON body, in bytes, that is scanned; requests with larger bodies are sanitized as in
+         * {@code SANITIZE} mode instead.
+         * <p>
+         * 검사할 JSON 본문의 최대 크기(바이트)입니다. 더 큰 본문의 요청은 {@code SANITIZE} 모드처럼 살균합니다. (기본값: 1048576)
+         */
+        private int maxBodySize = 1_048_576;
+
+        public int getStatus() {
+            return status;
+        }
+
+        public void setStatus(int status) {
+            this.status = status;
+        }
+
+        public boolean isScanJsonBody() {
+            return scanJsonBody;
+        }
+
+        public void setScanJsonBody(boolean scanJsonBody) {
+            this.scanJsonBody = scanJsonBody;
+        }
+
+        public int getMaxBodySize() {
+            return maxBodySize;
+        }
+
+        public void setMaxBodySize(int maxBodySize) {
+            this.maxBodySize = maxBodySize;
+        }
+    }
+
+    /**
+     * Object-graph sanitization configuration ({@code XssUtils#sanitizeObject}).
+     * <p>
+     * 객체 그래프 살균({@code XssUtils#sanitizeObject}) 설정입니다.
+     */
+    public static class ObjectConfig {
+        /**
+         * Lists and arrays with at least this many elements are walked in parallel on the common
+         * fork-join pool; 0 keeps every walk on the calling thread.
+         * <p>
+         * 요소 수가 이 값 이상인 리스트와 배열은 공용 fork-join 풀에서 병렬로 순회합니다. 0이면 항상 호출 스레드에서 순회합니다. (기본값: 0)
+         */
+        private int parallelThreshold = 0;
+
+        public int getParallelThreshold() {
+            return parallelThreshold;
+        }
+
+        public void setParallelThreshold(int parallelThreshold) {
+            this.parallelThreshold = parallelThreshold;
+        }
+    }
+
+    /**
+     * Configuration for {@code containsXssPattern} / {@code isSafeString}.
+     * <p>
+     * In {@link DetectionMode#SAMPLED} mode only a fraction of requests (or values) is inspected.
+     * Values that contain markup ({@code <}, {@code >} or their entity / percent-encoded forms) and values
+     * from clients with a recent detection are always inspected.
+     * <p>
+     * {@code containsXssPattern} / {@code isSafeString} 탐지 설정입니다.
+     * {@link DetectionMode#SAMPLED} 모드에서는 요청(또는 값)의 일부만 검사합니다.
+     * 마크업({@code <}, {@code >} 또는 그 엔티티/퍼센트 인코딩 형태)을 포함한 값과 최근 탐지된 클라이언트의 값은 항상 검사합니다.
+     */
+    public static class DetectionConfig {
+        /**
+         * Detection mode.
+         * <p>
+         * 탐지 모드입니다. (기본값: FULL)
+         */
+        private DetectionMode mode = DetectionMode.FULL;
+
+        /**
+         * Fraction of requests (or values) inspected in SAMPLED mode, between 0 and 1.
+         * <p>
+         * SAMPLED 모드에서 검사할 요청(또는 값)의 비율입니다. 0~1 사이 (기본값: 0.1)
+         */
+        private double sampleRate = 0.1;
+
+        /**
+         * Whether the sampling decision is made once per request or for every value.
+         * <p>
+         * 샘플링 결정을 요청 단위로 할지 값 단위로 할지 지정합니다. (기본값: REQUEST)
+         */
+        private SampleUnit sampleBy = SampleUnit.REQUEST;
+
+        /**
+         * How long a client stays fully inspected after one of its values was detected.
+         * <p>
+         * 탐지된 클라이언트를 전수 검사 대상으로 유지하는 시간입니다. (기본값: 10m)
+         */
+        private Duration flaggedClientTtl = Duration.ofMinutes(10);
+
+        /**
+         * Maximum number of flagged clients remembered.
+         * <p>
+         * 기억할 탐지 클라이언트의 최대 수입니다. (기본값: 10000)
+         */
+        private int flaggedClientMaxEntries = 10000;
+
+        public DetectionMode getMode() {
+            return mode;
+        }
+
+        public void setMode(DetectionMode mode) {
+            this.mode = mode;
+        }
+
+        public double getSampleRate() {
+            return sampleRate;
+        }
+
+        public void setSampleRate(double sampleRate) {
+            this.sampleRate = sampleRate;
+        }
+
+        public SampleUnit getSampleBy() {
+            return sampleBy;
+        }
+
+        public void setSampleBy(SampleUnit sampleBy) {
+            this.sampleBy = sampleBy;
+        }
+
+        public Duration getFlaggedClientTtl() {
+            return flaggedClientTtl;
+        }
+
+        public void setFlaggedClientTtl(Duration flaggedClientTtl) {
+            this.flaggedClientTtl = flaggedClientTtl;
+        }
+
+        public int getFlaggedClientMaxEntries() {
+            return flaggedClientMaxEntries;
+        }
+
+        public void setFlaggedClientMaxEntries(int flaggedClientMaxEntries) {
+            this.flaggedClientMaxEntries = flaggedClientMaxEntries;
+        }
+    }
+
+    /**
+     * Detection mode.
+     * <p>
+     * 탐지 모드입니다.
+     */
+    public enum DetectionMode {
+        FULL,
+        SAMPLED
+    }
+
+    /**
+     * Unit of the sampling decision.
+     * <p>
+     * 샘플링 결정 단위입니다.
+     */
+    public enum SampleUnit {
+        REQUEST,
+        VALUE
+    }
+
+    /**
+     * Request handling mode of the filter.
+     * <p>
+     * 필터의 요청 처리 모드입니다.
+     */
+    public enum Mode {
+        /**
+         * Wrap every request and sanitize each value.
+         * <p>
+         * 모든 요청을 래핑하고 값마다 살균합니다.
+         */
+        SANITIZE,
+        /**
+         * Scan each request once and reject it when a pattern is found; clean requests are not sanitized.
+         * <p>
+         * 요청을 한 번 검사해 패턴이 발견되면 거부합니다. 깨끗한 요청은 살균하지 않습니다.
+         */
+        BLOCK
     }
 
     /**
@@ -0,0 +1,52 @@
+package com.uniguri.config;
+
+import com.uniguri.XssIgnore;
+import com.uniguri.XssStringJsonDeserializer;
+import org.owasp.html.PolicyFactory;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Registers the reflection and resource hints XSS Shield needs under Spring AOT and GraalVM native-image.
+ * <p>
+ * Spring AOT already generates binding hints for {@link XssShieldProperties} and bean definitions for
+ * the auto-configuration; this registrar covers what it cannot infer: the warm-up payload bound by Jackson,
+ * the {@link XssIgnore} annotation, the {@link PolicyFactory} field read by the streaming sanitizer, Spring's HTML entity table used by {@code HtmlUtils}, and the
+ * Caffeine cache implementations that Caffeine instantiates reflectively.
+ * <p>
+ * Spring AOT 및 GraalVM native-image 환경에서 XSS Shield가 필요로 하는 리플렉션/리소스 힌트를 등록합니다.
+ * Spring AOT가 추론하지 못하는 항목(워밍업 페이로드, {@link XssIgnore}, 스트리밍 살균기가 읽는 {@link PolicyFactory} 필드, HtmlUtils 엔티티 테이블,
+ * 리플렉션으로 생성되는 Caffeine 캐시 구현체)을 다룹니다.
+ */
+public class XssShieldRuntimeHints implements RuntimeHintsRegistrar {
+
+    /**
+     * Caffeine cache and node classes selected by the builders used in this library
+     * (bounded; bounded + expire-after-write; bounded + stats).
+     */
+    static final String[] CAFFEINE_TYPES = {
+            "com.github.benmanes.caffeine.cache.SSMS",
+            "com.github.benmanes.caffeine.cache.SSMSW",
+            "com.github.benmanes.caffeine.cache.SSSMS",
+            "com.github.benmanes.caffeine.cache.PSMS",
+            "com.github.benmanes.caffeine.cache.PSWMS"
+    };
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        hints.reflection().registerType(XssIgnore.class);
+        hints.reflection().registerType(XssStringJsonDeserializer.class,
+                MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+        hints.reflection().registerType(XssShieldWarmup.WarmupPayload.class,
+                MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+        // The streaming sanitizer reads the policy's preprocessor so that it runs once over the whole stream.
+        hints.reflection().registerType(PolicyFactory.class, MemberCategory.DECLARED_FIELDS);
+        for (String type : CAFFEINE_TYPES) {
+            hints.reflection().registerTypeIfPresent(classLoader, type,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.DECLARED_FIELDS);
+        }
+        hints.resources().registerPattern("org/springframework/web/util/HtmlCharacterEntityReferences.properties");
+        hints.resources().registerPattern("META-INF/jfr/xss-shield.jfc");
+    }
+}
@@ -0,0 +1,148 @@
+package com.uniguri.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.uniguri.XssStringJsonDeserializer;
+import com.uniguri.XssUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Drives the sanitizers, the detector and the JSON deserializer before traffic arrives,
+ * so that OWASP, the detection regexes and Jackson are already JIT-compiled when the
+ * first real request is served.
+ * <p>
+ * Runs from {@link #afterSingletonsInstantiated()}, i.e. before the embedded web server
+ * starts and therefore before the application reports itself ready.
+ * <p>
+ * 실제 트래픽 이전에 Sanitizer, 탐지 로직, JSON Deserializer를 미리 실행하여
+ * 첫 요청 시점에 OWASP, 정규식, Jackson이 JIT 컴파일된 상태가 되도록 합니다.
+ * 내장 웹 서버 시작 전({@link #afterSingletonsInstantiated()})에 실행되므로 애플리케이션이 준비 상태가 되기 전에 완료됩니다.
+ */
+public class XssShieldWarmup implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(XssShieldWarmup.class);
+
+    static final List<String> BUILT_IN_CORPUS = List.of(
+            "",
+            "hello",
+            "Hello, this is a plain sentence with some punctuation: a=b, c+d, x@y.",
+            "안녕하세요. 일반 텍스트 입력입니다.",
+            "<p>Paragraph with <b>bold</b>, <em>emphasis</em> and <br> a break.</p>",
+            "<div class=\"box\" style=\"color: red; font-size: 12px\"><span>styled</span></div>",
+            "<ul><li>one</li><li>two</li></ul><table><tr><td>cell</td></tr></table>",
+            "<a href=\"https://example.com/path?q=1&amp;r=2\">link</a>",
+            "<img src=\"https://example.com/a.png\" alt=\"image\" width=\"10\" height=\"10\">",
+            "<script>alert('XSS')</script>",
+            "<IMG SRC=\"javascript:alert('XSS');\">",
+            "<BODY ONLOAD=alert('XSS')>",
+            "<a href=\"javascript:alert(1)\">click</a>",
+            "<div style=\"width: expression(alert(1))\">x</div>",
+            "&lt;script&gt;alert(1)&lt;/script&gt;",
+            "%3Cscript%3Ealert('XSS')%3C/script%3E",
+            "PHNjcmlwdD5hbGVydCgxKTwvc2NyaXB0Pg==",
+            "eval(atob('YWxlcnQoMSk='))"
+    );
+
+    private final XssUtils xssUtils;
+    private final XssShieldProperties properties;
+    private final ObjectMapper objectMapper;
+    private volatile Duration lastDuration;
+
+    /**
+     * @param xssUtils     The utility to warm up. / 워밍업 대상 유틸리티
+     * @param properties   The configuration properties. / 설정 프로퍼티
+     * @param objectMapper The application's ObjectMapper, or {@code null} to use a private one. / 애플리케이션 ObjectMapper (없으면 null)
+     */
+    public XssShieldWarmup(XssUtils xssUtils, XssShieldProperties properties, ObjectMapper objectMapper) {
+        this.xssUtils = xssUtils;
+        this.properties = properties;
+        this.objectMapper = objectMapper != null ? objectMapper : privateObjectMapper(xssUtils, properties);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        run();
+    }
+
+    /**
+     * Runs the warm-up and returns the time it took.
+     * <p>
+     * 워밍업을 실행하고 소요 시간을 반환합니다.
+     */
+    public Duration run() {
+        XssShieldProperties.WarmupConfig config = properties.getWarmup();
+        List<String> corpus = new ArrayList<>(BUILT_IN_CORPUS);
+        if (config.getCorpus() != null) {
+            corpus.addAll(config.getCorpus());
+        }
+        long start = System.nanoTime();
+        long deadline = start + config.getMaxDuration().toNanos();
+        int completed = 0;
+        try {
+            for (; completed < config.getIterations() && System.nanoTime() < deadline; completed++) {
+                for (String sample : corpus) {
+                    xssUtils.warmUp(sample);
+                    deserialize(sample);
+                }
+            }
+        } finally {
+            XssUtils.clearRequestInfo();
+        }
+        // The deserializer goes through the sanitize caches; keep them free of warm-up samples.
+        xssUtils.invalidate(corpus);
+
+        List<String> hotValues = config.getHotValues();
+        if (hotValues != null) {
+            for (String value : hotValues) {
+                xssUtils.sanitize(value);
+                xssUtils.strictSanitize(value);
+                xssUtils.sanitizeFormInput(value);
+            }
+        }
+        lastDuration = Duration.ofNanos(System.nanoTime() - start);
+        log.info("XSS Shield warm-up completed in {} ms ({} of {} iterations, {} corpus samples, {} hot values).",
+                lastDuration.toMillis(), completed, config.getIterations(), corpus.size(),
+                hotValues != null ? hotValues.size() : 0);
+        return lastDuration;
+    }
+
+    /**
+     * Returns the duration of the last warm-up, or {@code null} if it has not run yet.
+     * <p>
+     * 마지막 워밍업 소요 시간을 반환합니다. 아직 실행되지 않았다면 {@code null}입니다.
+     */
+    public Duration getLastDuration() {
+        return lastDuration;
+    }
+
+    private void deserialize(String sample) {
+        try {
+            objectMapper.readValue(objectMapper.writeValueAsString(new WarmupPayload(sample)), WarmupPayload.class);
+        } catch (Exception e) {
+            log.debug("Warm-up deserialization failed for sample, ignoring.", e);
+        }
+    }
+
+    private static ObjectMapper privateObjectMapper(XssUtils xssUtils, XssShieldProperties properties) {
+        SimpleModule module = new SimpleModule();
+        module.addDeserializer(String.class, new XssStringJsonDeserializer(xssUtils, properties));
+        return new ObjectMapper().registerModule(module);
+    }
+
+    static class WarmupPayload {
+        public String value;
+
+        WarmupPayload() {
+        }
+
+        WarmupPayload(String value) {
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.uniguri;
+
+import com.uniguri.config.XssShieldAutoConfiguration;
+import com.uniguri.config.XssShieldProperties;
+import jakarta.servlet.Filter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.owasp.html.HtmlPolicyBuilder;
+import org.owasp.html.PolicyFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("공격 클라이언트 차단 필터 테스트")
+class AttackTrackingFilterTest {
+
+    private static final PolicyFactory HTML = new HtmlPolicyBuilder().allowElements("b").toFactory();
+    private static final PolicyFactory STRICT = new HtmlPolicyBuilder().toFactory();
+
+    private static MockHttpServletRequest request(String ip) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/items");
+        request.setRemoteAddr(ip);
+        return request;
+    }
+
+    private static MockHttpServletRequest forwarded(String remoteAddr, String forwardedFor) {
+        MockHttpServletRequest request = request(remoteAddr);
+        request.addHeader("X-Forwarded-For", forwardedFor);
+        return request;
+    }
+
+    @Test
+    @DisplayName("임계값에 도달한 클라이언트는 래핑 전에 거부된다")
+    void blocksOffendersBeforeWrapping() throws Exception {
+        XssShieldProperties properties = new XssShieldProperties();
+        properties.getAttackTracking().setEnabled(true);
+        properties.getAttackTracking().setThreshold(2);
+        properties.getAttackTracking().setRejectStatus(429);
+        XssUtils xssUtils = new XssUtils(HTML, STRICT, STRICT, properties);
+        Filter filter = new XssShieldAutoConfiguration()
+                .customXssFilter(xssUtils, properties, new AntPathMatcher()).getFilter();
+        AttackTracker tracker = xssUtils.getAttackTracker();
+        assertNotNull(tracker);
+
+        tracker.record("198.51.100.4");
+        MockHttpServletResponse accepted = new MockHttpServletResponse();
+        MockFilterChain passed = new MockFilterChain();
+        filter.doFilter(request("198.51.100.4"), accepted, passed);
+        assertEquals(200, accepted.getStatus());
+        assertNotNull(passed.getRequest());
+
+        tracker.record("198.51.100.4");
+        MockHttpServletResponse blocked = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request("198.51.100.4"), blocked, chain);
+        assertEquals(429, blocked.getStatus());
+        assertNull(chain.getRequest());
+
+        MockHttpServletResponse other = new MockHttpServletResponse();
+        filter.doFilter(request("203.0.113.9"), other, new MockFilterChain());
+        assertEquals(200, other.getStatus());
+    }
+
+    @Test
+    @DisplayName("X-Forwarded-For는 신뢰하는 프록시에서 온 경우에만 사용한다")
+    void honoursForwardedForOnlyBehindTrustedProxies() throws Exception {
+        XssShieldProperties properties = new XssShieldProperties();
+        properties.getAttackTracking().setEnabled(true);
+        properties.getAttackTracking().setThreshold(1);
+        XssUtils xssUtils = new XssUtils(HTML, STRICT, STRICT, properties);
+        Filter filter = new XssShieldAutoConfiguration()
+                .customXssFilter(xssUtils, properties, new AntPathMatcher()).getFilter();
+        xssUtils.getAttackTracker().record("198.51.100.4");
+
+        // Without trusted proxies the header can neither evade a block nor frame a victim.
+        MockHttpServletResponse evading = new MockHttpServletResponse();
+        filter.doFilter(forwarded("198.51.100.4", "203.0.113.50"), evading, new MockFilterChain());
+        assertEquals(403, evading.getStatus());
+        MockHttpServletResponse framed = new MockHttpServletResponse();
+        filter.doFilter(forwarded("203.0.113.9", "198.51.100.4"), framed, new MockFilterChain());
+        assertEquals(200, framed.getStatus());
+
+        properties.getAttackTracking().setTrustedProxies(List.of("10.0.0.1", "10.0.0.2"));
+        filter = new XssShieldAutoConfiguration()
+                .customXssFilter(xssUtils, properties, new AntPathMatcher()).getFilter();
+        MockHttpServletRequest proxied = forwarded("10.0.0.1", "1.2.3.4, 198.51.100.4, 10.0.0.2");
+        MockHttpServletResponse behindProxy = new MockHttpServletResponse();
+        filter.doFilter(proxied, behindProxy, new MockFilterChain());
+        assertEquals(403, behindProxy.getStatus());
+        assertEquals("198.51.100.4", XssUtils.RequestInfo.clientIp(proxied));
+
+        MockHttpServletResponse direct = new MockHttpServletResponse();
+        filter.doFilter(forwarded("203.0.113.9", "198.51.100.4"), direct, new MockFilterChain());
+        assertEquals(200, direct.getStatus());
+    }
+
+    @Test
+    @DisplayName("비활성화 시 추적기가 생성되지 않는다")
+    void disabledByDefault() {
+        assertNull(new XssUtils(HTML, STRICT, STRICT, new XssShieldProperties()).getAttackTracker());
+    }
+}
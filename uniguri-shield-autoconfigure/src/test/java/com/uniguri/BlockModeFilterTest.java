@@ -0,0 +1,164 @@
+package com.uniguri;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.uniguri.config.XssShieldAutoConfiguration;
+import com.uniguri.config.XssShieldProperties;
+import jakarta.servlet.Filter;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.owasp.html.HtmlPolicyBuilder;
+import org.owasp.html.PolicyFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BLOCK 모드 필터 테스트")
+class BlockModeFilterTest {
+
+    private static final PolicyFactory HTML = new HtmlPolicyBuilder().allowElements("b").toFactory();
+    private static final PolicyFactory STRICT = new HtmlPolicyBuilder().toFactory();
+
+    private final XssShieldProperties properties = blockProperties();
+    private final XssUtils xssUtils = new XssUtils(HTML, STRICT, STRICT, properties);
+    private final Filter filter = new XssShieldAutoConfiguration()
+            .customXssFilter(xssUtils, properties, new AntPathMatcher()).getFilter();
+
+    private static XssShieldProperties blockProperties() {
+        XssShieldProperties properties = new XssShieldProperties();
+        properties.setMode(XssShieldProperties.Mode.BLOCK);
+        properties.getBlock().setMaxBodySize(64);
+        return properties;
+    }
+
+    private static MockHttpServletRequest json(String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/items");
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("파라미터에서 패턴이 탐지되면 400으로 응답하고 체인을 호출하지 않는다")
+    void rejectsMaliciousParameters() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/items");
+        request.addParameter("q", "ok", "<script>alert(1)</script>");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, response, chain);
+        assertEquals(400, response.getStatus());
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    @DisplayName("JSON 본문이 없는 깨끗한 요청은 검사 표시 없이 SANITIZE 모드처럼 살균된다")
+    void sanitizesRequestsWithoutJsonBody() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/items");
+        request.addParameter("q", "Tom & Jerry");
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        assertNotSame(request, chain.getRequest());
+        assertEquals("Tom &amp; Jerry", chain.getRequest().getParameter("q"));
+        assertNull(request.getAttribute(XssUtils.SCANNED_ATTRIBUTE));
+
+        properties.getBlock().setScanJsonBody(false);
+        MockHttpServletRequest unscanned = json("{\"name\":\"x\"}");
+        chain = new MockFilterChain();
+        filter.doFilter(unscanned, new MockHttpServletResponse(), chain);
+        assertNotSame(unscanned, chain.getRequest());
+        assertNull(unscanned.getAttribute(XssUtils.SCANNED_ATTRIBUTE));
+    }
+
+    @Test
+    @DisplayName("JSON 본문을 스트리밍으로 검사하고 깨끗한 본문은 그대로 다시 읽을 수 있다")
+    void scansJsonBodies() throws Exception {
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        MockFilterChain blockedChain = new MockFilterChain();
+        filter.doFilter(json("{\"a\":[1,{\"b\":\"<img src=x onerror=alert(1)>\"}]}"), rejected, blockedChain);
+        assertEquals(400, rejected.getStatus());
+        assertNull(blockedChain.getRequest());
+
+        String body = "{\"name\":\"Tom & Jerry\",\"n\":[1,2]}";
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(json(body), new MockHttpServletResponse(), chain);
+        ServletRequest passed = chain.getRequest();
+        assertEquals(body, new String(passed.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+        assertEquals(Set.of("Tom & Jerry"), passed.getAttribute(XssUtils.SCANNED_ATTRIBUTE));
+    }
+
+    @Test
+    @DisplayName("재생 본문은 비동기 ReadListener에 즉시 전체 데이터를 알린다")
+    void replayedBodySupportsReadListener() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(json("{\"name\":\"x\"}"), new MockHttpServletResponse(), chain);
+        ServletInputStream in = chain.getRequest().getInputStream();
+        List<String> calls = new ArrayList<>();
+        in.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                calls.add(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+
+            @Override
+            public void onAllDataRead() {
+                calls.add("done");
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                calls.add("error");
+            }
+        });
+        assertEquals(List.of("{\"name\":\"x\"}", "done"), calls);
+    }
+
+    @Test
+    @DisplayName("검사 한도를 넘는 본문은 SANITIZE 모드처럼 살균하며 본문은 온전히 전달된다")
+    void sanitizesWhenBodyIsTooLarge() throws Exception {
+        String body = "{\"text\":\"" + "x".repeat(100) + "\"}";
+        MockHttpServletRequest request = json(body);
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        request.addParameter("q", "<i>y</i>");
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        ServletRequest passed = chain.getRequest();
+        assertEquals("y", passed.getParameter("q"));
+        assertNull(passed.getAttribute(XssUtils.SCANNED_ATTRIBUTE));
+        assertEquals(body, new String(passed.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("검사를 통과한 본문의 JSON 값만 역직렬화에서 다시 살균하지 않는다")
+    void deserializerSkipsScannedRequests() throws Exception {
+        SimpleModule module = new SimpleModule();
+        module.addDeserializer(String.class, new XssStringJsonDeserializer(xssUtils, properties));
+        ObjectMapper mapper = new ObjectMapper().registerModule(module);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/items");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        assertEquals("Tom &amp; Jerry", mapper.readValue("\"Tom & Jerry\"", String.class));
+        request.setAttribute(XssUtils.SCANNED_ATTRIBUTE, Set.of("Tom & Jerry"));
+        assertEquals("Tom & Jerry", mapper.readValue("\"Tom & Jerry\"", String.class));
+        assertEquals("Tom &amp; Tom", mapper.readValue("\"Tom & Tom\"", String.class));
+    }
+}
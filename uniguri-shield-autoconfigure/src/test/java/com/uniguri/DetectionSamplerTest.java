@@ -0,0 +1,122 @@
+package com.uniguri;
+
+import com.uniguri.config.XssShieldProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.owasp.html.HtmlPolicyBuilder;
+import org.owasp.html.PolicyFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("샘플링 탐지 모드 테스트")
+class DetectionSamplerTest {
+
+    private static final PolicyFactory POLICY = new HtmlPolicyBuilder().allowElements("p").toFactory();
+
+    private static XssUtils sampled(double rate, XssShieldProperties.SampleUnit unit) {
+        XssShieldProperties properties = new XssShieldProperties();
+        properties.getDetection().setMode(XssShieldProperties.DetectionMode.SAMPLED);
+        properties.getDetection().setSampleRate(rate);
+        properties.getDetection().setSampleBy(unit);
+        return new XssUtils(POLICY, POLICY, POLICY, properties);
+    }
+
+    private static void enterRequest(String clientIp) {
+        XssUtils.clearRequestInfo();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/items");
+        request.setRemoteAddr(clientIp);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        XssUtils.clearRequestInfo();
+    }
+
+    @Test
+    @DisplayName("사전 필터가 값을 분류한다")
+    void classifiesValues() {
+        assertEquals(DetectionSampler.Signal.INERT, DetectionSampler.classify("hello world"));
+        assertEquals(DetectionSampler.Signal.INERT, DetectionSampler.classify("안녕하세요, 반갑습니다."));
+        assertEquals(DetectionSampler.Signal.MARKUP, DetectionSampler.classify("<b>x</b>"));
+        assertEquals(DetectionSampler.Signal.MARKUP, DetectionSampler.classify("a &lt;b"));
+        assertEquals(DetectionSampler.Signal.MARKUP, DetectionSampler.classify("%3Cscript"));
+        assertEquals(DetectionSampler.Signal.MARKUP, DetectionSampler.classify("JavaScript:alert(1)"));
+        assertEquals(DetectionSampler.Signal.SUSPECT, DetectionSampler.classify("a=b"));
+        assertEquals(DetectionSampler.Signal.SUSPECT, DetectionSampler.classify("eval(x)"));
+        assertEquals(DetectionSampler.Signal.SUSPECT, DetectionSampler.classify("PHNjcmlwdD4="));
+        assertEquals(DetectionSampler.Signal.SUSPECT, DetectionSampler.classify("PHNjcmlwdD5h"));
+    }
+
+    @Test
+    @DisplayName("INERT로 분류된 값은 전수 검사에서도 탐지되지 않는다")
+    void inertValuesNeverMatch() {
+        XssUtils full = new XssUtils(POLICY, POLICY, POLICY);
+        String alphabet = "aejlostvcrpinAPHN0123+/= ():%&<>\"'#;";
+        Random random = new Random(7);
+        for (int i = 0; i < 20_000; i++) {
+            StringBuilder value = new StringBuilder();
+            int length = 1 + random.nextInt(16);
+            for (int k = 0; k < length; k++) {
+                value.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            if (DetectionSampler.classify(value.toString()) == DetectionSampler.Signal.INERT) {
+                assertFalse(full.containsXssPattern(value.toString()), value::toString);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("마크업이 포함된 값은 표본 비율과 관계없이 항상 검사한다")
+    void alwaysInspectsMarkup() {
+        XssUtils xssUtils = sampled(0.0, XssShieldProperties.SampleUnit.REQUEST);
+        enterRequest("10.0.0.1");
+
+        assertTrue(xssUtils.containsXssPattern("<script>alert(1)</script>"));
+        assertTrue(xssUtils.containsXssPattern("javascript:alert(1)"));
+        assertFalse(xssUtils.isSafeString("<img src=\"x\" onerror=\"y()\">"));
+    }
+
+    @Test
+    @DisplayName("표본에서 빠진 일반 값은 검사하지 않지만 최근 탐지된 클라이언트는 전수 검사한다")
+    void inspectsFlaggedClients() {
+        XssUtils xssUtils = sampled(0.0, XssShieldProperties.SampleUnit.REQUEST);
+
+        enterRequest("10.0.0.2");
+        assertFalse(xssUtils.containsXssPattern("eval(document.cookie)"));
+
+        enterRequest("10.0.0.3");
+        assertTrue(xssUtils.containsXssPattern("<script>x</script>"));
+        enterRequest("10.0.0.3");
+        assertTrue(xssUtils.containsXssPattern("eval(document.cookie)"));
+
+        enterRequest("10.0.0.2");
+        assertFalse(xssUtils.containsXssPattern("eval(document.cookie)"));
+    }
+
+    @Test
+    @DisplayName("요청 단위 샘플링은 요청 내 모든 값에 같은 결정을 적용한다")
+    void decidesOncePerRequest() {
+        XssUtils xssUtils = sampled(0.5, XssShieldProperties.SampleUnit.REQUEST);
+        Set<Boolean> decisions = new HashSet<>();
+        for (int request = 0; request < 50; request++) {
+            enterRequest("10.0.1." + request);
+            Set<Boolean> withinRequest = new HashSet<>();
+            for (int i = 0; i < 20; i++) {
+                withinRequest.add(xssUtils.containsXssPattern("eval(x)"));
+            }
+            assertEquals(1, withinRequest.size());
+            decisions.addAll(withinRequest);
+        }
+        assertEquals(Set.of(true, false), decisions);
+    }
+}
@@ -0,0 +1,109 @@
+package com.uniguri;
+
+import com.uniguri.config.XssShieldProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.owasp.html.HtmlPolicyBuilder;
+import org.owasp.html.PolicyFactory;
+import org.springframework.web.util.HtmlUtils;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("이스케이퍼 및 toSafeOutput 단일 패스 테스트")
+class HtmlEscaperTest {
+
+    private static final PolicyFactory HTML = new HtmlPolicyBuilder()
+            .allowElements("p", "b", "a").allowAttributes("href").onElements("a").allowStandardUrlProtocols()
+            .toFactory();
+    private static final PolicyFactory STRICT = new HtmlPolicyBuilder().toFactory();
+
+    private static final List<String> CORPUS = List.of(
+            "", "plain", "안녕하세요", "a & b < c > d \" e ' f", "café € ©",
+            "<p>Hi <b>there</b></p>", "<a href=\"https://x.example/?a=1&b=2\">l</a>",
+            "<script>alert(1)</script>ok", "<p onclick=\"x()\">t</p>", "😀 <b>emoji</b>", "a=b+c@d`e"
+    );
+
+    @Test
+    @DisplayName("모든 문자에 대해 HtmlUtils.htmlEscape와 같은 결과를 낸다")
+    void matchesHtmlUtilsForEveryChar() {
+        for (int c = 0; c <= Character.MAX_VALUE; c++) {
+            String s = String.valueOf((char) c);
+            assertEquals(HtmlUtils.htmlEscape(s), HtmlEscaper.escape(s), () -> "char " + (int) s.charAt(0));
+        }
+        Random random = new Random(3);
+        for (int i = 0; i < 2000; i++) {
+            char[] chars = new char[random.nextInt(30)];
+            for (int k = 0; k < chars.length; k++) {
+                chars[k] = (char) (random.nextBoolean() ? random.nextInt(128) : random.nextInt(10_500));
+            }
+            String s = new String(chars);
+            assertEquals(HtmlUtils.htmlEscape(s), HtmlEscaper.escape(s));
+        }
+    }
+
+    @Test
+    @DisplayName("unescape는 HtmlUtils.htmlUnescape와 같은 결과를 낸다")
+    void unescapeMatchesHtmlUtils() {
+        String alphabet = "&&;;#xX0123456789aAfFltgquotmpnbsp39 <é";
+        Random random = new Random(37);
+        for (int i = 0; i < 20_000; i++) {
+            StringBuilder sb = new StringBuilder();
+            int length = random.nextInt(24);
+            for (int k = 0; k < length; k++) {
+                sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            String s = sb.toString();
+            assertEquals(HtmlUtils.htmlUnescape(s), HtmlEscaper.unescape(s), s);
+        }
+        for (String s : List.of("&lt;script&gt;", "&#60;&#x3C;&#X3c;", "&nbsp;&euro;&bogus;", "&#;&#x;&#99999999999;", "a & b; c")) {
+            assertEquals(HtmlUtils.htmlUnescape(s), HtmlEscaper.unescape(s), s);
+        }
+    }
+
+    @Test
+    @DisplayName("이스케이프할 문자가 없으면 같은 인스턴스를 반환한다")
+    void returnsSameInstanceWhenClean() {
+        XssUtils xssUtils = new XssUtils(HTML, STRICT, STRICT);
+        String clean = "hello world 안녕하세요 123";
+        assertSame(clean, xssUtils.escape(clean));
+        assertNull(xssUtils.escape(null));
+    }
+
+    @Test
+    @DisplayName("Appendable/StringBuilder 오버로드는 문자열 결과와 같다")
+    void appendableOverloadsMatch() throws IOException {
+        XssUtils xssUtils = new XssUtils(HTML, STRICT, STRICT);
+        for (String input : CORPUS) {
+            StringWriter writer = new StringWriter();
+            xssUtils.escape(input, writer);
+            assertEquals(HtmlUtils.htmlEscape(input), writer.toString());
+            assertEquals("[" + HtmlUtils.htmlEscape(input), xssUtils.escape(input, new StringBuilder("[")).toString());
+        }
+    }
+
+    @Test
+    @DisplayName("단일 패스 toSafeOutput은 sanitize 후 escape한 결과와 같다")
+    void fusedToSafeOutputMatchesTwoPasses() throws IOException {
+        XssShieldProperties cached = new XssShieldProperties();
+        cached.getCache().setSanitizeEnabled(true);
+        for (XssUtils xssUtils : List.of(new XssUtils(HTML, STRICT, STRICT), new XssUtils(HTML, STRICT, STRICT, cached))) {
+            for (String input : CORPUS) {
+                String expected = HtmlUtils.htmlEscape(HTML.sanitize(input));
+                assertEquals(expected, xssUtils.toSafeOutput(input));
+                xssUtils.sanitize(input);
+                assertEquals(expected, xssUtils.toSafeOutput(input), "after the sanitize cache is populated");
+
+                StringWriter writer = new StringWriter();
+                xssUtils.toSafeOutput(input, writer);
+                assertEquals(expected, writer.toString());
+                assertEquals(expected, xssUtils.toSafeOutput(input, new StringBuilder()).toString());
+            }
+            assertEquals("", xssUtils.toSafeOutput(null));
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.uniguri;
+
+import com.uniguri.config.XssShieldProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.owasp.html.HtmlPolicyBuilder;
+import org.owasp.html.PolicyFactory;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("객체 그래프 살균 테스트")
+class ObjectSanitizerTest {
+
+    private static final PolicyFactory HTML = new HtmlPolicyBuilder().allowElements("b").toFactory();
+    private static final PolicyFactory STRICT = new HtmlPolicyBuilder().toFactory();
+    private static final String DIRTY = "<b>x</b><script>s</script>";
+
+    private final XssUtils xssUtils = new XssUtils(HTML, STRICT, STRICT);
+
+    static class Base {
+        private String inherited = DIRTY;
+    }
+
+    static class Form extends Base {
+        private String title = DIRTY;
+        private final String fixed = String.valueOf(DIRTY);
+        @XssIgnore
+        private String raw = DIRTY;
+        private String markup = DIRTY;
+        private int count = 3;
+        private Object any = DIRTY;
+        private String[] tags = {DIRTY, "ok"};
+        private List<String> lines = new ArrayList<>(List.of(DIRTY));
+        private List<String> frozen = List.of(DIRTY);
+        private Set<String> names = new HashSet<>(Set.of(DIRTY));
+        private Map<String, Object> attributes = new HashMap<>(Map.of("k", DIRTY));
+        private Optional<String> note = Optional.of(DIRTY);
+        private Optional<String> missing = Optional.empty();
+        private Comment comment = new Comment(DIRTY, 1, DIRTY);
+        private List<Comment> comments = new ArrayList<>(List.of(new Comment("a", 2, "b"), new Comment(DIRTY, 3, "c")));
+        private Form parent;
+
+        @XssIgnore
+        public String getMarkup() {
+            return markup;
+        }
+    }
+
+    record Comment(String body, int votes, @XssIgnore String html) {
+    }
+
+    @Test
+    @DisplayName("필드, 상속, 컬렉션, 레코드의 문자열을 살균하고 @XssIgnore를 따른다")
+    void sanitizesGraph() {
+        Form form = new Form();
+        assertSame(form, xssUtils.sanitizeObject(form));
+        assertEquals("<b>x</b>", form.title);
+        assertEquals("<b>x</b>", ((Base) form).inherited);
+        assertEquals("<b>x</b>", form.fixed);
+        assertEquals(DIRTY, form.raw);
+        assertEquals(DIRTY, form.markup);
+        assertEquals(3, form.count);
+        assertEquals("<b>x</b>", form.any);
+        assertArrayEquals(new String[]{"<b>x</b>", "ok"}, form.tags);
+        assertEquals(List.of("<b>x</b>"), form.lines);
+        assertEquals(List.of("<b>x</b>"), form.frozen);
+        assertEquals(Set.of("<b>x</b>"), form.names);
+        assertEquals(Map.of("k", "<b>x</b>"), form.attributes);
+        assertEquals(Optional.of("<b>x</b>"), form.note);
+        assertTrue(form.missing.isEmpty());
+        assertEquals(new Comment("<b>x</b>", 1, DIRTY), form.comment);
+        assertEquals(List.of(new Comment("a", 2, "b"), new Comment("<b>x</b>", 3, "c")), form.comments);
+    }
+
+    @Test
+    @DisplayName("순환 참조와 공유 참조는 한 번만 방문한다")
+    void handlesCycles() {
+        Form form = new Form();
+        form.parent = form;
+        Comment shared = new Comment(DIRTY, 0, "");
+        List<Object> graph = new ArrayList<>(List.of(form, shared, shared));
+        graph.add(graph);
+        xssUtils.strictSanitizeObject(graph);
+        assertEquals("x", form.title);
+        assertSame(form, form.parent);
+        assertSame(graph.get(1), graph.get(2));
+        assertEquals("x", ((Comment) graph.get(1)).body());
+        assertSame(graph, graph.get(3));
+    }
+
+    @Test
+    @DisplayName("최상위 값이 문자열, 레코드, 수정 불가 컬렉션이면 새 인스턴스를 반환한다")
+    void rebuildsImmutableRoots() {
+        assertEquals("<b>x</b>", xssUtils.sanitizeObject(DIRTY));
+        assertEquals(new Comment("<b>x</b>", 1, DIRTY), xssUtils.sanitizeObject(new Comment(DIRTY, 1, DIRTY)));
+        assertEquals(Map.of("a", List.of("<b>x</b>")), xssUtils.sanitizeObject(Map.of("a", List.of(DIRTY))));
+        assertNull(xssUtils.sanitizeObject(null));
+        Integer boxed = 5;
+        assertSame(boxed, xssUtils.sanitizeObject(boxed));
+    }
+
+    /** A concrete immutable list type, like Guava's {@code ImmutableList}: {@code set} throws. */
+    static final class FrozenList extends AbstractList<String> {
+        private final List<String> elements;
+
+        FrozenList(String... elements) {
+            this.elements = List.of(elements);
+        }
+
+        @Override
+        public String get(int index) {
+            return elements.get(index);
+        }
+
+        @Override
+        public int size() {
+            return elements.size();
+        }
+    }
+
+    static class Tags {
+        private FrozenList frozen = new FrozenList(DIRTY);
+        private List<String> declaredAsList = new FrozenList(DIRTY);
+    }
+
+    record TaggedComment(String body, FrozenList tags) {
+    }
+
+    @Test
+    @DisplayName("새로 만든 컬렉션이 선언 타입에 맞지 않으면 ClassCastException 없이 원래 값을 유지한다")
+    void keepsValuesThatRebuiltCopiesDoNotFit() {
+        Tags tags = new Tags();
+        FrozenList frozen = tags.frozen;
+        assertSame(tags, xssUtils.sanitizeObject(tags));
+        assertSame(frozen, tags.frozen);
+        assertEquals(List.of("<b>x</b>"), tags.declaredAsList);
+
+        FrozenList componentTags = new FrozenList(DIRTY);
+        TaggedComment comment = xssUtils.sanitizeObject(new TaggedComment(DIRTY, componentTags));
+        assertEquals("<b>x</b>", comment.body());
+        assertSame(componentTags, comment.tags());
+    }
+
+    @Test
+    @DisplayName("큰 리스트는 병렬로 순회해도 순차 결과와 같다")
+    void parallelWalk() {
+        XssShieldProperties properties = new XssShieldProperties();
+        properties.getObject().setParallelThreshold(64);
+        XssUtils parallel = new XssUtils(HTML, STRICT, STRICT, properties);
+        Form shared = new Form();
+        List<Object> values = new ArrayList<>();
+        IntStream.range(0, 5_000).forEach(i -> values.add(i % 3 == 0 ? shared : i % 3 == 1 ? DIRTY + i : new Comment(DIRTY, i, "")));
+        parallel.sanitizeObject(values);
+        for (int i = 0; i < values.size(); i++) {
+            Object value = values.get(i);
+            if (i % 3 == 0) {
+                assertSame(shared, value);
+            } else if (i % 3 == 1) {
+                assertEquals("<b>x</b>" + i, value);
+            } else {
+                assertEquals(new Comment("<b>x</b>", i, ""), value);
+            }
+        }
+        assertEquals("<b>x</b>", shared.title);
+    }
+
+    record Topic(String title, List<String> replies) {
+    }
+
+    static class Post {
+        private Topic topic;
+    }
+
+    @Test
+    @DisplayName("병렬 순회에서 공유 레코드는 모든 참조가 살균된 같은 인스턴스로 바뀐다")
+    void parallelWalkRebuildsSharedRecords() {
+        XssShieldProperties properties = new XssShieldProperties();
+        properties.getObject().setParallelThreshold(8);
+        XssUtils parallel = new XssUtils(HTML, STRICT, STRICT, properties);
+        for (int round = 0; round < 20; round++) {
+            Topic shared = new Topic(DIRTY, IntStream.range(0, 500).mapToObj(i -> DIRTY + i).toList());
+            List<Object> values = new ArrayList<>();
+            for (int i = 0; i < 2_000; i++) {
+                Post post = new Post();
+                post.topic = shared;
+                values.add(i % 2 == 0 ? shared : post);
+            }
+            parallel.sanitizeObject(values);
+            Topic sanitized = (Topic) values.get(0);
+            assertEquals("<b>x</b>", sanitized.title());
+            assertEquals("<b>x</b>499", sanitized.replies().get(499));
+            for (Object value : values) {
+                assertSame(sanitized, value instanceof Post post ? post.topic : value);
+            }
+        }
+    }
+}
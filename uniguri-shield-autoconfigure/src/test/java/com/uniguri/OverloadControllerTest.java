@@ -0,0 +1,140 @@
+package com.uniguri;
+
+import com.uniguri.config.XssShieldAutoConfiguration;
+import com.uniguri.config.XssShieldOverloadMetrics;
+import com.uniguri.config.XssShieldProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.Filter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.owasp.html.HtmlPolicyBuilder;
+import org.owasp.html.PolicyFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.AntPathMatcher;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("적응형 과부하 모드 테스트")
+class OverloadControllerTest {
+
+    private static final PolicyFactory HTML = new HtmlPolicyBuilder().allowElements("b").toFactory();
+    private static final PolicyFactory STRICT = new HtmlPolicyBuilder().toFactory();
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private volatile double load;
+
+    private XssShieldProperties.OverloadConfig config(XssShieldProperties.OverloadAction action) {
+        XssShieldProperties.OverloadConfig config = new XssShieldProperties().getOverload();
+        config.setEnabled(true);
+        config.setAction(action);
+        config.setLatencyThreshold(Duration.ofMillis(1));
+        config.setMaxInFlight(0);
+        config.setProbeRate(0.0);
+        config.setMinDegradedTime(Duration.ofSeconds(10));
+        return config;
+    }
+
+    private OverloadController controller(XssShieldProperties.OverloadAction action) {
+        return XssShieldAutoConfiguration.overloadControllerBuilder(config(action))
+                .signal(() -> load)
+                .nanoClock(clock::get)
+                .build();
+    }
+
+    private long advance(Duration duration) {
+        return clock.addAndGet(duration.toNanos());
+    }
+
+    @Test
+    @DisplayName("지연 시간이 임계값을 넘으면 엄격/폼 정책만 이스케이프로 전환된다")
+    void escapesNonRichTextPoliciesWhenSlow() {
+        OverloadController controller = controller(XssShieldProperties.OverloadAction.ESCAPE);
+        XssUtils xssUtils = new XssUtils(HTML, STRICT, STRICT);
+        xssUtils.setOverloadController(controller);
+
+        assertEquals("x", xssUtils.strictSanitize("<b>x</b>"));
+        for (int i = 0; i < 50; i++) {
+            controller.recordSanitize(Duration.ofMillis(5).toNanos());
+        }
+        controller.evaluate(advance(Duration.ofMillis(100)));
+
+        assertEquals(OverloadController.Mode.DEGRADED, controller.getMode());
+        assertEquals("&lt;b&gt;x&lt;/b&gt;", xssUtils.strictSanitize("<b>x</b>"));
+        assertEquals("&lt;i&gt;y&lt;/i&gt;", xssUtils.sanitizeFormInput("<i>y</i>"));
+        assertEquals("<b>x</b>", xssUtils.sanitize("<b>x</b><script>s</script>"));
+    }
+
+    @Test
+    @DisplayName("최소 유지 시간과 회복 비율을 모두 만족해야 복귀한다")
+    void recoversWithHysteresis() {
+        OverloadController controller = controller(XssShieldProperties.OverloadAction.ESCAPE);
+        int[] switches = new int[1];
+        controller.addListener((from, to, reason) -> switches[0]++);
+
+        load = 1.5;
+        controller.evaluate(advance(Duration.ofMillis(100)));
+        assertEquals(OverloadController.Mode.DEGRADED, controller.getMode());
+
+        load = 0.1;
+        controller.evaluate(advance(Duration.ofSeconds(5)));
+        assertEquals(OverloadController.Mode.DEGRADED, controller.getMode(), "held for min-degraded-time");
+
+        load = 0.7;
+        controller.evaluate(advance(Duration.ofSeconds(6)));
+        assertEquals(OverloadController.Mode.DEGRADED, controller.getMode(), "below threshold but above recovery ratio");
+
+        load = 0.4;
+        controller.evaluate(advance(Duration.ofMillis(100)));
+        assertEquals(OverloadController.Mode.NORMAL, controller.getMode());
+        assertEquals(2, switches[0]);
+        assertEquals(2, controller.getTransitions());
+    }
+
+    @Test
+    @DisplayName("REJECT 모드에서는 필터가 503과 Retry-After로 응답한다")
+    void rejectsRequestsInRejectMode() throws Exception {
+        XssShieldProperties properties = new XssShieldProperties();
+        properties.getOverload().setMinDegradedTime(Duration.ofSeconds(7));
+        OverloadController controller = controller(XssShieldProperties.OverloadAction.REJECT);
+        XssUtils xssUtils = new XssUtils(HTML, STRICT, STRICT, properties);
+        xssUtils.setOverloadController(controller);
+        Filter filter = new XssShieldAutoConfiguration()
+                .customXssFilter(xssUtils, properties, new AntPathMatcher()).getFilter();
+
+        MockHttpServletResponse accepted = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/items"), accepted, new MockFilterChain());
+        assertEquals(200, accepted.getStatus());
+        assertEquals(0, controller.getInFlight());
+
+        load = 2.0;
+        controller.evaluate(advance(Duration.ofMillis(100)));
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(new MockHttpServletRequest("GET", "/items"), rejected, chain);
+        assertEquals(503, rejected.getStatus());
+        assertEquals("7", rejected.getHeader("Retry-After"));
+        assertNull(chain.getRequest());
+        // REJECT does not touch the policies themselves.
+        assertEquals("x", xssUtils.strictSanitize("<b>x</b>"));
+    }
+
+    @Test
+    @DisplayName("모드 전환이 메트릭으로 노출된다")
+    void exposesMetrics() {
+        OverloadController controller = controller(XssShieldProperties.OverloadAction.ESCAPE);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new XssShieldOverloadMetrics(controller).bindTo(registry);
+
+        load = 1.0;
+        controller.evaluate(advance(Duration.ofMillis(100)));
+
+        assertEquals(1.0, registry.get("xss.shield.overload.degraded").gauge().value());
+        assertEquals(1.0, registry.get("xss.shield.overload.transitions").tag("mode", "DEGRADED").counter().count());
+        assertEquals(0.0, registry.get("xss.shield.overload.transitions").tag("mode", "NORMAL").counter().count());
+    }
+}
@@ -0,0 +1,123 @@
+package com.uniguri;
+
+import com.uniguri.config.XssShieldProperties;
+import com.uniguri.jfr.DetectionEvent;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.owasp.html.HtmlPolicyBuilder;
+import org.owasp.html.PolicyFactory;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("조기 종료 안전성 판정 엔진 테스트")
+class SafetyVerdictTest {
+
+    private static final PolicyFactory HTML = new HtmlPolicyBuilder()
+            .allowElements("p", "b", "i", "a").allowAttributes("href").onElements("a").allowStandardUrlProtocols()
+            .toFactory();
+    private static final PolicyFactory STRICT = new HtmlPolicyBuilder().toFactory();
+
+    private static final String ALPHABET = "ab <>/=\"'&;:%#pbia hrefonclickscriptjavascript()안녕😀\n\t";
+
+    @Test
+    @DisplayName("판정 결과가 기존 탐지+살균 비교 방식과 일치한다")
+    void agreesWithSanitizeAndCompare() {
+        XssUtils xssUtils = new XssUtils(HTML, STRICT, STRICT);
+        Random random = new Random(35);
+        for (int n = 0; n < 3000; n++) {
+            StringBuilder sb = new StringBuilder();
+            int length = random.nextInt(40);
+            for (int k = 0; k < length; k++) {
+                sb.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+            }
+            String input = random.nextInt(4) == 0 ? "<p>" + sb + "</p>" : sb.toString();
+            boolean expected = !xssUtils.containsXssPattern(input) && HTML.sanitize(input).equals(input);
+            assertEquals(expected, xssUtils.isSafeString(input), input);
+        }
+    }
+
+    @Test
+    @DisplayName("정책이 바꾸는 첫 위치를 보고한다")
+    void reportsFirstRewrite() {
+        XssUtils xssUtils = new XssUtils(HTML, STRICT, STRICT);
+
+        assertSame(SafetyVerdict.SAFE, xssUtils.checkSafety("plain text 안녕"));
+        assertSame(SafetyVerdict.SAFE, xssUtils.checkSafety("<p>Hello <b>there</b></p>"));
+        assertSame(SafetyVerdict.SAFE, xssUtils.checkSafety(null));
+
+        SafetyVerdict script = xssUtils.checkSafety("hello<script>alert(1)</script>");
+        assertFalse(script.isSafe());
+        assertEquals(SafetyVerdict.Reason.POLICY_REWRITE, script.getReason());
+        assertEquals(5, script.getOffset());
+
+        SafetyVerdict quote = xssUtils.checkSafety("say \"hi\"");
+        assertEquals(SafetyVerdict.Reason.POLICY_REWRITE, quote.getReason());
+        assertEquals(4, quote.getOffset());
+
+        SafetyVerdict unclosed = xssUtils.checkSafety("<b>bold");
+        assertEquals(SafetyVerdict.Reason.POLICY_REWRITE, unclosed.getReason());
+        assertEquals(7, unclosed.getOffset(), "the balancer appends the missing end tag");
+    }
+
+    @Test
+    @DisplayName("정책을 통과한 입력은 다중 디코딩 패턴 탐지로 판정한다")
+    void detectsPatternsOnFixedPoints() {
+        XssUtils xssUtils = new XssUtils(HTML, STRICT, STRICT);
+
+        SafetyVerdict plain = xssUtils.checkSafety("go javascript:void");
+        assertEquals(SafetyVerdict.Reason.XSS_PATTERN, plain.getReason());
+        assertEquals(3, plain.getOffset());
+
+        SafetyVerdict encoded = xssUtils.checkSafety("%3Cscript%3E");
+        assertEquals(SafetyVerdict.Reason.XSS_PATTERN, encoded.getReason());
+        assertTrue(encoded.getDetail().contains("PLAIN") || encoded.getDetail().contains("URL"), encoded.getDetail());
+    }
+
+    @Test
+    @DisplayName("정책이 바꾸는 공격 입력도 탐지 로그와 JFR 이벤트를 남긴다")
+    void rewrittenAttacksAreStillDetected(@TempDir Path dir) throws Exception {
+        XssUtils xssUtils = new XssUtils(HTML, STRICT, STRICT);
+        Path file = dir.resolve("verdict.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(DetectionEvent.NAME).withThreshold(Duration.ZERO);
+            recording.start();
+            assertFalse(xssUtils.isSafeString("hello<script>alert(1)</script>"));
+            assertFalse(xssUtils.isSafeString("Tom & Jerry"));
+            recording.stop();
+            recording.dump(file);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(e -> e.getEventType().getName().equals(DetectionEvent.NAME))
+                .toList();
+        assertEquals(1, events.size());
+        assertEquals("PLAIN", events.get(0).getString("decodeLayer"));
+    }
+
+    @Test
+    @DisplayName("캐시가 활성화되면 판정을 재사용하고 무효화할 수 있다")
+    void cachesVerdicts() {
+        XssShieldProperties properties = new XssShieldProperties();
+        properties.getCache().setSanitizeEnabled(true);
+        XssUtils xssUtils = new XssUtils(HTML, STRICT, STRICT, properties);
+
+        SafetyVerdict first = xssUtils.checkSafety("x<script>y</script>");
+        assertSame(first, xssUtils.checkSafety("x<script>y</script>"));
+        xssUtils.invalidate(List.of("x<script>y</script>"));
+        assertNotSame(first, xssUtils.checkSafety("x<script>y</script>"));
+
+        // A cached sanitize result is compared directly instead of running the policy again.
+        xssUtils.sanitize("a<i>b</i>c \"d\"");
+        SafetyVerdict fromSanitizeCache = xssUtils.checkSafety("a<i>b</i>c \"d\"");
+        assertEquals(SafetyVerdict.Reason.POLICY_REWRITE, fromSanitizeCache.getReason());
+        assertEquals(11, fromSanitizeCache.getOffset());
+    }
+}
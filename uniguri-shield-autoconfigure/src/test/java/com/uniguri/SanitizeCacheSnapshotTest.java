@@ -0,0 +1,115 @@
+package com.uniguri;
+
+import com.uniguri.config.XssShieldProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.owasp.html.HtmlPolicyBuilder;
+import org.owasp.html.PolicyFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("sanitize 캐시 스냅샷 테스트")
+class SanitizeCacheSnapshotTest {
+
+    private static final PolicyFactory HTML = new HtmlPolicyBuilder().allowElements("p").toFactory();
+    private static final PolicyFactory STRICT = new HtmlPolicyBuilder().toFactory();
+
+    private static XssUtils cachedXssUtils(PolicyFactory html) {
+        XssShieldProperties properties = new XssShieldProperties();
+        properties.getCache().setSanitizeEnabled(true);
+        return new XssUtils(html, STRICT, STRICT, properties);
+    }
+
+    @Test
+    @DisplayName("기록한 스냅샷을 매핑하여 해시로 값을 조회한다")
+    void writesAndReadsSections(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("cache.snapshot");
+        SanitizeCacheSnapshot.write(file, List.of(
+                new SanitizeCacheSnapshot.SectionData("html", "fp", Map.of("a", "A", "b", "B", "한글", "값")),
+                new SanitizeCacheSnapshot.SectionData("strict", "fp2", Map.of())));
+
+        SanitizeCacheSnapshot snapshot = SanitizeCacheSnapshot.open(file);
+        SanitizeCacheSnapshot.Section html = snapshot.section("html", "fp");
+
+        assertEquals(3, html.size());
+        assertEquals("A", html.get(PolicyFingerprint.contentHash("a")));
+        assertEquals("값", html.get(PolicyFingerprint.contentHash("한글")));
+        assertNull(html.get(PolicyFingerprint.contentHash("missing")));
+        assertNotNull(snapshot.section("strict", "fp2"));
+        assertNull(snapshot.section("html", "other-fingerprint"));
+    }
+
+    @Test
+    @DisplayName("재시작 후 스냅샷에서 캐시 미스를 처리한다")
+    void servesMissesFromSnapshotAfterRestart(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("cache.snapshot");
+        XssUtils before = cachedXssUtils(HTML);
+        before.sanitize("<p>hot</p><script>x</script>");
+        before.writeSnapshot(file, 100);
+
+        // Tamper with the stored output to prove the value comes from the snapshot.
+        SanitizeCacheSnapshot.write(file, List.of(new SanitizeCacheSnapshot.SectionData(
+                "html", PolicyFingerprint.of(HTML), Map.of("<p>hot</p><script>x</script>", "from-snapshot"))));
+
+        XssUtils after = cachedXssUtils(HTML);
+        assertTrue(after.loadSnapshot(file));
+        assertEquals("from-snapshot", after.sanitize("<p>hot</p><script>x</script>"));
+        assertEquals("<p>cold</p>", after.sanitize("<p>cold</p>"));
+    }
+
+    @Test
+    @DisplayName("정책이 바뀌면 스냅샷은 폐기된다")
+    void discardsSnapshotWhenPolicyChanges(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("cache.snapshot");
+        XssUtils before = cachedXssUtils(HTML);
+        assertEquals("y", before.sanitize("<b>y</b>"));
+        before.writeSnapshot(file, 100);
+
+        XssUtils after = cachedXssUtils(new HtmlPolicyBuilder().allowElements("p", "b").toFactory());
+        // The strict sections still match; only the changed html section is discarded.
+        assertTrue(after.loadSnapshot(file));
+        assertEquals("<b>y</b>", after.sanitize("<b>y</b>"));
+    }
+
+    @Test
+    @DisplayName("잘리거나 레코드가 손상된 스냅샷은 열 때 거부한다")
+    void rejectsTruncatedOrCorruptRecords(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("cache.snapshot");
+        String fingerprint = PolicyFingerprint.of(HTML);
+        SanitizeCacheSnapshot.write(file, List.of(new SanitizeCacheSnapshot.SectionData(
+                "html", fingerprint, Map.of("<p>a</p>", "A", "<p>b</p>", "B", "<p>c</p>", "C"))));
+        byte[] valid = Files.readAllBytes(file);
+
+        Files.write(file, Arrays.copyOf(valid, valid.length - 1));
+        assertThrows(IOException.class, () -> SanitizeCacheSnapshot.open(file));
+
+        // Point the first record (not the last one) past the end of the file.
+        byte[] corrupt = valid.clone();
+        int firstRecord = 4 + 4 + 8 + 4 + 2 + "html".length() + 2 + fingerprint.getBytes(StandardCharsets.UTF_8).length + 4;
+        ByteBuffer.wrap(corrupt).putInt(firstRecord + 16, valid.length);
+        Files.write(file, corrupt);
+        assertThrows(IOException.class, () -> SanitizeCacheSnapshot.open(file));
+
+        XssUtils xssUtils = cachedXssUtils(HTML);
+        assertFalse(xssUtils.loadSnapshot(file));
+        assertEquals("<p>a</p>", xssUtils.sanitize("<p>a</p>"));
+    }
+
+    @Test
+    @DisplayName("형식이 다른 파일은 무시한다")
+    void ignoresForeignFiles(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("cache.snapshot");
+        Files.writeString(file, "not a snapshot");
+        assertFalse(cachedXssUtils(HTML).loadSnapshot(file));
+    }
+}
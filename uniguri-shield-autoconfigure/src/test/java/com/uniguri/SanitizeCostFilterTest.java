@@ -0,0 +1,155 @@
+package com.uniguri;
+
+import com.uniguri.config.XssShieldAutoConfiguration;
+import com.uniguri.config.XssShieldProperties;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletRequest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.owasp.html.HtmlPolicyBuilder;
+import org.owasp.html.PolicyFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.AntPathMatcher;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("요청별 살균 비용 집계 테스트")
+class SanitizeCostFilterTest {
+
+    private static final PolicyFactory HTML = new HtmlPolicyBuilder().allowElements("b").toFactory();
+    private static final PolicyFactory STRICT = new HtmlPolicyBuilder().toFactory();
+
+    private Filter filter(XssShieldProperties properties) {
+        XssUtils xssUtils = new XssUtils(HTML, STRICT, STRICT, properties);
+        return new XssShieldAutoConfiguration().customXssFilter(xssUtils, properties, new AntPathMatcher()).getFilter();
+    }
+
+    private static MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/posts");
+        request.addParameter("title", "<b>제목</b><script>x</script>");
+        request.addParameter("tags", "a", "b<i>c</i>");
+        return request;
+    }
+
+    /** Reads every parameter, as a controller binding a form would. */
+    private static final FilterChain READ_PARAMETERS = (request, response) -> {
+        for (String name : request.getParameterMap().keySet()) {
+            request.getParameterValues(name);
+        }
+        response.getWriter().write("ok");
+    };
+
+    @Test
+    @DisplayName("활성화하면 Server-Timing 헤더와 요청 속성으로 비용을 노출한다")
+    void exposesCostAsHeaderAndAttributes() throws Exception {
+        XssShieldProperties properties = new XssShieldProperties();
+        properties.getCost().setEnabled(true);
+        properties.getCost().setServerTiming(true);
+        MockHttpServletRequest request = request();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter(properties).doFilter(request, response, READ_PARAMETERS);
+
+        SanitizeCost cost = (SanitizeCost) request.getAttribute(XssUtils.COST_ATTRIBUTE);
+        assertNotNull(cost);
+        assertEquals(3, cost.getValues());
+        assertEquals(cost.getValues(), request.getAttribute(XssUtils.COST_ATTRIBUTE + ".values"));
+        assertEquals(cost.getCharacters(), request.getAttribute(XssUtils.COST_ATTRIBUTE + ".characters"));
+        assertEquals(cost.getTotalNanos() / 1000, request.getAttribute(XssUtils.COST_ATTRIBUTE + ".totalMicros"));
+        String header = response.getHeader("Server-Timing");
+        assertNotNull(header);
+        assertTrue(header.startsWith("xss-sanitize;dur="), header);
+        assertTrue(header.contains("desc=\"3 values, " + cost.getCharacters() + " chars\""), header);
+        assertFalse(header.contains("hits"), "cache hits stay out of the client-visible header");
+        assertEquals(1, response.getHeaders("Server-Timing").size());
+        assertNull(SanitizeCost.current(), "unbound after the request");
+    }
+
+    @Test
+    @DisplayName("본문이 없는 응답에도 필터 종료 시 헤더가 추가되고, serverTiming=false(기본값)면 속성만 설정된다")
+    void headerWithoutBodyAndAttributesOnly() throws Exception {
+        XssShieldProperties properties = new XssShieldProperties();
+        assertFalse(properties.getCost().isServerTiming());
+        properties.getCost().setEnabled(true);
+        properties.getCost().setServerTiming(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter(properties).doFilter(request(), response, (req, res) -> req.getParameter("title"));
+        assertNotNull(response.getHeader("Server-Timing"));
+
+        properties.getCost().setServerTiming(false);
+        MockHttpServletRequest request = request();
+        response = new MockHttpServletResponse();
+        filter(properties).doFilter(request, response, READ_PARAMETERS);
+        assertNull(response.getHeader("Server-Timing"));
+        assertNotNull(request.getAttribute(XssUtils.COST_ATTRIBUTE));
+    }
+
+    @Test
+    @DisplayName("기본값(비활성)에서는 집계하지 않는다")
+    void disabledByDefault() throws Exception {
+        XssShieldProperties properties = new XssShieldProperties();
+        MockHttpServletRequest request = request();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicReference<SanitizeCost> bound = new AtomicReference<>();
+        filter(properties).doFilter(request, response, (req, res) -> bound.set(SanitizeCost.current()));
+        assertNull(bound.get());
+        assertNull(request.getAttribute(XssUtils.COST_ATTRIBUTE));
+        assertNull(response.getHeader("Server-Timing"));
+    }
+
+    @Test
+    @DisplayName("캐시에서 처리한 값은 적중으로 집계된다")
+    void countsCacheHits() {
+        XssShield shield = XssShield.builder().htmlPolicy(HTML).sanitizeCache(100).build();
+        shield.sanitize("<b>warm</b><i>x</i>");
+        SanitizeCost cost = SanitizeCost.begin();
+        try {
+            shield.sanitize("<b>warm</b><i>x</i>");
+            shield.sanitize("<b>cold</b><i>y</i>");
+            shield.containsXssPattern("<script>alert(1)</script>");
+        } finally {
+            cost.end();
+        }
+        shield.sanitize("<b>after</b><i>z</i>");
+        assertEquals(2, cost.getValues());
+        assertEquals(1, cost.getCacheHits());
+        assertEquals(38, cost.getCharacters());
+        assertEquals(1, cost.getDetections());
+        assertTrue(cost.toString().startsWith("values=2 hits=1 chars=38 detections=1"), cost.toString());
+    }
+
+    @Test
+    @DisplayName("여러 진입점을 섞어 호출해도 값과 적중이 한 번씩 정확히 집계된다")
+    void countsEveryEntryPointOnce() throws Exception {
+        XssShield shield = XssShield.builder().htmlPolicy(HTML).sanitizeCache(100).build();
+        shield.sanitize("<b>w</b><i>1</i>");
+        SanitizeCost cost = SanitizeCost.begin();
+        try {
+            // 1 hit + 2 misses, charged as one batch
+            shield.sanitizeAll(List.of("<b>w</b><i>1</i>", "<b>a</b><i>2</i>", "<b>b</b><i>3</i>"));
+            // miss, then hit through the string view
+            shield.sanitize(new StringBuilder("<b>c</b><i>4</i>"), new StringBuilder());
+            shield.sanitize(new StringBuilder("<b>c</b><i>4</i>"), new StringBuilder());
+            // hit on a value loaded by the batch, then a miss
+            shield.sanitizeUtf8("<b>a</b><i>2</i>".getBytes(StandardCharsets.UTF_8));
+            shield.sanitizeUtf8("<b>d</b><i>5</i>".getBytes(StandardCharsets.UTF_8));
+            // escaped from the cache, then sanitized in a single pass
+            shield.toSafeOutput("<b>b</b><i>3</i>");
+            shield.toSafeOutput("<b>e</b><i>6</i>");
+            // a verdict is charged as a detection, not as a value
+            shield.checkSafety("<b>f</b><i>7</i>");
+        } finally {
+            cost.end();
+        }
+        assertEquals(9, cost.getValues());
+        assertEquals(4, cost.getCacheHits());
+        assertEquals(9 * 16, cost.getCharacters());
+        assertEquals(1, cost.getDetections());
+    }
+}
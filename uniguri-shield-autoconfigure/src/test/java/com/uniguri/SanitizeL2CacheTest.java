@@ -0,0 +1,182 @@
+package com.uniguri;
+
+import com.uniguri.config.XssShieldProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.owasp.html.HtmlPolicyBuilder;
+import org.owasp.html.PolicyFactory;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("2차 sanitize 캐시 SPI 테스트")
+class SanitizeL2CacheTest {
+
+    private static final PolicyFactory HTML = new HtmlPolicyBuilder().allowElements("p").toFactory();
+    private static final PolicyFactory STRICT = new HtmlPolicyBuilder().toFactory();
+
+    private static XssUtils newXssUtils(SanitizeL2Cache l2Cache, Duration lookupTimeout) {
+        XssShieldProperties properties = new XssShieldProperties();
+        properties.getCache().setSanitizeEnabled(true);
+        properties.getCache().getL2().setLookupTimeout(lookupTimeout);
+        XssUtils xssUtils = new XssUtils(HTML, STRICT, STRICT, properties);
+        xssUtils.setSecondLevelCache(l2Cache);
+        return xssUtils;
+    }
+
+    private static String hash(String input) {
+        return HexFormat.of().formatHex(PolicyFingerprint.contentHash(input));
+    }
+
+    @Test
+    @DisplayName("로컬 캐시 미스 시 2차 캐시의 값을 사용한다")
+    void servesLocalMissFromSecondLevel() {
+        InMemorySanitizeL2Cache l2 = new InMemorySanitizeL2Cache(100);
+        l2.put(PolicyFingerprint.of(HTML), hash("<p>x</p>"), "from-l2");
+
+        XssUtils xssUtils = newXssUtils(l2, Duration.ofSeconds(1));
+
+        assertEquals("from-l2", xssUtils.sanitize("<p>x</p>"));
+        // A different policy has a different fingerprint and must not see the entry.
+        assertEquals("x", xssUtils.strictSanitize("<p>x</p>"));
+    }
+
+    @Test
+    @DisplayName("살균 결과는 비동기로 2차 캐시에 기록된다")
+    void writesBehindToSecondLevel() throws Exception {
+        InMemorySanitizeL2Cache l2 = new InMemorySanitizeL2Cache(100);
+        XssUtils xssUtils = newXssUtils(l2, Duration.ofSeconds(1));
+
+        assertEquals("<p>a</p>", xssUtils.sanitize("<p>a</p><script>b</script>"));
+
+        String fingerprint = PolicyFingerprint.of(HTML);
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        String stored = null;
+        while (stored == null && System.nanoTime() < deadline) {
+            stored = l2.get(fingerprint, hash("<p>a</p><script>b</script>")).join();
+            Thread.sleep(10);
+        }
+        assertEquals("<p>a</p>", stored);
+    }
+
+    @Test
+    @DisplayName("2차 캐시가 응답하지 않으면 조회 예산 시간 후 로컬에서 살균한다")
+    void fallsBackWhenLookupBudgetIsExceeded() {
+        SanitizeL2Cache stalled = new SanitizeL2Cache() {
+            @Override
+            public CompletableFuture<String> get(String policyFingerprint, String contentHash) {
+                return new CompletableFuture<>();
+            }
+
+            @Override
+            public void put(String policyFingerprint, String contentHash, String sanitized) {
+            }
+        };
+        XssUtils xssUtils = newXssUtils(stalled, Duration.ofMillis(20));
+
+        long start = System.nanoTime();
+        assertEquals("<p>a</p>", xssUtils.sanitize("<p>a</p><script>b</script>"));
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 2000);
+    }
+
+    @Test
+    @DisplayName("느린 2차 캐시 조회 중에도 같은 캐시 구간의 다른 작업은 막히지 않는다")
+    void looksUpOutsideCacheLock() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        SanitizeL2Cache slow = new SanitizeL2Cache() {
+            @Override
+            public CompletableFuture<String> get(String policyFingerprint, String contentHash) {
+                return CompletableFuture.supplyAsync(() -> {
+                    entered.countDown();
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return null;
+                });
+            }
+
+            @Override
+            public void put(String policyFingerprint, String contentHash, String sanitized) {
+            }
+        };
+        XssShield shield = XssShield.builder().htmlPolicy(HTML).sanitizeCache(100)
+                .secondLevelCache(slow, Duration.ofSeconds(10), 10).build();
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> loading = pool.submit(() -> shield.sanitize("<p>a</p>"));
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+            // Removing the same key needs its hash bin; it would wait out the lookup if the lookup held the lock.
+            CompletableFuture.runAsync(() -> shield.invalidate(List.of("<p>a</p>"))).get(2, TimeUnit.SECONDS);
+            release.countDown();
+            assertEquals("<p>a</p>", loading.get(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            pool.shutdownNow();
+            shield.close();
+        }
+    }
+
+    @Test
+    @DisplayName("닫으면 2차 캐시를 해제하고, 파일 구현은 자신이 만든 조회 풀을 종료한다")
+    void closesBackgroundExecutors(@TempDir Path directory) {
+        InMemorySanitizeL2Cache l2 = new InMemorySanitizeL2Cache(100);
+        l2.put(PolicyFingerprint.of(HTML), hash("<p>x</p>"), "from-l2");
+        XssUtils xssUtils = newXssUtils(l2, Duration.ofSeconds(1));
+        xssUtils.destroy();
+        assertEquals("<p>x</p>", xssUtils.sanitize("<p>x</p>"));
+
+        FileSanitizeL2Cache file = new FileSanitizeL2Cache(directory);
+        file.put("fp", hash("value"), "sanitized");
+        file.close();
+        assertNull(file.get("fp", hash("value")).join());
+    }
+
+    @Test
+    @DisplayName("정책 정의가 바뀌면 지문도 바뀐다")
+    void fingerprintFollowsPolicyDefinition() {
+        PolicyFactory same = new HtmlPolicyBuilder().allowElements("p").toFactory();
+        PolicyFactory wider = new HtmlPolicyBuilder().allowElements("p", "b").toFactory();
+
+        assertEquals(PolicyFingerprint.of(HTML), PolicyFingerprint.of(same));
+        assertNotEquals(PolicyFingerprint.of(HTML), PolicyFingerprint.of(wider));
+        assertNotEquals(PolicyFingerprint.of(HTML), PolicyFingerprint.of(HTML, "v2"));
+
+        PolicyFactory images = new HtmlPolicyBuilder().allowElements("img").allowUrlProtocols("https")
+                .allowAttributes("src").onElements("img").toFactory();
+        assertNotEquals(PolicyFingerprint.of(images), PolicyFingerprint.of(images.and(new HtmlPolicyBuilder()
+                .allowElements("img").allowUrlProtocols("https").allowAttributes("srcset").onElements("img").toFactory())));
+        PolicyFactory links = new HtmlPolicyBuilder().allowElements("a").allowUrlProtocols("https")
+                .allowAttributes("href").onElements("a").toFactory();
+        assertNotEquals(PolicyFingerprint.of(links), PolicyFingerprint.of(new HtmlPolicyBuilder().allowElements("a")
+                .allowUrlProtocols("https", "sms").allowAttributes("href").onElements("a").toFactory()));
+        assertNotEquals(PolicyFingerprint.of(HTML), PolicyFingerprint.of(HTML.and(
+                new HtmlPolicyBuilder().allowElements("my-widget").toFactory())));
+    }
+
+    @Test
+    @DisplayName("파일 기반 구현은 디렉터리를 통해 값을 공유한다")
+    void fileImplementationSharesEntries(@TempDir Path directory) {
+        FileSanitizeL2Cache writer = new FileSanitizeL2Cache(directory);
+        FileSanitizeL2Cache reader = new FileSanitizeL2Cache(directory);
+        String contentHash = hash("value");
+
+        assertNull(reader.get("fp", contentHash).join());
+        writer.put("fp", contentHash, "sanitized 값");
+        assertEquals("sanitized 값", reader.get("fp", contentHash).join());
+        assertNull(reader.get("other", contentHash).join());
+    }
+}
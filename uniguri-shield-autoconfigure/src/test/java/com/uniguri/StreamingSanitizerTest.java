@@ -0,0 +1,176 @@
+package com.uniguri;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.owasp.html.HtmlPolicyBuilder;
+import org.owasp.html.HtmlStreamEventReceiver;
+import org.owasp.html.HtmlStreamEventReceiverWrapper;
+import org.owasp.html.PolicyFactory;
+import org.owasp.html.Sanitizers;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.Writer;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("스트리밍 살균 테스트")
+class StreamingSanitizerTest {
+
+    private static final PolicyFactory POLICY = Sanitizers.FORMATTING.and(Sanitizers.BLOCKS).and(Sanitizers.LINKS)
+            .and(Sanitizers.STYLES).and(Sanitizers.TABLES).and(Sanitizers.IMAGES);
+
+    private static final List<String> FRAGMENTS = List.of(
+            "plain text ", "안녕하세요 ", "a &amp; b ", "&lt;not a tag&gt; ", "x < y > z ", "&copy",
+            "<p>", "</p>", "<b>bold</b>", "<div class=\"c\" title='a > b'>", "</div>",
+            "<a href=\"https://example.com/?a=1&amp;b=2\">link</a>", "<a href=\"javascript:alert(1)\">bad</a>",
+            "<script>if (a < b) { document.write('</p>'); }</script>", "<SCRIPT type=x>x</script >",
+            "<style>p { color: red } </style>", "<textarea><b>raw</b></textarea>", "<title>t<i></title>",
+            "<!-- comment <b> -->", "<!---->", "<!DOCTYPE html>", "<?xml version=\"1.0\"?>", "</ not-a-tag>",
+            "<img src=\"https://example.com/a.png\" onerror=\"x()\">", "<table><tr><td>cell</td></tr></table>",
+            "<ul><li>one<li>two</ul>", "<span style=\"color:red\">s</span>", "\n", "\r\n", "\t", "😀 ",
+            "<br/>", "<p", " id=x>", "unclosed <i>italic "
+    );
+
+    private static String stream(PolicyFactory policy, String input, int chunkSize) throws IOException {
+        StringBuilder out = new StringBuilder();
+        new StreamingSanitizer(chunkSize).sanitize(policy, new StringReader(input), out);
+        return out.toString();
+    }
+
+    @Test
+    @DisplayName("청크 크기와 무관하게 전체 문서 살균 결과와 같다")
+    void matchesWholeDocumentSanitization() throws IOException {
+        Random random = new Random(42);
+        for (int doc = 0; doc < 300; doc++) {
+            StringBuilder input = new StringBuilder();
+            int count = 1 + random.nextInt(40);
+            for (int i = 0; i < count; i++) {
+                input.append(FRAGMENTS.get(random.nextInt(FRAGMENTS.size())));
+            }
+            String expected = POLICY.sanitize(input.toString());
+            for (int chunkSize : new int[]{1, 2, 3, 7, 16, 64, 4096}) {
+                assertEquals(expected, stream(POLICY, input.toString(), chunkSize),
+                        () -> "chunkSize=" + chunkSize + " input=" + input);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("스크립트 본문 안에서는 청크를 자르지 않는다")
+    void neverCutsInsideRawText() throws IOException {
+        String input = "<p>before</p><script>var s = '<b>not markup</b>'; if (a<b) {}</script><p>after</p>";
+        assertEquals("<p>before</p><p>after</p>", stream(POLICY, input, 4));
+    }
+
+    @Test
+    @DisplayName("<plaintext> 이후는 끝까지 텍스트로 처리된다")
+    void plaintextRunsToTheEnd() throws IOException {
+        String input = "<p>a</p><plaintext><b>x</b> y z";
+        assertEquals(POLICY.sanitize(input), stream(POLICY, input, 3));
+    }
+
+    @Test
+    @DisplayName("큰 문서도 청크 단위로 출력한다")
+    void streamsLargeDocuments() throws IOException {
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 20_000; i++) {
+            input.append("<p onclick=\"x()\">paragraph ").append(i).append(" <script>bad()</script></p>\n");
+        }
+        int[] writes = new int[1];
+        StringBuilder out = new StringBuilder();
+        Appendable counting = new Appendable() {
+            @Override
+            public Appendable append(CharSequence csq) {
+                writes[0]++;
+                out.append(csq);
+                return this;
+            }
+
+            @Override
+            public Appendable append(CharSequence csq, int start, int end) {
+                writes[0]++;
+                out.append(csq, start, end);
+                return this;
+            }
+
+            @Override
+            public Appendable append(char c) {
+                writes[0]++;
+                out.append(c);
+                return this;
+            }
+        };
+        new StreamingSanitizer(StreamingSanitizer.DEFAULT_CHUNK_SIZE).sanitize(POLICY, new StringReader(input.toString()), counting);
+        assertEquals(POLICY.sanitize(input.toString()), out.toString());
+        assertTrue(writes[0] > 1);
+    }
+
+    @Test
+    @DisplayName("전처리기는 스트림 전체에 한 번 적용된다")
+    void appliesPreprocessorOnce() throws IOException {
+        int[] opened = new int[1];
+        PolicyFactory policy = new HtmlPolicyBuilder()
+                .allowElements("p", "b")
+                .withPreprocessor(receiver -> new HtmlStreamEventReceiverWrapper(receiver) {
+                    @Override
+                    public void openDocument() {
+                        opened[0]++;
+                        super.openDocument();
+                    }
+
+                    @Override
+                    public void text(String text) {
+                        underlying.text(text.toUpperCase());
+                    }
+                })
+                .toFactory();
+        String input = "<p>one <b>two</b> three</p> four five six";
+        assertEquals(policy.sanitize(input), stream(policy, input, 2));
+        assertEquals(2, opened[0]);
+    }
+
+    @Test
+    @DisplayName("출력 쓰기 실패는 IOException으로 전달된다")
+    void propagatesWriteFailures() {
+        Writer failing = new Writer() {
+            @Override
+            public void write(char[] cbuf, int off, int len) throws IOException {
+                throw new IOException("disk full");
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        IOException e = assertThrows(IOException.class,
+                () -> new StreamingSanitizer(8).sanitize(POLICY, new StringReader("<p>hello world</p>"), failing));
+        assertEquals("disk full", e.getMessage());
+    }
+
+    @Test
+    @DisplayName("XssUtils의 정책별 스트리밍 API")
+    void xssUtilsStreamingApi() throws IOException {
+        PolicyFactory strict = new HtmlPolicyBuilder().toFactory();
+        XssUtils xssUtils = new XssUtils(POLICY, strict, strict);
+        String input = "<p>Hi <script>alert(1)</script><b>there</b></p>";
+
+        StringBuilder html = new StringBuilder();
+        xssUtils.sanitize(new StringReader(input), html);
+        assertEquals(xssUtils.sanitize(input), html.toString());
+
+        StringBuilder strictOut = new StringBuilder();
+        xssUtils.strictSanitize(new StringReader(input), strictOut);
+        assertEquals("Hi there", strictOut.toString());
+
+        StringBuilder form = new StringBuilder();
+        xssUtils.sanitizeFormInput(new StringReader(input), form);
+        assertEquals(xssUtils.sanitizeFormInput(input), form.toString());
+    }
+}
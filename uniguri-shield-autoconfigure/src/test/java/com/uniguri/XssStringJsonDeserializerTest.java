@@ -0,0 +1,131 @@
+package com.uniguri;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.uniguri.config.XssShieldProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.owasp.html.HtmlPolicyBuilder;
+import org.owasp.html.HtmlStreamEventReceiverWrapper;
+import org.owasp.html.PolicyFactory;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+@DisplayName("XssStringJsonDeserializer 테스트")
+class XssStringJsonDeserializerTest {
+
+    private ObjectMapper mapper;
+
+    static class Dto {
+        public String content;
+        @XssIgnore
+        public String ignoredField;
+        private String ignoredSetter;
+        @XssIgnore
+        public List<String> ignoredList;
+        public List<String> list;
+
+        public String getIgnoredSetter() {
+            return ignoredSetter;
+        }
+
+        @XssIgnore
+        public void setIgnoredSetter(String ignoredSetter) {
+            this.ignoredSetter = ignoredSetter;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        PolicyFactory html = new HtmlPolicyBuilder().allowElements("p").toFactory();
+        PolicyFactory strict = new HtmlPolicyBuilder().toFactory();
+        XssUtils xssUtils = new XssUtils(html, strict, strict);
+        SimpleModule module = new SimpleModule();
+        module.addDeserializer(String.class, new XssStringJsonDeserializer(xssUtils, new XssShieldProperties()));
+        mapper = new ObjectMapper().registerModule(module);
+    }
+
+    @Test
+    @DisplayName("@XssIgnore가 없는 필드는 살균된다")
+    void sanitizesRegularFields() throws Exception {
+        Dto dto = mapper.readValue("{\"content\":\"<p>a</p><script>x</script>\",\"list\":[\"<script>x</script>b\"]}", Dto.class);
+        assertEquals("<p>a</p>", dto.content);
+        assertEquals(List.of("b"), dto.list);
+    }
+
+    @Test
+    @DisplayName("@XssIgnore는 필드, setter, 컬렉션 속성에서 모두 적용된다")
+    void honoursXssIgnore() throws Exception {
+        String raw = "<script>x</script>";
+        Dto dto = mapper.readValue("{\"ignoredField\":\"" + raw + "\",\"ignoredSetter\":\"" + raw
+                + "\",\"ignoredList\":[\"" + raw + "\"]}", Dto.class);
+        assertEquals(raw, dto.ignoredField);
+        assertEquals(raw, dto.getIgnoredSetter());
+        assertEquals(List.of(raw), dto.ignoredList);
+    }
+
+    @Test
+    @DisplayName("무해한 토큰은 살균기와 캐시를 거치지 않고, 이스케이프된 마크업은 살균된다")
+    void skipsSanitizerForInertTokens() throws Exception {
+        XssShieldProperties properties = new XssShieldProperties();
+        properties.getCache().setSanitizeEnabled(true);
+        PolicyFactory html = new HtmlPolicyBuilder().allowElements("p").toFactory();
+        XssUtils xssUtils = new XssUtils(html, new HtmlPolicyBuilder().toFactory(), html, properties);
+        ObjectMapper objectMapper = mapperFor(xssUtils, properties);
+
+        Dto dto = objectMapper.readValue("{\"content\":\"안녕하세요, plain text!\",\"list\":[\"\\u003cscript\\u003ex\\u003c/script\\u003ey\"]}", Dto.class);
+
+        assertEquals("안녕하세요, plain text!", dto.content);
+        assertEquals(List.of("y"), dto.list);
+        assertEquals(1, xssUtils.getSanitizeCacheViews().get(0).getStats().requestCount());
+    }
+
+    @Test
+    @DisplayName("텍스트를 변환하는 정책에서는 무해한 토큰도 살균한다")
+    void sanitizesInertTokensForRewritingPolicies() throws Exception {
+        PolicyFactory upper = new HtmlPolicyBuilder()
+                .withPreprocessor(receiver -> new HtmlStreamEventReceiverWrapper(receiver) {
+                    @Override
+                    public void text(String text) {
+                        underlying.text(text.toUpperCase());
+                    }
+                })
+                .toFactory();
+        XssShieldProperties properties = new XssShieldProperties();
+        properties.getJson().setCanonicalStrings(true);
+        ObjectMapper objectMapper = mapperFor(new XssUtils(upper, upper, upper, properties), properties);
+
+        Dto dto = objectMapper.readValue("{\"content\":\"plain text\",\"list\":[\"abc\"]}", Dto.class);
+
+        assertEquals("PLAIN TEXT", dto.content);
+        assertEquals(List.of("ABC"), dto.list);
+    }
+
+    @Test
+    @DisplayName("canonical-strings를 켜면 반복되는 짧은 값이 같은 인스턴스를 공유한다")
+    void sharesCanonicalInstances() throws Exception {
+        XssShieldProperties properties = new XssShieldProperties();
+        properties.getJson().setCanonicalStrings(true);
+        properties.getJson().setCanonicalMaxLength(8);
+        PolicyFactory html = new HtmlPolicyBuilder().allowElements("p").toFactory();
+        ObjectMapper objectMapper = mapperFor(new XssUtils(html, html, html, properties), properties);
+
+        Dto first = objectMapper.readValue("{\"content\":\"ACTIVE\",\"ignoredField\":\"long value here\"}", Dto.class);
+        Dto second = objectMapper.readValue("{\"content\":\"ACTIVE\",\"list\":[\"ACTIVE\",\"long value here\"]}", Dto.class);
+
+        assertSame(first.content, second.content);
+        assertSame(first.content, second.list.get(0));
+        assertNotSame(first.ignoredField, second.list.get(1));
+    }
+
+    private static ObjectMapper mapperFor(XssUtils xssUtils, XssShieldProperties properties) {
+        SimpleModule module = new SimpleModule();
+        module.addDeserializer(String.class, new XssStringJsonDeserializer(xssUtils, properties));
+        return new ObjectMapper().registerModule(module);
+    }
+}
@@ -0,0 +1,42 @@
+package com.uniguri.config;
+
+import com.uniguri.XssIgnore;
+import com.uniguri.XssStringJsonDeserializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("XssShieldRuntimeHints 테스트")
+class XssShieldRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @BeforeEach
+    void setUp() {
+        new XssShieldRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    @DisplayName("리플렉션 대상 타입에 대한 힌트를 등록한다")
+    void registersReflectionHints() {
+        assertThat(RuntimeHintsPredicates.reflection().onType(XssIgnore.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(XssStringJsonDeserializer.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(XssShieldWarmup.WarmupPayload.class)).accepts(hints);
+        for (String type : XssShieldRuntimeHints.CAFFEINE_TYPES) {
+            assertThat(RuntimeHintsPredicates.reflection().onType(TypeReference.of(type))).accepts(hints);
+        }
+    }
+
+    @Test
+    @DisplayName("HtmlUtils 엔티티 테이블 리소스 힌트를 등록한다")
+    void registersResourceHints() {
+        assertThat(RuntimeHintsPredicates.resource()
+                .forResource("org/springframework/web/util/HtmlCharacterEntityReferences.properties"))
+                .accepts(hints);
+    }
+}
@@ -0,0 +1,114 @@
+package com.uniguri.integration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    classes = CacheEndpointTest.App.class,
+    properties = {
+        "xss.shield.enabled=true",
+        "xss.shield.filter.enabled=true",
+        "xss.shield.filter.exclude-patterns=/static/**",
+        "xss.shield.cache.sanitize-enabled=true",
+        "xss.shield.cache.sanitize-max-entries=50",
+        "management.endpoints.web.exposure.include=xssshield"
+    })
+public class CacheEndpointTest {
+
+    @LocalServerPort
+    int port;
+
+    private final TestRestTemplate rest = new TestRestTemplate();
+
+    @SpringBootApplication
+    static class App {
+        @RestController
+        static class Ctrl {
+            @GetMapping("/sanitize")
+            public String sanitize(@RequestParam String input) {
+                return input;
+            }
+
+            @GetMapping("/static/test.txt")
+            public String staticResource() {
+                return "OK";
+            }
+        }
+    }
+
+    private String url(String path) {
+        return "http://localhost:" + port + path;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> get(String path) {
+        return rest.getForObject(url(path), Map.class);
+    }
+
+    @Test
+    @DisplayName("정책별 캐시 통계, 해시된 핫 키, 필터 판정 통계를 노출한다")
+    @SuppressWarnings("unchecked")
+    void exposesStatistics() {
+        IntStream.range(0, 3).forEach(i -> rest.getForObject(url("/sanitize?input=hot"), String.class));
+        rest.getForObject(url("/sanitize?input=cold"), String.class);
+        rest.getForObject(url("/static/test.txt"), String.class);
+
+        Map<String, Object> body = get("/actuator/xssshield?top=1");
+        Map<String, Object> formInput = (Map<String, Object>) ((Map<String, Object>) body.get("sanitize")).get("formInput");
+        assertThat((Integer) formInput.get("estimatedSize")).isGreaterThanOrEqualTo(2);
+        assertThat(formInput.get("maximumSize")).isEqualTo(50);
+        assertThat((Integer) formInput.get("estimatedMemoryBytes")).isPositive();
+        Map<String, Object> stats = (Map<String, Object>) formInput.get("stats");
+        assertThat((Integer) stats.get("hitCount")).isGreaterThanOrEqualTo(2);
+
+        List<Map<String, Object>> hottest = (List<Map<String, Object>>) formInput.get("hottestKeys");
+        assertThat(hottest).hasSize(1);
+        assertThat((String) hottest.get(0).get("hash")).hasSize(64).doesNotContain("hot");
+
+        Map<String, Object> filter = (Map<String, Object>) body.get("filter");
+        Map<String, Object> decisions = (Map<String, Object>) filter.get("decisions");
+        assertThat((Integer) decisions.get("excluded")).isGreaterThanOrEqualTo(1);
+        assertThat((Integer) decisions.get("wrapped")).isGreaterThanOrEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("재시작 없이 캐시 크기를 변경하고 무효화할 수 있다")
+    void resizesAndInvalidates() {
+        IntStream.range(0, 5).forEach(i -> rest.getForObject(url("/sanitize?input=v" + i), String.class));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        ResponseEntity<Map> resized = rest.postForEntity(url("/actuator/xssshield/formInput"),
+                new HttpEntity<>(Map.of("maximumSize", 2), headers), Map.class);
+        assertThat(resized.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(get("/actuator/xssshield/formInput").get("maximumSize")).isEqualTo(2);
+
+        ResponseEntity<Map> invalidated = rest.exchange(url("/actuator/xssshield/formInput"), HttpMethod.DELETE, null, Map.class);
+        assertThat(invalidated.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(get("/actuator/xssshield/formInput").get("estimatedSize")).isEqualTo(0);
+
+        ResponseEntity<Map> unknown = rest.getForEntity(url("/actuator/xssshield/nope"), Map.class);
+        assertThat(unknown.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+
+        rest.postForEntity(url("/actuator/xssshield/formInput"), new HttpEntity<>(Map.of("maximumSize", 50), headers), Map.class);
+    }
+}
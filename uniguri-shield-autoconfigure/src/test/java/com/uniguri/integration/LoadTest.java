@@ -0,0 +1,339 @@
+package com.uniguri.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.coyote.AbstractProtocol;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.management.ObjectName;
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * End-to-end HTTP load harness (tagged {@code load}, not part of {@code test}).
+ * <p>
+ * Each nested class boots the same application in embedded Tomcat with a different shield configuration
+ * ({@code disabled}, {@code enabled}, {@code cached}) and drives its query, form and JSON endpoints with concurrent
+ * clients. Throughput, p50/p99/p999 latency and the allocation rate of the Tomcat threads are merged into
+ * {@code build/load-test/results.json} so that runs can be compared between releases.
+ * <pre>gradle :uniguri-shield-autoconfigure:loadTest [-Pclients=16] [-Pseconds=10] [-PwarmupSeconds=5]</pre>
+ * <p>
+ * 임베디드 Tomcat에서 필터, 요청 래퍼, JSON 역직렬화기의 비용을 함께 측정하는 부하 테스트입니다({@code load} 태그, 기본 테스트에서 제외).
+ * 중첩 클래스마다 같은 애플리케이션을 다른 설정(비활성, 활성, 캐시 활성)으로 띄우고 동시 클라이언트로 쿼리, 폼, JSON 엔드포인트를 호출하여
+ * 처리량, p50/p99/p999 지연 시간, Tomcat 스레드의 할당률을 {@code build/load-test/results.json}에 기록합니다.
+ * <p>
+ * Every scenario closes its context afterwards, so the next one does not run next to a warmed-up server left over
+ * from an earlier scenario. / 각 시나리오는 종료 후 컨텍스트를 닫아, 다음 시나리오가 이전 시나리오의 예열된 서버와 함께 실행되지 않습니다.
+ */
+@Tag("load")
+@DirtiesContext
+abstract class LoadTest {
+
+    private static final int CLIENTS = Integer.getInteger("load.clients", 16);
+    private static final int SECONDS = Integer.getInteger("load.seconds", 10);
+    private static final int WARMUP_SECONDS = Integer.getInteger("load.warmupSeconds", 5);
+    private static final File OUTPUT = new File(System.getProperty("load.output", "build/load-test"), "results.json");
+
+    /** Mix of clean text, Korean text, allowed markup and attacks; values repeat so that caches can hit. */
+    private static final String[] VALUES = {
+            "shoes", "red dress", "안녕하세요 반갑습니다", "price < 100 & stock > 0", "<b>new</b> arrival",
+            "<p>Hello <i>world</i></p>", "<script>alert(1)</script>", "<img src=x onerror=alert(1)>",
+            "<a href=\"https://example.com\">link</a>", "javascript:alert(document.cookie)",
+            "평범한 게시글 본문입니다. 특별한 마크업은 없습니다.", "{{constructor.constructor('alert(1)')()}}",
+            "<div style=\"color:red\">styled</div>", "tom@example.com", "2024-03-25", ""
+    };
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    ServletWebServerApplicationContext context;
+
+    @SpringBootApplication
+    static class App {
+        static class Post {
+            public String title;
+            public String body;
+            public List<String> tags;
+        }
+
+        @RestController
+        static class Ctrl {
+            @GetMapping("/load/query")
+            public String query(@RequestParam String q, @RequestParam(defaultValue = "") String sort) {
+                return q + sort;
+            }
+
+            @PostMapping("/load/form")
+            public String form(@RequestParam String title, @RequestParam String body, @RequestParam List<String> tags) {
+                return title + body + tags.size();
+            }
+
+            @PostMapping("/api/load/json")
+            public String json(@RequestBody Post post) {
+                return post.title + post.body + post.tags.size();
+            }
+        }
+    }
+
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        classes = App.class,
+        properties = "xss.shield.enabled=false")
+    static class DisabledLoadTest extends LoadTest {
+        @Override
+        String scenario() {
+            return "disabled";
+        }
+    }
+
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        classes = App.class,
+        properties = {
+            "xss.shield.enabled=true",
+            "xss.shield.json.enabled=true",
+            "xss.shield.cache.sanitize-enabled=false"
+        })
+    static class EnabledLoadTest extends LoadTest {
+        @Override
+        String scenario() {
+            return "enabled";
+        }
+    }
+
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        classes = App.class,
+        properties = {
+            "xss.shield.enabled=true",
+            "xss.shield.json.enabled=true",
+            "xss.shield.cache.sanitize-enabled=true"
+        })
+    static class CachedLoadTest extends LoadTest {
+        @Override
+        String scenario() {
+            return "cached";
+        }
+    }
+
+    abstract String scenario();
+
+    @Test
+    @DisplayName("쿼리, 폼, JSON 엔드포인트에 동시 부하를 주고 결과를 JSON으로 기록한다")
+    void measure() throws Exception {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        String base = "http://localhost:" + port;
+
+        HttpResponse<String> probe = client.send(query(base, "<script>alert(1)</script>"), HttpResponse.BodyHandlers.ofString());
+        assertThat(probe.statusCode()).isEqualTo(200);
+        assertThat(probe.body().contains("<script>")).isEqualTo(scenario().equals("disabled"));
+
+        Map<String, Function<Random, HttpRequest>> endpoints = Map.of(
+                "query", random -> query(base, pick(random)),
+                "form", random -> form(base, random),
+                "json", random -> json(base, random));
+        ObjectNode results = new ObjectMapper().createObjectNode();
+        for (String endpoint : List.of("query", "form", "json")) {
+            run(client, endpoints.get(endpoint), WARMUP_SECONDS);
+            Result result = run(client, endpoints.get(endpoint), SECONDS);
+            assertThat(result.errors).as(endpoint + " errors").isZero();
+            assertThat(result.latencies).as(endpoint + " requests").isNotEmpty();
+            results.set(endpoint, result.toJson());
+        }
+        write(scenario(), results);
+    }
+
+    private static String pick(Random random) {
+        return VALUES[random.nextInt(VALUES.length)];
+    }
+
+    private static HttpRequest query(String base, String q) {
+        return HttpRequest.newBuilder(URI.create(base + "/load/query?q=" + encode(q) + "&sort=recent")).GET().build();
+    }
+
+    private static HttpRequest form(String base, Random random) {
+        String body = "title=" + encode(pick(random)) + "&body=" + encode(pick(random))
+                + "&tags=" + encode(pick(random)) + "&tags=" + encode(pick(random));
+        return HttpRequest.newBuilder(URI.create(base + "/load/form"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static HttpRequest json(String base, Random random) {
+        ObjectNode post = new ObjectMapper().createObjectNode()
+                .put("title", pick(random))
+                .put("body", pick(random));
+        post.putArray("tags").add(pick(random)).add(pick(random));
+        return HttpRequest.newBuilder(URI.create(base + "/api/load/json"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(post.toString()))
+                .build();
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private Result run(HttpClient client, Function<Random, HttpRequest> requests, int seconds) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(CLIENTS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<long[]>> clients = new ArrayList<>();
+        int[] errors = new int[CLIENTS];
+        long[] deadline = new long[1];
+        for (int c = 0; c < CLIENTS; c++) {
+            int id = c;
+            clients.add(pool.submit(() -> {
+                Random random = new Random(id);
+                long[] latencies = new long[1024];
+                int count = 0;
+                start.await();
+                while (System.nanoTime() < deadline[0]) {
+                    HttpRequest request = requests.apply(random);
+                    long begin = System.nanoTime();
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    long elapsed = System.nanoTime() - begin;
+                    if (response.statusCode() != 200) {
+                        errors[id]++;
+                    }
+                    if (count == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                    }
+                    latencies[count++] = elapsed;
+                }
+                return Arrays.copyOf(latencies, count);
+            }));
+        }
+
+        Map<Long, Long> allocatedBefore = serverAllocations();
+        long began = System.nanoTime();
+        deadline[0] = began + TimeUnit.SECONDS.toNanos(seconds);
+        start.countDown();
+        long[] all = new long[0];
+        for (Future<long[]> result : clients) {
+            long[] latencies = result.get();
+            int offset = all.length;
+            all = Arrays.copyOf(all, offset + latencies.length);
+            System.arraycopy(latencies, 0, all, offset, latencies.length);
+        }
+        long elapsed = System.nanoTime() - began;
+        long allocated = 0;
+        for (Map.Entry<Long, Long> after : serverAllocations().entrySet()) {
+            allocated += after.getValue() - allocatedBefore.getOrDefault(after.getKey(), 0L);
+        }
+        pool.shutdown();
+        Arrays.sort(all);
+        return new Result(all, Arrays.stream(errors).sum(), elapsed, allocated);
+    }
+
+    /**
+     * Returns the bytes allocated so far by each thread of this scenario's Tomcat connector, by thread id. Threads
+     * that die during a run are not counted, so the figure is a lower bound.
+     */
+    private Map<Long, Long> serverAllocations() {
+        String prefix = connectorThreadPrefix();
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Map<Long, Long> allocations = new HashMap<>();
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().startsWith(prefix)) {
+                long bytes = threads.getThreadAllocatedBytes(thread.getId());
+                if (bytes >= 0) {
+                    allocations.put(thread.getId(), bytes);
+                }
+            }
+        }
+        return allocations;
+    }
+
+    /**
+     * Name prefix of the connector's threads: {@code http-nio-<port>-}, or {@code http-nio-auto-<n>-} when Tomcat
+     * was started on a random port, as here. The connector's name gains the bound port only after its threads were
+     * named, so that suffix is dropped.
+     */
+    private String connectorThreadPrefix() {
+        TomcatWebServer server = (TomcatWebServer) context.getWebServer();
+        AbstractProtocol<?> protocol = (AbstractProtocol<?>) server.getTomcat().getConnector().getProtocolHandler();
+        String name = ObjectName.unquote(protocol.getName());
+        String boundPort = "-" + port;
+        if (name.contains("-auto-") && name.endsWith(boundPort)) {
+            name = name.substring(0, name.length() - boundPort.length());
+        }
+        return name + "-";
+    }
+
+    private record Result(long[] latencies, int errors, long elapsedNanos, long allocatedBytes) {
+
+        ObjectNode toJson() {
+            double seconds = elapsedNanos / 1e9;
+            ObjectNode json = new ObjectMapper().createObjectNode();
+            json.put("requests", latencies.length);
+            json.put("errors", errors);
+            json.put("throughput", latencies.length / seconds);
+            ObjectNode latency = json.putObject("latencyMicros");
+            latency.put("p50", percentile(0.50));
+            latency.put("p99", percentile(0.99));
+            latency.put("p999", percentile(0.999));
+            latency.put("max", latencies[latencies.length - 1] / 1_000);
+            ObjectNode allocation = json.putObject("serverAllocation");
+            allocation.put("bytesPerSecond", (long) (allocatedBytes / seconds));
+            allocation.put("bytesPerRequest", allocatedBytes / latencies.length);
+            return json;
+        }
+
+        private long percentile(double p) {
+            int index = (int) Math.ceil(p * latencies.length) - 1;
+            return latencies[Math.max(0, index)] / 1_000;
+        }
+    }
+
+    /**
+     * Merges the results of one scenario into the shared file; the {@code loadTest} task deletes it before a run.
+     */
+    private static synchronized void write(String scenario, ObjectNode endpoints) throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        ObjectNode root = OUTPUT.isFile() ? (ObjectNode) mapper.readTree(OUTPUT) : mapper.createObjectNode();
+        root.put("timestamp", Instant.now().toString());
+        root.put("java", System.getProperty("java.version"));
+        root.put("processors", Runtime.getRuntime().availableProcessors());
+        root.put("clients", CLIENTS);
+        root.put("warmupSeconds", WARMUP_SECONDS);
+        root.put("seconds", SECONDS);
+        ObjectNode scenarios = root.has("scenarios") ? (ObjectNode) root.get("scenarios") : root.putObject("scenarios");
+        scenarios.set(scenario, endpoints);
+        OUTPUT.getParentFile().mkdirs();
+        mapper.writerWithDefaultPrettyPrinter().writeValue(OUTPUT, root);
+    }
+}
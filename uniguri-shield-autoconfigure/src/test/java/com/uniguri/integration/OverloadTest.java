@@ -0,0 +1,83 @@
+package com.uniguri.integration;
+
+import com.uniguri.OverloadController;
+import com.uniguri.OverloadSignal;
+import com.uniguri.XssUtils;
+import com.uniguri.config.XssShieldOverloadMetrics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    classes = OverloadTest.App.class,
+    properties = {
+        "xss.shield.enabled=true",
+        "xss.shield.overload.enabled=true",
+        "xss.shield.overload.action=ESCAPE",
+        "xss.shield.overload.probe-rate=0",
+        "xss.shield.overload.evaluation-interval=0s"
+    })
+public class OverloadTest {
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    private XssUtils xssUtils;
+
+    @Autowired
+    private ApplicationContext context;
+
+    private final TestRestTemplate rest = new TestRestTemplate();
+
+    @SpringBootApplication
+    static class App {
+        static volatile double load;
+
+        @Bean
+        OverloadSignal testLoadSignal() {
+            return () -> load;
+        }
+
+        @RestController
+        static class Ctrl {
+            @GetMapping("/echo")
+            public String echo(@RequestParam String input) {
+                return input;
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("부하 신호에 따라 폼 입력이 이스케이프로 전환된다")
+    void degradesFormInputUnderLoad() {
+        OverloadController controller = xssUtils.getOverloadController();
+        assertThat(controller).isNotNull();
+        assertThat(context.getBeanNamesForType(XssShieldOverloadMetrics.class)).hasSize(1);
+
+        String url = "http://localhost:" + port + "/echo?input={v}";
+        ResponseEntity<String> normal = rest.getForEntity(url, String.class, "<b>x</b><script>s</script>");
+        assertThat(normal.getBody()).isEqualTo("<b>x</b>");
+
+        App.load = 5.0;
+        try {
+            ResponseEntity<String> degraded = rest.getForEntity(url, String.class, "<b>x</b>");
+            assertThat(controller.getMode()).isEqualTo(OverloadController.Mode.DEGRADED);
+            assertThat(degraded.getBody()).isEqualTo("&lt;b&gt;x&lt;/b&gt;");
+        } finally {
+            App.load = 0.0;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.uniguri.integration;
+
+import com.uniguri.config.XssShieldWarmup;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    classes = WarmupTest.App.class,
+    properties = {
+        "xss.shield.enabled=true",
+        "xss.shield.cache.sanitize-enabled=true",
+        "xss.shield.warmup.enabled=true",
+        "xss.shield.warmup.iterations=5",
+        "xss.shield.warmup.corpus[0]=<p>custom sample</p>",
+        "xss.shield.warmup.hot-values[0]=popular search term"
+    })
+public class WarmupTest {
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    private XssShieldWarmup warmup;
+
+    private final TestRestTemplate rest = new TestRestTemplate();
+
+    @SpringBootApplication
+    static class App {
+        @RestController
+        static class Ctrl {
+            @GetMapping("/echo")
+            public String echo(@RequestParam String input) {
+                return input;
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("워밍업은 기동 시 실행되며 소요 시간을 보고한다")
+    void warmupRunsBeforeTraffic() {
+        assertThat(warmup.getLastDuration()).isNotNull();
+        assertThat(warmup.getLastDuration().isNegative()).isFalse();
+    }
+
+    @Test
+    @DisplayName("워밍업 이후에도 요청은 정상적으로 살균된다")
+    void sanitizationStillAppliesAfterWarmup() {
+        String response = rest.getForObject("http://localhost:" + port + "/echo?input=<script>alert(1)</script>hi", String.class);
+        assertThat(response).isEqualTo("hi");
+    }
+}
@@ -0,0 +1,84 @@
+package com.uniguri.jfr;
+
+import com.uniguri.XssUtils;
+import com.uniguri.config.XssShieldAutoConfiguration;
+import com.uniguri.config.XssShieldProperties;
+import jakarta.servlet.Filter;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.owasp.html.HtmlPolicyBuilder;
+import org.owasp.html.PolicyFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.AntPathMatcher;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("JFR 이벤트 테스트")
+class XssShieldEventsTest {
+
+    private static final PolicyFactory HTML = new HtmlPolicyBuilder().allowElements("p").toFactory();
+    private static final PolicyFactory STRICT = new HtmlPolicyBuilder().toFactory();
+
+    @Test
+    @DisplayName("sanitize, 탐지, 필터 결정이 JFR 이벤트로 기록된다")
+    void recordsEvents(@TempDir Path dir) throws Exception {
+        XssShieldProperties properties = new XssShieldProperties();
+        properties.getCache().setSanitizeEnabled(true);
+        properties.getFilter().setExcludePatterns(List.of("/static/**"));
+        XssUtils xssUtils = new XssUtils(HTML, STRICT, STRICT, properties);
+        Filter filter = new XssShieldAutoConfiguration()
+                .customXssFilter(xssUtils, properties, new AntPathMatcher()).getFilter();
+
+        Path file = dir.resolve("xss-shield.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(SanitizeEvent.NAME).withThreshold(Duration.ZERO);
+            recording.enable(DetectionEvent.NAME).withThreshold(Duration.ZERO);
+            recording.enable(FilterDecisionEvent.NAME).withThreshold(Duration.ZERO);
+            recording.start();
+
+            xssUtils.sanitize("<p>a</p>");
+            xssUtils.sanitize("<p>a</p>");
+            xssUtils.containsXssPattern("PHNjcmlwdD4=");
+            filter.doFilter(new MockHttpServletRequest("GET", "/static/app.js"), new MockHttpServletResponse(), new MockFilterChain());
+            filter.doFilter(new MockHttpServletRequest("GET", "/api/items"), new MockHttpServletResponse(), new MockFilterChain());
+
+            recording.stop();
+            recording.dump(file);
+        } finally {
+            XssUtils.clearRequestInfo();
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+
+        List<RecordedEvent> sanitize = ofType(events, SanitizeEvent.NAME);
+        assertEquals(2, sanitize.size());
+        assertEquals("html", sanitize.get(0).getString("policy"));
+        assertEquals(8, sanitize.get(0).getInt("inputLength"));
+        assertFalse(sanitize.get(0).getBoolean("cacheHit"));
+        assertTrue(sanitize.get(1).getBoolean("cacheHit"));
+
+        List<RecordedEvent> detection = ofType(events, DetectionEvent.NAME);
+        assertFalse(detection.isEmpty());
+        assertEquals("BASE64", detection.get(0).getString("decodeLayer"));
+
+        List<RecordedEvent> decisions = ofType(events, FilterDecisionEvent.NAME);
+        assertEquals(2, decisions.size());
+        assertEquals("/static/app.js", decisions.get(0).getString("uri"));
+        assertEquals("EXCLUDED", decisions.get(0).getString("decision"));
+        assertEquals("WRAPPED", decisions.get(1).getString("decision"));
+    }
+
+    private static List<RecordedEvent> ofType(List<RecordedEvent> events, String name) {
+        return events.stream().filter(e -> e.getEventType().getName().equals(name)).toList();
+    }
+}
@@ -0,0 +1,275 @@
+package com.uniguri;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Counts XSS detections per client in fixed memory with a lock-striped, time-decayed Count-Min sketch.
+ * <p>
+ * The sketch is split into {@code stripes} independent sub-sketches of {@code depth} rows; a client key hashes
+ * to one stripe, which is guarded by its own lock, and to one counter per row. Increments use conservative
+ * update (only the counters at the current minimum grow), so an estimate never undercounts and overcounts only
+ * on collisions. Every {@code half-life} the counters of a stripe are halved lazily on its next access, so
+ * old detections fade out. Memory is {@code width * depth * 4} bytes regardless of how many distinct clients appear.
+ * A client whose estimate reaches {@code threshold} is an offender.
+ * <p>
+ * 잠금이 분할된 시간 감쇠 Count-Min 스케치로 클라이언트별 XSS 탐지 횟수를 고정 메모리에서 집계합니다.
+ * 스케치는 {@code depth}개 행을 가진 {@code stripes}개의 독립 하위 스케치로 나뉘며, 클라이언트 키는 자체 잠금을 가진
+ * 하나의 스트라이프와 행마다 하나의 카운터로 해시됩니다. 보수적 갱신(현재 최솟값인 카운터만 증가)을 사용하므로
+ * 추정값은 과소 집계되지 않고 충돌 시에만 과대 집계됩니다. {@code half-life}마다 스트라이프의 카운터가 다음 접근 시
+ * 절반으로 줄어 오래된 탐지는 사라집니다. 고유 클라이언트 수와 무관하게 메모리는 {@code width * depth * 4} 바이트이며,
+ * 추정값이 {@code threshold}에 도달한 클라이언트는 공격자로 판단합니다.
+ */
+public final class AttackTracker {
+
+    private final int threshold;
+    private final int depth;
+    private final int stripeWidth;
+    private final int stripeMask;
+    private final long halfLifeNanos;
+    private final LongSupplier nanoClock;
+    private final Stripe[] stripes;
+    private final AtomicLong recorded = new AtomicLong();
+
+    private AttackTracker(Builder builder) {
+        this.threshold = builder.threshold;
+        this.depth = builder.depth;
+        this.halfLifeNanos = builder.halfLife.toNanos();
+        this.nanoClock = builder.nanoClock;
+        int stripeCount = ceilingPowerOfTwo(builder.stripes);
+        this.stripeMask = stripeCount - 1;
+        this.stripeWidth = ceilingPowerOfTwo(Math.max(1, builder.width / stripeCount));
+        long now = nanoClock.getAsLong();
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(depth * stripeWidth, now);
+        }
+    }
+
+    /**
+     * Returns a new builder.
+     * <p>
+     * 새 빌더를 반환합니다.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Records one detection for the client and returns its new estimate.
+     * <p>
+     * 클라이언트의 탐지를 한 번 기록하고 새 추정값을 반환합니다.
+     */
+    public int record(String clientKey) {
+        if (clientKey == null) {
+            return 0;
+        }
+        recorded.incrementAndGet();
+        int hash = spread(clientKey.hashCode());
+        Stripe stripe = stripes[hash & stripeMask];
+        synchronized (stripe) {
+            stripe.decay(nanoClock.getAsLong(), halfLifeNanos);
+            int[] counters = stripe.counters;
+            int min = Integer.MAX_VALUE;
+            for (int row = 0; row < depth; row++) {
+                min = Math.min(min, counters[index(hash, row)]);
+            }
+            if (min == Integer.MAX_VALUE) {
+                return min;
+            }
+            for (int row = 0; row < depth; row++) {
+                int index = index(hash, row);
+                if (counters[index] == min) {
+                    counters[index] = min + 1;
+                }
+            }
+            return min + 1;
+        }
+    }
+
+    /**
+     * Returns the decayed detection count estimate for the client.
+     * <p>
+     * 클라이언트의 감쇠된 탐지 횟수 추정값을 반환합니다.
+     */
+    public int estimate(String clientKey) {
+        if (clientKey == null) {
+            return 0;
+        }
+        int hash = spread(clientKey.hashCode());
+        Stripe stripe = stripes[hash & stripeMask];
+        synchronized (stripe) {
+            stripe.decay(nanoClock.getAsLong(), halfLifeNanos);
+            int min = Integer.MAX_VALUE;
+            for (int row = 0; row < depth; row++) {
+                min = Math.min(min, stripe.counters[index(hash, row)]);
+            }
+            return min;
+        }
+    }
+
+    /**
+     * Returns whether the client's estimate has reached the threshold.
+     * <p>
+     * 클라이언트의 추정값이 임계값에 도달했는지 반환합니다.
+     */
+    public boolean isOffender(String clientKey) {
+        return estimate(clientKey) >= threshold;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Returns the number of detections recorded since startup.
+     * <p>
+     * 시작 이후 기록된 탐지 수를 반환합니다.
+     */
+    public long getRecorded() {
+        return recorded.get();
+    }
+
+    /**
+     * Returns the fixed size of the counter arrays in bytes.
+     * <p>
+     * 카운터 배열의 고정 크기(바이트)를 반환합니다.
+     */
+    public long getMemoryBytes() {
+        return (long) stripes.length * depth * stripeWidth * Integer.BYTES;
+    }
+
+    /**
+     * Clears all counters.
+     * <p>
+     * 모든 카운터를 초기화합니다.
+     */
+    public void clear() {
+        long now = nanoClock.getAsLong();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                Arrays.fill(stripe.counters, 0);
+                stripe.lastDecay = now;
+            }
+        }
+    }
+
+    /**
+     * Row {@code row} uses bits of the hash above the stripe bits, double-hashed so that rows are independent.
+     */
+    private int index(int hash, int row) {
+        int h1 = hash >>> Integer.numberOfTrailingZeros(stripeMask + 1);
+        int h2 = Integer.rotateLeft(hash * 0x9E3779B9, 16) | 1;
+        return row * stripeWidth + ((h1 + row * h2) & (stripeWidth - 1));
+    }
+
+    private static int spread(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        hash *= 0xC2B2AE35;
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int ceilingPowerOfTwo(int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+
+    private static final class Stripe {
+
+        private final int[] counters;
+        private long lastDecay;
+
+        Stripe(int size, long now) {
+            this.counters = new int[size];
+            this.lastDecay = now;
+        }
+
+        /** Halves the counters once per elapsed half-life. Caller holds the stripe lock. */
+        void decay(long now, long halfLifeNanos) {
+            long periods = (now - lastDecay) / halfLifeNanos;
+            if (periods <= 0) {
+                return;
+            }
+            lastDecay += periods * halfLifeNanos;
+            int shift = (int) Math.min(periods, 31);
+            for (int i = 0; i < counters.length; i++) {
+                counters[i] >>>= shift;
+            }
+        }
+    }
+
+    /**
+     * Builder for {@link AttackTracker}.
+     * <p>
+     * {@link AttackTracker} 빌더입니다.
+     */
+    public static final class Builder {
+
+        private int threshold = 20;
+        private int width = 4096;
+        private int depth = 4;
+        private int stripes = 16;
+        private Duration halfLife = Duration.ofMinutes(5);
+        private LongSupplier nanoClock = System::nanoTime;
+
+        private Builder() {
+        }
+
+        /** Estimate at which a client is an offender (default 20). / 공격자로 판단하는 추정값 (기본값: 20) */
+        public Builder threshold(int threshold) {
+            if (threshold < 1) {
+                throw new IllegalArgumentException("threshold must be >= 1");
+            }
+            this.threshold = threshold;
+            return this;
+        }
+
+        /** Counters per row across all stripes (default 4096). / 모든 스트라이프에 걸친 행당 카운터 수 (기본값: 4096) */
+        public Builder width(int width) {
+            if (width < 1) {
+                throw new IllegalArgumentException("width must be >= 1");
+            }
+            this.width = width;
+            return this;
+        }
+
+        /** Number of rows, i.e. hash functions (default 4). / 행(해시 함수) 수 (기본값: 4) */
+        public Builder depth(int depth) {
+            if (depth < 1 || depth > 16) {
+                throw new IllegalArgumentException("depth must be between 1 and 16");
+            }
+            this.depth = depth;
+            return this;
+        }
+
+        /** Number of lock stripes, rounded up to a power of two (default 16). / 잠금 스트라이프 수 (기본값: 16) */
+        public Builder stripes(int stripes) {
+            if (stripes < 1) {
+                throw new IllegalArgumentException("stripes must be >= 1");
+            }
+            this.stripes = stripes;
+            return this;
+        }
+
+        /** Interval after which counts are halved (default 5m). / 카운트가 절반으로 줄어드는 주기 (기본값: 5m) */
+        public Builder halfLife(Duration halfLife) {
+            if (halfLife == null || halfLife.isNegative() || halfLife.isZero()) {
+                throw new IllegalArgumentException("halfLife must be positive");
+            }
+            this.halfLife = halfLife;
+            return this;
+        }
+
+        Builder nanoClock(LongSupplier nanoClock) {
+            this.nanoClock = nanoClock;
+            return this;
+        }
+
+        public AttackTracker build() {
+            return new AttackTracker(this);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.uniguri;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The sanitized form of one chunk of a {@link BatchSanitizer} input, kept as a list of segments: long unchanged
+ * spans are referenced by file position and later transferred straight from the input file, while
+ * replacements and short unchanged spans between them are collected in heap buffers.
+ * <p>
+ * {@link BatchSanitizer} 입력 청크 하나의 살균 결과입니다. 변경되지 않은 긴 구간은 파일 위치로만 참조했다가
+ * 입력 파일에서 바로 전송하고, 치환 값과 그 사이의 짧은 구간만 힙 버퍼에 모읍니다.
+ */
+final class BatchChunk {
+
+    /** Unchanged spans at least this long are transferred from the input instead of being copied. */
+    static final int TRANSFER_THRESHOLD = 8 * 1024;
+
+    private final long start;
+    private final MappedByteBuffer buffer;
+    private final List<Object> segments = new ArrayList<>();
+    private byte[] sink;
+    private int sinkSize;
+    private int copiedUpTo;
+
+    long records;
+    long modifiedRecords;
+    long modifiedFields;
+    long malformedRecords;
+    long outputBytes;
+
+    private BatchChunk(long start, MappedByteBuffer buffer) {
+        this.start = start;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Maps {@code [start, end)} of the input and sanitizes every record in it.
+     *
+     * @param skipFirstRecord Copy the first record unchanged (the CSV header). / 첫 레코드(CSV 헤더)를 그대로 복사
+     */
+    static BatchChunk process(FileChannel input, long start, long end, boolean skipFirstRecord, BatchRecordScanner scanner)
+            throws IOException {
+        int length = (int) (end - start);
+        BatchChunk chunk = new BatchChunk(start, input.map(FileChannel.MapMode.READ_ONLY, start, length));
+        MappedByteBuffer buffer = chunk.buffer;
+        List<BatchRecordScanner.Replacement> replacements = new ArrayList<>();
+        int p = skipFirstRecord ? scanner.recordEnd(buffer, 0, length) : 0;
+        while (p < length) {
+            int recordEnd = scanner.recordEnd(buffer, p, length);
+            int contentEnd = BatchRecordScanner.contentEnd(buffer, p, recordEnd);
+            if (contentEnd > p) {
+                chunk.records++;
+                replacements.clear();
+                int modified = scanner.sanitize(buffer, p, contentEnd, replacements);
+                if (modified == BatchRecordScanner.MALFORMED) {
+                    chunk.malformedRecords++;
+                } else if (modified > 0) {
+                    chunk.modifiedRecords++;
+                    chunk.modifiedFields += modified;
+                    for (BatchRecordScanner.Replacement replacement : replacements) {
+                        chunk.replace(replacement);
+                    }
+                }
+            }
+            p = recordEnd;
+        }
+        chunk.copyUpTo(length);
+        chunk.flushSink();
+        return chunk;
+    }
+
+    /** Input offset just past this chunk. */
+    long end() {
+        return start + buffer.limit();
+    }
+
+    private void replace(BatchRecordScanner.Replacement replacement) {
+        copyUpTo(replacement.from());
+        append(replacement.bytes(), replacement.bytes().length);
+        copiedUpTo = replacement.to();
+    }
+
+    private void copyUpTo(int end) {
+        int length = end - copiedUpTo;
+        if (length >= TRANSFER_THRESHOLD) {
+            flushSink();
+            segments.add(new long[]{start + copiedUpTo, length});
+            outputBytes += length;
+        } else if (length > 0) {
+            ensureSink(length);
+            buffer.get(copiedUpTo, sink, sinkSize, length);
+            sinkSize += length;
+            outputBytes += length;
+        }
+        copiedUpTo = end;
+    }
+
+    private void append(byte[] bytes, int length) {
+        ensureSink(length);
+        System.arraycopy(bytes, 0, sink, sinkSize, length);
+        sinkSize += length;
+        outputBytes += length;
+    }
+
+    private void ensureSink(int extra) {
+        if (sink == null) {
+            sink = new byte[Math.max(extra, 16 * 1024)];
+        } else if (sinkSize + extra > sink.length) {
+            byte[] grown = new byte[Math.max(sinkSize + extra, sink.length * 2)];
+            System.arraycopy(sink, 0, grown, 0, sinkSize);
+            sink = grown;
+        }
+    }
+
+    private void flushSink() {
+        if (sinkSize > 0) {
+            segments.add(ByteBuffer.wrap(sink, 0, sinkSize));
+            sink = null;
+            sinkSize = 0;
+        }
+    }
+
+    /**
+     * Appends the chunk to {@code output} at its current position.
+     */
+    void writeTo(FileChannel input, FileChannel output) throws IOException {
+        for (Object segment : segments) {
+            if (segment instanceof ByteBuffer bytes) {
+                while (bytes.hasRemaining()) {
+                    output.write(bytes);
+                }
+            } else {
+                long[] span = (long[]) segment;
+                long position = span[0];
+                long remaining = span[1];
+                while (remaining > 0) {
+                    long transferred = input.transferTo(position, remaining, output);
+                    if (transferred <= 0) {
+                        throw new IOException("Input ended at offset " + position + " while writing; was it modified?");
+                    }
+                    position += transferred;
+                    remaining -= transferred;
+                }
+            }
+        }
+    }
+}
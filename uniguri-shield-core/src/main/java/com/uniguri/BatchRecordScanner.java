@@ -0,0 +1,48 @@
+package com.uniguri;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Finds record boundaries and selected string fields of one batch format inside a mapped chunk.
+ * Scanners keep scratch buffers, so each chunk task uses its own instance. Offsets are chunk-relative.
+ * <p>
+ * 매핑된 청크 안에서 배치 형식의 레코드 경계와 선택된 문자열 필드를 찾습니다.
+ * 스캐너는 임시 버퍼를 가지므로 청크 작업마다 별도 인스턴스를 사용합니다. 오프셋은 청크 기준입니다.
+ */
+abstract class BatchRecordScanner {
+
+    /** Returned by {@link #sanitize} when the record cannot be parsed; the record is then copied unchanged. */
+    static final int MALFORMED = -1;
+
+    /**
+     * Returns the offset just past the terminator of the record starting at {@code from}, or {@code limit}.
+     */
+    abstract int recordEnd(ByteBuffer buffer, int from, int limit);
+
+    /**
+     * Sanitizes the selected fields of the record {@code [from, to)} (terminator excluded) and adds a
+     * replacement for every field whose value changed.
+     *
+     * @return The number of replaced fields, or {@link #MALFORMED}.
+     */
+    abstract int sanitize(ByteBuffer buffer, int from, int to, List<Replacement> replacements);
+
+    /** Returns the end of the record content without its line terminator. */
+    static int contentEnd(ByteBuffer buffer, int from, int recordEnd) {
+        int end = recordEnd;
+        if (end > from && buffer.get(end - 1) == '\n') {
+            end--;
+            if (end > from && buffer.get(end - 1) == '\r') {
+                end--;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * Replaces the encoded field {@code [from, to)} of the chunk with {@code bytes}.
+     */
+    record Replacement(int from, int to, byte[] bytes) {
+    }
+}
@@ -0,0 +1,570 @@
+package com.uniguri;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Re-sanitizes selected string fields of large JSON Lines or CSV files in parallel.
+ * <p>
+ * The input is memory-mapped and cut into chunks of roughly {@code chunkSize} bytes on record boundaries.
+ * Chunks are sanitized on a worker pool and written to the output in input order; parts of a chunk that did
+ * not change are transferred from the input file without passing through the heap. Only the selected fields
+ * are decoded, so other fields, formatting and line terminators are preserved byte for byte. Records that
+ * cannot be parsed are copied unchanged and counted as malformed.
+ * <p>
+ * With a checkpoint file the progress (input and output offsets plus counters) is saved periodically and after
+ * a failure; running the same job again truncates the output to the saved offset and resumes from there.
+ * The checkpoint is deleted when the run completes.
+ * <pre>{@code
+ * BatchSanitizer.Report report = BatchSanitizer.builder(BatchSanitizer.Format.JSONL)
+ *         .field("body", shield::sanitize)
+ *         .field("author.name", shield::strictSanitize)
+ *         .checkpoint(Path.of("export.jsonl.checkpoint"), Duration.ofSeconds(10))
+ *         .build()
+ *         .run(Path.of("export.jsonl"), Path.of("export.sanitized.jsonl"));
+ * }</pre>
+ * <p>
+ * 대용량 JSON Lines / CSV 파일의 선택된 문자열 필드를 병렬로 재살균합니다.
+ * 입력을 메모리 매핑한 뒤 레코드 경계에서 약 {@code chunkSize} 바이트 단위로 나누어 작업 스레드에서 살균하고,
+ * 입력 순서대로 출력에 기록합니다. 청크에서 바뀌지 않은 부분은 힙을 거치지 않고 입력 파일에서 바로 전송합니다.
+ * 선택된 필드만 디코딩하므로 나머지 필드, 서식, 줄바꿈은 바이트 단위로 보존되며, 파싱할 수 없는 레코드는
+ * 그대로 복사하고 malformed로 집계합니다. 체크포인트 파일을 지정하면 진행 상황을 주기적으로(그리고 실패 시) 저장하고,
+ * 같은 작업을 다시 실행하면 저장된 위치부터 이어서 처리합니다. 완료되면 체크포인트는 삭제됩니다.
+ */
+public final class BatchSanitizer {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchSanitizer.class);
+    private static final int SCAN_WINDOW = 1 << 20;
+    private static final int HEADER_WINDOW = 1 << 26;
+    private static final AtomicInteger POOL_SEQUENCE = new AtomicInteger();
+
+    /**
+     * Supported input formats.
+     * <p>
+     * 지원하는 입력 형식입니다.
+     */
+    public enum Format {
+        /** One JSON value per line; fields are selected by dotted path. / 줄마다 JSON 값 하나, 점 경로로 필드 선택 */
+        JSONL,
+        /** RFC 4180 CSV with a header record; fields are selected by column name. / 헤더가 있는 CSV, 컬럼 이름으로 선택 */
+        CSV
+    }
+
+    private final Format format;
+    private final Map<String, UnaryOperator<String>> fields;
+    private final byte delimiter;
+    private final int parallelism;
+    private final int chunkSize;
+    private final Path checkpointFile;
+    private final long checkpointIntervalNanos;
+    private final Consumer<Report> progressListener;
+
+    private BatchSanitizer(Builder builder) {
+        this.format = builder.format;
+        this.fields = Map.copyOf(builder.fields);
+        this.delimiter = (byte) builder.delimiter;
+        this.parallelism = builder.parallelism;
+        this.chunkSize = builder.chunkSize;
+        this.checkpointFile = builder.checkpointFile;
+        this.checkpointIntervalNanos = builder.checkpointInterval.toNanos();
+        this.progressListener = builder.progressListener;
+    }
+
+    /**
+     * Returns a new builder for the given input format.
+     * <p>
+     * 주어진 입력 형식의 새 빌더를 반환합니다.
+     */
+    public static Builder builder(Format format) {
+        return new Builder(format);
+    }
+
+    /**
+     * Sanitizes {@code input} into {@code output}, resuming from the checkpoint file when one is present.
+     * <p>
+     * {@code input}을 살균하여 {@code output}에 기록합니다. 체크포인트 파일이 있으면 이어서 처리합니다.
+     *
+     * @return Counters and throughput of the run. / 실행 결과 집계와 처리량
+     * @throws IOException if reading or writing fails, or the checkpoint does not belong to {@code input}
+     */
+    public Report run(Path input, Path output) throws IOException {
+        if (Files.exists(output) && Files.isSameFile(input, output)) {
+            throw new IllegalArgumentException("Input and output must be different files: " + input);
+        }
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ)) {
+            long size = in.size();
+            long lastModified = Files.getLastModifiedTime(input).toMillis();
+            Progress progress = loadCheckpoint(size, lastModified);
+            Supplier<BatchRecordScanner> scanners = scanners(in, size);
+            try (FileChannel out = openOutput(output, progress)) {
+                return run(in, out, size, lastModified, progress, scanners);
+            }
+        }
+    }
+
+    private Report run(FileChannel in, FileChannel out, long size, long lastModified, Progress progress,
+                       Supplier<BatchRecordScanner> scanners) throws IOException {
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism, daemonThreads());
+        ArrayDeque<Future<BatchChunk>> pending = new ArrayDeque<>();
+        int maxPending = parallelism * 2;
+        long next = progress.inputOffset;
+        long lastCheckpoint = System.nanoTime();
+        try {
+            while (next < size || !pending.isEmpty()) {
+                while (next < size && pending.size() < maxPending) {
+                    long from = next;
+                    long to = nextBoundary(in, from, size);
+                    if (to - from > Integer.MAX_VALUE) {
+                        throw new IOException("Record at offset " + from + " does not fit in a 2 GB chunk");
+                    }
+                    boolean header = format == Format.CSV && from == 0;
+                    BatchRecordScanner scanner = scanners.get();
+                    pending.add(workers.submit(() -> BatchChunk.process(in, from, to, header, scanner)));
+                    next = to;
+                }
+                BatchChunk chunk = await(pending.poll());
+                chunk.writeTo(in, out);
+                progress.add(chunk);
+                if (checkpointFile != null && System.nanoTime() - lastCheckpoint >= checkpointIntervalNanos) {
+                    saveCheckpoint(out, size, lastModified, progress);
+                    lastCheckpoint = System.nanoTime();
+                }
+                if (progressListener != null) {
+                    progressListener.accept(progress.report());
+                }
+            }
+            if (checkpointFile != null) {
+                out.force(false);
+                Files.deleteIfExists(checkpointFile);
+            }
+            return progress.report();
+        } catch (IOException | RuntimeException e) {
+            pending.forEach(future -> future.cancel(false));
+            if (checkpointFile != null && progress.chunks > 0) {
+                try {
+                    saveCheckpoint(out, size, lastModified, progress);
+                } catch (IOException | RuntimeException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+            }
+            throw e;
+        } finally {
+            // No interrupts: interrupting a thread inside a FileChannel operation closes the shared channel.
+            workers.shutdown();
+        }
+    }
+
+    private Supplier<BatchRecordScanner> scanners(FileChannel in, long size) throws IOException {
+        if (format == Format.JSONL) {
+            return () -> new JsonlRecordScanner(fields);
+        }
+        MappedByteBuffer head = in.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, HEADER_WINDOW));
+        List<String> header = CsvRecordScanner.header(head, head.limit(), delimiter);
+        if (header == null) {
+            throw new IOException("Cannot parse the CSV header record");
+        }
+        UnaryOperator<String>[] columns = CsvRecordScanner.columns(header, fields);
+        return () -> new CsvRecordScanner(delimiter, columns);
+    }
+
+    /**
+     * Returns the end of the chunk starting at {@code from}: the first record boundary at or after
+     * {@code from + chunkSize}. CSV is scanned from {@code from} to keep track of quoted line breaks.
+     */
+    private long nextBoundary(FileChannel in, long from, long size) throws IOException {
+        long target = from + chunkSize;
+        if (target >= size) {
+            return size;
+        }
+        boolean csv = format == Format.CSV;
+        boolean quoted = false;
+        long position = csv ? from : target;
+        while (position < size) {
+            int length = (int) Math.min(SCAN_WINDOW, size - position);
+            MappedByteBuffer window = in.map(FileChannel.MapMode.READ_ONLY, position, length);
+            for (int i = 0; i < length; i++) {
+                byte c = window.get(i);
+                if (csv && c == '"') {
+                    quoted = !quoted;
+                } else if (c == '\n' && !quoted && position + i >= target) {
+                    return position + i + 1;
+                }
+            }
+            position += length;
+        }
+        return size;
+    }
+
+    private FileChannel openOutput(Path output, Progress progress) throws IOException {
+        if (progress.inputOffset == 0) {
+            return FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        }
+        FileChannel out = FileChannel.open(output, StandardOpenOption.WRITE);
+        if (out.size() < progress.outputOffset) {
+            out.close();
+            throw new IOException("Output " + output + " is shorter than the checkpoint offset " + progress.outputOffset);
+        }
+        out.truncate(progress.outputOffset);
+        out.position(progress.outputOffset);
+        log.info("Resuming batch sanitization at input offset {} ({} records done)", progress.inputOffset, progress.records);
+        return out;
+    }
+
+    private Progress loadCheckpoint(long size, long lastModified) throws IOException {
+        if (checkpointFile == null || !Files.isRegularFile(checkpointFile)) {
+            return new Progress(0, 0, 0, 0, 0, 0);
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(checkpointFile, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        try {
+            if (!format.name().equals(properties.getProperty("format"))
+                    || Long.parseLong(properties.getProperty("input.size")) != size
+                    || Long.parseLong(properties.getProperty("input.lastModified")) != lastModified) {
+                throw new IOException("Checkpoint " + checkpointFile + " belongs to a different input; delete it to start over");
+            }
+            return new Progress(
+                    Long.parseLong(properties.getProperty("input.offset")),
+                    Long.parseLong(properties.getProperty("output.offset")),
+                    Long.parseLong(properties.getProperty("records")),
+                    Long.parseLong(properties.getProperty("modifiedRecords")),
+                    Long.parseLong(properties.getProperty("modifiedFields")),
+                    Long.parseLong(properties.getProperty("malformedRecords")));
+        } catch (NumberFormatException e) {
+            throw new IOException("Corrupt checkpoint " + checkpointFile, e);
+        }
+    }
+
+    /** Forces the output, then atomically replaces the checkpoint file (temporary file + move). */
+    private void saveCheckpoint(FileChannel out, long size, long lastModified, Progress progress) throws IOException {
+        out.force(false);
+        Properties properties = new Properties();
+        properties.setProperty("format", format.name());
+        properties.setProperty("input.size", Long.toString(size));
+        properties.setProperty("input.lastModified", Long.toString(lastModified));
+        properties.setProperty("input.offset", Long.toString(progress.inputOffset));
+        properties.setProperty("output.offset", Long.toString(progress.outputOffset));
+        properties.setProperty("records", Long.toString(progress.records));
+        properties.setProperty("modifiedRecords", Long.toString(progress.modifiedRecords));
+        properties.setProperty("modifiedFields", Long.toString(progress.modifiedFields));
+        properties.setProperty("malformedRecords", Long.toString(progress.malformedRecords));
+        Path parent = checkpointFile.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tmp = Files.createTempFile(parent, checkpointFile.getFileName().toString(), ".tmp");
+        try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            properties.store(writer, "XSS Shield batch checkpoint");
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        try {
+            Files.move(tmp, checkpointFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, checkpointFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static BatchChunk await(Future<BatchChunk> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a batch chunk");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private static ThreadFactory daemonThreads() {
+        int pool = POOL_SEQUENCE.incrementAndGet();
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "xss-shield-batch-" + pool + "-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /** Running totals of one run, seeded from the checkpoint when resuming. */
+    private static final class Progress {
+
+        private final long resumedFrom;
+        private final long startNanos = System.nanoTime();
+        private final long recordsAtStart;
+        private long inputOffset;
+        private long outputOffset;
+        private long records;
+        private long modifiedRecords;
+        private long modifiedFields;
+        private long malformedRecords;
+        private int chunks;
+
+        Progress(long inputOffset, long outputOffset, long records, long modifiedRecords, long modifiedFields, long malformedRecords) {
+            this.resumedFrom = inputOffset;
+            this.recordsAtStart = records;
+            this.inputOffset = inputOffset;
+            this.outputOffset = outputOffset;
+            this.records = records;
+            this.modifiedRecords = modifiedRecords;
+            this.modifiedFields = modifiedFields;
+            this.malformedRecords = malformedRecords;
+        }
+
+        void add(BatchChunk chunk) {
+            inputOffset = chunk.end();
+            outputOffset += chunk.outputBytes;
+            records += chunk.records;
+            modifiedRecords += chunk.modifiedRecords;
+            modifiedFields += chunk.modifiedFields;
+            malformedRecords += chunk.malformedRecords;
+            chunks++;
+        }
+
+        Report report() {
+            return new Report(resumedFrom, inputOffset, outputOffset, records, records - recordsAtStart,
+                    modifiedRecords, modifiedFields, malformedRecords, Duration.ofNanos(System.nanoTime() - startNanos));
+        }
+    }
+
+    /**
+     * Counters and throughput of a batch run. Record counters include the work restored from a checkpoint;
+     * the rates only cover the current run.
+     * <p>
+     * 배치 실행의 집계와 처리량입니다. 레코드 수는 체크포인트에서 복원한 작업을 포함하며, 처리율은 현재 실행만 계산합니다.
+     */
+    public static final class Report {
+
+        private final long resumedFrom;
+        private final long inputOffset;
+        private final long outputOffset;
+        private final long records;
+        private final long recordsThisRun;
+        private final long modifiedRecords;
+        private final long modifiedFields;
+        private final long malformedRecords;
+        private final Duration elapsed;
+
+        Report(long resumedFrom, long inputOffset, long outputOffset, long records, long recordsThisRun,
+               long modifiedRecords, long modifiedFields, long malformedRecords, Duration elapsed) {
+            this.resumedFrom = resumedFrom;
+            this.inputOffset = inputOffset;
+            this.outputOffset = outputOffset;
+            this.records = records;
+            this.recordsThisRun = recordsThisRun;
+            this.modifiedRecords = modifiedRecords;
+            this.modifiedFields = modifiedFields;
+            this.malformedRecords = malformedRecords;
+            this.elapsed = elapsed;
+        }
+
+        /** Input offset this run started from (0 unless resumed). / 이번 실행의 시작 입력 오프셋 */
+        public long getResumedFrom() {
+            return resumedFrom;
+        }
+
+        /** Input bytes processed so far; the offset a checkpoint would resume from. / 지금까지 처리한 입력 바이트 */
+        public long getInputOffset() {
+            return inputOffset;
+        }
+
+        /** Output bytes written so far. / 지금까지 기록한 출력 바이트 */
+        public long getOutputOffset() {
+            return outputOffset;
+        }
+
+        /** Non-empty records processed, header excluded. / 처리한 레코드 수(헤더 제외) */
+        public long getRecords() {
+            return records;
+        }
+
+        /** Records with at least one replaced field. / 하나 이상의 필드가 바뀐 레코드 수 */
+        public long getModifiedRecords() {
+            return modifiedRecords;
+        }
+
+        /** Replaced field values. / 바뀐 필드 값 수 */
+        public long getModifiedFields() {
+            return modifiedFields;
+        }
+
+        /** Records copied unchanged because they could not be parsed. / 파싱할 수 없어 그대로 복사한 레코드 수 */
+        public long getMalformedRecords() {
+            return malformedRecords;
+        }
+
+        /** Wall-clock time of the current run. / 현재 실행의 경과 시간 */
+        public Duration getElapsed() {
+            return elapsed;
+        }
+
+        /** Records per second in the current run. / 현재 실행의 초당 레코드 수 */
+        public double getRecordsPerSecond() {
+            return perSecond(recordsThisRun);
+        }
+
+        /** Input bytes per second in the current run. / 현재 실행의 초당 입력 바이트 */
+        public double getBytesPerSecond() {
+            return perSecond(inputOffset - resumedFrom);
+        }
+
+        private double perSecond(long amount) {
+            long nanos = elapsed.toNanos();
+            return nanos > 0 ? amount * 1_000_000_000.0 / nanos : 0.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("records=%d (modified=%d, fields=%d, malformed=%d), input=%d, output=%d, %.0f records/s, %.1f MB/s",
+                    records, modifiedRecords, modifiedFields, malformedRecords, inputOffset, outputOffset,
+                    getRecordsPerSecond(), getBytesPerSecond() / (1024 * 1024));
+        }
+    }
+
+    /**
+     * Builder for {@link BatchSanitizer}.
+     * <p>
+     * {@link BatchSanitizer} 빌더입니다.
+     */
+    public static final class Builder {
+
+        private final Format format;
+        private final Map<String, UnaryOperator<String>> fields = new LinkedHashMap<>();
+        private char delimiter = ',';
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+        private int chunkSize = 8 * 1024 * 1024;
+        private Path checkpointFile;
+        private Duration checkpointInterval = Duration.ofSeconds(10);
+        private Consumer<Report> progressListener;
+
+        private Builder(Format format) {
+            if (format == null) {
+                throw new IllegalArgumentException("format must not be null");
+            }
+            this.format = format;
+        }
+
+        /**
+         * Selects a string field and the function applied to it, e.g. {@code shield::sanitize}. JSONL fields are
+         * dotted paths; CSV fields are header column names.
+         * <p>
+         * 살균할 문자열 필드와 적용할 함수(예: {@code shield::sanitize})를 지정합니다.
+         * JSONL은 점으로 구분된 경로, CSV는 헤더의 컬럼 이름입니다.
+         */
+        public Builder field(String name, UnaryOperator<String> sanitizer) {
+            if (name == null || name.isEmpty() || sanitizer == null) {
+                throw new IllegalArgumentException("field name and sanitizer must be set");
+            }
+            fields.put(name, sanitizer);
+            return this;
+        }
+
+        /**
+         * Sets the CSV delimiter (default {@code ','}); must be an ASCII character other than a quote or line break.
+         * <p>
+         * CSV 구분자를 설정합니다. (기본값: 쉼표)
+         */
+        public Builder delimiter(char delimiter) {
+            if (delimiter >= 0x80 || delimiter == '"' || delimiter == '\n' || delimiter == '\r') {
+                throw new IllegalArgumentException("delimiter must be ASCII and not a quote or line break");
+            }
+            this.delimiter = delimiter;
+            return this;
+        }
+
+        /**
+         * Sets the number of worker threads (default: available processors).
+         * <p>
+         * 작업 스레드 수를 설정합니다. (기본값: 사용 가능한 프로세서 수)
+         */
+        public Builder parallelism(int parallelism) {
+            if (parallelism < 1) {
+                throw new IllegalArgumentException("parallelism must be >= 1");
+            }
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Sets the target chunk size in bytes (default 8 MB); chunks are extended to the next record boundary.
+         * <p>
+         * 목표 청크 크기(바이트)를 설정합니다. (기본값: 8MB) 청크는 다음 레코드 경계까지 늘어납니다.
+         */
+        public Builder chunkSize(int chunkSize) {
+            if (chunkSize < 1) {
+                throw new IllegalArgumentException("chunkSize must be >= 1");
+            }
+            this.chunkSize = chunkSize;
+            return this;
+        }
+
+        /**
+         * Saves progress to {@code file} at most every {@code interval} and after a failure, and resumes from it.
+         * <p>
+         * 진행 상황을 최대 {@code interval}마다, 그리고 실패 시 {@code file}에 저장하고 다음 실행에서 이어서 처리합니다.
+         */
+        public Builder checkpoint(Path file, Duration interval) {
+            if (interval == null || interval.isNegative()) {
+                throw new IllegalArgumentException("interval must not be negative");
+            }
+            this.checkpointFile = file;
+            this.checkpointInterval = interval;
+            return this;
+        }
+
+        /**
+         * Receives a report after every chunk written, on the thread calling {@link BatchSanitizer#run}.
+         * <p>
+         * 청크를 기록할 때마다 {@link BatchSanitizer#run}을 호출한 스레드에서 보고서를 받습니다.
+         */
+        public Builder progressListener(Consumer<Report> progressListener) {
+            this.progressListener = progressListener;
+            return this;
+        }
+
+        public BatchSanitizer build() {
+            if (fields.isEmpty()) {
+                throw new IllegalStateException("at least one field must be selected");
+            }
+            return new BatchSanitizer(this);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.uniguri;
+
+/**
+ * The caller on whose behalf values are inspected: used for detection log lines and for sampled detection
+ * (per-request sampling and flagged clients). Any field may be {@code null} outside of a request.
+ * <p>
+ * 값을 검사하는 대상 호출자 정보입니다. 탐지 로그와 샘플링 탐지(요청 단위 샘플링, 탐지된 클라이언트)에 사용됩니다.
+ * 요청 밖에서는 각 필드가 {@code null}일 수 있습니다.
+ */
+public class ClientInfo {
+
+    private final String uri;
+    private final String clientIp;
+    private final String userAgent;
+    /** Sampling decision for detection, made once per request: 0 = undecided, 1 = inspect, 2 = skip. */
+    private byte sampled;
+
+    /**
+     * @param uri       The request URI or another identifier of the unit of work. / 요청 URI 또는 작업 단위 식별자
+     * @param clientIp  The client address. / 클라이언트 주소
+     * @param userAgent The client user agent. / 클라이언트 User-Agent
+     */
+    public ClientInfo(String uri, String clientIp, String userAgent) {
+        this.uri = uri;
+        this.clientIp = clientIp;
+        this.userAgent = userAgent;
+    }
+
+    public String getUri() {
+        return uri;
+    }
+
+    public String getClientIp() {
+        return clientIp;
+    }
+
+    public String getUserAgent() {
+        return userAgent;
+    }
+
+    boolean isSampled(double rate) {
+        if (sampled == 0) {
+            sampled = DetectionSampler.sample(rate) ? (byte) 1 : (byte) 2;
+        }
+        return sampled == 1;
+    }
+}
@@ -0,0 +1,171 @@
+package com.uniguri;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * RFC 4180 CSV scanner. Records end at a line feed outside double quotes, so quoted values may span lines.
+ * Columns are selected by their name in the header record. A changed value is written back quoted when the
+ * original was quoted or when it contains the delimiter, a quote or a line break.
+ * <p>
+ * RFC 4180 CSV 스캐너입니다. 큰따옴표 밖의 줄바꿈에서 레코드가 끝나므로 인용된 값은 여러 줄에 걸칠 수 있습니다.
+ * 컬럼은 헤더 레코드의 이름으로 선택합니다. 바뀐 값은 원래 인용되어 있었거나 구분자, 따옴표, 줄바꿈을 포함하면
+ * 따옴표로 감싸서 기록합니다.
+ */
+final class CsvRecordScanner extends BatchRecordScanner {
+
+    private final byte delimiter;
+    private final UnaryOperator<String>[] columns;
+
+    private List<Replacement> replacements;
+
+    CsvRecordScanner(byte delimiter, UnaryOperator<String>[] columns) {
+        this.delimiter = delimiter;
+        this.columns = columns;
+    }
+
+    /**
+     * Resolves the selected field names against the header into a per-column array.
+     *
+     * @throws IllegalArgumentException if a field is not a header column
+     */
+    @SuppressWarnings("unchecked")
+    static UnaryOperator<String>[] columns(List<String> header, Map<String, UnaryOperator<String>> fields) {
+        UnaryOperator<String>[] columns = new UnaryOperator[header.size()];
+        for (Map.Entry<String, UnaryOperator<String>> field : fields.entrySet()) {
+            int index = header.indexOf(field.getKey());
+            if (index < 0) {
+                throw new IllegalArgumentException("CSV header has no column '" + field.getKey() + "': " + header);
+            }
+            columns[index] = field.getValue();
+        }
+        return columns;
+    }
+
+    /**
+     * Reads the header record at the start of the file (after an optional UTF-8 BOM).
+     *
+     * @return The column names, or {@code null} when the header cannot be parsed.
+     */
+    static List<String> header(ByteBuffer buffer, int limit, byte delimiter) {
+        int from = limit >= 3 && buffer.get(0) == (byte) 0xEF && buffer.get(1) == (byte) 0xBB && buffer.get(2) == (byte) 0xBF ? 3 : 0;
+        CsvRecordScanner scanner = new CsvRecordScanner(delimiter, null);
+        int to = contentEnd(buffer, from, scanner.recordEnd(buffer, from, limit));
+        List<String> names = new ArrayList<>();
+        boolean parsed = scanner.fields(buffer, from, to, (column, start, end, quoted) ->
+                names.add(scanner.decode(buffer, start, end, quoted)));
+        return parsed ? names : null;
+    }
+
+    @Override
+    int recordEnd(ByteBuffer buffer, int from, int limit) {
+        boolean quoted = false;
+        for (int i = from; i < limit; i++) {
+            byte c = buffer.get(i);
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (c == '\n' && !quoted) {
+                return i + 1;
+            }
+        }
+        return limit;
+    }
+
+    @Override
+    int sanitize(ByteBuffer buffer, int from, int to, List<Replacement> replacements) {
+        this.replacements = replacements;
+        int before = replacements.size();
+        try {
+            boolean parsed = fields(buffer, from, to, (column, start, end, quoted) -> {
+                if (column < columns.length && columns[column] != null) {
+                    replace(buffer, start, end, quoted, columns[column]);
+                }
+            });
+            return parsed ? replacements.size() - before : MALFORMED;
+        } finally {
+            this.replacements = null;
+        }
+    }
+
+    /**
+     * Visits every field of the record {@code [from, to)}; returns {@code false} on a malformed quoted field.
+     */
+    private boolean fields(ByteBuffer buffer, int from, int to, FieldVisitor visitor) {
+        int p = from;
+        for (int column = 0; ; column++) {
+            int end;
+            boolean quoted = p < to && buffer.get(p) == '"';
+            if (quoted) {
+                int i = p + 1;
+                while (true) {
+                    if (i >= to) {
+                        return false;
+                    }
+                    if (buffer.get(i) == '"') {
+                        if (i + 1 < to && buffer.get(i + 1) == '"') {
+                            i += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    i++;
+                }
+                end = i + 1;
+                if (end < to && buffer.get(end) != delimiter) {
+                    return false;
+                }
+            } else {
+                end = p;
+                while (end < to && buffer.get(end) != delimiter) {
+                    end++;
+                }
+            }
+            visitor.field(column, p, end, quoted);
+            if (end >= to) {
+                return true;
+            }
+            p = end + 1;
+        }
+    }
+
+    private void replace(ByteBuffer buffer, int start, int end, boolean quoted, UnaryOperator<String> sanitizer) {
+        String value = decode(buffer, start, end, quoted);
+        String sanitized = sanitizer.apply(value);
+        if (sanitized == null) {
+            sanitized = "";
+        }
+        if (value.equals(sanitized)) {
+            return;
+        }
+        replacements.add(new Replacement(start, end, encode(sanitized, quoted)));
+    }
+
+    private String decode(ByteBuffer buffer, int start, int end, boolean quoted) {
+        if (quoted) {
+            start++;
+            end--;
+        }
+        byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        String value = new String(bytes, StandardCharsets.UTF_8);
+        return quoted && value.indexOf('"') >= 0 ? value.replace("\"\"", "\"") : value;
+    }
+
+    private byte[] encode(String value, boolean quoted) {
+        char separator = (char) (delimiter & 0xFF);
+        if (!quoted && value.indexOf(separator) < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value.getBytes(StandardCharsets.UTF_8);
+        }
+        return ('"' + value.replace("\"", "\"\"") + '"').getBytes(StandardCharsets.UTF_8);
+    }
+
+    @FunctionalInterface
+    private interface FieldVisitor {
+        void field(int column, int start, int end, boolean quoted);
+    }
+}
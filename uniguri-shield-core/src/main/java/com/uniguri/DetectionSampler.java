@@ -0,0 +1,138 @@
+package com.uniguri;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides which values {@link XssShield#containsXssPattern(String)} inspects in sampled detection mode.
+ * <p>
+ * A cheap single pass classifies each value:
+ * <ul>
+ *   <li>values without any character a detection pattern needs ({@code < > = ( : % &}) and that do not look
+ *       like Base64 cannot match and are skipped;</li>
+ *   <li>values with markup ({@code <}, {@code >}, {@code "}, entity or percent-encoded brackets,
+ *       {@code script:}) are always inspected;</li>
+ *   <li>the rest is inspected when the client was flagged recently, otherwise when the request (or value)
+ *       falls into the sample.</li>
+ * </ul>
+ * <p>
+ * 샘플링 탐지 모드에서 {@link XssShield#containsXssPattern(String)}이 검사할 값을 결정합니다.
+ * 탐지 패턴에 필요한 문자가 없는 값은 건너뛰고, 마크업을 포함한 값은 항상 검사하며,
+ * 나머지는 최근 탐지된 클라이언트이거나 표본에 포함된 요청(또는 값)일 때만 검사합니다.
+ */
+final class DetectionSampler {
+
+    private final double sampleRate;
+    private final boolean perRequest;
+    private final Cache<String, Boolean> flaggedClients;
+
+    DetectionSampler(double sampleRate, boolean perRequest, Duration flaggedClientTtl, int flaggedClientMaxEntries) {
+        this.sampleRate = sampleRate;
+        this.perRequest = perRequest;
+        this.flaggedClients = Caffeine.newBuilder()
+                .maximumSize(flaggedClientMaxEntries)
+                .expireAfterWrite(flaggedClientTtl)
+                .build();
+    }
+
+    boolean shouldInspect(String value, ClientInfo info) {
+        switch (classify(value)) {
+            case INERT:
+                return false;
+            case MARKUP:
+                return true;
+            default:
+                break;
+        }
+        String clientIp = info != null ? info.getClientIp() : null;
+        if (clientIp != null && flaggedClients.getIfPresent(clientIp) != null) {
+            return true;
+        }
+        if (perRequest && info != null && info.getUri() != null) {
+            return info.isSampled(sampleRate);
+        }
+        return sample(sampleRate);
+    }
+
+    /**
+     * Remembers the client of a detected value so that its next values are always inspected.
+     */
+    void flag(ClientInfo info) {
+        if (info != null && info.getClientIp() != null) {
+            flaggedClients.put(info.getClientIp(), Boolean.TRUE);
+        }
+    }
+
+    static boolean sample(double rate) {
+        return rate >= 1.0 || (rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    enum Signal { INERT, SUSPECT, MARKUP }
+
+    static Signal classify(String value) {
+        boolean trigger = false;
+        boolean base64 = value.length() >= 4 && (value.length() & 3) == 0;
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<', '>', '"':
+                    return Signal.MARKUP;
+                case '&':
+                    if (i + 1 < length && isEntityStart(value.charAt(i + 1))) {
+                        return Signal.MARKUP;
+                    }
+                    trigger = true;
+                    base64 = false;
+                    break;
+                case '%':
+                    if (i + 2 < length && isEncodedMarkup(value.charAt(i + 1), value.charAt(i + 2))) {
+                        return Signal.MARKUP;
+                    }
+                    trigger = true;
+                    base64 = false;
+                    break;
+                case ':':
+                    if (i >= 6 && value.regionMatches(true, i - 6, "script", 0, 6)) {
+                        return Signal.MARKUP;
+                    }
+                    trigger = true;
+                    base64 = false;
+                    break;
+                case '=':
+                    // Base64 padding is also a trigger character.
+                    trigger = true;
+                    break;
+                case '(':
+                    trigger = true;
+                    base64 = false;
+                    break;
+                default:
+                    if (base64 && !isBase64(c)) {
+                        base64 = false;
+                    }
+            }
+        }
+        return trigger || base64 ? Signal.SUSPECT : Signal.INERT;
+    }
+
+    private static boolean isEntityStart(char c) {
+        return c == '#' || c == 'l' || c == 'L' || c == 'g' || c == 'G' || c == 'q' || c == 'Q';
+    }
+
+    private static boolean isEncodedMarkup(char hi, char lo) {
+        if (hi == '2') {
+            return lo == '2' || lo == '5';
+        }
+        if (hi == '3') {
+            return lo == 'c' || lo == 'C' || lo == 'e' || lo == 'E';
+        }
+        return false;
+    }
+
+    private static boolean isBase64(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '+' || c == '/';
+    }
+}
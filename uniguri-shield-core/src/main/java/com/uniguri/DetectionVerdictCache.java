@@ -0,0 +1,305 @@
+package com.uniguri;
+
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Fixed-size cache of {@code containsXssPattern} results without boxed keys or values.
+ * <p>
+ * Each value is keyed by the first 64 bits and verified with 32 more bits of a SipHash-2-4 (128-bit output) over
+ * the input, keyed with a random secret drawn per instance from {@link SecureRandom}. Without the secret an
+ * attacker cannot compute either hash, so a payload cannot be crafted to hit the verdict of a cached clean value;
+ * an accidental false hit needs a 96-bit collision. Entries live in
+ * primitive arrays split into stripes; the key picks a stripe and a home slot, and lookups scan a short
+ * window of slots from there. Readers use an optimistic {@link StampedLock} read and take no lock unless a
+ * writer interfered. When the window is full, a clock hand sweeps it: referenced entries get a second
+ * chance, the first unreferenced one is replaced. Inputs longer than {@code maxLength} are not cached.
+ * <p>
+ * 박싱된 키/값 없이 {@code containsXssPattern} 결과를 저장하는 고정 크기 캐시입니다.
+ * 값은 인스턴스마다 {@link SecureRandom}으로 뽑은 비밀 키를 쓰는 SipHash-2-4(128비트 출력)의 앞 64비트로 찾고
+ * 32비트를 더 비교해 검증합니다. 비밀 키 없이는 두 해시를 계산할 수 없으므로 캐시된 깨끗한 값의 판정에 적중하도록
+ * 페이로드를 만들 수 없으며, 우연한 잘못된 적중은 96비트가 충돌해야만 발생합니다. 엔트리는 스트라이프로 나뉜 원시 배열에 저장되며, 키가 스트라이프와 시작 슬롯을
+ * 정하고 조회는 그 위치부터 짧은 슬롯 구간을 검사합니다. 읽기는 {@link StampedLock}의 낙관적 읽기를 사용해 쓰기와
+ * 겹치지 않는 한 잠금을 잡지 않습니다. 구간이 가득 차면 클럭 포인터가 구간을 돌며 참조된 엔트리에 한 번 더 기회를 주고
+ * 처음 만난 미참조 엔트리를 교체합니다. {@code maxLength}보다 긴 입력은 캐시하지 않습니다.
+ */
+public final class DetectionVerdictCache {
+
+    /** Result of {@link #get(String)} when the input is not cached. / 캐시되지 않은 입력의 조회 결과 */
+    public static final int UNKNOWN = -1;
+    /** Cached result: no XSS pattern. / 캐시된 결과: XSS 패턴 없음 */
+    public static final int CLEAN = 0;
+    /** Cached result: XSS pattern found. / 캐시된 결과: XSS 패턴 발견 */
+    public static final int FOUND = 1;
+
+    private static final int PROBE = 8;
+    private static final int STRIPES = 16;
+    private static final byte OCCUPIED = 1;
+    private static final byte DETECTED = 2;
+    private static final int SLOT_BYTES = Long.BYTES + Integer.BYTES + 2;
+
+    private final long k0;
+    private final long k1;
+    private final Stripe[] stripes;
+    private final int slotMask;
+    private final int maxLength;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param capacity  Total number of slots, rounded up to a power of two. / 전체 슬롯 수 (2의 거듭제곱으로 올림)
+     * @param maxLength Longest input that is cached. / 캐시할 최대 입력 길이
+     */
+    public DetectionVerdictCache(int capacity, int maxLength) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be >= 1");
+        }
+        if (maxLength < 0) {
+            throw new IllegalArgumentException("maxLength must be >= 0");
+        }
+        SecureRandom random = new SecureRandom();
+        this.k0 = random.nextLong();
+        this.k1 = random.nextLong();
+        int stripeSlots = Math.max(PROBE, ceilingPowerOfTwo(capacity) / STRIPES);
+        this.slotMask = stripeSlots - 1;
+        this.maxLength = maxLength;
+        this.stripes = new Stripe[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(stripeSlots);
+        }
+    }
+
+    /**
+     * Returns {@link #FOUND}, {@link #CLEAN} or {@link #UNKNOWN} for the input.
+     * <p>
+     * 입력에 대해 {@link #FOUND}, {@link #CLEAN}, {@link #UNKNOWN} 중 하나를 반환합니다.
+     */
+    public int get(String input) {
+        if (input.length() > maxLength) {
+            return UNKNOWN;
+        }
+        Fingerprint fingerprint = fingerprint(input);
+        long key = fingerprint.key();
+        int check = fingerprint.check();
+        Stripe stripe = stripes[(int) key & (STRIPES - 1)];
+        int home = (int) (key >>> 32) & slotMask;
+        long stamp = stripe.tryOptimisticRead();
+        int slot = stripe.find(key, check, home, slotMask);
+        byte state = slot >= 0 ? stripe.states[slot] : 0;
+        if (!stripe.validate(stamp)) {
+            stamp = stripe.readLock();
+            try {
+                slot = stripe.find(key, check, home, slotMask);
+                state = slot >= 0 ? stripe.states[slot] : 0;
+            } finally {
+                stripe.unlockRead(stamp);
+            }
+        }
+        if (slot < 0) {
+            misses.increment();
+            return UNKNOWN;
+        }
+        // Racy by design: a lost or stray reference bit only affects which entry is evicted next.
+        stripe.referenced[slot] = 1;
+        hits.increment();
+        return (state & DETECTED) != 0 ? FOUND : CLEAN;
+    }
+
+    /**
+     * Stores the detection result for the input.
+     * <p>
+     * 입력의 탐지 결과를 저장합니다.
+     */
+    public void put(String input, boolean found) {
+        if (input.length() > maxLength) {
+            return;
+        }
+        Fingerprint fingerprint = fingerprint(input);
+        long key = fingerprint.key();
+        int check = fingerprint.check();
+        Stripe stripe = stripes[(int) key & (STRIPES - 1)];
+        int home = (int) (key >>> 32) & slotMask;
+        byte state = (byte) (OCCUPIED | (found ? DETECTED : 0));
+        long stamp = stripe.writeLock();
+        try {
+            int slot = stripe.find(key, check, home, slotMask);
+            if (slot < 0) {
+                slot = stripe.freeSlot(home, slotMask);
+            }
+            if (slot < 0) {
+                slot = stripe.victim(home, slotMask);
+                evictions.increment();
+            }
+            stripe.keys[slot] = key;
+            stripe.checks[slot] = check;
+            stripe.states[slot] = state;
+            stripe.referenced[slot] = 0;
+        } finally {
+            stripe.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes all entries.
+     * <p>
+     * 모든 엔트리를 제거합니다.
+     */
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            long stamp = stripe.writeLock();
+            try {
+                Arrays.fill(stripe.states, (byte) 0);
+                Arrays.fill(stripe.referenced, (byte) 0);
+            } finally {
+                stripe.unlockWrite(stamp);
+            }
+        }
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public int getCapacity() {
+        return STRIPES * (slotMask + 1);
+    }
+
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    /**
+     * Returns the fixed size of the slot arrays in bytes.
+     * <p>
+     * 슬롯 배열의 고정 크기(바이트)를 반환합니다.
+     */
+    public long getMemoryBytes() {
+        return (long) getCapacity() * SLOT_BYTES;
+    }
+
+    /**
+     * SipHash-2-4 with 128-bit output, keyed with this instance's secret, over the UTF-16 code units (four per
+     * little-endian word).
+     */
+    Fingerprint fingerprint(String input) {
+        long[] v = {
+                k0 ^ 0x736F6D6570736575L,
+                k1 ^ 0x646F72616E646F6DL ^ 0xEE,
+                k0 ^ 0x6C7967656E657261L,
+                k1 ^ 0x7465646279746573L
+        };
+        int length = input.length();
+        int i = 0;
+        for (int end = length & ~3; i < end; i += 4) {
+            compress(v, input.charAt(i) | (long) input.charAt(i + 1) << 16
+                    | (long) input.charAt(i + 2) << 32 | (long) input.charAt(i + 3) << 48);
+        }
+        long last = (long) (length * 2) << 56;
+        for (int shift = 0; i < length; i++, shift += 16) {
+            last |= (long) input.charAt(i) << shift;
+        }
+        compress(v, last);
+        v[2] ^= 0xEE;
+        sipRounds(v, 4);
+        long key = v[0] ^ v[1] ^ v[2] ^ v[3];
+        v[1] ^= 0xDD;
+        sipRounds(v, 4);
+        return new Fingerprint(key, (int) (v[0] ^ v[1] ^ v[2] ^ v[3]));
+    }
+
+    private static void compress(long[] v, long m) {
+        v[3] ^= m;
+        sipRounds(v, 2);
+        v[0] ^= m;
+    }
+
+    private static void sipRounds(long[] v, int rounds) {
+        long v0 = v[0];
+        long v1 = v[1];
+        long v2 = v[2];
+        long v3 = v[3];
+        for (int r = 0; r < rounds; r++) {
+            v0 += v1;
+            v1 = Long.rotateLeft(v1, 13) ^ v0;
+            v0 = Long.rotateLeft(v0, 32);
+            v2 += v3;
+            v3 = Long.rotateLeft(v3, 16) ^ v2;
+            v0 += v3;
+            v3 = Long.rotateLeft(v3, 21) ^ v0;
+            v2 += v1;
+            v1 = Long.rotateLeft(v1, 17) ^ v2;
+            v2 = Long.rotateLeft(v2, 32);
+        }
+        v[0] = v0;
+        v[1] = v1;
+        v[2] = v2;
+        v[3] = v3;
+    }
+
+    /** Slot key and verification bits of an input. */
+    record Fingerprint(long key, int check) {
+    }
+
+    private static int ceilingPowerOfTwo(int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+
+    @SuppressWarnings("serial")
+    private static final class Stripe extends StampedLock {
+
+        private final long[] keys;
+        private final int[] checks;
+        private final byte[] states;
+        private final byte[] referenced;
+        private int hand;
+
+        Stripe(int slots) {
+            this.keys = new long[slots];
+            this.checks = new int[slots];
+            this.states = new byte[slots];
+            this.referenced = new byte[slots];
+        }
+
+        int find(long key, int check, int home, int mask) {
+            for (int i = 0; i < PROBE; i++) {
+                int slot = (home + i) & mask;
+                if (states[slot] != 0 && keys[slot] == key && checks[slot] == check) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        int freeSlot(int home, int mask) {
+            for (int i = 0; i < PROBE; i++) {
+                int slot = (home + i) & mask;
+                if (states[slot] == 0) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        /** Clock sweep over the probe window; terminates within PROBE + 1 steps. Caller holds the write lock. */
+        int victim(int home, int mask) {
+            while (true) {
+                int slot = (home + (hand++ & (PROBE - 1))) & mask;
+                if (referenced[slot] == 0) {
+                    return slot;
+                }
+                referenced[slot] = 0;
+            }
+        }
+    }
+}
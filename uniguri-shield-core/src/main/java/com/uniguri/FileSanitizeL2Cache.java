@@ -0,0 +1,124 @@
+package com.uniguri;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * File-backed reference implementation of {@link SanitizeL2Cache}.
+ * <p>
+ * Each entry is stored as {@code <directory>/<fingerprint>/<hash[0..2]>/<hash>} and written through a
+ * temporary file followed by an atomic move, so several processes (or nodes sharing a volume) can use the
+ * same directory concurrently. Entries of a replaced policy live under a different fingerprint directory
+ * and are never read again; they can be removed by deleting that directory.
+ * <p>
+ * 파일 기반 {@link SanitizeL2Cache} 참조 구현입니다.
+ * 엔트리는 {@code <directory>/<fingerprint>/<hash[0..2]>/<hash>}에 임시 파일 작성 후 원자적 이동으로 저장되므로
+ * 여러 프로세스(또는 볼륨을 공유하는 노드)가 같은 디렉터리를 동시에 사용할 수 있습니다.
+ * <p>
+ * {@link #close()} shuts down the lookup pool created by {@link #FileSanitizeL2Cache(Path)}; an executor passed in
+ * by the caller is left alone. As a Spring bean it is closed automatically.
+ * <p>
+ * {@link #close()}는 {@link #FileSanitizeL2Cache(Path)}가 만든 조회 풀을 종료하며, 호출자가 전달한 Executor는 종료하지 않습니다.
+ * Spring 빈으로 등록되면 자동으로 닫힙니다.
+ */
+public class FileSanitizeL2Cache implements SanitizeL2Cache, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(FileSanitizeL2Cache.class);
+
+    private final Path directory;
+    private final Executor ioExecutor;
+    private final ExecutorService ownedExecutor;
+
+    /**
+     * Creates a cache that performs lookups on a small dedicated pool of daemon threads.
+     *
+     * @param directory Root directory of the cache. / 캐시 루트 디렉터리
+     */
+    public FileSanitizeL2Cache(Path directory) {
+        this(directory, Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "xss-shield-l2-reader");
+            thread.setDaemon(true);
+            return thread;
+        }), true);
+    }
+
+    /**
+     * @param directory  Root directory of the cache. / 캐시 루트 디렉터리
+     * @param ioExecutor Executor running file lookups. / 파일 조회를 수행할 Executor
+     */
+    public FileSanitizeL2Cache(Path directory, Executor ioExecutor) {
+        this(directory, ioExecutor, false);
+    }
+
+    private FileSanitizeL2Cache(Path directory, Executor ioExecutor, boolean owned) {
+        this.directory = directory;
+        this.ioExecutor = ioExecutor;
+        this.ownedExecutor = owned ? (ExecutorService) ioExecutor : null;
+    }
+
+    /**
+     * Shuts down the lookup pool if this cache created it. Lookups made afterwards report a miss.
+     * <p>
+     * 이 캐시가 만든 조회 풀이면 종료합니다. 이후의 조회는 미스로 처리됩니다.
+     */
+    @Override
+    public void close() {
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
+    }
+
+    @Override
+    public CompletableFuture<String> get(String policyFingerprint, String contentHash) {
+        try {
+            return CompletableFuture.supplyAsync(() -> read(path(policyFingerprint, contentHash)), ioExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    @Override
+    public void put(String policyFingerprint, String contentHash, String sanitized) {
+        Path target = path(policyFingerprint, contentHash);
+        try {
+            Files.createDirectories(target.getParent());
+            Path tmp = Files.createTempFile(target.getParent(), contentHash, ".tmp");
+            Files.writeString(tmp, sanitized, StandardCharsets.UTF_8);
+            try {
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            log.debug("Failed to write L2 sanitize cache entry {}", target, e);
+        }
+    }
+
+    private static String read(Path path) {
+        try {
+            return Files.readString(path, StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            log.debug("Failed to read L2 sanitize cache entry {}", path, e);
+            return null;
+        }
+    }
+
+    private Path path(String policyFingerprint, String contentHash) {
+        return directory.resolve(policyFingerprint).resolve(contentHash.substring(0, 2)).resolve(contentHash);
+    }
+}
@@ -0,0 +1,203 @@
+package com.uniguri;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Allocation-free HTML escaper producing exactly the output of Spring's {@code HtmlUtils.htmlEscape(String)},
+ * without depending on spring-web.
+ * <p>
+ * The character-to-reference table is the HTML 4.0 entity set ({@code html-entities.properties}), restricted to
+ * the characters {@code HtmlUtils} maps with its default ISO-8859-1 encoding. Escaping
+ * scans for the first character that needs a reference and returns the input instance unchanged when there
+ * is none; otherwise unchanged runs are copied in bulk. The {@link Appendable} variants write straight into
+ * the caller's buffer. {@link #unescape(String)} mirrors {@code HtmlUtils.htmlUnescape(String)}.
+ * <p>
+ * Spring의 {@code HtmlUtils.htmlEscape(String)}와 동일한 결과를 내는 할당 없는 HTML 이스케이퍼이며 spring-web에 의존하지 않습니다.
+ * 이스케이프가 필요한 문자가 없으면 입력 인스턴스를 그대로 반환하고, 그 외에는 변경 없는 구간을 한 번에 복사합니다.
+ * {@link Appendable} 버전은 호출자의 버퍼에 직접 기록합니다.
+ */
+final class HtmlEscaper {
+
+    /** {@code HtmlUtils} only maps characters below this bound (with its default ISO-8859-1 encoding). */
+    private static final int TABLE_SIZE = 10000;
+
+    private static final String ENTITY_RESOURCE = "html-entities.properties";
+
+    private static final String[] REFERENCES = new String[TABLE_SIZE];
+    private static final Map<String, Character> CHARACTERS = new HashMap<>();
+
+    static {
+        Properties entities = new Properties();
+        try (InputStream in = HtmlEscaper.class.getResourceAsStream(ENTITY_RESOURCE)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing " + ENTITY_RESOURCE);
+            }
+            entities.load(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        for (String code : entities.stringPropertyNames()) {
+            char c = (char) Integer.parseInt(code);
+            String name = entities.getProperty(code);
+            CHARACTERS.put(name, c);
+            if (c < 1000 || (c >= 8000 && c < TABLE_SIZE)) {
+                REFERENCES[c] = "&" + name + ";";
+            }
+        }
+    }
+
+    private HtmlEscaper() {
+    }
+
+    /**
+     * Returns the escaped input, or the same instance when nothing needs escaping.
+     */
+    static String escape(String input) {
+        int first = firstEscapable(input, 0, input.length());
+        if (first < 0) {
+            return input;
+        }
+        StringBuilder out = new StringBuilder(input.length() + 16);
+        out.append(input, 0, first);
+        escapeFrom(input, first, input.length(), out);
+        return out.toString();
+    }
+
+    static StringBuilder escape(CharSequence input, StringBuilder out) {
+        escapeFrom(input, 0, input.length(), out);
+        return out;
+    }
+
+    static void escape(CharSequence input, int start, int end, Appendable out) throws IOException {
+        if (out instanceof StringBuilder sb) {
+            escapeFrom(input, start, end, sb);
+            return;
+        }
+        int run = start;
+        for (int i = start; i < end; i++) {
+            String reference = reference(input.charAt(i));
+            if (reference != null) {
+                if (run < i) {
+                    out.append(input, run, i);
+                }
+                out.append(reference);
+                run = i + 1;
+            }
+        }
+        if (run < end) {
+            out.append(input, run, end);
+        }
+    }
+
+    /**
+     * Wraps an {@link Appendable} so that everything appended to it is escaped first.
+     */
+    static Appendable escaping(Appendable out) {
+        return new Appendable() {
+            @Override
+            public Appendable append(CharSequence csq) throws IOException {
+                CharSequence s = csq != null ? csq : "null";
+                escape(s, 0, s.length(), out);
+                return this;
+            }
+
+            @Override
+            public Appendable append(CharSequence csq, int start, int end) throws IOException {
+                escape(csq != null ? csq : "null", start, end, out);
+                return this;
+            }
+
+            @Override
+            public Appendable append(char c) throws IOException {
+                String reference = reference(c);
+                if (reference != null) {
+                    out.append(reference);
+                } else {
+                    out.append(c);
+                }
+                return this;
+            }
+        };
+    }
+
+    private static void escapeFrom(CharSequence input, int start, int end, StringBuilder out) {
+        int run = start;
+        for (int i = start; i < end; i++) {
+            String reference = reference(input.charAt(i));
+            if (reference != null) {
+                out.append(input, run, i).append(reference);
+                run = i + 1;
+            }
+        }
+        out.append(input, run, end);
+    }
+
+    private static int firstEscapable(CharSequence input, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = input.charAt(i);
+            if (c < TABLE_SIZE && REFERENCES[c] != null) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String reference(char c) {
+        return c < TABLE_SIZE ? REFERENCES[c] : null;
+    }
+
+    /**
+     * Decodes named and numeric ({@code &#NN;}, {@code &#xHH;}) references like {@code HtmlUtils.htmlUnescape}:
+     * every {@code &} up to the next {@code ;} is a candidate, and unknown or malformed references are kept.
+     */
+    static String unescape(String input) {
+        int amp = input.indexOf('&');
+        if (amp < 0) {
+            return input;
+        }
+        StringBuilder out = new StringBuilder(input.length());
+        int position = 0;
+        while (amp >= 0) {
+            int semicolon = input.indexOf(';', amp + 1);
+            if (semicolon < 0) {
+                break;
+            }
+            out.append(input, position, amp);
+            int decoded = decode(input, amp + 1, semicolon);
+            if (decoded >= 0) {
+                out.append((char) decoded);
+                position = semicolon + 1;
+            } else {
+                out.append('&');
+                position = amp + 1;
+            }
+            amp = input.indexOf('&', position);
+        }
+        out.append(input, position, input.length());
+        return out.toString();
+    }
+
+    /**
+     * Returns the character of the reference between {@code start} and {@code end}, or {@code -1}.
+     */
+    private static int decode(String input, int start, int end) {
+        if (start < input.length() && input.charAt(start) == '#') {
+            boolean hex = start + 1 < input.length() && (input.charAt(start + 1) == 'x' || input.charAt(start + 1) == 'X');
+            try {
+                int value = hex
+                        ? Integer.parseInt(input.substring(start + 2, end), 16)
+                        : Integer.parseInt(input.substring(start + 1, end));
+                return (char) value;
+            } catch (NumberFormatException | IndexOutOfBoundsException e) {
+                return -1;
+            }
+        }
+        Character c = CHARACTERS.get(input.substring(start, end));
+        return c != null ? c : -1;
+    }
+}
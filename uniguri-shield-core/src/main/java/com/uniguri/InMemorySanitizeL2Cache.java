@@ -0,0 +1,36 @@
+package com.uniguri;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * In-process reference implementation of {@link SanitizeL2Cache}.
+ * Useful for tests and for sharing one cache between several {@link XssShield} instances.
+ * <p>
+ * {@link SanitizeL2Cache}의 프로세스 내 참조 구현입니다.
+ * 테스트 또는 여러 {@link XssShield} 인스턴스 간 캐시 공유에 사용할 수 있습니다.
+ */
+public class InMemorySanitizeL2Cache implements SanitizeL2Cache {
+
+    private final Cache<String, String> cache;
+
+    public InMemorySanitizeL2Cache(long maxEntries) {
+        this.cache = Caffeine.newBuilder().maximumSize(maxEntries).build();
+    }
+
+    @Override
+    public CompletableFuture<String> get(String policyFingerprint, String contentHash) {
+        return CompletableFuture.completedFuture(cache.getIfPresent(key(policyFingerprint, contentHash)));
+    }
+
+    @Override
+    public void put(String policyFingerprint, String contentHash, String sanitized) {
+        cache.put(key(policyFingerprint, contentHash), sanitized);
+    }
+
+    private static String key(String policyFingerprint, String contentHash) {
+        return policyFingerprint + ':' + contentHash;
+    }
+}
@@ -0,0 +1,342 @@
+package com.uniguri;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.owasp.html.PolicyFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Re-sanitizes edited rich-text documents block by block, reusing the sanitized output of unchanged blocks.
+ * <p>
+ * <b>Block boundary rule.</b> A block ends right after an end tag that closes the last open top-level element;
+ * text and void elements between top-level elements belong to the following block. After a top-level element
+ * that only makes sense inside an implied parent (a stray {@code li} or {@code td}, for example) the rest of the
+ * document stays in one block, because the tag balancer keeps that parent open. Splitting is only done for
+ * strictly balanced markup: every start tag must be closed by a matching end tag in order, and the document must
+ * not contain comments, declarations, processing instructions, raw-text elements (such as {@code script},
+ * {@code style} or {@code textarea}), self-closing non-void elements, unterminated tags or ambiguous unquoted
+ * attribute values. At such a boundary neither the lexer nor the tag balancer carries state into the next block,
+ * so the concatenated block outputs equal {@link PolicyFactory#sanitize(String)} on the whole document. Any other
+ * document, and any policy with custom pre- or postprocessing, falls back to one full pass.
+ * <p>
+ * Sanitized blocks are cached by content in a cache weighed by characters (input plus output).
+ * <p>
+ * 편집된 리치 텍스트 문서를 블록 단위로 다시 살균하며, 바뀌지 않은 블록은 이전 살균 결과를 재사용합니다.
+ * <p>
+ * <b>블록 경계 규칙.</b> 열린 최상위 요소를 닫는 종료 태그 직후에서 블록이 끝나며, 최상위 요소 사이의 텍스트와 void 요소는
+ * 다음 블록에 속합니다. 암시적 부모 안에서만 의미가 있는 요소(단독 {@code li}, {@code td} 등)가 최상위에 나오면 태그 균형기가
+ * 그 부모를 열어 두므로 문서의 나머지는 한 블록으로 둡니다. 분할은 엄격하게 균형 잡힌 마크업에서만 수행합니다. 모든 시작 태그가 순서대로 일치하는 종료 태그로
+ * 닫혀야 하고, 주석, 선언, 처리 명령, raw-text 요소({@code script}, {@code style}, {@code textarea} 등), 자체 닫힘 non-void 요소,
+ * 끝나지 않은 태그, 모호한 따옴표 없는 속성 값이 없어야 합니다. 이 경계에서는 렉서와 태그 균형기 모두 다음 블록으로 상태를
+ * 넘기지 않으므로 블록 결과를 이어 붙인 값은 문서 전체에 대한 {@link PolicyFactory#sanitize(String)}와 같습니다.
+ * 그 밖의 문서와 사용자 정의 전/후처리가 있는 정책은 전체를 한 번에 살균합니다.
+ * <p>
+ * 살균된 블록은 문자 수(입력+출력)로 가중치를 매기는 캐시에 내용 기준으로 저장됩니다.
+ */
+public final class IncrementalSanitizer {
+
+    /** Same limit {@code HtmlSanitizer} applies to element nesting. */
+    private static final int MAX_DEPTH = 256;
+
+    private static final Set<String> VOID_ELEMENTS = Set.of(
+            "area", "base", "basefont", "bgsound", "br", "col", "command", "embed", "frame", "hr", "image", "img",
+            "input", "isindex", "keygen", "link", "meta", "param", "source", "track", "wbr");
+
+    private static final Set<String> RAW_TEXT_ELEMENTS = Set.of(
+            "iframe", "listing", "noembed", "noframes", "noscript", "plaintext", "script", "style", "textarea",
+            "title", "xmp");
+
+    /**
+     * Elements the tag balancer wraps in an implied parent (such as {@code ul} around a stray {@code li}) when they
+     * appear outside of one; that parent stays open past the element, so no boundary may follow them at top level.
+     */
+    private static final Set<String> IMPLIED_PARENT_ELEMENTS = Set.of(
+            "caption", "col", "colgroup", "dd", "dt", "figcaption", "legend", "li", "optgroup", "option", "rp", "rt",
+            "summary", "tbody", "td", "tfoot", "th", "thead", "tr");
+
+    private final PolicyFactory policy;
+    private final boolean splittable;
+    private final Cache<String, String> blocks;
+    private final LongAdder documents = new LongAdder();
+    private final LongAdder fullPasses = new LongAdder();
+
+    /**
+     * @param policy       The policy every block is sanitized with. / 블록 살균에 사용할 정책
+     * @param maxCharacters Upper bound of cached input plus output characters. / 캐시할 입력+출력 문자 수 상한
+     */
+    public IncrementalSanitizer(PolicyFactory policy, long maxCharacters) {
+        if (policy == null) {
+            throw new IllegalArgumentException("policy must not be null");
+        }
+        if (maxCharacters < 1) {
+            throw new IllegalArgumentException("maxCharacters must be >= 1");
+        }
+        this.policy = policy;
+        this.splittable = MarkupPrefilter.appliesTo(policy);
+        this.blocks = Caffeine.newBuilder()
+                .maximumWeight(maxCharacters)
+                .<String, String>weigher((input, output) -> input.length() + output.length())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Sanitizes a whole document, re-sanitizing only blocks that are not cached.
+     * <p>
+     * 문서 전체를 살균하되 캐시되지 않은 블록만 다시 살균합니다.
+     *
+     * @param document The HTML document. / HTML 문서
+     * @return The same result as {@code policy.sanitize(document)}. / {@code policy.sanitize(document)}와 같은 결과
+     */
+    public String sanitize(String document) {
+        if (document == null) {
+            return null;
+        }
+        documents.increment();
+        List<String> parts = splittable ? split(document) : null;
+        SanitizeCost cost = SanitizeCost.current();
+        if (parts == null) {
+            fullPasses.increment();
+            if (cost != null) {
+                cost.recordComputed();
+            }
+            return policy.sanitize(document);
+        }
+        long misses = cost != null ? blocks.stats().missCount() : 0;
+        String result;
+        if (parts.size() == 1) {
+            result = blocks.get(parts.get(0), policy::sanitize);
+        } else {
+            StringBuilder out = new StringBuilder(document.length());
+            for (String part : parts) {
+                out.append(blocks.get(part, policy::sanitize));
+            }
+            result = out.toString();
+        }
+        if (cost != null && blocks.stats().missCount() != misses) {
+            // A document counts as a cache hit only when every block was reused; misses on other threads
+            // in the meantime make this conservative.
+            cost.recordComputed();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of documents sanitized since startup.
+     * <p>
+     * 시작 이후 살균한 문서 수를 반환합니다.
+     */
+    public long getDocumentCount() {
+        return documents.sum();
+    }
+
+    /**
+     * Returns the number of documents that could not be split and were sanitized in one pass.
+     * <p>
+     * 분할할 수 없어 한 번에 살균한 문서 수를 반환합니다.
+     */
+    public long getFullPassCount() {
+        return fullPasses.sum();
+    }
+
+    /**
+     * Returns the block cache statistics; a hit is a block whose sanitized output was reused.
+     * <p>
+     * 블록 캐시 통계를 반환합니다. 적중은 살균 결과를 재사용한 블록입니다.
+     */
+    public CacheStats getBlockStats() {
+        return blocks.stats();
+    }
+
+    /**
+     * Discards every cached block.
+     * <p>
+     * 캐시된 모든 블록을 제거합니다.
+     */
+    public void invalidateAll() {
+        blocks.invalidateAll();
+    }
+
+    /**
+     * Splits the document at top-level block boundaries, or returns {@code null} when it must be sanitized whole.
+     */
+    static List<String> split(String html) {
+        List<String> parts = new ArrayList<>();
+        Deque<String> open = new ArrayDeque<>();
+        int length = html.length();
+        int blockStart = 0;
+        boolean splitting = true;
+        int i = 0;
+        while (true) {
+            int lt = html.indexOf('<', i);
+            if (lt < 0 || lt + 1 >= length) {
+                if (lt >= 0) {
+                    return null;
+                }
+                break;
+            }
+            char next = html.charAt(lt + 1);
+            if (next == '/') {
+                int nameEnd = nameEnd(html, lt + 2);
+                if (nameEnd < 0) {
+                    return null;
+                }
+                int gt = skipWhitespace(html, nameEnd);
+                if (gt >= length || html.charAt(gt) != '>') {
+                    return null;
+                }
+                String name = html.substring(lt + 2, nameEnd).toLowerCase(Locale.ROOT);
+                if (open.isEmpty() || !open.peek().equals(name)) {
+                    return null;
+                }
+                open.pop();
+                i = gt + 1;
+                if (open.isEmpty() && IMPLIED_PARENT_ELEMENTS.contains(name)) {
+                    splitting = false;
+                }
+                if (open.isEmpty() && splitting) {
+                    parts.add(html.substring(blockStart, i));
+                    blockStart = i;
+                }
+            } else if (isAsciiLetter(next)) {
+                int nameEnd = nameEnd(html, lt + 1);
+                if (nameEnd < 0) {
+                    return null;
+                }
+                String name = html.substring(lt + 1, nameEnd).toLowerCase(Locale.ROOT);
+                if (RAW_TEXT_ELEMENTS.contains(name)) {
+                    return null;
+                }
+                int gt = attributesEnd(html, nameEnd);
+                if (gt < 0) {
+                    return null;
+                }
+                i = gt + 1;
+                if (VOID_ELEMENTS.contains(name)) {
+                    continue;
+                }
+                if (html.charAt(gt - 1) == '/' || open.size() >= MAX_DEPTH) {
+                    return null;
+                }
+                open.push(name);
+            } else if (next == '!' || next == '?') {
+                return null;
+            } else {
+                // '<' that does not start a tag is text.
+                i = lt + 1;
+            }
+        }
+        if (!open.isEmpty()) {
+            return null;
+        }
+        if (blockStart < length || parts.isEmpty()) {
+            parts.add(html.substring(blockStart));
+        }
+        return parts;
+    }
+
+    /**
+     * Returns the end of a tag name starting at {@code from}; the name must be followed by whitespace, '/' or '>'.
+     */
+    private static int nameEnd(String html, int from) {
+        int length = html.length();
+        if (from >= length || !isAsciiLetter(html.charAt(from))) {
+            return -1;
+        }
+        int i = from + 1;
+        while (i < length && (isAsciiLetter(html.charAt(i)) || isAsciiDigit(html.charAt(i)) || html.charAt(i) == '-')) {
+            i++;
+        }
+        if (i >= length) {
+            return -1;
+        }
+        char c = html.charAt(i);
+        return c == '>' || c == '/' || isWhitespace(c) ? i : -1;
+    }
+
+    /**
+     * Returns the index of the '>' that ends the attributes of a start tag, or -1 for anything ambiguous.
+     */
+    private static int attributesEnd(String html, int from) {
+        int length = html.length();
+        int i = from;
+        while (true) {
+            i = skipWhitespace(html, i);
+            if (i >= length) {
+                return -1;
+            }
+            char c = html.charAt(i);
+            if (c == '>') {
+                return i;
+            }
+            if (c == '/') {
+                return i + 1 < length && html.charAt(i + 1) == '>' ? i + 1 : -1;
+            }
+            int nameStart = i;
+            while (i < length && !isWhitespace(html.charAt(i)) && "\"'<>=/`".indexOf(html.charAt(i)) < 0) {
+                i++;
+            }
+            if (i == nameStart) {
+                return -1;
+            }
+            i = skipWhitespace(html, i);
+            if (i >= length || html.charAt(i) != '=') {
+                continue;
+            }
+            i = skipWhitespace(html, i + 1);
+            if (i >= length) {
+                return -1;
+            }
+            char quote = html.charAt(i);
+            if (quote == '"' || quote == '\'') {
+                int close = html.indexOf(quote, i + 1);
+                if (close < 0) {
+                    return -1;
+                }
+                i = close + 1;
+                if (i < length && !isWhitespace(html.charAt(i)) && html.charAt(i) != '>' && html.charAt(i) != '/') {
+                    return -1;
+                }
+            } else {
+                int valueStart = i;
+                while (i < length && !isWhitespace(html.charAt(i)) && html.charAt(i) != '>') {
+                    if ("\"'<=`".indexOf(html.charAt(i)) >= 0) {
+                        return -1;
+                    }
+                    i++;
+                }
+                if (i == valueStart || html.charAt(i - 1) == '/') {
+                    return -1;
+                }
+            }
+        }
+    }
+
+    private static int skipWhitespace(String html, int from) {
+        int i = from;
+        while (i < html.length() && isWhitespace(html.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f';
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isAsciiDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
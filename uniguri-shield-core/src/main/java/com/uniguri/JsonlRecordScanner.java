@@ -0,0 +1,301 @@
+package com.uniguri;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+/**
+ * JSON Lines scanner. A record ends at every {@code '\n'} because JSON strings cannot contain a raw line feed.
+ * Fields are selected by dotted path ({@code "body"}, {@code "author.bio"}); strings inside an array at a
+ * selected path are sanitized too. Subtrees that cannot contain a selected path are skipped without decoding
+ * any key, and only the strings that actually change are re-encoded.
+ * <p>
+ * JSON Lines 스캐너입니다. JSON 문자열에는 줄바꿈이 그대로 들어갈 수 없으므로 모든 {@code '\n'}이 레코드 경계입니다.
+ * 필드는 점으로 구분된 경로로 선택하며, 선택된 경로의 배열 안 문자열도 살균합니다. 선택된 경로가 없는 하위 트리는
+ * 키를 디코딩하지 않고 건너뛰며, 실제로 바뀐 문자열만 다시 인코딩합니다.
+ */
+final class JsonlRecordScanner extends BatchRecordScanner {
+
+    private static final int MAX_DEPTH = 256;
+    private static final Malformed MALFORMED_RECORD = new Malformed();
+
+    private final Map<String, UnaryOperator<String>> fields;
+    private final Set<String> prefixes = new HashSet<>();
+    private final StringBuilder text = new StringBuilder();
+    private byte[] scratch = new byte[256];
+
+    private ByteBuffer buffer;
+    private int limit;
+    private List<Replacement> replacements;
+
+    JsonlRecordScanner(Map<String, UnaryOperator<String>> fields) {
+        this.fields = fields;
+        for (String path : fields.keySet()) {
+            for (int dot = path.indexOf('.'); dot > 0; dot = path.indexOf('.', dot + 1)) {
+                prefixes.add(path.substring(0, dot));
+            }
+        }
+    }
+
+    @Override
+    int recordEnd(ByteBuffer buffer, int from, int limit) {
+        for (int i = from; i < limit; i++) {
+            if (buffer.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return limit;
+    }
+
+    @Override
+    int sanitize(ByteBuffer buffer, int from, int to, List<Replacement> replacements) {
+        this.buffer = buffer;
+        this.limit = to;
+        this.replacements = replacements;
+        int before = replacements.size();
+        try {
+            int end = value(skipWhitespace(from), "", 0);
+            if (skipWhitespace(end) != to) {
+                return MALFORMED;
+            }
+            return replacements.size() - before;
+        } catch (Malformed e) {
+            return MALFORMED;
+        } finally {
+            this.buffer = null;
+            this.replacements = null;
+        }
+    }
+
+    /**
+     * Scans the value at {@code p}. {@code path} is {@code null} for values that cannot contain a selected field.
+     */
+    private int value(int p, String path, int depth) {
+        switch (at(p)) {
+            case '"':
+                int end = stringEnd(p);
+                if (path != null) {
+                    UnaryOperator<String> sanitizer = fields.get(path);
+                    if (sanitizer != null) {
+                        replace(p, end, sanitizer);
+                    }
+                }
+                return end;
+            case '{':
+                return object(p, path, depth + 1);
+            case '[':
+                return array(p, path, depth + 1);
+            default:
+                return literal(p);
+        }
+    }
+
+    private int object(int p, String path, int depth) {
+        if (depth > MAX_DEPTH) {
+            throw MALFORMED_RECORD;
+        }
+        p = skipWhitespace(p + 1);
+        if (at(p) == '}') {
+            return p + 1;
+        }
+        while (true) {
+            if (at(p) != '"') {
+                throw MALFORMED_RECORD;
+            }
+            int keyEnd = stringEnd(p);
+            String child = null;
+            if (path != null) {
+                String key = decode(p, keyEnd);
+                String candidate = path.isEmpty() ? key : path + '.' + key;
+                if (fields.containsKey(candidate) || prefixes.contains(candidate)) {
+                    child = candidate;
+                }
+            }
+            p = skipWhitespace(keyEnd);
+            if (at(p) != ':') {
+                throw MALFORMED_RECORD;
+            }
+            p = skipWhitespace(value(skipWhitespace(p + 1), child, depth));
+            byte c = at(p);
+            if (c == '}') {
+                return p + 1;
+            }
+            if (c != ',') {
+                throw MALFORMED_RECORD;
+            }
+            p = skipWhitespace(p + 1);
+        }
+    }
+
+    private int array(int p, String path, int depth) {
+        if (depth > MAX_DEPTH) {
+            throw MALFORMED_RECORD;
+        }
+        p = skipWhitespace(p + 1);
+        if (at(p) == ']') {
+            return p + 1;
+        }
+        while (true) {
+            p = skipWhitespace(value(p, path, depth));
+            byte c = at(p);
+            if (c == ']') {
+                return p + 1;
+            }
+            if (c != ',') {
+                throw MALFORMED_RECORD;
+            }
+            p = skipWhitespace(p + 1);
+        }
+    }
+
+    /** Numbers, {@code true}, {@code false} and {@code null}; checked only loosely since they are copied as-is. */
+    private int literal(int p) {
+        int i = p;
+        while (i < limit) {
+            byte c = buffer.get(i);
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.' || c == 'E') {
+                i++;
+            } else {
+                break;
+            }
+        }
+        if (i == p) {
+            throw MALFORMED_RECORD;
+        }
+        return i;
+    }
+
+    /** Returns the offset after the closing quote of the string starting at {@code p}. */
+    private int stringEnd(int p) {
+        for (int i = p + 1; i < limit; i++) {
+            byte c = buffer.get(i);
+            if (c == '"') {
+                return i + 1;
+            }
+            if (c == '\\') {
+                i++;
+            } else if (c >= 0 && c < 0x20) {
+                throw MALFORMED_RECORD;
+            }
+        }
+        throw MALFORMED_RECORD;
+    }
+
+    private void replace(int start, int end, UnaryOperator<String> sanitizer) {
+        String value = decode(start, end);
+        String sanitized = sanitizer.apply(value);
+        if (value.equals(sanitized)) {
+            return;
+        }
+        byte[] encoded = sanitized == null ? "null".getBytes(StandardCharsets.US_ASCII) : encode(sanitized);
+        replacements.add(new Replacement(start, end, encoded));
+    }
+
+    private String decode(int start, int end) {
+        int length = end - start - 2;
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        buffer.get(start + 1, scratch, 0, length);
+        int backslash = -1;
+        for (int i = 0; i < length; i++) {
+            if (scratch[i] == '\\') {
+                backslash = i;
+                break;
+            }
+        }
+        if (backslash < 0) {
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+        text.setLength(0);
+        int run = 0;
+        for (int i = backslash; i < length; i++) {
+            if (scratch[i] != '\\') {
+                continue;
+            }
+            text.append(new String(scratch, run, i - run, StandardCharsets.UTF_8));
+            byte escape = scratch[++i];
+            switch (escape) {
+                case '"', '\\', '/' -> text.append((char) escape);
+                case 'b' -> text.append('\b');
+                case 'f' -> text.append('\f');
+                case 'n' -> text.append('\n');
+                case 'r' -> text.append('\r');
+                case 't' -> text.append('\t');
+                case 'u' -> {
+                    if (i + 4 >= length) {
+                        throw MALFORMED_RECORD;
+                    }
+                    int code = 0;
+                    for (int k = 1; k <= 4; k++) {
+                        int digit = Character.digit(scratch[i + k], 16);
+                        if (digit < 0) {
+                            throw MALFORMED_RECORD;
+                        }
+                        code = (code << 4) | digit;
+                    }
+                    text.append((char) code);
+                    i += 4;
+                }
+                default -> throw MALFORMED_RECORD;
+            }
+            run = i + 1;
+        }
+        text.append(new String(scratch, run, length - run, StandardCharsets.UTF_8));
+        return text.toString();
+    }
+
+    private byte[] encode(String value) {
+        text.setLength(0);
+        text.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> text.append("\\\"");
+                case '\\' -> text.append("\\\\");
+                case '\n' -> text.append("\\n");
+                case '\r' -> text.append("\\r");
+                case '\t' -> text.append("\\t");
+                case '\b' -> text.append("\\b");
+                case '\f' -> text.append("\\f");
+                default -> {
+                    if (c < 0x20) {
+                        text.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        text.append(c);
+                    }
+                }
+            }
+        }
+        return text.append('"').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private byte at(int p) {
+        if (p >= limit) {
+            throw MALFORMED_RECORD;
+        }
+        return buffer.get(p);
+    }
+
+    private int skipWhitespace(int p) {
+        while (p < limit) {
+            byte c = buffer.get(p);
+            if (c != ' ' && c != '\t' && c != '\r' && c != '\n') {
+                break;
+            }
+            p++;
+        }
+        return p;
+    }
+
+    /** Shared, stackless signal for an unparseable record. */
+    private static final class Malformed extends RuntimeException {
+        Malformed() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.uniguri;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-thread, direct-mapped L0 cache of recent sanitize results, checked before the shared Caffeine cache.
+ * <p>
+ * Each platform thread owns a small table of {@code slots} (input, result) pairs indexed by
+ * {@link String#hashCode()}; a colliding input simply overwrites the slot. Hot keys are then served without
+ * touching the shared cache's hash table, read buffer or frequency sketch, so they cause no cache-line traffic
+ * between cores. Only inputs and results up to {@code maxLength} characters are kept, which bounds the memory
+ * per thread at roughly {@code slots * 2 * (2 * maxLength + 40)} bytes. Virtual threads bypass the L0 cache:
+ * they are cheap and numerous, so a table per virtual thread would neither be reused nor stay bounded.
+ * Invalidation bumps a generation that every table checks on its next access; a result is stored only if the
+ * generation has not moved since its lookup began, so a value read before an invalidation never outlives it.
+ * <p>
+ * 공유 Caffeine 캐시 앞에서 먼저 확인하는 스레드별 직접 사상(direct-mapped) L0 캐시입니다.
+ * 각 플랫폼 스레드는 {@link String#hashCode()}로 인덱싱되는 {@code slots}개의 (입력, 결과) 쌍 테이블을 가지며, 충돌하는 입력은
+ * 슬롯을 덮어씁니다. 따라서 핫 키는 공유 캐시의 해시 테이블, 읽기 버퍼, 빈도 스케치를 건드리지 않고 처리되어 코어 간 캐시 라인
+ * 이동이 생기지 않습니다. {@code maxLength} 이하의 입력과 결과만 저장하므로 스레드당 메모리는 대략
+ * {@code slots * 2 * (2 * maxLength + 40)} 바이트로 제한됩니다. 가상 스레드는 수가 많고 재사용되지 않으므로 L0 캐시를 거치지 않습니다.
+ * 무효화는 세대 번호를 올리며, 각 테이블은 다음 접근 시 이를 확인합니다. 결과는 조회를 시작한 이후 세대가 바뀌지 않은 경우에만
+ * 저장하므로 무효화 전에 읽은 값이 무효화 이후까지 남지 않습니다.
+ */
+final class LocalSanitizeCache {
+
+    private static final MethodHandle IS_VIRTUAL = isVirtualHandle();
+
+    private final int mask;
+    private final int maxLength;
+    private final ThreadLocal<Table> tables;
+    private final AtomicInteger generation = new AtomicInteger();
+
+    LocalSanitizeCache(int slots, int maxLength) {
+        if (slots < 1 || maxLength < 1) {
+            throw new IllegalArgumentException("slots and maxLength must be >= 1");
+        }
+        int size = slots <= 1 ? 1 : Integer.highestOneBit(slots - 1) << 1;
+        this.mask = size - 1;
+        this.maxLength = maxLength;
+        this.tables = ThreadLocal.withInitial(() -> new Table(size));
+    }
+
+    /**
+     * Returns the cached result, or {@code null} on a miss, for long inputs and on virtual threads.
+     */
+    String get(String input) {
+        Table table = table(input);
+        if (table == null) {
+            return null;
+        }
+        int slot = input.hashCode() & mask;
+        String key = table.keys[slot];
+        return key != null && (key == input || key.equals(input)) ? table.values[slot] : null;
+    }
+
+    /**
+     * Returns the current generation, to be read before the lookup whose result is passed to {@link #put}.
+     */
+    int generation() {
+        return generation.get();
+    }
+
+    /**
+     * Stores a result unless the cache was invalidated after {@code generation} was read.
+     */
+    void put(String input, String result, int generation) {
+        if (result.length() > maxLength) {
+            return;
+        }
+        Table table = table(input);
+        if (table != null && table.generation == generation) {
+            int slot = input.hashCode() & mask;
+            table.keys[slot] = input;
+            table.values[slot] = result;
+        }
+    }
+
+    /**
+     * Drops the entries of every thread, lazily on each thread's next access.
+     */
+    void invalidate() {
+        generation.getAndIncrement();
+    }
+
+    int slots() {
+        return mask + 1;
+    }
+
+    int maxLength() {
+        return maxLength;
+    }
+
+    private Table table(String input) {
+        if (input.length() > maxLength || isVirtual()) {
+            return null;
+        }
+        Table table = tables.get();
+        int current = generation.get();
+        if (table.generation != current) {
+            table.clear(current);
+        }
+        return table;
+    }
+
+    static boolean isVirtual() {
+        if (IS_VIRTUAL == null) {
+            return false;
+        }
+        try {
+            return (boolean) IS_VIRTUAL.invokeExact(Thread.currentThread());
+        } catch (Throwable e) {
+            return false;
+        }
+    }
+
+    /** {@code Thread::isVirtual} on Java 21+, {@code null} before (where every thread is a platform thread). */
+    private static MethodHandle isVirtualHandle() {
+        try {
+            return MethodHandles.publicLookup().findVirtual(Thread.class, "isVirtual", MethodType.methodType(boolean.class));
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private static final class Table {
+
+        private final String[] keys;
+        private final String[] values;
+        private int generation;
+
+        Table(int size) {
+            this.keys = new String[size];
+            this.values = new String[size];
+        }
+
+        void clear(int generation) {
+            Arrays.fill(keys, null);
+            Arrays.fill(values, null);
+            this.generation = generation;
+        }
+    }
+}
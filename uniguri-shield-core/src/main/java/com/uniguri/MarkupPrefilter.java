@@ -0,0 +1,94 @@
+package com.uniguri;
+
+import org.owasp.html.HtmlStreamEventProcessor;
+import org.owasp.html.PolicyFactory;
+
+import java.lang.reflect.Field;
+
+/**
+ * Recognizes inert text: values that every sanitization policy returns unchanged because they contain no
+ * markup, entity or attribute-significant character and nothing the HTML encoder rewrites.
+ * <p>
+ * Inert characters are tab, line breaks, printable ASCII other than {@code " & ' + < = > @ ` {}, and BMP
+ * characters from U+00A0 up to U+FE5F excluding surrogates and U+1FEF. Supplementary characters and the
+ * half-width/full-width forms are numerically encoded by the sanitizer, so they are not inert. The check only
+ * holds for policies without custom text preprocessing.
+ * <p>
+ * 정책을 통과해도 그대로 유지되는 무해한 텍스트를 판별합니다. 마크업, 엔티티, 속성에 의미 있는 문자와
+ * HTML 인코더가 바꾸는 문자가 없는 값입니다. 탭, 줄바꿈, {@code " & ' + < = > @ ` {}를 제외한 출력 가능한 ASCII,
+ * 서로게이트와 U+1FEF를 제외한 U+00A0 ~ U+FE5F가 해당하며, 사용자 정의 텍스트 전처리가 없는 정책에서만 성립합니다.
+ */
+public final class MarkupPrefilter {
+
+    private static final boolean[] INERT_ASCII = new boolean[128];
+
+    static {
+        for (char c = 0x20; c < 0x7F; c++) {
+            INERT_ASCII[c] = true;
+        }
+        // '{' because the encoder breaks up "{{" (and a trailing '{') with an empty comment against template injection.
+        for (char c : "\"&'+<=>@`{".toCharArray()) {
+            INERT_ASCII[c] = false;
+        }
+        INERT_ASCII['\t'] = true;
+        INERT_ASCII['\n'] = true;
+        INERT_ASCII['\r'] = true;
+    }
+
+    private MarkupPrefilter() {
+    }
+
+    /**
+     * Returns whether {@code chars[offset, offset + length)} is inert, reading the array in place.
+     * <p>
+     * 배열을 복사하지 않고 {@code chars[offset, offset + length)}가 무해한 텍스트인지 반환합니다.
+     */
+    public static boolean isInert(char[] chars, int offset, int length) {
+        for (int i = offset, end = offset + length; i < end; i++) {
+            if (!isInert(chars[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether {@code text} is inert.
+     * <p>
+     * {@code text}가 무해한 텍스트인지 반환합니다.
+     */
+    public static boolean isInert(CharSequence text) {
+        for (int i = 0, length = text.length(); i < length; i++) {
+            if (!isInert(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether the policy has no text pre- or postprocessing, i.e. whether inert text is a fixed point of it.
+     * Answers {@code false} when the policy internals cannot be read.
+     */
+    static boolean appliesTo(PolicyFactory policy) {
+        try {
+            return processor(policy, "preprocessor") == HtmlStreamEventProcessor.Processors.IDENTITY
+                    && processor(policy, "postprocessor") == HtmlStreamEventProcessor.Processors.IDENTITY;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    private static Object processor(PolicyFactory policy, String name) throws ReflectiveOperationException {
+        Field field = PolicyFactory.class.getDeclaredField(name);
+        field.setAccessible(true);
+        return field.get(policy);
+    }
+
+    static boolean isInert(char c) {
+        if (c < 0x80) {
+            return INERT_ASCII[c];
+        }
+        return c >= 0xA0 && (c < 0xD800 || (c >= 0xE000 && c < 0xFE60)) && c != 0x1FEF;
+    }
+}
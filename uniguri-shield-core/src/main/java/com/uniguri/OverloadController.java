@@ -0,0 +1,329 @@
+package com.uniguri;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Adaptive overload controller that degrades XSS Shield under pressure and restores it with hysteresis.
+ * <p>
+ * Inputs are an exponentially weighted moving average of the OWASP sanitize latency (cache misses only),
+ * the number of requests currently inside the XSS filter and an optional {@link OverloadSignal}.
+ * The controller switches to {@link Mode#DEGRADED} as soon as one input crosses its threshold, and back to
+ * {@link Mode#NORMAL} only after it has been degraded for {@code min-degraded-time} and every input is
+ * below {@code recovery-ratio} times its threshold. While degraded, a {@code probe-rate} fraction of the
+ * work still takes the full path so that the latency average keeps tracking the real cost.
+ * <p>
+ * 부하 시 XSS Shield를 저하 모드로 전환하고 히스테리시스를 두고 복구하는 적응형 컨트롤러입니다.
+ * 입력은 OWASP 살균 지연 시간의 지수 가중 이동 평균(캐시 미스만), 필터 내부의 동시 요청 수,
+ * 선택적 {@link OverloadSignal}입니다. 하나라도 임계값을 넘으면 {@link Mode#DEGRADED}로 전환되고,
+ * {@code min-degraded-time}이 지난 뒤 모든 입력이 임계값의 {@code recovery-ratio} 배 아래일 때만 {@link Mode#NORMAL}로 복귀합니다.
+ * 저하 중에도 {@code probe-rate} 비율의 작업은 전체 경로를 거쳐 지연 시간 평균이 실제 비용을 계속 반영합니다.
+ */
+public final class OverloadController {
+
+    private static final Logger log = LoggerFactory.getLogger(OverloadController.class);
+
+    /** Weight of the newest sample in the latency average. */
+    private static final double EWMA_ALPHA = 0.1;
+
+    /**
+     * Operating mode.
+     * <p>
+     * 동작 모드입니다.
+     */
+    public enum Mode {
+        NORMAL,
+        DEGRADED
+    }
+
+    /**
+     * What degraded mode does: escape the non-rich-text policies, or reject new requests.
+     * <p>
+     * 저하 모드의 동작입니다. 비 리치 텍스트 정책을 이스케이프로 전환하거나 새 요청을 거절합니다.
+     */
+    public enum Action {
+        ESCAPE,
+        REJECT
+    }
+
+    /**
+     * Callback for mode switches.
+     * <p>
+     * 모드 전환 콜백입니다.
+     */
+    @FunctionalInterface
+    public interface Listener {
+        void onModeChange(Mode from, Mode to, String reason);
+    }
+
+    private final Action action;
+    private final long latencyThresholdNanos;
+    private final int maxInFlight;
+    private final double recoveryRatio;
+    private final long minDegradedNanos;
+    private final long evaluationIntervalNanos;
+    private final double probeRate;
+    private final OverloadSignal signal;
+    private final LongSupplier nanoClock;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong nextEvaluation = new AtomicLong();
+    private final AtomicLong transitions = new AtomicLong();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    // Updated without synchronisation: a lost sample only makes the average marginally less precise.
+    private volatile double latencyEwmaNanos;
+    private volatile Mode mode = Mode.NORMAL;
+    private volatile long degradedSince;
+
+    private OverloadController(Builder builder) {
+        this.action = builder.action;
+        this.latencyThresholdNanos = builder.latencyThreshold.toNanos();
+        this.maxInFlight = builder.maxInFlight;
+        this.recoveryRatio = builder.recoveryRatio;
+        this.minDegradedNanos = builder.minDegradedTime.toNanos();
+        this.evaluationIntervalNanos = builder.evaluationInterval.toNanos();
+        this.probeRate = builder.probeRate;
+        this.signal = builder.signal;
+        this.nanoClock = builder.nanoClock;
+        this.nextEvaluation.set(nanoClock.getAsLong());
+    }
+
+    /**
+     * Returns a builder with the defaults of {@code xss.shield.overload.*}.
+     * <p>
+     * {@code xss.shield.overload.*} 기본값을 가진 빌더를 반환합니다.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Records the duration of one full (OWASP) sanitize call.
+     * <p>
+     * 전체(OWASP) 살균 호출 한 번의 소요 시간을 기록합니다.
+     */
+    public void recordSanitize(long nanos) {
+        double previous = latencyEwmaNanos;
+        latencyEwmaNanos = previous == 0.0 ? nanos : previous + EWMA_ALPHA * (nanos - previous);
+        maybeEvaluate();
+    }
+
+    /**
+     * Marks a request entering the filter.
+     * <p>
+     * 요청이 필터에 진입했음을 기록합니다.
+     */
+    public void requestStarted() {
+        inFlight.incrementAndGet();
+        maybeEvaluate();
+    }
+
+    /**
+     * Marks a request leaving the filter.
+     * <p>
+     * 요청이 필터를 벗어났음을 기록합니다.
+     */
+    public void requestFinished() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Whether a non-rich-text sanitize call should take the escape-only path now.
+     * <p>
+     * 지금 비 리치 텍스트 살균 호출이 이스케이프 전용 경로를 타야 하는지 여부입니다.
+     */
+    public boolean shouldEscape() {
+        return mode == Mode.DEGRADED && action == Action.ESCAPE && !probe();
+    }
+
+    /**
+     * Whether a new request should be rejected now.
+     * <p>
+     * 지금 새 요청을 거절해야 하는지 여부입니다.
+     */
+    public boolean shouldReject() {
+        return mode == Mode.DEGRADED && action == Action.REJECT && !probe();
+    }
+
+    private boolean probe() {
+        return DetectionSampler.sample(probeRate);
+    }
+
+    private void maybeEvaluate() {
+        long now = nanoClock.getAsLong();
+        long next = nextEvaluation.get();
+        if (now - next >= 0 && nextEvaluation.compareAndSet(next, now + evaluationIntervalNanos)) {
+            evaluate(now);
+        }
+    }
+
+    synchronized void evaluate(long now) {
+        double latency = latencyEwmaNanos;
+        int requests = inFlight.get();
+        double load = signal != null ? signal.load() : 0.0;
+        if (mode == Mode.NORMAL) {
+            String reason = null;
+            if (latencyThresholdNanos > 0 && latency >= latencyThresholdNanos) {
+                reason = String.format("sanitize latency %.1f us >= %.1f us", latency / 1000.0, latencyThresholdNanos / 1000.0);
+            } else if (maxInFlight > 0 && requests >= maxInFlight) {
+                reason = "in-flight requests " + requests + " >= " + maxInFlight;
+            } else if (load >= 1.0) {
+                reason = String.format("load signal %.2f >= 1.00", load);
+            }
+            if (reason != null) {
+                degradedSince = now;
+                switchTo(Mode.DEGRADED, reason);
+            }
+        } else if (now - degradedSince >= minDegradedNanos
+                && (latencyThresholdNanos <= 0 || latency < latencyThresholdNanos * recoveryRatio)
+                && (maxInFlight <= 0 || requests < maxInFlight * recoveryRatio)
+                && load < recoveryRatio) {
+            switchTo(Mode.NORMAL, String.format("sanitize latency %.1f us, in-flight requests %d, load signal %.2f",
+                    latency / 1000.0, requests, load));
+        }
+    }
+
+    private void switchTo(Mode to, String reason) {
+        Mode from = mode;
+        mode = to;
+        transitions.incrementAndGet();
+        if (to == Mode.DEGRADED) {
+            log.warn("XSS Shield overload: switching to {} ({}) because {}.", to, action, reason);
+        } else {
+            log.warn("XSS Shield overload cleared: restoring full sanitization ({}).", reason);
+        }
+        for (Listener listener : listeners) {
+            try {
+                listener.onModeChange(from, to, reason);
+            } catch (RuntimeException e) {
+                log.warn("Overload listener failed.", e);
+            }
+        }
+    }
+
+    /**
+     * Registers a callback invoked on every mode switch.
+     * <p>
+     * 모드 전환마다 호출될 콜백을 등록합니다.
+     */
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public Action getAction() {
+        return action;
+    }
+
+    /**
+     * Returns the current sanitize latency average in nanoseconds.
+     * <p>
+     * 현재 살균 지연 시간 평균(나노초)을 반환합니다.
+     */
+    public double getLatencyAverageNanos() {
+        return latencyEwmaNanos;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Returns the number of mode switches so far.
+     * <p>
+     * 지금까지의 모드 전환 횟수를 반환합니다.
+     */
+    public long getTransitions() {
+        return transitions.get();
+    }
+
+    /**
+     * Builder for {@link OverloadController}. A threshold of zero disables that input.
+     * <p>
+     * {@link OverloadController} 빌더입니다. 임계값이 0이면 해당 입력을 사용하지 않습니다.
+     */
+    public static final class Builder {
+        private Action action = Action.ESCAPE;
+        private Duration latencyThreshold = Duration.ofMillis(2);
+        private int maxInFlight = 256;
+        private double recoveryRatio = 0.5;
+        private Duration minDegradedTime = Duration.ofSeconds(10);
+        private Duration evaluationInterval = Duration.ofMillis(100);
+        private double probeRate = 0.05;
+        private OverloadSignal signal;
+        private LongSupplier nanoClock = System::nanoTime;
+
+        private Builder() {
+        }
+
+        public Builder action(Action action) {
+            this.action = action;
+            return this;
+        }
+
+        public Builder latencyThreshold(Duration latencyThreshold) {
+            this.latencyThreshold = latencyThreshold;
+            return this;
+        }
+
+        public Builder maxInFlight(int maxInFlight) {
+            this.maxInFlight = maxInFlight;
+            return this;
+        }
+
+        public Builder recoveryRatio(double recoveryRatio) {
+            if (recoveryRatio <= 0.0 || recoveryRatio > 1.0) {
+                throw new IllegalArgumentException("recoveryRatio must be in (0, 1]");
+            }
+            this.recoveryRatio = recoveryRatio;
+            return this;
+        }
+
+        public Builder minDegradedTime(Duration minDegradedTime) {
+            this.minDegradedTime = minDegradedTime;
+            return this;
+        }
+
+        public Builder evaluationInterval(Duration evaluationInterval) {
+            this.evaluationInterval = evaluationInterval;
+            return this;
+        }
+
+        public Builder probeRate(double probeRate) {
+            this.probeRate = probeRate;
+            return this;
+        }
+
+        /**
+         * Sets an optional external load signal.
+         * <p>
+         * 선택적 외부 부하 신호를 설정합니다.
+         */
+        public Builder signal(OverloadSignal signal) {
+            this.signal = signal;
+            return this;
+        }
+
+        Builder nanoClock(LongSupplier nanoClock) {
+            this.nanoClock = nanoClock;
+            return this;
+        }
+
+        public OverloadController build() {
+            if (action == null || latencyThreshold == null || minDegradedTime == null || evaluationInterval == null) {
+                throw new IllegalArgumentException("action and durations must not be null");
+            }
+            return new OverloadController(this);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.uniguri;
+
+/**
+ * Pluggable load signal consulted by {@link OverloadController}.
+ * <p>
+ * Return the current load normalised so that {@code 1.0} means "overloaded" (e.g. CPU usage divided by
+ * the target utilisation, or executor queue length divided by its limit). The controller enters degraded
+ * mode when the value reaches {@code 1.0} and leaves it once the value drops below the recovery ratio.
+ * Called on the evaluation interval from a request thread, so it must be cheap and must not block.
+ * <p>
+ * {@link OverloadController}가 참조하는 부하 신호 SPI입니다.
+ * {@code 1.0}이 "과부하"를 뜻하도록 정규화된 값을 반환하세요(예: CPU 사용률 / 목표 사용률).
+ * 값이 {@code 1.0}에 도달하면 저하 모드로 전환되고 회복 비율 아래로 내려가면 복귀합니다.
+ * 평가 주기마다 요청 스레드에서 호출되므로 가볍고 블로킹되지 않아야 합니다.
+ */
+@FunctionalInterface
+public interface OverloadSignal {
+
+    /**
+     * Returns the current normalised load; {@code 1.0} or more means overloaded.
+     * <p>
+     * 현재 정규화된 부하를 반환합니다. {@code 1.0} 이상이면 과부하입니다.
+     */
+    double load();
+}
@@ -0,0 +1,379 @@
+package com.uniguri;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.uniguri.jfr.SanitizeEvent;
+import org.owasp.html.PolicyFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * One sanitization policy together with the caches in front of it.
+ * <p>
+ * 하나의 살균 정책과 그 앞단의 캐시들을 묶은 단위입니다.
+ */
+final class PolicyChannel {
+
+    private final String name;
+    private final PolicyFactory policy;
+    private final Cache<String, String> cache;
+    private final AsyncCache<String, String> asyncCache;
+    private volatile LocalSanitizeCache localCache;
+    private final String fingerprintSalt;
+    private volatile String fingerprint;
+    private volatile SanitizeL2Tier l2Tier;
+    private final boolean degradable;
+    private final boolean inertPassThrough;
+    private volatile SanitizeCacheSnapshot.Section snapshot;
+    private volatile OverloadController overload;
+
+    /**
+     * @param asyncCache When set, {@code cache} is its synchronous view and misses load outside the map lock.
+     * @param degradable Whether overload mode may replace this policy with HTML escaping (not for rich text).
+     */
+    PolicyChannel(String name, PolicyFactory policy, Cache<String, String> cache, AsyncCache<String, String> asyncCache,
+                  String fingerprintSalt, boolean degradable) {
+        this.name = name;
+        this.policy = policy;
+        this.cache = cache;
+        this.asyncCache = asyncCache;
+        this.fingerprintSalt = fingerprintSalt;
+        this.degradable = degradable;
+        this.inertPassThrough = MarkupPrefilter.appliesTo(policy);
+    }
+
+    String name() {
+        return name;
+    }
+
+    PolicyFactory policy() {
+        return policy;
+    }
+
+    /**
+     * Whether {@link MarkupPrefilter inert} text is known to come out of this policy unchanged.
+     */
+    boolean passesInertText() {
+        return inertPassThrough;
+    }
+
+    /**
+     * Places a per-thread L0 cache in front of the shared cache; ignored without a shared cache.
+     */
+    void setLocalCache(LocalSanitizeCache localCache) {
+        if (cache != null) {
+            this.localCache = localCache;
+        }
+    }
+
+    LocalSanitizeCache localCache() {
+        return localCache;
+    }
+
+    /**
+     * Drops every cached result of this channel, including the per-thread L0 entries. The shared cache is cleared
+     * first, so a concurrent call cannot copy one of its stale entries into L0 after the generation moved.
+     */
+    void invalidateAll() {
+        cache.invalidateAll();
+        LocalSanitizeCache local = localCache;
+        if (local != null) {
+            local.invalidate();
+        }
+    }
+
+    void invalidateAll(Iterable<String> inputs) {
+        cache.invalidateAll(inputs);
+        LocalSanitizeCache local = localCache;
+        if (local != null) {
+            local.invalidate();
+        }
+    }
+
+    Cache<String, String> cache() {
+        return cache;
+    }
+
+    String fingerprint() {
+        String result = fingerprint;
+        if (result == null) {
+            result = PolicyFingerprint.of(policy, fingerprintSalt);
+            fingerprint = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the locally cached result for the input, or {@code null}.
+     */
+    String cached(String input) {
+        return cache != null ? cache.getIfPresent(input) : null;
+    }
+
+    void setOverloadController(OverloadController overload) {
+        this.overload = overload;
+    }
+
+    void setL2Tier(SanitizeL2Tier l2Tier) {
+        this.l2Tier = l2Tier;
+    }
+
+    /**
+     * Attaches the matching section of a snapshot, or detaches it when the fingerprint differs.
+     *
+     * @return true if a section was attached
+     */
+    boolean attachSnapshot(SanitizeCacheSnapshot snapshotFile) {
+        this.snapshot = snapshotFile != null ? snapshotFile.section(name, fingerprint()) : null;
+        return this.snapshot != null;
+    }
+
+    SanitizeCacheSnapshot.SectionData snapshotData(int hottest) {
+        Map<String, String> entries = cache.policy().eviction()
+                .map(eviction -> eviction.hottest(hottest))
+                .orElseGet(Map::of);
+        return new SanitizeCacheSnapshot.SectionData(name, fingerprint(), entries);
+    }
+
+    /**
+     * Sanitizes one value, charging the {@link SanitizeCost} bound to this thread, if any. Every string entry point
+     * of {@link XssShield} ends up here or in {@link #sanitizeAll}, so each value is charged exactly once.
+     */
+    String sanitize(String input) {
+        SanitizeCost cost = SanitizeCost.current();
+        if (cost == null) {
+            return lookup(input);
+        }
+        int computed = cost.computed();
+        long start = System.nanoTime();
+        String result = lookup(input);
+        cost.recordSanitize(1, input.length(), computed, System.nanoTime() - start);
+        return result;
+    }
+
+    private String lookup(String input) {
+        OverloadController controller = overload;
+        if (controller != null && degradable && controller.shouldEscape()) {
+            String cached = cache != null ? cache.getIfPresent(input) : null;
+            return cached != null ? cached : escape(input);
+        }
+        SanitizeEvent event = new SanitizeEvent();
+        if (event.isEnabled()) {
+            return sanitizeRecorded(input, event);
+        }
+        if (cache != null) {
+            LocalSanitizeCache local = localCache;
+            if (local == null) {
+                return getOrLoad(input);
+            }
+            int generation = local.generation();
+            String result = local.get(input);
+            if (result == null) {
+                result = getOrLoad(input);
+                local.put(input, result, generation);
+            }
+            return result;
+        }
+        return compute(input);
+    }
+
+    private static String escape(String input) {
+        SanitizeCost cost = SanitizeCost.current();
+        if (cost != null) {
+            cost.recordComputed();
+        }
+        return HtmlEscaper.escape(input);
+    }
+
+    private String getOrLoad(String input) {
+        if (asyncCache == null) {
+            if (snapshot == null && l2Tier == null) {
+                return cache.get(input, this::load);
+            }
+            return getOrLoadTiered(input);
+        }
+        CompletableFuture<String> future = asyncCache.getIfPresent(input);
+        if (future == null) {
+            CompletableFuture<String> created = new CompletableFuture<>();
+            future = asyncCache.asMap().putIfAbsent(input, created);
+            if (future == null) {
+                // This caller owns the computation and runs it with no map lock held.
+                String result;
+                try {
+                    result = load(input);
+                } catch (RuntimeException | Error e) {
+                    asyncCache.asMap().remove(input, created);
+                    created.completeExceptionally(e);
+                    throw e;
+                }
+                created.complete(result);
+                return result;
+            }
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * {@link #getOrLoad} for {@link XssShield.CacheLoading#COMPUTE} with a snapshot or L2 attached: those tiers are
+     * consulted before the cache's mapping function, so a slow L2 lookup never holds the lock of a hash bin that
+     * unrelated keys share. Only the local sanitization runs inside it.
+     */
+    private String getOrLoadTiered(String input) {
+        String cached = cache.asMap().get(input);
+        if (cached != null) {
+            return cache.get(input, key -> cached);
+        }
+        byte[] contentHash = PolicyFingerprint.contentHash(input);
+        String found = lookupTiers(contentHash);
+        if (found != null) {
+            return cache.get(input, key -> found);
+        }
+        boolean[] computed = new boolean[1];
+        String result = cache.get(input, key -> {
+            computed[0] = true;
+            return compute(key);
+        });
+        SanitizeL2Tier tier = l2Tier;
+        if (computed[0] && tier != null) {
+            tier.store(fingerprint(), contentHash, result);
+        }
+        return result;
+    }
+
+    /**
+     * Sanitizes a batch with one bulk cache lookup; misses are loaded together. {@code null} elements map to
+     * {@code null}. Falls back to per-item calls while degraded or recording JFR events.
+     */
+    List<String> sanitizeAll(List<String> inputs) {
+        OverloadController controller = overload;
+        if (cache == null || containsNull(inputs) || (controller != null && degradable && controller.shouldEscape())
+                || new SanitizeEvent().isEnabled()) {
+            List<String> results = new ArrayList<>(inputs.size());
+            for (String input : inputs) {
+                results.add(input != null ? sanitize(input) : null);
+            }
+            return results;
+        }
+        SanitizeCost cost = SanitizeCost.current();
+        int computed = cost != null ? cost.computed() : 0;
+        long start = cost != null ? System.nanoTime() : 0;
+        Map<String, String> sanitized = cache.getAll(inputs, this::loadAll);
+        if (cost != null) {
+            long characters = 0;
+            for (String input : inputs) {
+                characters += input.length();
+            }
+            cost.recordSanitize(inputs.size(), characters, computed, System.nanoTime() - start);
+        }
+        List<String> results = new ArrayList<>(inputs.size());
+        for (String input : inputs) {
+            results.add(sanitized.get(input));
+        }
+        return results;
+    }
+
+    private static boolean containsNull(List<String> inputs) {
+        for (String input : inputs) {
+            if (input == null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Map<String, String> loadAll(Set<? extends String> inputs) {
+        Map<String, String> loaded = new HashMap<>(inputs.size() * 2);
+        for (String input : inputs) {
+            loaded.put(input, load(input));
+        }
+        return loaded;
+    }
+
+    private String sanitizeRecorded(String input, SanitizeEvent event) {
+        event.begin();
+        String result;
+        if (cache != null) {
+            result = cache.getIfPresent(input);
+            event.cacheHit = result != null;
+            if (result == null) {
+                result = getOrLoad(input);
+            }
+        } else {
+            result = compute(input);
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.policy = name;
+            event.inputLength = input.length();
+            event.commit();
+        }
+        return result;
+    }
+
+    /**
+     * Loads a miss through the snapshot, the L2 and finally the policy. Must not run inside a cache mapping function
+     * while an L2 is attached (see {@link #getOrLoadTiered}).
+     */
+    private String load(String input) {
+        if (snapshot == null && l2Tier == null) {
+            return compute(input);
+        }
+        byte[] contentHash = PolicyFingerprint.contentHash(input);
+        String found = lookupTiers(contentHash);
+        if (found != null) {
+            return found;
+        }
+        String sanitized = compute(input);
+        SanitizeL2Tier tier = l2Tier;
+        if (tier != null) {
+            tier.store(fingerprint(), contentHash, sanitized);
+        }
+        return sanitized;
+    }
+
+    private String lookupTiers(byte[] contentHash) {
+        SanitizeCacheSnapshot.Section section = snapshot;
+        if (section != null) {
+            String persisted = section.get(contentHash);
+            if (persisted != null) {
+                return persisted;
+            }
+        }
+        SanitizeL2Tier tier = l2Tier;
+        return tier != null ? tier.lookup(fingerprint(), contentHash) : null;
+    }
+
+    /**
+     * Runs the OWASP policy, reporting its latency to the overload controller when one is attached.
+     */
+    private String compute(String input) {
+        SanitizeCost cost = SanitizeCost.current();
+        if (cost != null) {
+            cost.recordComputed();
+        }
+        OverloadController controller = overload;
+        if (controller == null) {
+            return policy.sanitize(input);
+        }
+        long start = System.nanoTime();
+        String result = policy.sanitize(input);
+        controller.recordSanitize(System.nanoTime() - start);
+        return result;
+    }
+}
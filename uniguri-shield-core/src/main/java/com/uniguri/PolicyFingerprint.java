@@ -0,0 +1,142 @@
+package com.uniguri;
+
+import org.owasp.html.PolicyFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Computes a behavioural fingerprint of a {@link PolicyFactory}.
+ * <p>
+ * OWASP policies do not expose their definition in a stable form, so the fingerprint is the SHA-256 digest of
+ * the policy's output for a fixed probe document. The probe covers the HTML elements, common attributes with
+ * several value shapes each, common and custom URL protocols, {@code srcset}, a few custom elements and CSS
+ * properties. A policy change shows up in the fingerprint only if it changes the output for that probe. Changes
+ * outside it do not, e.g. other custom elements or protocols, or attribute matchers that accept or reject
+ * values the probe does not use. Shared and persisted caches would then keep serving entries of the old policy.
+ * Bump the salt (the policy version) whenever a policy changes in a way the probe may miss.
+ * <p>
+ * {@link PolicyFactory}의 동작 기반 지문을 계산합니다.
+ * OWASP 정책은 정의를 안정적인 형태로 노출하지 않으므로, 고정 프로브 문서를 살균한 결과의 SHA-256 다이제스트를 지문으로
+ * 사용합니다. 프로브는 HTML 요소, 값 형태를 여러 가지로 바꾼 주요 속성, 일반/사용자 정의 URL 프로토콜, {@code srcset},
+ * 일부 사용자 정의 요소와 CSS 속성을 포함합니다. 정책 변경은 이 프로브의 결과가 바뀔 때만 지문에 반영됩니다. 다른 사용자
+ * 정의 요소나 프로토콜, 프로브에 없는 값을 허용/거부하는 속성 검사기처럼 프로브 밖의 변경은 반영되지 않으며, 이 경우 공유/영속
+ * 캐시가 이전 정책의 결과를 계속 반환합니다. 프로브가 놓칠 수 있는 정책 변경 시에는 반드시 salt(정책 버전)를 올리세요.
+ */
+public final class PolicyFingerprint {
+
+    private static final List<String> ELEMENTS = List.of(
+            "a", "abbr", "address", "area", "article", "aside", "audio", "b", "bdi", "bdo", "big", "blockquote",
+            "body", "br", "button", "canvas", "caption", "center", "cite", "code", "col", "colgroup", "data",
+            "dd", "del", "details", "dfn", "dialog", "div", "dl", "dt", "em", "embed", "fieldset", "figcaption",
+            "figure", "font", "footer", "form", "h1", "h2", "h3", "h4", "h5", "h6", "head", "header", "hr",
+            "html", "i", "iframe", "img", "input", "ins", "kbd", "label", "legend", "li", "link", "main", "map",
+            "mark", "meta", "meter", "nav", "noscript", "object", "ol", "optgroup", "option", "output", "p",
+            "param", "picture", "pre", "progress", "q", "rp", "rt", "ruby", "s", "samp", "script", "section",
+            "select", "small", "source", "span", "strike", "strong", "style", "sub", "summary", "sup", "svg",
+            "table", "tbody", "td", "template", "textarea", "tfoot", "th", "thead", "time", "title", "tr",
+            "track", "tt", "u", "ul", "var", "video", "wbr",
+            "my-widget", "x-embed", "math", "mi", "foreignobject", "marquee", "frame", "base"
+    );
+
+    private static final String ATTRIBUTES =
+            " id=\"i\" class=\"c\" title=\"t\" alt=\"a\" name=\"n\" lang=\"en\" dir=\"ltr\" align=\"left\""
+            + " width=\"1\" height=\"1\" border=\"1\" colspan=\"2\" rowspan=\"2\" target=\"_blank\" rel=\"r\""
+            + " type=\"t\" value=\"v\" data-x=\"d\" role=\"r\" aria-label=\"l\" tabindex=\"1\" onclick=\"x()\""
+            + " href=\"https://h.example/\" src=\"https://s.example/i.png\" cite=\"http://c.example/\""
+            + " style=\"color:red;background-color:blue;font-size:1px;font-weight:bold;text-align:left;"
+            + "margin:1px;padding:1px;border:1px;width:1px;height:1px;float:left;position:absolute;"
+            + "display:none;font-family:serif;line-height:1;text-decoration:underline;background-image:url(x)\""
+            + " srcset=\"https://s.example/a.png 1x, /b.png 2x\" sizes=\"100vw\" loading=\"lazy\""
+            + " download=\"f\" hreflang=\"ko\" ping=\"https://p.example/\" poster=\"https://p.example/p.png\""
+            + " usemap=\"#m\" headers=\"h\" scope=\"col\" start=\"2\" reversed datetime=\"2024-01-01\""
+            + " nowrap cellpadding=\"1\" cellspacing=\"1\" valign=\"top\" color=\"red\" face=\"serif\" size=\"2\""
+            + " open controls autoplay muted disabled checked readonly placeholder=\"p\" maxlength=\"3\""
+            + " action=\"https://a.example/\" method=\"post\" formaction=\"https://f.example/\" xlink:href=\"#x\""
+            + " translate=\"no\" contenteditable=\"true\" draggable=\"true\" hidden";
+
+    /**
+     * Alternative values for attributes whose policies commonly match on the value rather than the name.
+     */
+    private static final String ATTRIBUTE_VARIANTS =
+            " class=\"a-b c_1 C\" id=\"1x\" width=\"100%\" height=\"abc\" target=\"_self\" rel=\"nofollow noopener\""
+            + " lang=\"zz-Latn\" dir=\"rtl\" align=\"justify\" type=\"text/javascript\" role=\"x\" tabindex=\"-1\""
+            + " data-long-name=\"&lt;b&gt;\" aria-hidden=\"true\" title=\"\u2028 \u00e9\" style=\"color:#abc;width:calc(1px + 2em)\"";
+
+    private static final List<String> URLS = List.of(
+            "http://u.example/", "https://u.example/", "mailto:u@example.com", "tel:1", "ftp://u.example/",
+            "data:image/png;base64,AA==", "javascript:x()", "vbscript:x", "//u.example/", "/relative", "#frag",
+            "sms:1", "geo:1,2", "cid:c", "irc://u.example/", "market://d", "intent://x", "x-app://open", "blob:https://u.example/1",
+            "HTTPS://U.EXAMPLE/", " https://u.example/", "relative/path?q=1", "?q=1"
+    );
+
+    private static final String PROBE = buildProbe();
+
+    private PolicyFingerprint() {
+    }
+
+    /**
+     * Returns the fingerprint of the given policy.
+     * <p>
+     * 정책의 지문을 반환합니다.
+     */
+    public static String of(PolicyFactory policy) {
+        return of(policy, null);
+    }
+
+    /**
+     * Returns the fingerprint of the given policy mixed with an explicit salt (e.g. a policy version).
+     * <p>
+     * 명시적 salt(예: 정책 버전)를 섞은 정책 지문을 반환합니다.
+     */
+    public static String of(PolicyFactory policy, String salt) {
+        MessageDigest digest = sha256();
+        if (salt != null && !salt.isEmpty()) {
+            digest.update(salt.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        digest.update(policy.sanitize(PROBE).getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest.digest(), 0, 16);
+    }
+
+    /**
+     * Returns the SHA-256 content hash used to key shared and persisted caches.
+     * A cryptographic hash is used so that entries cannot be poisoned with crafted collisions.
+     * <p>
+     * 공유/영속 캐시 키로 사용하는 SHA-256 콘텐츠 해시를 반환합니다.
+     * 충돌을 의도적으로 만들어 캐시를 오염시키지 못하도록 암호학적 해시를 사용합니다.
+     */
+    public static byte[] contentHash(String input) {
+        return sha256().digest(input.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String buildProbe() {
+        StringBuilder probe = new StringBuilder(16 * 1024);
+        for (String element : ELEMENTS) {
+            probe.append('<').append(element).append(ATTRIBUTES).append('>')
+                    .append("t&amp;<b>n</b>")
+                    .append("</").append(element).append('>');
+            probe.append('<').append(element).append(ATTRIBUTE_VARIANTS).append('>')
+                    .append("v")
+                    .append("</").append(element).append('>');
+        }
+        for (String url : URLS) {
+            probe.append("<a href=\"").append(url).append("\">u</a>")
+                    .append("<img src=\"").append(url).append("\" srcset=\"").append(url).append(" 2x\">")
+                    .append("<form action=\"").append(url).append("\"></form>")
+                    .append("<blockquote cite=\"").append(url).append("\"></blockquote>");
+        }
+        return probe.toString();
+    }
+}
@@ -0,0 +1,105 @@
+package com.uniguri;
+
+/**
+ * Result of {@link XssShield#checkSafety(String)}: either {@link Status#SAFE}, or {@link Status#UNSAFE} with the
+ * reason and the offset of the first unsafe construct.
+ * <p>
+ * {@link XssShield#checkSafety(String)}의 결과입니다. {@link Status#SAFE}이거나, 첫 번째 위험 구문의 사유와 위치를 가진
+ * {@link Status#UNSAFE}입니다.
+ */
+public final class SafetyVerdict {
+
+    /**
+     * Verdict status.
+     * <p>
+     * 판정 상태입니다.
+     */
+    public enum Status {
+        SAFE,
+        UNSAFE
+    }
+
+    /**
+     * Why an input was judged unsafe.
+     * <p>
+     * 안전하지 않다고 판정한 사유입니다.
+     */
+    public enum Reason {
+        /** The default HTML policy would change the input (markup removed, rewritten or re-encoded). / 기본 HTML 정책이 입력을 변경함 */
+        POLICY_REWRITE,
+        /** A known XSS pattern matched, possibly after decoding. / 알려진 XSS 패턴이 (디코딩 후 포함) 일치함 */
+        XSS_PATTERN
+    }
+
+    static final SafetyVerdict SAFE = new SafetyVerdict(Status.SAFE, null, -1, null, false);
+
+    private final Status status;
+    private final Reason reason;
+    private final int offset;
+    private final String detail;
+    private final boolean attack;
+
+    private SafetyVerdict(Status status, Reason reason, int offset, String detail, boolean attack) {
+        this.status = status;
+        this.reason = reason;
+        this.offset = offset;
+        this.detail = detail;
+        this.attack = attack;
+    }
+
+    static SafetyVerdict unsafe(Reason reason, int offset, String detail) {
+        return unsafe(reason, offset, detail, reason == Reason.XSS_PATTERN);
+    }
+
+    static SafetyVerdict unsafe(Reason reason, int offset, String detail, boolean attack) {
+        return new SafetyVerdict(Status.UNSAFE, reason, offset, detail, attack);
+    }
+
+    /**
+     * Returns whether pattern detection matched the input, whatever the reported reason; counted for attack tracking.
+     */
+    boolean isAttack() {
+        return attack;
+    }
+
+    public boolean isSafe() {
+        return status == Status.SAFE;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Returns the reason, or {@code null} for a safe input.
+     * <p>
+     * 사유를 반환합니다. 안전한 입력이면 {@code null}입니다.
+     */
+    public Reason getReason() {
+        return reason;
+    }
+
+    /**
+     * Returns the offset of the first unsafe character in the input, or {@code -1} when the input is safe
+     * or the pattern only matched after decoding.
+     * <p>
+     * 입력에서 첫 번째 위험 문자의 위치를 반환합니다. 안전하거나 디코딩 후에만 패턴이 일치한 경우 {@code -1}입니다.
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Returns a short human-readable description, or {@code null} for a safe input.
+     * <p>
+     * 짧은 설명을 반환합니다. 안전한 입력이면 {@code null}입니다.
+     */
+    public String getDetail() {
+        return detail;
+    }
+
+    @Override
+    public String toString() {
+        return status == Status.SAFE ? "SAFE" : "UNSAFE(" + reason + " at " + offset + ": " + detail + ")";
+    }
+}
@@ -0,0 +1,155 @@
+package com.uniguri;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.owasp.html.PolicyFactory;
+
+import java.io.IOException;
+import java.util.function.Function;
+
+/**
+ * Decides whether an input is already a fixed point of a policy without rendering any output.
+ * <p>
+ * The policy renders into an {@link Appendable} that compares every character with the input and aborts the
+ * sanitizer on the first difference, so an unsafe input costs only the scan up to its first unsafe construct
+ * and a safe one costs a single pass with no allocation for the result. Pattern detection still runs for every
+ * computed verdict, so attacks are logged and recorded as JFR events even when the policy already rejects them;
+ * a policy rewrite takes precedence as the reported reason. Verdicts are cached when the sanitize caches are enabled.
+ * <p>
+ * 출력을 만들지 않고 입력이 이미 정책의 고정점인지 판정합니다. 정책이 입력과 한 글자씩 비교하는 {@link Appendable}로
+ * 렌더링하며 첫 차이에서 살균을 중단하므로, 위험한 입력은 첫 위험 구문까지만 검사합니다.
+ * 공격이 로그와 JFR 이벤트로 기록되도록 패턴 탐지는 계산하는 모든 판정에 수행하되, 정책이 입력을 바꾸면 그 사유를 우선 보고합니다.
+ * sanitize 캐시가 활성화되어 있으면 판정을 캐시합니다.
+ */
+final class SafetyVerdictEngine {
+
+    private final PolicyFactory policy;
+    private final Function<String, SafetyVerdict> detector;
+    private final Cache<String, SafetyVerdict> cache;
+
+    /**
+     * @param detector Returns an {@link SafetyVerdict.Reason#XSS_PATTERN} verdict, or {@code null} when nothing matched.
+     * @param cache    Verdict cache, or {@code null} to disable caching.
+     */
+    SafetyVerdictEngine(PolicyFactory policy, Function<String, SafetyVerdict> detector, Cache<String, SafetyVerdict> cache) {
+        this.policy = policy;
+        this.detector = detector;
+        this.cache = cache;
+    }
+
+    Cache<String, SafetyVerdict> cache() {
+        return cache;
+    }
+
+    SafetyVerdict verdict(String input, String sanitizedIfKnown) {
+        if (cache != null) {
+            SafetyVerdict cached = cache.getIfPresent(input);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        SafetyVerdict verdict = compute(input, sanitizedIfKnown);
+        if (cache != null) {
+            cache.put(input, verdict);
+        }
+        return verdict;
+    }
+
+    private SafetyVerdict compute(String input, String sanitizedIfKnown) {
+        int mismatch = sanitizedIfKnown != null ? firstDifference(input, sanitizedIfKnown) : firstRewrite(input);
+        // Detection also runs for rewritten inputs so that attacks keep their detection log and JFR event.
+        SafetyVerdict detected = detector.apply(input);
+        if (mismatch >= 0) {
+            return SafetyVerdict.unsafe(SafetyVerdict.Reason.POLICY_REWRITE, mismatch, describe(input, mismatch), detected != null);
+        }
+        return detected != null ? detected : SafetyVerdict.SAFE;
+    }
+
+    /**
+     * Returns the offset at which the policy output first departs from the input, or {@code -1}.
+     */
+    int firstRewrite(String input) {
+        FixedPointProbe probe = new FixedPointProbe(input);
+        try {
+            StreamingSanitizer.sanitize(policy, input, probe);
+        } catch (Mismatch e) {
+            return probe.position;
+        } catch (IOException e) {
+            // FixedPointProbe never throws IOException.
+            throw new IllegalStateException(e);
+        }
+        return probe.position == input.length() ? -1 : probe.position;
+    }
+
+    private static int firstDifference(String input, String sanitized) {
+        int common = Math.min(input.length(), sanitized.length());
+        for (int i = 0; i < common; i++) {
+            if (input.charAt(i) != sanitized.charAt(i)) {
+                return i;
+            }
+        }
+        return input.length() == sanitized.length() ? -1 : common;
+    }
+
+    private static String describe(String input, int offset) {
+        if (offset >= input.length()) {
+            return "policy appends content at the end of the input";
+        }
+        char c = input.charAt(offset);
+        return c == '<' ? "policy removes or rewrites markup" : "policy re-encodes or drops '" + c + "'";
+    }
+
+    /**
+     * Thrown (as a shared, stackless instance) to unwind the sanitizer on the first difference.
+     */
+    private static final class Mismatch extends RuntimeException {
+        static final Mismatch INSTANCE = new Mismatch();
+
+        private Mismatch() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static final class FixedPointProbe implements Appendable {
+        private final String expected;
+        private int position;
+
+        FixedPointProbe(String expected) {
+            this.expected = expected;
+        }
+
+        @Override
+        public Appendable append(CharSequence csq) {
+            CharSequence s = csq != null ? csq : "null";
+            return append(s, 0, s.length());
+        }
+
+        @Override
+        public Appendable append(CharSequence csq, int start, int end) {
+            CharSequence s = csq != null ? csq : "null";
+            if (end - start > expected.length() - position) {
+                // Everything up to the end of the input may still match; report the overflow point accurately.
+                for (int i = start; position < expected.length(); i++, position++) {
+                    if (s.charAt(i) != expected.charAt(position)) {
+                        throw Mismatch.INSTANCE;
+                    }
+                }
+                throw Mismatch.INSTANCE;
+            }
+            for (int i = start; i < end; i++, position++) {
+                if (s.charAt(i) != expected.charAt(position)) {
+                    throw Mismatch.INSTANCE;
+                }
+            }
+            return this;
+        }
+
+        @Override
+        public Appendable append(char c) {
+            if (position >= expected.length() || expected.charAt(position) != c) {
+                throw Mismatch.INSTANCE;
+            }
+            position++;
+            return this;
+        }
+    }
+}
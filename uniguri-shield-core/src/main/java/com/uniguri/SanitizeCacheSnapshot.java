@@ -0,0 +1,289 @@
+package com.uniguri;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact, memory-mapped snapshot of the hottest sanitize cache entries.
+ * <p>
+ * Layout (big-endian):
+ * <pre>
+ * header : magic "XSSS" | version | createdAt (epoch millis) | sectionCount
+ * section: name | policy fingerprint | entryCount
+ *          entryCount x [hash (16 bytes) | valueOffset | valueLength], sorted by hash
+ *          UTF-8 values
+ * </pre>
+ * Keys are the first 128 bits of the SHA-256 hash of the input, so inputs are not stored. Lookups
+ * binary-search the mapped records and decode only the value that was hit. A section whose fingerprint
+ * does not match the current policy is ignored, which discards the snapshot after a change of
+ * {@code policy-level} or of the policy version, or after a policy change the {@link PolicyFingerprint} probe detects.
+ * <p>
+ * 가장 자주 쓰이는 sanitize 캐시 엔트리를 저장하는 메모리 매핑 스냅샷입니다.
+ * 키는 입력값 SHA-256의 앞 128비트이므로 입력 원문은 저장되지 않습니다. 조회 시 매핑된 레코드를 이진 탐색하고
+ * 적중한 값만 디코딩합니다. 섹션의 정책 지문이 현재 정책과 다르면 무시되므로
+ * {@code policy-level}이나 정책 버전이 바뀌거나 {@link PolicyFingerprint} 프로브가 감지하는 정책 변경이 있으면 스냅샷이 폐기됩니다.
+ */
+public final class SanitizeCacheSnapshot {
+
+    static final int MAGIC = 0x58535353; // "XSSS"
+    static final int VERSION = 1;
+    private static final int HASH_BYTES = 16;
+    private static final int RECORD_BYTES = HASH_BYTES + 8;
+
+    private final long createdAt;
+    private final Map<String, Section> sections;
+
+    private SanitizeCacheSnapshot(long createdAt, Map<String, Section> sections) {
+        this.createdAt = createdAt;
+        this.sections = sections;
+    }
+
+    /**
+     * Maps a snapshot file. Every record is validated here, so a truncated or corrupt file is rejected up front
+     * instead of failing later lookups.
+     * <p>
+     * 스냅샷 파일을 메모리에 매핑합니다. 모든 레코드를 여기서 검증하므로 잘리거나 손상된 파일은 이후 조회에서 실패하지 않고
+     * 열 때 거부됩니다.
+     *
+     * @throws IOException if the file cannot be read, has an unknown format or is corrupt / 파일을 읽을 수 없거나 형식이 다르거나 손상된 경우
+     */
+    public static SanitizeCacheSnapshot open(Path file) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot file is too large: " + file);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not an XSS Shield cache snapshot: " + file);
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported snapshot version " + version + ": " + file);
+            }
+            long createdAt = buffer.getLong();
+            int sectionCount = buffer.getInt();
+            Map<String, Section> sections = new LinkedHashMap<>();
+            for (int i = 0; i < sectionCount; i++) {
+                String name = readString(buffer);
+                String fingerprint = readString(buffer);
+                int entryCount = buffer.getInt();
+                int recordsOffset = buffer.position();
+                int sectionEnd = validateRecords(buffer, recordsOffset, entryCount, name, file);
+                sections.put(name, new Section(buffer, fingerprint, recordsOffset, entryCount));
+                buffer.position(sectionEnd);
+            }
+            return new SanitizeCacheSnapshot(createdAt, Collections.unmodifiableMap(sections));
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupt XSS Shield cache snapshot: " + file, e);
+        }
+    }
+
+    /**
+     * Checks that every record of a section lies in the file, is sorted by hash, and points at a value between the
+     * end of the records and the end of the file, so that lookups can never read out of bounds.
+     *
+     * @return the end of the section's values
+     */
+    private static int validateRecords(ByteBuffer buffer, int recordsOffset, int entryCount, String name, Path file)
+            throws IOException {
+        long recordsEnd = recordsOffset + (long) entryCount * RECORD_BYTES;
+        if (entryCount < 0 || recordsEnd > buffer.limit()) {
+            throw new IOException("Corrupt XSS Shield cache snapshot: section '" + name + "' has an invalid entry count: " + file);
+        }
+        long sectionEnd = recordsEnd;
+        for (int i = 0; i < entryCount; i++) {
+            int record = recordsOffset + i * RECORD_BYTES;
+            long valueOffset = buffer.getInt(record + HASH_BYTES);
+            long valueLength = buffer.getInt(record + HASH_BYTES + 4);
+            if (valueOffset < recordsEnd || valueLength < 0 || valueOffset + valueLength > buffer.limit()) {
+                throw new IOException("Corrupt XSS Shield cache snapshot: section '" + name + "' entry " + i
+                        + " points outside the file: " + file);
+            }
+            if (i > 0 && compareHashes(buffer, record - RECORD_BYTES, record) >= 0) {
+                throw new IOException("Corrupt XSS Shield cache snapshot: section '" + name + "' is not sorted: " + file);
+            }
+            sectionEnd = Math.max(sectionEnd, valueOffset + valueLength);
+        }
+        return (int) sectionEnd;
+    }
+
+    private static int compareHashes(ByteBuffer buffer, int left, int right) {
+        int cmp = Long.compareUnsigned(buffer.getLong(left), buffer.getLong(right));
+        return cmp != 0 ? cmp : Long.compareUnsigned(buffer.getLong(left + 8), buffer.getLong(right + 8));
+    }
+
+    /**
+     * Writes a snapshot atomically (temporary file + move).
+     * <p>
+     * 스냅샷을 원자적으로(임시 파일 작성 후 이동) 기록합니다.
+     *
+     * @param file     Target file. / 대상 파일
+     * @param sections Sections keyed by policy name: fingerprint and entries (input to sanitized output). / 정책 이름별 섹션
+     */
+    public static void write(Path file, List<SectionData> sections) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tmp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try (OutputStream os = Files.newOutputStream(tmp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os, 64 * 1024))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(System.currentTimeMillis());
+            out.writeInt(sections.size());
+            for (SectionData section : sections) {
+                writeSection(out, section);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        try {
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void writeSection(DataOutputStream out, SectionData section) throws IOException {
+        writeString(out, section.name());
+        writeString(out, section.fingerprint());
+        List<Object[]> entries = new ArrayList<>(section.entries().size());
+        for (Map.Entry<String, String> entry : section.entries().entrySet()) {
+            entries.add(new Object[]{PolicyFingerprint.contentHash(entry.getKey()), entry.getValue().getBytes(StandardCharsets.UTF_8)});
+        }
+        entries.sort((a, b) -> Arrays.compareUnsigned((byte[]) a[0], 0, HASH_BYTES, (byte[]) b[0], 0, HASH_BYTES));
+        out.writeInt(entries.size());
+        long valueOffset = (long) out.size() + (long) entries.size() * RECORD_BYTES;
+        for (Object[] entry : entries) {
+            byte[] value = (byte[]) entry[1];
+            if (valueOffset + value.length > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot would exceed 2 GB");
+            }
+            out.write((byte[]) entry[0], 0, HASH_BYTES);
+            out.writeInt((int) valueOffset);
+            out.writeInt(value.length);
+            valueOffset += value.length;
+        }
+        for (Object[] entry : entries) {
+            out.write((byte[]) entry[1]);
+        }
+    }
+
+    /**
+     * Returns the section for the given policy when its fingerprint matches, otherwise {@code null}.
+     * <p>
+     * 지문이 일치하는 경우 해당 정책의 섹션을, 그렇지 않으면 {@code null}을 반환합니다.
+     */
+    public Section section(String name, String expectedFingerprint) {
+        Section section = sections.get(name);
+        if (section == null || !section.fingerprint.equals(expectedFingerprint)) {
+            return null;
+        }
+        return section;
+    }
+
+    /**
+     * Returns when the snapshot was written (epoch millis).
+     * <p>
+     * 스냅샷 기록 시각(epoch millis)을 반환합니다.
+     */
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Entries of one policy to be written into a snapshot.
+     * <p>
+     * 스냅샷에 기록할 정책 하나의 엔트리입니다.
+     */
+    public record SectionData(String name, String fingerprint, Map<String, String> entries) {
+    }
+
+    /**
+     * Read-only view of one policy section of a mapped snapshot.
+     * <p>
+     * 매핑된 스냅샷의 정책 섹션 하나에 대한 읽기 전용 뷰입니다.
+     */
+    public static final class Section {
+        private final ByteBuffer buffer;
+        private final String fingerprint;
+        private final int recordsOffset;
+        private final int entryCount;
+
+        private Section(ByteBuffer buffer, String fingerprint, int recordsOffset, int entryCount) {
+            this.buffer = buffer;
+            this.fingerprint = fingerprint;
+            this.recordsOffset = recordsOffset;
+            this.entryCount = entryCount;
+        }
+
+        /**
+         * Looks up the sanitized value for a SHA-256 content hash.
+         * <p>
+         * SHA-256 콘텐츠 해시로 살균된 값을 조회합니다.
+         *
+         * @param contentHash SHA-256 of the input (at least 16 bytes). / 입력값의 SHA-256
+         * @return The sanitized value, or {@code null} on a miss. / 살균된 값 (미스 시 null)
+         */
+        public String get(byte[] contentHash) {
+            long hi = ByteBuffer.wrap(contentHash, 0, 8).getLong();
+            long lo = ByteBuffer.wrap(contentHash, 8, 8).getLong();
+            int low = 0;
+            int high = entryCount - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int record = recordsOffset + mid * RECORD_BYTES;
+                int cmp = Long.compareUnsigned(buffer.getLong(record), hi);
+                if (cmp == 0) {
+                    cmp = Long.compareUnsigned(buffer.getLong(record + 8), lo);
+                }
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else if (cmp > 0) {
+                    high = mid - 1;
+                } else {
+                    byte[] value = new byte[buffer.getInt(record + HASH_BYTES + 4)];
+                    buffer.get(buffer.getInt(record + HASH_BYTES), value);
+                    return new String(value, StandardCharsets.UTF_8);
+                }
+            }
+            return null;
+        }
+
+        public int size() {
+            return entryCount;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.uniguri;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+
+/**
+ * Read/tune handle on one policy's local sanitize cache, for operational tooling such as the actuator endpoint.
+ * Cached inputs are never exposed in clear text; hot keys are reported by their SHA-256 content hash
+ * (the same hash that keys the second-level cache).
+ * <p>
+ * 한 정책의 로컬 sanitize 캐시를 조회/조정하는 핸들입니다(액추에이터 엔드포인트 등 운영 도구용).
+ * 캐시된 입력은 평문으로 노출하지 않으며, 핫 키는 SHA-256 콘텐츠 해시(2차 캐시 키와 동일)로 보고합니다.
+ */
+public final class SanitizeCacheView {
+
+    /** Rough per-entry overhead of a Caffeine node plus two {@link String} headers, in bytes. */
+    private static final long ENTRY_OVERHEAD_BYTES = 120;
+
+    private final String policy;
+    private final Cache<String, String> cache;
+    private final Runnable invalidateAll;
+
+    SanitizeCacheView(String policy, Cache<String, String> cache, Runnable invalidateAll) {
+        this.policy = policy;
+        this.cache = cache;
+        this.invalidateAll = invalidateAll;
+    }
+
+    /**
+     * Returns the policy name ({@code html}, {@code strict} or {@code formInput}).
+     * <p>
+     * 정책 이름을 반환합니다.
+     */
+    public String getPolicy() {
+        return policy;
+    }
+
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    public long getEstimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Returns the current maximum size, or empty when the cache is unbounded.
+     * <p>
+     * 현재 최대 크기를 반환합니다. 제한이 없으면 비어 있습니다.
+     */
+    public OptionalLong getMaximumSize() {
+        return cache.policy().eviction().map(eviction -> OptionalLong.of(eviction.getMaximum())).orElse(OptionalLong.empty());
+    }
+
+    /**
+     * Changes the maximum size at runtime; shrinking evicts immediately.
+     * <p>
+     * 최대 크기를 런타임에 변경합니다. 줄이면 즉시 축출됩니다.
+     *
+     * @return true if the cache is bounded and was resized. / 크기 제한이 있어 변경되었으면 true
+     */
+    public boolean setMaximumSize(long maximumSize) {
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("maximumSize must be >= 0");
+        }
+        return cache.policy().eviction().map(eviction -> {
+            eviction.setMaximum(maximumSize);
+            return true;
+        }).orElse(false);
+    }
+
+    /**
+     * Approximates the heap retained by the cached keys and values (two bytes per char plus a fixed
+     * per-entry overhead). Walks the whole cache, so it is meant for occasional inspection only.
+     * <p>
+     * 캐시된 키/값이 점유하는 힙을 근사합니다(문자당 2바이트 + 엔트리당 고정 오버헤드). 캐시 전체를 순회하므로
+     * 가끔 조회하는 용도로만 사용하세요.
+     */
+    public long getEstimatedMemoryBytes() {
+        long bytes = 0;
+        for (Map.Entry<String, String> entry : cache.asMap().entrySet()) {
+            bytes += ENTRY_OVERHEAD_BYTES + 2L * (entry.getKey().length() + entry.getValue().length());
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns up to {@code limit} of the most frequently used keys, hottest first, as hashes.
+     * <p>
+     * 가장 자주 사용되는 키를 최대 {@code limit}개까지 해시로 반환합니다(가장 뜨거운 순).
+     */
+    public List<HotKey> getHottestKeys(int limit) {
+        Map<String, String> hottest = cache.policy().eviction()
+                .map(eviction -> eviction.hottest(Math.max(0, limit)))
+                .orElseGet(Map::of);
+        List<HotKey> keys = new ArrayList<>(hottest.size());
+        for (String key : hottest.keySet()) {
+            keys.add(new HotKey(HexFormat.of().formatHex(PolicyFingerprint.contentHash(key)), key.length()));
+        }
+        return keys;
+    }
+
+    /**
+     * Discards every entry of this cache.
+     * <p>
+     * 이 캐시의 모든 엔트리를 제거합니다.
+     */
+    public void invalidateAll() {
+        invalidateAll.run();
+    }
+
+    /**
+     * A hot cache key identified by its content hash.
+     * <p>
+     * 콘텐츠 해시로 식별되는 핫 캐시 키입니다.
+     */
+    public static final class HotKey {
+        private final String hash;
+        private final int length;
+
+        HotKey(String hash, int length) {
+            this.hash = hash;
+            this.length = length;
+        }
+
+        public String getHash() {
+            return hash;
+        }
+
+        public int getLength() {
+            return length;
+        }
+    }
+}
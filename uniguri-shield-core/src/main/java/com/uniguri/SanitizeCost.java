@@ -0,0 +1,172 @@
+package com.uniguri;
+
+import java.util.Locale;
+
+/**
+ * Mutable per-request account of the work {@link XssShield} did: values sanitized, how many of them were served
+ * without running the policy (cache hits), characters processed, detections, and the time spent in each.
+ * <p>
+ * An instance is bound to the calling thread with {@link #begin()} and updated by every {@code sanitize*} and
+ * detection call on that thread until {@link #end()}; work handed to other threads is not counted. Until the first
+ * {@code begin()} the accounting hooks cost a single field read. Instances are not thread-safe.
+ * <p>
+ * {@link XssShield}가 수행한 작업(살균한 값 수, 정책을 실행하지 않고 처리한 값 수(캐시 적중), 처리한 문자 수, 탐지 횟수와 각각의
+ * 소요 시간)을 요청 단위로 기록하는 가변 객체입니다.
+ * <p>
+ * {@link #begin()}으로 호출 스레드에 연결되며 {@link #end()}까지 그 스레드의 모든 {@code sanitize*}와 탐지 호출이 값을 갱신합니다.
+ * 다른 스레드로 넘어간 작업은 집계되지 않습니다. 첫 {@code begin()} 전까지 집계 훅의 비용은 필드 읽기 한 번입니다.
+ * 인스턴스는 스레드 안전하지 않습니다.
+ */
+public final class SanitizeCost {
+
+    private static final ThreadLocal<SanitizeCost> CURRENT = new ThreadLocal<>();
+    private static volatile boolean used;
+
+    private int values;
+    private int hits;
+    private int computed;
+    private long characters;
+    private long sanitizeNanos;
+    private int detections;
+    private long detectionNanos;
+
+    private SanitizeCost() {
+    }
+
+    /**
+     * Creates an account and binds it to the current thread.
+     * <p>
+     * 새 집계 객체를 만들어 현재 스레드에 연결합니다.
+     */
+    public static SanitizeCost begin() {
+        SanitizeCost cost = new SanitizeCost();
+        CURRENT.set(cost);
+        used = true;
+        return cost;
+    }
+
+    /**
+     * Unbinds this account from the current thread; its counters stay readable.
+     * <p>
+     * 현재 스레드에서 연결을 해제합니다. 집계 값은 계속 읽을 수 있습니다.
+     */
+    public void end() {
+        if (CURRENT.get() == this) {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * Returns the account bound to the current thread, or {@code null}.
+     */
+    static SanitizeCost current() {
+        return used ? CURRENT.get() : null;
+    }
+
+    /**
+     * Returns the running number of policy runs on this thread; pass it to {@link #recordSanitize} after the work.
+     */
+    int computed() {
+        return computed;
+    }
+
+    /**
+     * Charges {@code count} values. Each value counts as a hit unless the work since {@code computedBefore} ran the
+     * policy for it; a document whose blocks ran the policy several times is still a single miss.
+     */
+    void recordSanitize(int count, long length, int computedBefore, long nanos) {
+        values += count;
+        hits += Math.max(0, count - (computed - computedBefore));
+        characters += length;
+        sanitizeNanos += nanos;
+    }
+
+    /**
+     * Notes that a value had to be produced rather than served from a cache: the policy ran, or the value was
+     * escaped while degraded.
+     */
+    void recordComputed() {
+        computed++;
+    }
+
+    void recordDetection(long nanos) {
+        detections++;
+        detectionNanos += nanos;
+    }
+
+    /**
+     * Returns the number of values sanitized.
+     * <p>
+     * 살균한 값 수를 반환합니다.
+     */
+    public int getValues() {
+        return values;
+    }
+
+    /**
+     * Returns the number of sanitized values that did not run the OWASP policy (cache, snapshot or L2 hits).
+     * <p>
+     * OWASP 정책을 실행하지 않은 값 수(캐시, 스냅샷, L2 적중)를 반환합니다.
+     */
+    public int getCacheHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of characters passed to sanitization.
+     * <p>
+     * 살균에 전달된 문자 수를 반환합니다.
+     */
+    public long getCharacters() {
+        return characters;
+    }
+
+    /**
+     * Returns the number of detection calls.
+     * <p>
+     * 탐지 호출 수를 반환합니다.
+     */
+    public int getDetections() {
+        return detections;
+    }
+
+    public long getSanitizeNanos() {
+        return sanitizeNanos;
+    }
+
+    public long getDetectionNanos() {
+        return detectionNanos;
+    }
+
+    /**
+     * Returns the time spent in sanitization and detection.
+     * <p>
+     * 살균과 탐지에 소요된 전체 시간을 반환합니다.
+     */
+    public long getTotalNanos() {
+        return sanitizeNanos + detectionNanos;
+    }
+
+    /**
+     * Formats the account as a {@code Server-Timing} header value (durations in milliseconds). Cache hits are left
+     * out: the header is visible to the client, and hits on the shared caches would reveal what other users sent.
+     * <p>
+     * {@code Server-Timing} 헤더 값으로 변환합니다. (시간 단위: 밀리초) 헤더는 클라이언트에 노출되고 공유 캐시의 적중 여부는
+     * 다른 사용자가 보낸 값을 드러낼 수 있으므로 캐시 적중 수는 포함하지 않습니다.
+     */
+    public String toServerTiming() {
+        return String.format(Locale.ROOT,
+                "xss-sanitize;dur=%.3f;desc=\"%d values, %d chars\", xss-detect;dur=%.3f;desc=\"%d values\", xss;dur=%.3f",
+                sanitizeNanos / 1e6, values, characters, detectionNanos / 1e6, detections, getTotalNanos() / 1e6);
+    }
+
+    /**
+     * Returns a compact summary, as printed by access-log patterns that reference the request attribute.
+     */
+    @Override
+    public String toString() {
+        return "values=" + values + " hits=" + getCacheHits() + " chars=" + characters + " detections=" + detections
+                + " sanitizeUs=" + sanitizeNanos / 1000 + " detectUs=" + detectionNanos / 1000
+                + " totalUs=" + getTotalNanos() / 1000;
+    }
+}
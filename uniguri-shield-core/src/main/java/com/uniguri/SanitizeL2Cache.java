@@ -0,0 +1,39 @@
+package com.uniguri;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * SPI for a second-level sanitize cache shared across nodes.
+ * <p>
+ * Entries are keyed by the {@link PolicyFingerprint policy fingerprint} and the SHA-256 hash of the
+ * input. The fingerprint follows policy changes that alter the output for its probe document; for other
+ * changes the policy version must be bumped, otherwise entries of the old policy are returned. Lookups must not
+ * block the caller: {@link #get} returns a future that XSS Shield waits on only for the configured
+ * lookup budget. {@link #put} is invoked asynchronously (write-behind) and may drop entries.
+ * <p>
+ * 노드 간에 공유되는 2차 sanitize 캐시 SPI입니다.
+ * 엔트리는 정책 지문과 입력값의 SHA-256 해시로 식별됩니다. 지문은 프로브 문서의 결과를 바꾸는 정책 변경만 반영하므로,
+ * 그 밖의 변경에는 정책 버전을 올려야 하며 그렇지 않으면 이전 정책의 값이 반환됩니다.
+ * {@link #get}은 호출 스레드를 막지 않아야 하며, XSS Shield는 설정된 조회 예산 시간만큼만 결과를 기다립니다.
+ * {@link #put}은 비동기(write-behind)로 호출되며 엔트리를 버릴 수 있습니다.
+ */
+public interface SanitizeL2Cache {
+
+    /**
+     * Looks up a sanitized value.
+     *
+     * @param policyFingerprint The fingerprint of the policy. / 정책 지문
+     * @param contentHash       Hex encoded SHA-256 hash of the input. / 입력값의 SHA-256 해시(16진수)
+     * @return A future completing with the cached value, or {@code null} on a miss. / 캐시 값 (미스 시 null)
+     */
+    CompletableFuture<String> get(String policyFingerprint, String contentHash);
+
+    /**
+     * Stores a sanitized value.
+     *
+     * @param policyFingerprint The fingerprint of the policy. / 정책 지문
+     * @param contentHash       Hex encoded SHA-256 hash of the input. / 입력값의 SHA-256 해시(16진수)
+     * @param sanitized         The sanitized value. / 살균된 값
+     */
+    void put(String policyFingerprint, String contentHash, String sanitized);
+}
@@ -0,0 +1,76 @@
+package com.uniguri;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Glue between the local sanitize caches and a {@link SanitizeL2Cache}: bounded lookups and write-behind.
+ * Lookups may wait for the whole lookup budget, so callers must not hold a cache lock while making them.
+ * <p>
+ * 로컬 sanitize 캐시와 {@link SanitizeL2Cache} 사이의 연결 계층입니다. 조회 시간 제한과 write-behind를 담당합니다.
+ * 조회는 예산 시간 전체를 기다릴 수 있으므로 캐시 락을 잡은 채로 호출하면 안 됩니다.
+ */
+final class SanitizeL2Tier implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(SanitizeL2Tier.class);
+
+    private final SanitizeL2Cache cache;
+    private final long lookupTimeoutNanos;
+    private final ThreadPoolExecutor writeBehind;
+
+    SanitizeL2Tier(SanitizeL2Cache cache, Duration lookupTimeout, int writeQueueCapacity) {
+        this.cache = cache;
+        this.lookupTimeoutNanos = lookupTimeout.toNanos();
+        this.writeBehind = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, writeQueueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "xss-shield-l2-writer");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    /**
+     * Returns the L2 value when it arrives within the lookup budget, otherwise {@code null}.
+     */
+    String lookup(String fingerprint, byte[] contentHash) {
+        try {
+            return cache.get(fingerprint, HexFormat.of().formatHex(contentHash)).get(lookupTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception e) {
+            // Timeout or failure: fall back to local sanitization.
+            return null;
+        }
+    }
+
+    /**
+     * Schedules a locally sanitized value to be written behind; dropped when the queue is full or the tier is closed.
+     */
+    void store(String fingerprint, byte[] contentHash, String sanitized) {
+        String hex = HexFormat.of().formatHex(contentHash);
+        writeBehind.execute(() -> {
+            try {
+                cache.put(fingerprint, hex, sanitized);
+            } catch (RuntimeException e) {
+                log.debug("L2 sanitize cache write failed.", e);
+            }
+        });
+    }
+
+    /**
+     * Stops the write-behind thread once the queued writes are done.
+     */
+    @Override
+    public void close() {
+        writeBehind.shutdown();
+    }
+}
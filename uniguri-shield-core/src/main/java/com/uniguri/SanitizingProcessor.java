@@ -0,0 +1,430 @@
+package com.uniguri;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * A {@link Flow.Processor} that sanitizes a stream of strings or records with backpressure.
+ * <p>
+ * At most {@code prefetch} items are requested from upstream ahead of downstream demand and more are requested
+ * only as results are delivered, so a slow subscriber stalls the publisher instead of growing a buffer. Items
+ * that arrive together are grouped into batches of up to {@code batchSize}; the batch function (for example
+ * {@link XssShield#sanitizeAll(List)}) can then look up the sanitize cache once per batch. Batches run on the
+ * signalling thread, or on an {@link Executor} with at most {@code maxConcurrency} batches in flight. Results
+ * keep the input order unless unordered delivery is chosen, in which case a finished batch does not wait for
+ * slower batches submitted before it. The processor serves a single subscriber.
+ * <pre>{@code
+ * SanitizingProcessor<String, String> processor = SanitizingProcessor.builder(shield::sanitizeAll)
+ *         .executor(workers, 4)
+ *         .build();
+ * publisher.subscribe(processor);
+ * processor.subscribe(sink);
+ * }</pre>
+ * <p>
+ * 문자열이나 레코드 스트림을 백프레셔를 지키며 살균하는 {@link Flow.Processor}입니다.
+ * 하위 요청보다 최대 {@code prefetch}개까지만 미리 요청하고 결과를 전달한 만큼만 추가로 요청하므로, 느린 구독자는
+ * 버퍼를 키우는 대신 발행자를 멈추게 합니다. 함께 도착한 항목은 최대 {@code batchSize}개씩 묶여 배치 함수
+ * (예: {@link XssShield#sanitizeAll(List)})에 전달되어 캐시 조회를 배치당 한 번으로 줄입니다. 배치는 신호를 보낸
+ * 스레드에서 실행되거나, {@link Executor}에서 최대 {@code maxConcurrency}개까지 동시에 실행됩니다. 결과는 기본적으로
+ * 입력 순서를 유지하며, 순서를 유지하지 않도록 설정하면 먼저 끝난 배치를 바로 전달합니다. 구독자는 하나만 허용합니다.
+ *
+ * @param <T> Input item type. / 입력 항목 타입
+ * @param <R> Output item type. / 출력 항목 타입
+ */
+public final class SanitizingProcessor<T, R> implements Flow.Processor<T, R> {
+
+    /** Placeholder subscription: marks a cancelled upstream and is handed to rejected subscribers. */
+    private static final Flow.Subscription CANCELLED = new Flow.Subscription() {
+        @Override
+        public void request(long n) {
+        }
+
+        @Override
+        public void cancel() {
+        }
+    };
+
+    private final Function<? super List<T>, ? extends List<? extends R>> batchMapper;
+    private final int batchSize;
+    private final int prefetch;
+    private final int replenish;
+    private final boolean ordered;
+    private final Executor executor;
+    private final int maxConcurrency;
+
+    private final ConcurrentLinkedQueue<T> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger wip = new AtomicInteger();
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicReference<Flow.Subscription> upstream = new AtomicReference<>();
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+    private volatile Flow.Subscriber<? super R> downstream;
+    private volatile boolean done;
+    private volatile Throwable error;
+    private volatile Throwable badRequest;
+    private volatile boolean cancelled;
+
+    // Only touched inside the drain loop.
+    private final ArrayDeque<Batch<T, R>> inFlight = new ArrayDeque<>();
+    private boolean started;
+    private int consumed;
+
+    private SanitizingProcessor(Builder<T, R> builder) {
+        this.batchMapper = builder.batchMapper;
+        this.batchSize = builder.batchSize;
+        this.prefetch = builder.prefetch;
+        this.replenish = Math.max(1, prefetch - (prefetch >> 2));
+        this.ordered = builder.ordered;
+        this.executor = builder.executor;
+        this.maxConcurrency = builder.executor != null ? builder.maxConcurrency : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Returns a builder for a processor that maps whole batches, e.g. {@code shield::sanitizeAll}.
+     * The function must return one result per input, in input order.
+     * <p>
+     * 배치 단위로 변환하는 프로세서의 빌더를 반환합니다(예: {@code shield::sanitizeAll}).
+     * 함수는 입력마다 하나의 결과를 입력 순서대로 반환해야 합니다.
+     */
+    public static <T, R> Builder<T, R> builder(Function<? super List<T>, ? extends List<? extends R>> batchMapper) {
+        return new Builder<>(Objects.requireNonNull(batchMapper, "batchMapper"));
+    }
+
+    /**
+     * Returns a builder for a processor that maps item by item, e.g. a record copy with sanitized fields.
+     * <p>
+     * 항목 단위로 변환하는 프로세서의 빌더를 반환합니다(예: 필드를 살균한 레코드 복사본).
+     */
+    public static <T, R> Builder<T, R> mapping(Function<? super T, ? extends R> mapper) {
+        Objects.requireNonNull(mapper, "mapper");
+        return new Builder<>(items -> {
+            List<R> results = new ArrayList<>(items.size());
+            for (T item : items) {
+                results.add(mapper.apply(item));
+            }
+            return results;
+        });
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        Objects.requireNonNull(subscription, "subscription");
+        if (!upstream.compareAndSet(null, subscription)) {
+            subscription.cancel();
+            return;
+        }
+        drain();
+    }
+
+    @Override
+    public void onNext(T item) {
+        Objects.requireNonNull(item, "item");
+        if (done || cancelled) {
+            return;
+        }
+        queue.offer(item);
+        drain();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        Objects.requireNonNull(throwable, "throwable");
+        if (done) {
+            return;
+        }
+        error = throwable;
+        done = true;
+        drain();
+    }
+
+    @Override
+    public void onComplete() {
+        done = true;
+        drain();
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super R> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(CANCELLED);
+            subscriber.onError(new IllegalStateException("SanitizingProcessor allows only one subscriber"));
+            return;
+        }
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                if (n <= 0) {
+                    badRequest = new IllegalArgumentException("request must be positive (§3.9): " + n);
+                } else {
+                    requested.getAndAccumulate(n, (current, add) -> current + add < 0 ? Long.MAX_VALUE : current + add);
+                }
+                drain();
+            }
+
+            @Override
+            public void cancel() {
+                cancelled = true;
+                drain();
+            }
+        });
+        // Published only after onSubscribe returns so that no signal overtakes it.
+        downstream = subscriber;
+        drain();
+    }
+
+    /**
+     * Serializes all work (batching, delivery, requests and termination) on whichever thread gets here first.
+     */
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        while (true) {
+            if (cancelled) {
+                cancelUpstream();
+                queue.clear();
+                inFlight.clear();
+            } else {
+                Flow.Subscriber<? super R> subscriber = downstream;
+                Flow.Subscription subscription = upstream.get();
+                if (subscriber != null && subscription != null) {
+                    if (!started) {
+                        started = true;
+                        subscription.request(prefetch);
+                    }
+                    dispatch();
+                    deliver(subscriber, subscription);
+                }
+            }
+            missed = wip.addAndGet(-missed);
+            if (missed == 0) {
+                return;
+            }
+        }
+    }
+
+    private void dispatch() {
+        while (inFlight.size() < maxConcurrency && !queue.isEmpty()) {
+            List<T> items = new ArrayList<>(Math.min(batchSize, 16));
+            T item;
+            while (items.size() < batchSize && (item = queue.poll()) != null) {
+                items.add(item);
+            }
+            Batch<T, R> batch = new Batch<>(items);
+            inFlight.add(batch);
+            if (executor == null) {
+                batch.run(batchMapper);
+            } else {
+                try {
+                    executor.execute(() -> {
+                        batch.run(batchMapper);
+                        drain();
+                    });
+                } catch (RejectedExecutionException e) {
+                    batch.fail(e);
+                }
+            }
+        }
+    }
+
+    private void deliver(Flow.Subscriber<? super R> subscriber, Flow.Subscription subscription) {
+        long demand = requested.get();
+        long emitted = 0;
+        while (!cancelled) {
+            Throwable invalid = badRequest;
+            if (invalid != null) {
+                terminate(subscriber, invalid);
+                return;
+            }
+            Batch<T, R> batch = ordered ? inFlight.peekFirst() : firstCompleted();
+            boolean ready = batch != null && batch.completed;
+            if (ready && batch.error != null) {
+                terminate(subscriber, batch.error);
+                return;
+            }
+            if (!ready) {
+                if (done && inFlight.isEmpty() && queue.isEmpty()) {
+                    terminate(subscriber, error);
+                    return;
+                }
+                break;
+            }
+            if (emitted == demand) {
+                break;
+            }
+            subscriber.onNext(batch.next());
+            emitted++;
+            if (batch.exhausted()) {
+                inFlight.remove(batch);
+                dispatch();
+            }
+            if (++consumed == replenish) {
+                consumed = 0;
+                subscription.request(replenish);
+            }
+        }
+        if (emitted != 0 && demand != Long.MAX_VALUE) {
+            requested.addAndGet(-emitted);
+        }
+    }
+
+    private Batch<T, R> firstCompleted() {
+        for (Iterator<Batch<T, R>> it = inFlight.iterator(); it.hasNext(); ) {
+            Batch<T, R> batch = it.next();
+            if (batch.completed) {
+                return batch;
+            }
+        }
+        return null;
+    }
+
+    private void terminate(Flow.Subscriber<? super R> subscriber, Throwable failure) {
+        cancelled = true;
+        cancelUpstream();
+        queue.clear();
+        inFlight.clear();
+        if (failure != null) {
+            subscriber.onError(failure);
+        } else {
+            subscriber.onComplete();
+        }
+    }
+
+    private void cancelUpstream() {
+        Flow.Subscription subscription = upstream.getAndSet(CANCELLED);
+        if (subscription != null && subscription != CANCELLED) {
+            subscription.cancel();
+        }
+    }
+
+    /** A group of items sanitized together; results are published by the volatile {@code completed} flag. */
+    private static final class Batch<T, R> {
+
+        private final List<T> items;
+        private List<? extends R> results;
+        private Throwable error;
+        private volatile boolean completed;
+        private int next;
+
+        Batch(List<T> items) {
+            this.items = items;
+        }
+
+        void run(Function<? super List<T>, ? extends List<? extends R>> batchMapper) {
+            try {
+                List<? extends R> mapped = batchMapper.apply(items);
+                if (mapped == null || mapped.size() != items.size()) {
+                    throw new IllegalStateException("batch function must return one result per item");
+                }
+                for (R result : mapped) {
+                    if (result == null) {
+                        throw new NullPointerException("batch function returned a null result");
+                    }
+                }
+                results = mapped;
+            } catch (Throwable t) {
+                error = t;
+            }
+            completed = true;
+        }
+
+        void fail(Throwable t) {
+            error = t;
+            completed = true;
+        }
+
+        R next() {
+            return results.get(next++);
+        }
+
+        boolean exhausted() {
+            return next == items.size();
+        }
+    }
+
+    /**
+     * Builder for {@link SanitizingProcessor}.
+     * <p>
+     * {@link SanitizingProcessor} 빌더입니다.
+     */
+    public static final class Builder<T, R> {
+
+        private final Function<? super List<T>, ? extends List<? extends R>> batchMapper;
+        private int batchSize = 32;
+        private int prefetch = 256;
+        private boolean ordered = true;
+        private Executor executor;
+        private int maxConcurrency;
+
+        private Builder(Function<? super List<T>, ? extends List<? extends R>> batchMapper) {
+            this.batchMapper = batchMapper;
+        }
+
+        /**
+         * Sets the maximum number of items per batch (default 32).
+         * <p>
+         * 배치당 최대 항목 수를 설정합니다. (기본값: 32)
+         */
+        public Builder<T, R> batchSize(int batchSize) {
+            if (batchSize < 1) {
+                throw new IllegalArgumentException("batchSize must be >= 1");
+            }
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * Sets how many items are requested from upstream ahead of delivery (default 256).
+         * <p>
+         * 전달에 앞서 상위에 미리 요청할 항목 수를 설정합니다. (기본값: 256)
+         */
+        public Builder<T, R> prefetch(int prefetch) {
+            if (prefetch < 1) {
+                throw new IllegalArgumentException("prefetch must be >= 1");
+            }
+            this.prefetch = prefetch;
+            return this;
+        }
+
+        /**
+         * Whether results keep the input order (default {@code true}); only matters with an executor.
+         * <p>
+         * 결과가 입력 순서를 유지할지 설정합니다. (기본값: true) Executor를 사용할 때만 의미가 있습니다.
+         */
+        public Builder<T, R> ordered(boolean ordered) {
+            this.ordered = ordered;
+            return this;
+        }
+
+        /**
+         * Runs batches on {@code executor} with at most {@code maxConcurrency} batches in flight.
+         * <p>
+         * 배치를 {@code executor}에서 실행하며, 동시에 실행되는 배치는 최대 {@code maxConcurrency}개입니다.
+         */
+        public Builder<T, R> executor(Executor executor, int maxConcurrency) {
+            if (executor == null || maxConcurrency < 1) {
+                throw new IllegalArgumentException("executor must be set and maxConcurrency must be >= 1");
+            }
+            this.executor = executor;
+            this.maxConcurrency = maxConcurrency;
+            return this;
+        }
+
+        public SanitizingProcessor<T, R> build() {
+            return new SanitizingProcessor<>(this);
+        }
+    }
+}
@@ -0,0 +1,382 @@
+package com.uniguri;
+
+import org.owasp.html.HtmlSanitizer;
+import org.owasp.html.HtmlStreamEventProcessor;
+import org.owasp.html.HtmlStreamEventReceiver;
+import org.owasp.html.HtmlStreamRenderer;
+import org.owasp.html.HtmlTextEscapingMode;
+import org.owasp.html.PolicyFactory;
+import org.owasp.html.TagBalancingHtmlStreamEventReceiver;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Sanitizes a {@link Reader} into an {@link Appendable} without materializing the document.
+ * <p>
+ * The input is read in chunks that are cut only where the HTML tokenizer is in text state: before a
+ * {@code <} or after whitespace, never inside a tag, attribute value, comment, declaration or the body
+ * of a raw-text element such as {@code <script>}. Every chunk is lexed by OWASP and fed to a single
+ * policy instance, so element balancing, the nesting limit and pre/post-processors see one continuous
+ * event stream and the output matches {@link PolicyFactory#sanitize(String)} on the whole document.
+ * Working memory is the chunk buffer plus the policy's element stack; only a single token longer than
+ * the chunk (e.g. a huge comment or inline script) makes the buffer grow.
+ * <p>
+ * {@link Reader}를 {@link Appendable}로 문서 전체를 메모리에 올리지 않고 살균합니다.
+ * 입력은 HTML 토크나이저가 텍스트 상태인 지점({@code <} 앞 또는 공백 뒤)에서만 청크로 나뉘며,
+ * 태그/속성 값/주석/선언/{@code <script>} 같은 raw-text 요소 본문 내부에서는 나누지 않습니다.
+ * 모든 청크는 하나의 정책 인스턴스로 전달되므로 요소 균형, 중첩 제한, 전/후처리기가 하나의 연속된 이벤트 스트림을 보며
+ * 결과는 문서 전체에 대한 {@link PolicyFactory#sanitize(String)}와 같습니다.
+ * 작업 메모리는 청크 버퍼와 정책의 요소 스택뿐이며, 청크보다 긴 단일 토큰(거대한 주석, 인라인 스크립트 등)이 있을 때만 버퍼가 커집니다.
+ */
+final class StreamingSanitizer {
+
+    static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+    /** Same limit {@link HtmlSanitizer} applies to a single string. */
+    private static final int NESTING_LIMIT = 256;
+
+    private static final Field PREPROCESSOR = preprocessorField();
+
+    private final int chunkSize;
+
+    StreamingSanitizer(int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    void sanitize(PolicyFactory factory, Reader input, Appendable output) throws IOException {
+        HtmlStreamEventProcessor preprocessor = preprocessor(factory);
+        if (preprocessor == null) {
+            // The preprocessor could not be read (e.g. reflection is unavailable): fall back to one pass.
+            output.append(factory.sanitize(readFully(input)));
+            return;
+        }
+        IOException[] failure = new IOException[1];
+        HtmlStreamRenderer renderer = HtmlStreamRenderer.create(output, e -> {
+            if (failure[0] == null) {
+                failure[0] = e;
+            }
+        }, badHtml -> {
+        });
+        // HtmlSanitizer balances tags per call; balance once for the whole stream instead, as it would for one string.
+        HtmlSanitizer.Policy policy = factory.apply(renderer);
+        TagBalancingHtmlStreamEventReceiver balancer = new TagBalancingHtmlStreamEventReceiver(policy);
+        balancer.setNestingLimit(NESTING_LIMIT);
+        HtmlStreamEventReceiver receiver = preprocessor.wrap(balancer);
+        HtmlStreamEventReceiver spanning = new DocumentSpanningReceiver(receiver);
+        // Route each chunk's lexer events past its per-call balancer into the shared receiver.
+        HtmlStreamEventProcessor toStream = perChunkBalancer -> spanning;
+
+        receiver.openDocument();
+        Scanner scanner = new Scanner();
+        char[] buffer = new char[chunkSize];
+        int length = 0;
+        int read;
+        while ((read = input.read(buffer, length, buffer.length - length)) != -1) {
+            length += read;
+            scanner.scan(buffer, length);
+            if (length < buffer.length) {
+                continue;
+            }
+            int cut = scanner.lastBoundary();
+            if (cut == 0) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                continue;
+            }
+            HtmlSanitizer.sanitize(new String(buffer, 0, cut), policy, toStream);
+            rethrow(failure);
+            System.arraycopy(buffer, cut, buffer, 0, length - cut);
+            length -= cut;
+            scanner.shift(cut);
+            if (buffer.length > chunkSize && length < chunkSize) {
+                buffer = Arrays.copyOf(buffer, chunkSize);
+            }
+        }
+        if (length > 0) {
+            HtmlSanitizer.sanitize(new String(buffer, 0, length), policy, toStream);
+        }
+        receiver.closeDocument();
+        rethrow(failure);
+    }
+
+    /**
+     * Sanitizes one string into an {@link Appendable}, like {@link PolicyFactory#sanitize(String)} but without
+     * the intermediate result string.
+     */
+    static void sanitize(PolicyFactory factory, String input, Appendable output) throws IOException {
+        HtmlStreamEventProcessor preprocessor = preprocessor(factory);
+        if (preprocessor == null) {
+            output.append(factory.sanitize(input));
+            return;
+        }
+        IOException[] failure = new IOException[1];
+        HtmlStreamRenderer renderer = HtmlStreamRenderer.create(output, e -> {
+            if (failure[0] == null) {
+                failure[0] = e;
+            }
+        }, badHtml -> {
+        });
+        HtmlSanitizer.sanitize(input, factory.apply(renderer), preprocessor);
+        rethrow(failure);
+    }
+
+    private static void rethrow(IOException[] failure) throws IOException {
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+    }
+
+    private static String readFully(Reader input) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        char[] buffer = new char[8192];
+        int read;
+        while ((read = input.read(buffer)) != -1) {
+            sb.append(buffer, 0, read);
+        }
+        return sb.toString();
+    }
+
+    private static HtmlStreamEventProcessor preprocessor(PolicyFactory factory) {
+        if (PREPROCESSOR == null) {
+            return null;
+        }
+        try {
+            return (HtmlStreamEventProcessor) PREPROCESSOR.get(factory);
+        } catch (IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static Field preprocessorField() {
+        try {
+            Field field = PolicyFactory.class.getDeclaredField("preprocessor");
+            field.setAccessible(true);
+            return field;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Forwards the events of every chunk to one receiver, hiding the per-chunk document boundaries.
+     */
+    private static final class DocumentSpanningReceiver implements HtmlStreamEventReceiver {
+        private final HtmlStreamEventReceiver delegate;
+
+        DocumentSpanningReceiver(HtmlStreamEventReceiver delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void openDocument() {
+        }
+
+        @Override
+        public void closeDocument() {
+        }
+
+        @Override
+        public void openTag(String elementName, List<String> attrs) {
+            delegate.openTag(elementName, attrs);
+        }
+
+        @Override
+        public void closeTag(String elementName) {
+            delegate.closeTag(elementName);
+        }
+
+        @Override
+        public void text(String text) {
+            delegate.text(text);
+        }
+    }
+
+    /**
+     * Incremental, approximate HTML tokenizer that only tracks where a chunk may be cut.
+     * A disagreement with OWASP's lexer can change how a construct spanning the cut is parsed, but the
+     * output is still produced by the policy and therefore still sanitized.
+     * <p>
+     * 청크를 자를 수 있는 위치만 추적하는 점진적 근사 토크나이저입니다. OWASP 렉서와 판단이 달라도
+     * 출력은 여전히 정책을 거치므로 살균된 상태입니다.
+     */
+    static final class Scanner {
+
+        private enum State { TEXT, TAG, QUOTED, COMMENT, DECLARATION, RAW_TEXT }
+
+        private State state = State.TEXT;
+        private int position;
+        private int lastBoundary;
+        private char quote;
+        private boolean afterEquals;
+        private String tagName;
+        private boolean endTag;
+        private String rawTextElement;
+        private final StringBuilder nameBuilder = new StringBuilder();
+
+        /**
+         * Advances over {@code buffer[position, length)}. Stops early where more look-ahead is needed.
+         */
+        void scan(char[] buffer, int length) {
+            int i = position;
+            while (i < length) {
+                char c = buffer[i];
+                switch (state) {
+                    case TEXT -> {
+                        if (c == '<') {
+                            lastBoundary = i;
+                            int next = i + 1;
+                            if (next + 2 >= length) {
+                                position = i;
+                                return;
+                            }
+                            char n = buffer[next];
+                            if (isAsciiLetter(n)) {
+                                startTag(false);
+                                i = next;
+                                continue;
+                            } else if (n == '/' && isAsciiLetter(buffer[next + 1])) {
+                                startTag(true);
+                                i = next + 1;
+                                continue;
+                            } else if (n == '!' && buffer[next + 1] == '-' && buffer[next + 2] == '-') {
+                                state = State.COMMENT;
+                                i = next + 3;
+                                continue;
+                            } else if (n == '!' || n == '?' || n == '/') {
+                                state = State.DECLARATION;
+                                i = next;
+                                continue;
+                            }
+                        } else if (isWhitespace(c)) {
+                            lastBoundary = i + 1;
+                        }
+                        i++;
+                    }
+                    case TAG -> {
+                        if (tagName == null) {
+                            if (isAsciiLetter(c) || isAsciiDigit(c) || c == '-' || c == ':' || c == '_') {
+                                nameBuilder.append(c);
+                                i++;
+                                continue;
+                            }
+                            tagName = nameBuilder.toString().toLowerCase(Locale.ROOT);
+                        }
+                        if (c == '>') {
+                            finishTag();
+                        } else if ((c == '"' || c == '\'') && afterEquals) {
+                            state = State.QUOTED;
+                            quote = c;
+                        } else if (c == '=') {
+                            afterEquals = true;
+                        } else if (!isWhitespace(c)) {
+                            afterEquals = false;
+                        }
+                        i++;
+                    }
+                    case QUOTED -> {
+                        if (c == quote) {
+                            state = State.TAG;
+                            afterEquals = false;
+                        }
+                        i++;
+                    }
+                    case COMMENT -> {
+                        if (c == '>' && i >= 2 && buffer[i - 1] == '-' && buffer[i - 2] == '-') {
+                            state = State.TEXT;
+                        }
+                        i++;
+                    }
+                    case DECLARATION -> {
+                        if (c == '>') {
+                            state = State.TEXT;
+                        }
+                        i++;
+                    }
+                    case RAW_TEXT -> {
+                        if (c == '<' && rawTextElement != null) {
+                            int nameEnd = i + 2 + rawTextElement.length();
+                            if (nameEnd >= length) {
+                                position = i;
+                                return;
+                            }
+                            if (closesRawText(buffer, i, nameEnd)) {
+                                startTag(true);
+                                i += 2;
+                                continue;
+                            }
+                        }
+                        i++;
+                    }
+                    default -> throw new IllegalStateException(state.name());
+                }
+            }
+            position = i;
+        }
+
+        private void startTag(boolean end) {
+            state = State.TAG;
+            endTag = end;
+            tagName = null;
+            afterEquals = false;
+            nameBuilder.setLength(0);
+        }
+
+        private void finishTag() {
+            if (!endTag && HtmlTextEscapingMode.isTagFollowedByLiteralContent(tagName)) {
+                state = State.RAW_TEXT;
+                // Everything after <plaintext> is text, so the input is never cut again.
+                rawTextElement = "plaintext".equals(tagName) ? null : tagName;
+            } else {
+                state = State.TEXT;
+                rawTextElement = null;
+            }
+        }
+
+        private boolean closesRawText(char[] buffer, int lt, int nameEnd) {
+            if (buffer[lt + 1] != '/') {
+                return false;
+            }
+            for (int k = 0; k < rawTextElement.length(); k++) {
+                if (Character.toLowerCase(buffer[lt + 2 + k]) != rawTextElement.charAt(k)) {
+                    return false;
+                }
+            }
+            char after = buffer[nameEnd];
+            return after == '>' || after == '/' || isWhitespace(after);
+        }
+
+        /**
+         * Returns the largest index at which the scanned input may be cut, or 0 if there is none.
+         */
+        int lastBoundary() {
+            return lastBoundary;
+        }
+
+        /**
+         * Rebases the scanner after the first {@code cut} characters were consumed.
+         */
+        void shift(int cut) {
+            position -= cut;
+            lastBoundary = 0;
+        }
+
+        private static boolean isAsciiLetter(char c) {
+            return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+        }
+
+        private static boolean isAsciiDigit(char c) {
+            return c >= '0' && c <= '9';
+        }
+
+        private static boolean isWhitespace(char c) {
+            return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f';
+        }
+    }
+}
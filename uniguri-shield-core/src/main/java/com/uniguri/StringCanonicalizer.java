@@ -0,0 +1,69 @@
+package com.uniguri;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A small, lossy, direct-mapped table that returns one shared {@link String} instance for repeated short
+ * character sequences (enum-like values such as {@code "ACTIVE"} or {@code "ko-KR"}). A lookup hashes the
+ * characters in place and only allocates on a miss; a colliding value simply replaces the slot, so memory stays
+ * bounded and no locking is needed.
+ * <p>
+ * 반복되는 짧은 문자열(예: {@code "ACTIVE"}, {@code "ko-KR"})에 대해 하나의 공유 {@link String} 인스턴스를 반환하는
+ * 작은 손실형 직접 매핑 테이블입니다. 문자 배열을 그대로 해싱하고 미스일 때만 할당하며, 충돌하면 슬롯을 덮어쓰므로
+ * 메모리가 제한되고 잠금이 필요 없습니다.
+ */
+public final class StringCanonicalizer {
+
+    private final AtomicReferenceArray<String> table;
+    private final int mask;
+    private final int maxLength;
+
+    /**
+     * @param capacity  Number of slots, rounded up to a power of two. / 슬롯 수 (2의 거듭제곱으로 올림)
+     * @param maxLength Longer values are never canonicalized. / 이보다 긴 값은 공유하지 않음
+     */
+    public StringCanonicalizer(int capacity, int maxLength) {
+        if (capacity < 1 || maxLength < 1) {
+            throw new IllegalArgumentException("capacity and maxLength must be >= 1");
+        }
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.table = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Returns a string equal to {@code chars[offset, offset + length)}, shared with earlier calls when possible.
+     * <p>
+     * {@code chars[offset, offset + length)}와 같은 문자열을 반환하며, 가능하면 이전 호출과 같은 인스턴스를 공유합니다.
+     */
+    public String canonicalize(char[] chars, int offset, int length) {
+        if (length > maxLength) {
+            return new String(chars, offset, length);
+        }
+        int hash = 0;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            hash = 31 * hash + chars[i];
+        }
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        String cached = table.getPlain(slot);
+        if (cached != null && matches(cached, chars, offset, length)) {
+            return cached;
+        }
+        String value = new String(chars, offset, length);
+        table.setPlain(slot, value);
+        return value;
+    }
+
+    private static boolean matches(String cached, char[] chars, int offset, int length) {
+        if (cached.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (cached.charAt(i) != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,145 @@
+package com.uniguri;
+
+import java.io.Reader;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * UTF-8 and {@link CharSequence} helpers for the byte and view based sanitize APIs.
+ * <p>
+ * All methods read the remaining bytes of a buffer with absolute gets, so heap and direct buffers are
+ * scanned in place and the input position is never moved.
+ * <p>
+ * 바이트/뷰 기반 살균 API를 위한 UTF-8 및 {@link CharSequence} 도우미입니다. 버퍼의 남은 바이트를 절대 위치로 읽으므로
+ * 힙/다이렉트 버퍼를 복사 없이 검사하며 입력 위치를 옮기지 않습니다.
+ */
+final class Utf8Text {
+
+    private Utf8Text() {
+    }
+
+    /**
+     * Returns whether the remaining bytes are well-formed UTF-8 of {@link MarkupPrefilter inert} text.
+     * Malformed, overlong and four-byte sequences are never inert.
+     */
+    static boolean isInert(ByteBuffer buffer) {
+        int i = buffer.position();
+        int end = buffer.limit();
+        while (i < end) {
+            int b = buffer.get(i) & 0xFF;
+            if (b < 0x80) {
+                if (!MarkupPrefilter.isInert((char) b)) {
+                    return false;
+                }
+                i++;
+                continue;
+            }
+            int c;
+            if (b >= 0xC2 && b <= 0xDF) {
+                if (end - i < 2 || !continuation(buffer.get(i + 1))) {
+                    return false;
+                }
+                c = (b & 0x1F) << 6 | buffer.get(i + 1) & 0x3F;
+                i += 2;
+            } else if (b >= 0xE0 && b <= 0xEF) {
+                if (end - i < 3 || !continuation(buffer.get(i + 1)) || !continuation(buffer.get(i + 2))) {
+                    return false;
+                }
+                c = (b & 0x0F) << 12 | (buffer.get(i + 1) & 0x3F) << 6 | buffer.get(i + 2) & 0x3F;
+                if (c < 0x800) {
+                    return false;
+                }
+                i += 3;
+            } else {
+                return false;
+            }
+            if (!MarkupPrefilter.isInert((char) c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean continuation(byte b) {
+        return (b & 0xC0) == 0x80;
+    }
+
+    /**
+     * Decodes the remaining bytes, replacing malformed input like {@code new String(bytes, UTF_8)}.
+     */
+    static String decode(ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining(), StandardCharsets.UTF_8);
+        }
+        return StandardCharsets.UTF_8.decode(buffer.duplicate()).toString();
+    }
+
+    /**
+     * Decodes the remaining bytes, or returns {@code null} when they are not well-formed UTF-8 (malformed,
+     * truncated, overlong or encoded surrogates), i.e. when decoding would not be lossless.
+     */
+    static String decodeExact(ByteBuffer buffer) {
+        try {
+            return StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .onUnmappableCharacter(CodingErrorAction.REPORT)
+                    .decode(buffer.duplicate())
+                    .toString();
+        } catch (CharacterCodingException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Encodes {@code text} into {@code output} at its position.
+     *
+     * @throws BufferOverflowException If {@code output} is too small; its position is left unchanged.
+     */
+    static void encode(CharSequence text, ByteBuffer output) {
+        int start = output.position();
+        CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        CoderResult result = encoder.encode(CharBuffer.wrap(text), output, true);
+        if (!result.isOverflow()) {
+            result = encoder.flush(output);
+        }
+        if (result.isOverflow()) {
+            output.position(start);
+            throw new BufferOverflowException();
+        }
+    }
+
+    /**
+     * Returns a reader over {@code text} that copies characters on demand instead of materializing a string.
+     */
+    static Reader reader(CharSequence text) {
+        return new Reader() {
+            private int position;
+
+            @Override
+            public int read(char[] buffer, int offset, int length) {
+                int remaining = text.length() - position;
+                if (remaining <= 0) {
+                    return -1;
+                }
+                int count = Math.min(length, remaining);
+                for (int i = 0; i < count; i++) {
+                    buffer[offset + i] = text.charAt(position + i);
+                }
+                position += count;
+                return count;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+}
@@ -0,0 +1,1252 @@
+package com.uniguri;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.uniguri.jfr.DetectionEvent;
+import org.owasp.html.HtmlPolicyBuilder;
+import org.owasp.html.PolicyFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Base64;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The Spring-free XSS Shield engine: sanitization policies with their caches, the streaming sanitizer,
+ * the escaper, the pattern detector and the safety verdict engine. Create it with {@link #builder()};
+ * in Spring Boot applications {@code XssUtils} wraps an instance configured from {@code xss.shield.*}.
+ * Instances are thread-safe. {@link #close()} stops the background writer of an attached second-level cache.
+ * <p>
+ * Spring에 의존하지 않는 XSS Shield 엔진입니다. 살균 정책과 캐시, 스트리밍 살균기, 이스케이퍼, 패턴 탐지기,
+ * 안전성 판정 엔진을 포함합니다. {@link #builder()}로 생성하며, Spring Boot에서는 {@code XssUtils}가
+ * {@code xss.shield.*} 설정으로 만든 인스턴스를 감쌉니다. 스레드 안전합니다. {@link #close()}는 연결된 2차 캐시의
+ * 백그라운드 기록 스레드를 종료합니다.
+ */
+public final class XssShield implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(XssShield.class);
+
+    private static final Pattern[] XSS_PATTERNS = {
+        // Script-related tags
+        Pattern.compile("<script>(.*?)</script>", Pattern.CASE_INSENSITIVE),
+        // src='...' attributes
+        Pattern.compile("src[\r\n]*=[\r\n]*\\\'(.*?)\\\'", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL),
+        Pattern.compile("src[\r\n]*=[\r\n]*\\\"(.*?)\\\"", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL),
+        // lonely script tags
+        Pattern.compile("</script>", Pattern.CASE_INSENSITIVE),
+        Pattern.compile("<script(.*?)>", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL),
+        // eval(...) expressions
+        Pattern.compile("eval\\((.*?)\\)", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL),
+        // expression(...) expressions
+        Pattern.compile("expression\\((.*?)\\)", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL),
+        // javascript:... expressions
+        Pattern.compile("javascript:", Pattern.CASE_INSENSITIVE),
+        // vbscript:... expressions
+        Pattern.compile("vbscript:", Pattern.CASE_INSENSITIVE),
+        // onload= expressions
+        Pattern.compile("onload(.*?)=", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL),
+        // Other event handlers
+        Pattern.compile("(on[a-z]+)=[^>]+", Pattern.CASE_INSENSITIVE),
+        // URL encoded characters
+        Pattern.compile("%(25)*3Cscript", Pattern.CASE_INSENSITIVE), // <script
+        Pattern.compile("%(25)*3E", Pattern.CASE_INSENSITIVE), // >
+    };
+
+    private final PolicyChannel htmlChannel;
+    private final PolicyChannel strictChannel;
+    private final PolicyChannel formInputChannel;
+    private final StreamingSanitizer streamingSanitizer = new StreamingSanitizer(StreamingSanitizer.DEFAULT_CHUNK_SIZE);
+
+    private final DetectionSampler detectionSampler;
+    private final AttackTracker attackTracker;
+    private final DetectionVerdictCache detectionCache;
+    private final IncrementalSanitizer documentSanitizer;
+    private final SafetyVerdictEngine verdictEngine;
+    private volatile OverloadController overloadController;
+    private SanitizeL2Tier l2Tier;
+    private final boolean sanitizeCacheEnabled;
+    private final Level logLevel;
+    private final Supplier<? extends ClientInfo> clientInfo;
+
+    private XssShield(Builder builder) {
+        this.sanitizeCacheEnabled = builder.sanitizeCacheMaxEntries > 0;
+        int maxEntries = builder.sanitizeCacheMaxEntries;
+        this.htmlChannel = newChannel("html", builder.htmlPolicy, builder, false);
+        this.strictChannel = newChannel("strict", builder.strictPolicy, builder, true);
+        this.formInputChannel = newChannel("formInput", builder.formInputPolicy, builder, true);
+        this.logLevel = builder.detectionLogLevel;
+        this.clientInfo = builder.clientInfo;
+        this.detectionSampler = builder.sampleRate >= 0
+                ? new DetectionSampler(builder.sampleRate, builder.samplePerRequest, builder.flaggedClientTtl, builder.flaggedClientMaxEntries)
+                : null;
+        this.attackTracker = builder.attackTracker;
+        this.detectionCache = builder.detectionCacheCapacity > 0
+                ? new DetectionVerdictCache(builder.detectionCacheCapacity, builder.detectionCacheMaxLength)
+                : null;
+        this.documentSanitizer = builder.documentCacheMaxCharacters > 0
+                ? new IncrementalSanitizer(builder.htmlPolicy, builder.documentCacheMaxCharacters)
+                : null;
+        this.verdictEngine = new SafetyVerdictEngine(builder.htmlPolicy, input -> scanXssPatterns(input, true),
+                sanitizeCacheEnabled ? Caffeine.newBuilder().maximumSize(maxEntries).<String, SafetyVerdict>build() : null);
+        if (builder.overloadController != null) {
+            setOverloadController(builder.overloadController);
+        }
+        if (builder.localCacheSlots > 0) {
+            for (PolicyChannel channel : channels()) {
+                channel.setLocalCache(new LocalSanitizeCache(builder.localCacheSlots, builder.localCacheMaxLength));
+            }
+        }
+        if (builder.l2Cache != null) {
+            setSecondLevelCache(builder.l2Cache, builder.l2LookupTimeout, builder.l2WriteQueueCapacity);
+        }
+    }
+
+    /**
+     * Returns a new builder.
+     * <p>
+     * 새 빌더를 반환합니다.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private PolicyChannel newChannel(String name, PolicyFactory policy, Builder builder, boolean degradable) {
+        if (!sanitizeCacheEnabled) {
+            return new PolicyChannel(name, policy, null, null, builder.policyVersion, degradable);
+        }
+        Caffeine<Object, Object> caffeine = Caffeine.newBuilder().maximumSize(builder.sanitizeCacheMaxEntries).recordStats();
+        if (builder.cacheLoading == CacheLoading.ASYNC) {
+            // Caller-runs executor: bulk loads and maintenance stay on the calling thread, never on the common pool.
+            AsyncCache<String, String> async = caffeine.executor(Runnable::run).buildAsync();
+            return new PolicyChannel(name, policy, async.synchronous(), async, builder.policyVersion, degradable);
+        }
+        return new PolicyChannel(name, policy, caffeine.build(), null, builder.policyVersion, degradable);
+    }
+
+    /**
+     * Attaches the adaptive overload controller. While it reports overload, the strict and form-input
+     * policies fall back to HTML escaping (cache hits are still served); the HTML policy is unaffected.
+     * <p>
+     * 적응형 과부하 컨트롤러를 연결합니다. 과부하 상태에서는 엄격/폼 입력 정책이 HTML 이스케이프로 대체되며
+     * (캐시 적중은 그대로 사용), HTML 정책은 영향을 받지 않습니다.
+     *
+     * @param overloadController The controller, or {@code null} to detach. / 컨트롤러 (해제 시 null)
+     */
+    public void setOverloadController(OverloadController overloadController) {
+        this.overloadController = overloadController;
+        for (PolicyChannel channel : channels()) {
+            channel.setOverloadController(overloadController);
+        }
+    }
+
+    /**
+     * Returns the attached overload controller, or {@code null}.
+     * <p>
+     * 연결된 과부하 컨트롤러를 반환합니다. 없으면 {@code null}입니다.
+     */
+    public OverloadController getOverloadController() {
+        return overloadController;
+    }
+
+    /**
+     * Returns the per-client attack tracker fed by detections, or {@code null}.
+     * <p>
+     * 탐지 결과로 집계되는 클라이언트별 공격 추적기를 반환합니다. 없으면 {@code null}입니다.
+     */
+    public AttackTracker getAttackTracker() {
+        return attackTracker;
+    }
+
+    /**
+     * Returns the {@code containsXssPattern} result cache, or {@code null} when it is disabled.
+     * <p>
+     * {@code containsXssPattern} 결과 캐시를 반환합니다. 비활성화 시 {@code null}입니다.
+     */
+    public DetectionVerdictCache getDetectionCache() {
+        return detectionCache;
+    }
+
+    /**
+     * Returns the block-incremental document sanitizer, or {@code null} when it is disabled.
+     * <p>
+     * 블록 단위 증분 문서 살균기를 반환합니다. 비활성화 시 {@code null}입니다.
+     */
+    public IncrementalSanitizer getDocumentSanitizer() {
+        return documentSanitizer;
+    }
+
+    /**
+     * Places a shared second-level cache behind the local sanitize caches.
+     * Requires the local sanitize caches; ignored otherwise. The write-behind thread of a previously attached cache
+     * is stopped. The {@link SanitizeL2Cache} itself is not closed.
+     * <p>
+     * 로컬 sanitize 캐시 뒤에 공유 2차 캐시를 연결합니다. 로컬 sanitize 캐시가 필요하며, 비활성화 상태에서는 무시됩니다.
+     * 이전에 연결된 캐시의 write-behind 스레드는 종료되며, {@link SanitizeL2Cache} 자체는 닫지 않습니다.
+     *
+     * @param l2Cache            The second-level cache, or {@code null} to detach. / 2차 캐시 (해제 시 null)
+     * @param lookupTimeout      How long a lookup may take before sanitizing locally. / 로컬 살균으로 대체하기 전 조회 대기 시간
+     * @param writeQueueCapacity Bound of the write-behind queue. / write-behind 큐 크기
+     * @return true if the cache was attached or detached. / 연결 또는 해제되었으면 true
+     */
+    public synchronized boolean setSecondLevelCache(SanitizeL2Cache l2Cache, Duration lookupTimeout, int writeQueueCapacity) {
+        if (!sanitizeCacheEnabled) {
+            return false;
+        }
+        SanitizeL2Tier tier = null;
+        if (l2Cache != null) {
+            tier = new SanitizeL2Tier(l2Cache, lookupTimeout, writeQueueCapacity);
+        }
+        for (PolicyChannel channel : channels()) {
+            channel.setL2Tier(tier);
+        }
+        SanitizeL2Tier previous = l2Tier;
+        l2Tier = tier;
+        if (previous != null) {
+            previous.close();
+        }
+        return true;
+    }
+
+    /**
+     * Detaches the second-level cache and stops its write-behind thread once queued writes are done. The shield keeps
+     * working with its local caches.
+     * <p>
+     * 2차 캐시를 해제하고 대기 중인 기록이 끝나면 write-behind 스레드를 종료합니다. 이후에도 로컬 캐시로 계속 동작합니다.
+     */
+    @Override
+    public void close() {
+        setSecondLevelCache(null, null, 0);
+    }
+
+    /**
+     * Maps a cache snapshot written by {@link #writeSnapshot} and serves local cache misses from it.
+     * Sections whose policy fingerprint no longer matches are discarded.
+     * <p>
+     * {@link #writeSnapshot}으로 기록된 캐시 스냅샷을 매핑하여 로컬 캐시 미스 시 사용합니다.
+     * 정책 지문이 일치하지 않는 섹션은 폐기됩니다.
+     *
+     * @param file The snapshot file. / 스냅샷 파일
+     * @return true if at least one policy section was attached. / 하나 이상의 섹션이 연결되면 true
+     */
+    public boolean loadSnapshot(Path file) {
+        if (!sanitizeCacheEnabled || file == null || !Files.isRegularFile(file)) {
+            return false;
+        }
+        SanitizeCacheSnapshot snapshot;
+        try {
+            snapshot = SanitizeCacheSnapshot.open(file);
+        } catch (IOException e) {
+            log.warn("Ignoring sanitize cache snapshot {}: {}", file, e.getMessage());
+            return false;
+        }
+        boolean attached = false;
+        for (PolicyChannel channel : channels()) {
+            if (channel.attachSnapshot(snapshot)) {
+                attached = true;
+            } else {
+                log.info("Sanitize cache snapshot section '{}' is missing or stale; discarded.", channel.name());
+            }
+        }
+        return attached;
+    }
+
+    /**
+     * Writes the hottest entries of every sanitize cache to a snapshot file. No-op when caching is disabled.
+     * <p>
+     * 각 sanitize 캐시에서 가장 자주 쓰이는 엔트리를 스냅샷 파일로 기록합니다. 캐시 비활성화 시 아무 동작도 하지 않습니다.
+     *
+     * @param file             The snapshot file. / 스냅샷 파일
+     * @param hottestPerPolicy Maximum entries per policy. / 정책별 최대 엔트리 수
+     */
+    public void writeSnapshot(Path file, int hottestPerPolicy) throws IOException {
+        if (!sanitizeCacheEnabled) {
+            return;
+        }
+        List<SanitizeCacheSnapshot.SectionData> sections = new ArrayList<>();
+        for (PolicyChannel channel : channels()) {
+            sections.add(channel.snapshotData(hottestPerPolicy));
+        }
+        SanitizeCacheSnapshot.write(file, sections);
+    }
+
+    /**
+     * Returns inspection handles for the local sanitize caches, one per policy; empty when caching is disabled.
+     * <p>
+     * 정책별 로컬 sanitize 캐시의 조회 핸들을 반환합니다. 캐시 비활성화 시 비어 있습니다.
+     */
+    public List<SanitizeCacheView> getSanitizeCacheViews() {
+        if (!sanitizeCacheEnabled) {
+            return List.of();
+        }
+        List<SanitizeCacheView> views = new ArrayList<>();
+        for (PolicyChannel channel : channels()) {
+            views.add(new SanitizeCacheView(channel.name(), channel.cache(), channel::invalidateAll));
+        }
+        return views;
+    }
+
+    private PolicyChannel[] channels() {
+        return new PolicyChannel[]{htmlChannel, strictChannel, formInputChannel};
+    }
+
+    /**
+     * Sanitizes a string using the default HTML policy.
+     *
+     * @param input The string to sanitize. / 살균할 문자열
+     * @return The sanitized string. / 살균된 문자열
+     */
+    public String sanitize(String input) {
+        if (input == null) {
+            return null;
+        }
+        return htmlChannel.sanitize(input);
+    }
+
+    /**
+     * Sanitizes a rich-text document with the default HTML policy. With {@link Builder#documentCache(long)} enabled,
+     * only the top-level blocks that changed since an earlier call are sanitized again; the result is always
+     * identical to {@link #sanitize(String)}. Intended for editors that re-submit a whole document on every save.
+     * <p>
+     * 기본 HTML 정책으로 리치 텍스트 문서를 살균합니다. {@link Builder#documentCache(long)}가 활성화되어 있으면 이전 호출 이후
+     * 바뀐 최상위 블록만 다시 살균하며, 결과는 항상 {@link #sanitize(String)}와 같습니다. 저장할 때마다 문서 전체를 다시 보내는
+     * 편집기용입니다.
+     *
+     * @param document The document to sanitize. / 살균할 문서
+     * @return The sanitized document. / 살균된 문서
+     */
+    public String sanitizeDocument(String document) {
+        if (documentSanitizer == null) {
+            return sanitize(document);
+        }
+        SanitizeCost cost = SanitizeCost.current();
+        if (cost == null || document == null) {
+            return documentSanitizer.sanitize(document);
+        }
+        int computed = cost.computed();
+        long start = System.nanoTime();
+        String result = documentSanitizer.sanitize(document);
+        cost.recordSanitize(1, document.length(), computed, System.nanoTime() - start);
+        return result;
+    }
+
+    /**
+     * Sanitizes a string using the strict policy, allowing no HTML tags.
+     *
+     * @param input The string to sanitize. / 살균할 문자열
+     * @return The sanitized string. / 살균된 문자열
+     */
+    public String strictSanitize(String input) {
+        if (input == null) {
+            return null;
+        }
+        return strictChannel.sanitize(input);
+    }
+
+    /**
+     * Sanitizes a string using the form input policy, allowing only basic formatting.
+     *
+     * @param input The string to sanitize. / 살균할 문자열
+     * @return The sanitized string. / 살균된 문자열
+     */
+    public String sanitizeFormInput(String input) {
+        if (input == null) {
+            return null;
+        }
+        return formInputChannel.sanitize(input);
+    }
+
+    /**
+     * Returns whether {@link MarkupPrefilter#isInert(CharSequence) inert} text comes out of the default HTML policy
+     * unchanged, so callers may skip {@link #sanitize(String)} for it. {@code false} for policies that rewrite text.
+     * <p>
+     * 무해한 텍스트가 기본 HTML 정책을 거쳐도 바뀌지 않아 {@link #sanitize(String)}를 생략해도 되는지 반환합니다. 텍스트를
+     * 변환하는 정책이면 {@code false}입니다.
+     */
+    public boolean passesInertText() {
+        return htmlChannel.passesInertText();
+    }
+
+    /**
+     * Same as {@link #passesInertText()} for the strict policy.
+     * <p>
+     * 엄격한 정책에 대한 {@link #passesInertText()}입니다.
+     */
+    public boolean strictPassesInertText() {
+        return strictChannel.passesInertText();
+    }
+
+    /**
+     * Sanitizes a batch of strings with the default HTML policy. Cache hits are looked up in one bulk call and
+     * misses are loaded together, which amortizes the cache overhead for streams of small values.
+     * <p>
+     * 기본 HTML 정책으로 문자열 묶음을 살균합니다. 캐시 조회를 한 번에 수행하고 미스를 함께 적재하므로
+     * 작은 값의 스트림에서 캐시 오버헤드를 줄입니다.
+     *
+     * @param inputs The strings to sanitize; {@code null} elements stay {@code null}. / 살균할 문자열 목록
+     * @return The sanitized strings, in input order. / 입력 순서대로 살균된 문자열
+     */
+    public List<String> sanitizeAll(List<String> inputs) {
+        return htmlChannel.sanitizeAll(inputs);
+    }
+
+    /**
+     * Sanitizes a batch of strings with the strict policy; see {@link #sanitizeAll(List)}.
+     * <p>
+     * 엄격한 정책으로 문자열 묶음을 살균합니다.
+     */
+    public List<String> strictSanitizeAll(List<String> inputs) {
+        return strictChannel.sanitizeAll(inputs);
+    }
+
+    /**
+     * Sanitizes a batch of strings with the form input policy; see {@link #sanitizeAll(List)}.
+     * <p>
+     * 폼 입력 정책으로 문자열 묶음을 살균합니다.
+     */
+    public List<String> sanitizeFormInputAll(List<String> inputs) {
+        return formInputChannel.sanitizeAll(inputs);
+    }
+
+    /**
+     * Streams a document through the default HTML policy, writing the sanitized output as it goes.
+     * Suited to large documents such as file uploads; the sanitize cache is not used.
+     * <p>
+     * 기본 HTML 정책으로 문서를 스트리밍 살균하여 결과를 바로 출력에 기록합니다.
+     * 파일 업로드처럼 큰 문서에 적합하며 sanitize 캐시는 사용하지 않습니다.
+     *
+     * @param input  The document to sanitize; not closed. / 살균할 문서 (닫지 않음)
+     * @param output Receives the sanitized document. / 살균된 문서를 받을 대상
+     * @throws IOException If reading or writing fails. / 읽기 또는 쓰기 실패 시
+     */
+    public void sanitize(Reader input, Appendable output) throws IOException {
+        streamingSanitizer.sanitize(htmlChannel.policy(), input, output);
+    }
+
+    /**
+     * Streams a document through the strict policy, writing the sanitized output as it goes.
+     * <p>
+     * 엄격한 정책으로 문서를 스트리밍 살균합니다.
+     *
+     * @param input  The document to sanitize; not closed. / 살균할 문서 (닫지 않음)
+     * @param output Receives the sanitized document. / 살균된 문서를 받을 대상
+     * @throws IOException If reading or writing fails. / 읽기 또는 쓰기 실패 시
+     */
+    public void strictSanitize(Reader input, Appendable output) throws IOException {
+        streamingSanitizer.sanitize(strictChannel.policy(), input, output);
+    }
+
+    /**
+     * Streams a document through the form input policy, writing the sanitized output as it goes.
+     * <p>
+     * 폼 입력 정책으로 문서를 스트리밍 살균합니다.
+     *
+     * @param input  The document to sanitize; not closed. / 살균할 문서 (닫지 않음)
+     * @param output Receives the sanitized document. / 살균된 문서를 받을 대상
+     * @throws IOException If reading or writing fails. / 읽기 또는 쓰기 실패 시
+     */
+    public void sanitizeFormInput(Reader input, Appendable output) throws IOException {
+        streamingSanitizer.sanitize(formInputChannel.policy(), input, output);
+    }
+
+    /**
+     * Sanitizes a character view (e.g. a {@code StringBuilder} or {@code CharBuffer}) with the default HTML policy,
+     * appending the result. Inert text is appended as is without copying; views longer than the streaming chunk
+     * are streamed instead of converted to a string, and anything else goes through the sanitize cache.
+     * <p>
+     * 문자 뷰({@code StringBuilder}, {@code CharBuffer} 등)를 기본 HTML 정책으로 살균하여 결과를 덧붙입니다.
+     * 무해한 텍스트는 복사 없이 그대로 덧붙이고, 스트리밍 청크보다 긴 뷰는 문자열로 변환하지 않고 스트리밍하며,
+     * 나머지는 sanitize 캐시를 거칩니다.
+     *
+     * @param input  The text to sanitize; {@code null} appends nothing. / 살균할 텍스트 ({@code null}이면 아무것도 덧붙이지 않음)
+     * @param output Receives the sanitized text. / 살균된 텍스트를 받을 대상
+     * @throws IOException If writing fails. / 쓰기 실패 시
+     */
+    public void sanitize(CharSequence input, Appendable output) throws IOException {
+        sanitize(htmlChannel, input, output);
+    }
+
+    /**
+     * Sanitizes a character view with the strict policy; see {@link #sanitize(CharSequence, Appendable)}.
+     * <p>
+     * 엄격한 정책으로 문자 뷰를 살균합니다.
+     */
+    public void strictSanitize(CharSequence input, Appendable output) throws IOException {
+        sanitize(strictChannel, input, output);
+    }
+
+    /**
+     * Sanitizes a character view with the form input policy; see {@link #sanitize(CharSequence, Appendable)}.
+     * <p>
+     * 폼 입력 정책으로 문자 뷰를 살균합니다.
+     */
+    public void sanitizeFormInput(CharSequence input, Appendable output) throws IOException {
+        sanitize(formInputChannel, input, output);
+    }
+
+    /**
+     * Sanitizes UTF-8 bytes with the default HTML policy. Returns the same array when the content is clean,
+     * so clean payloads are neither copied nor re-encoded. Malformed sequences are decoded as U+FFFD before sanitizing,
+     * so malformed input is always re-encoded and never returned as is.
+     * <p>
+     * UTF-8 바이트를 기본 HTML 정책으로 살균합니다. 내용이 깨끗하면 같은 배열을 반환하므로 복사나 재인코딩이 없습니다.
+     * 잘못된 시퀀스는 살균 전에 U+FFFD로 디코딩되므로 그대로 반환되지 않고 항상 다시 인코딩됩니다.
+     *
+     * @param input UTF-8 encoded text. / UTF-8로 인코딩된 텍스트
+     * @return {@code input} itself when clean, otherwise the sanitized UTF-8 bytes. / 깨끗하면 {@code input}, 아니면 살균된 UTF-8 바이트
+     */
+    public byte[] sanitizeUtf8(byte[] input) {
+        return sanitizeUtf8(htmlChannel, input);
+    }
+
+    /**
+     * Sanitizes UTF-8 bytes with the strict policy; see {@link #sanitizeUtf8(byte[])}.
+     * <p>
+     * 엄격한 정책으로 UTF-8 바이트를 살균합니다.
+     */
+    public byte[] strictSanitizeUtf8(byte[] input) {
+        return sanitizeUtf8(strictChannel, input);
+    }
+
+    /**
+     * Sanitizes UTF-8 bytes with the form input policy; see {@link #sanitizeUtf8(byte[])}.
+     * <p>
+     * 폼 입력 정책으로 UTF-8 바이트를 살균합니다.
+     */
+    public byte[] sanitizeFormInputUtf8(byte[] input) {
+        return sanitizeUtf8(formInputChannel, input);
+    }
+
+    /**
+     * Sanitizes the remaining UTF-8 bytes of a heap or direct buffer with the default HTML policy.
+     * When the content is clean, nothing is written and neither buffer is touched, so the caller can pass
+     * {@code input} on as is. Otherwise the sanitized UTF-8 is written to {@code output} and {@code input}
+     * is consumed.
+     * <p>
+     * 힙/다이렉트 버퍼의 남은 UTF-8 바이트를 기본 HTML 정책으로 살균합니다. 내용이 깨끗하면 아무것도 쓰지 않고 두 버퍼 모두
+     * 건드리지 않으므로 호출자는 {@code input}을 그대로 전달하면 됩니다. 그렇지 않으면 살균된 UTF-8을 {@code output}에 쓰고
+     * {@code input}을 소비합니다.
+     *
+     * @param input  UTF-8 encoded text between position and limit. / position부터 limit까지의 UTF-8 텍스트
+     * @param output Receives the sanitized UTF-8 at its position. / 살균된 UTF-8을 position부터 받을 버퍼
+     * @return {@code false} if the content was clean, {@code true} if sanitized bytes were written. / 깨끗하면 false, 살균 결과를 썼으면 true
+     * @throws java.nio.BufferOverflowException If {@code output} is too small; both buffers are left unchanged. / {@code output}이 부족한 경우 (두 버퍼 모두 변경되지 않음)
+     */
+    public boolean sanitizeUtf8(ByteBuffer input, ByteBuffer output) {
+        return sanitizeUtf8(htmlChannel, input, output);
+    }
+
+    /**
+     * Sanitizes UTF-8 buffer content with the strict policy; see {@link #sanitizeUtf8(ByteBuffer, ByteBuffer)}.
+     * <p>
+     * 엄격한 정책으로 UTF-8 버퍼 내용을 살균합니다.
+     */
+    public boolean strictSanitizeUtf8(ByteBuffer input, ByteBuffer output) {
+        return sanitizeUtf8(strictChannel, input, output);
+    }
+
+    /**
+     * Sanitizes UTF-8 buffer content with the form input policy; see {@link #sanitizeUtf8(ByteBuffer, ByteBuffer)}.
+     * <p>
+     * 폼 입력 정책으로 UTF-8 버퍼 내용을 살균합니다.
+     */
+    public boolean sanitizeFormInputUtf8(ByteBuffer input, ByteBuffer output) {
+        return sanitizeUtf8(formInputChannel, input, output);
+    }
+
+    private void sanitize(PolicyChannel channel, CharSequence input, Appendable output) throws IOException {
+        if (input == null) {
+            return;
+        }
+        if (input instanceof String value) {
+            output.append(channel.sanitize(value));
+        } else if (channel.passesInertText() && MarkupPrefilter.isInert(input)) {
+            output.append(input);
+        } else if (input.length() > StreamingSanitizer.DEFAULT_CHUNK_SIZE) {
+            streamingSanitizer.sanitize(channel.policy(), Utf8Text.reader(input), output);
+        } else {
+            output.append(channel.sanitize(input.toString()));
+        }
+    }
+
+    private static byte[] sanitizeUtf8(PolicyChannel channel, byte[] input) {
+        if (input == null) {
+            return null;
+        }
+        if (channel.passesInertText() && Utf8Text.isInert(ByteBuffer.wrap(input))) {
+            return input;
+        }
+        // Malformed input is decoded with U+FFFD replacement and always re-encoded, never passed on as is.
+        String exact = Utf8Text.decodeExact(ByteBuffer.wrap(input));
+        String decoded = exact != null ? exact : new String(input, StandardCharsets.UTF_8);
+        String sanitized = channel.sanitize(decoded);
+        return exact != null && sanitized.equals(decoded) ? input : sanitized.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static boolean sanitizeUtf8(PolicyChannel channel, ByteBuffer input, ByteBuffer output) {
+        if (channel.passesInertText() && Utf8Text.isInert(input)) {
+            return false;
+        }
+        String exact = Utf8Text.decodeExact(input);
+        String decoded = exact != null ? exact : Utf8Text.decode(input);
+        String sanitized = channel.sanitize(decoded);
+        if (exact != null && sanitized.equals(decoded)) {
+            return false;
+        }
+        Utf8Text.encode(sanitized, output);
+        input.position(input.limit());
+        return true;
+    }
+
+    /**
+     * Escapes HTML characters in a string, exactly like Spring's {@code HtmlUtils.htmlEscape(String)}.
+     * Returns the same instance when no character needs escaping.
+     * <p>
+     * 문자열의 HTML 문자를 Spring의 {@code HtmlUtils.htmlEscape(String)}와 동일하게 이스케이프합니다.
+     * 이스케이프할 문자가 없으면 같은 인스턴스를 반환합니다.
+     *
+     * @param input The string to escape. / 이스케이프할 문자열
+     * @return The escaped string. / 이스케이프된 문자열
+     */
+    public String escape(String input) {
+        if (input == null) {
+            return null;
+        }
+        return HtmlEscaper.escape(input);
+    }
+
+    /**
+     * Escapes HTML characters directly into a builder.
+     * <p>
+     * HTML 문자를 빌더에 직접 이스케이프하여 기록합니다.
+     *
+     * @param input The text to escape; {@code null} appends nothing. / 이스케이프할 텍스트 (null이면 기록하지 않음)
+     * @param out   The target buffer. / 대상 버퍼
+     * @return {@code out}
+     */
+    public StringBuilder escape(CharSequence input, StringBuilder out) {
+        return input != null ? HtmlEscaper.escape(input, out) : out;
+    }
+
+    /**
+     * Escapes HTML characters directly into an {@link Appendable} (e.g. a template engine's writer).
+     * <p>
+     * HTML 문자를 {@link Appendable}(예: 템플릿 엔진의 Writer)에 직접 이스케이프하여 기록합니다.
+     *
+     * @param input The text to escape; {@code null} appends nothing. / 이스케이프할 텍스트 (null이면 기록하지 않음)
+     * @param out   The target. / 대상
+     * @throws IOException If writing fails. / 쓰기 실패 시
+     */
+    public void escape(CharSequence input, Appendable out) throws IOException {
+        if (input != null) {
+            HtmlEscaper.escape(input, 0, input.length(), out);
+        }
+    }
+
+    /**
+     * Detects if a string contains common XSS patterns.
+     * With sampled detection only a sample of plain values is inspected;
+     * values containing markup are always inspected.
+     * <p>
+     * 문자열에 일반적인 XSS 패턴이 포함되어 있는지 탐지합니다.
+     * 샘플링 탐지 모드에서는 일반 값은 표본만 검사하고 마크업을 포함한 값은 항상 검사합니다.
+     *
+     * @param input The string to check. / 확인할 문자열
+     * @return true if an XSS pattern is found, false otherwise. / XSS 패턴이 발견되면 true, 그렇지 않으면 false
+     */
+    public boolean containsXssPattern(String input) {
+        return detect(input, true);
+    }
+
+    /**
+     * Detects XSS patterns like {@link #containsXssPattern(String)}, but never samples and never answers from the
+     * {@link DetectionVerdictCache}: every value that could hold a pattern is inspected. Use it where the result
+     * decides whether a value is passed on without sanitization.
+     * <p>
+     * {@link #containsXssPattern(String)}와 같이 XSS 패턴을 탐지하되 샘플링하지 않고 {@link DetectionVerdictCache}의 결과도
+     * 사용하지 않습니다. 패턴을 포함할 수 있는 모든 값을 검사하므로 결과에 따라 값을 살균 없이 전달하는 경우에 사용하세요.
+     *
+     * @param input The string to check. / 확인할 문자열
+     * @return true if an XSS pattern is found. / XSS 패턴이 발견되면 true
+     */
+    public boolean scanXssPattern(String input) {
+        return detect(input, false);
+    }
+
+    private boolean detect(String input, boolean sampled) {
+        SanitizeCost cost = SanitizeCost.current();
+        if (cost == null || input == null) {
+            return inspect(input, sampled);
+        }
+        long start = System.nanoTime();
+        boolean found = inspect(input, sampled);
+        cost.recordDetection(System.nanoTime() - start);
+        return found;
+    }
+
+    private boolean inspect(String input, boolean sampled) {
+        if (input == null) {
+            return false;
+        }
+        if (!sampled && DetectionSampler.classify(input) == DetectionSampler.Signal.INERT) {
+            return false;
+        }
+        if (detectionSampler == null && attackTracker == null && detectionCache == null) {
+            return checkXssPatterns(input, true);
+        }
+        ClientInfo info = clientInfo.get();
+        if (sampled && detectionSampler != null && !detectionSampler.shouldInspect(input, info)) {
+            return false;
+        }
+        boolean found;
+        // Unsampled scans decide pass-through, so they never trust a cached verdict.
+        int cached = sampled && detectionCache != null ? detectionCache.get(input) : DetectionVerdictCache.UNKNOWN;
+        if (cached != DetectionVerdictCache.UNKNOWN) {
+            // Cache hits are not logged again but still count towards sampling and attack tracking.
+            found = cached == DetectionVerdictCache.FOUND;
+        } else {
+            found = checkXssPatterns(input, true);
+            if (detectionCache != null) {
+                detectionCache.put(input, found);
+            }
+        }
+        if (found) {
+            onDetected(info);
+        }
+        return found;
+    }
+
+    private void onDetected(ClientInfo info) {
+        if (detectionSampler != null) {
+            detectionSampler.flag(info);
+        }
+        if (attackTracker != null && info != null) {
+            attackTracker.record(info.getClientIp());
+        }
+    }
+
+    private boolean checkXssPatterns(String value, boolean report) {
+        return scanXssPatterns(value, report) != null;
+    }
+
+    /**
+     * Runs the multi-layer detection and returns the first match as an {@link SafetyVerdict.Reason#XSS_PATTERN}
+     * verdict, or {@code null} when nothing matched.
+     */
+    private SafetyVerdict scanXssPatterns(String value, boolean report) {
+        SafetyVerdict found;
+        // 1. Plain text check
+        if ((found = findXssPattern(value, report, "PLAIN")) != null) {
+            return found;
+        }
+
+        // 2. HTML entity decoding
+        String decodedHtml = HtmlEscaper.unescape(value);
+        if (!decodedHtml.equals(value) && (found = findXssPattern(decodedHtml, report, "HTML_ENTITY")) != null) {
+            if (report) log.warn("XSS pattern found after HTML entity decoding.");
+            return found;
+        }
+        
+        // 3. URL decoding
+        try {
+            String decodedUrl = URLDecoder.decode(value, StandardCharsets.UTF_8);
+            if (!decodedUrl.equals(value) && (found = findXssPattern(decodedUrl, report, "URL")) != null) {
+                if (report) log.warn("XSS pattern found after URL decoding.");
+                return found;
+            }
+        } catch (IllegalArgumentException e) {
+            // Ignore malformed URL encoding
+        }
+
+        // 4. Base64 decoding
+        try {
+            if (value.matches("^(?:[A-Za-z0-9+/]{4})*(?:[A-Za-z0-9+/]{2}==|[A-Za-z0-9+/]{3}=)?$")) {
+                byte[] decodedBytes = Base64.getDecoder().decode(value);
+                String decodedBase64 = new String(decodedBytes, StandardCharsets.UTF_8);
+                if ((found = findXssPattern(decodedBase64, report, "BASE64")) != null) {
+                    if (report) log.warn("XSS pattern found after Base64 decoding.");
+                    return found;
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            // Not a valid Base64 string, ignore.
+        }
+
+        return null;
+    }
+
+    private SafetyVerdict findXssPattern(String input, boolean report, String decodeLayer) {
+        if (input == null) {
+            return null;
+        }
+
+        for (int i = 0; i < XSS_PATTERNS.length; i++) {
+            Pattern pattern = XSS_PATTERNS[i];
+            Matcher matcher = pattern.matcher(input);
+            if (matcher.find()) {
+                SafetyVerdict verdict = SafetyVerdict.unsafe(SafetyVerdict.Reason.XSS_PATTERN,
+                        "PLAIN".equals(decodeLayer) ? matcher.start() : -1,
+                        "pattern #" + i + " (" + pattern.pattern() + ") in " + decodeLayer + " layer");
+                if (!report) {
+                    return verdict;
+                }
+                DetectionEvent event = new DetectionEvent();
+                if (event.shouldCommit()) {
+                    event.patternId = i;
+                    event.pattern = pattern.pattern();
+                    event.decodeLayer = decodeLayer;
+                    event.inputLength = input.length();
+                    event.commit();
+                }
+                ClientInfo info = clientInfo.get();
+                String message = "XSS detected - URI: {}, IP: {}, User-Agent: {}, Pattern: {}, Matched: '{}'";
+                Object[] args;
+                if (info != null) {
+                    args = new Object[]{info.getUri(), info.getClientIp(), info.getUserAgent(), pattern.pattern(), matcher.group()};
+                } else {
+                    message = "XSS detected - Pattern: {}, Matched: '{}'";
+                    args = new Object[]{pattern.pattern(), matcher.group()};
+                }
+
+                log.atLevel(logLevel).log(message, args);
+                return verdict;
+            }
+        }
+        return null;
+    }
+
+
+    /**
+     * Checks if a string is safe from XSS attacks.
+     * A string is considered safe if it does not contain any XSS patterns
+     * and if its sanitized version is identical to the original.
+     *
+     * @param input The string to check. / 확인할 문자열
+     * @return true if the string is safe, false otherwise. / 문자열이 안전하면 true, 그렇지 않으면 false
+     * @see #checkSafety(String)
+     */
+    public boolean isSafeString(String input) {
+        return checkSafety(input).isSafe();
+    }
+
+    /**
+     * Returns a structured safety verdict for the input under the default HTML policy.
+     * The policy is applied once and aborted at the first character it would change, so no sanitized
+     * output is built; the XSS pattern detection (always in full, regardless of sampling) runs for every
+     * computed verdict so that attacks are logged, with a policy rewrite reported as the reason when both apply.
+     * Verdicts are cached alongside the sanitize cache, so a repeated unsafe input is reported (logged) only the first time.
+     * <p>
+     * 기본 HTML 정책 기준의 구조화된 안전성 판정을 반환합니다. 정책을 한 번 적용하되 입력이 변경되는 첫 문자에서 중단하므로
+     * 살균 결과를 만들지 않으며, 공격이 로그로 남도록 계산하는 모든 판정에 XSS 패턴 탐지(샘플링과 무관하게 전체)를 수행합니다.
+     * 둘 다 해당하면 정책 변경을 사유로 보고합니다.
+     * 판정은 sanitize 캐시와 함께 캐시되므로 반복되는 위험 입력은 처음 한 번만 로그로 보고됩니다.
+     *
+     * @param input The string to check. / 확인할 문자열
+     * @return {@code SAFE}, or {@code UNSAFE} with reason and offset. / {@code SAFE} 또는 사유와 위치를 포함한 {@code UNSAFE}
+     */
+    public SafetyVerdict checkSafety(String input) {
+        if (input == null) {
+            return SafetyVerdict.SAFE;
+        }
+        SanitizeCost cost = SanitizeCost.current();
+        long start = cost != null ? System.nanoTime() : 0;
+        SafetyVerdict verdict = verdictEngine.verdict(input, htmlChannel.cached(input));
+        if (cost != null) {
+            // A verdict sanitizes nothing; it is charged as the detection it runs.
+            cost.recordDetection(System.nanoTime() - start);
+        }
+        // Counted on every call, including cached verdicts, so repeated payloads keep adding up.
+        if (verdict.isAttack() && (detectionSampler != null || attackTracker != null)) {
+            onDetected(clientInfo.get());
+        }
+        return verdict;
+    }
+
+    /**
+     * Returns a safe string for output by first sanitizing and then escaping it.
+     * Both steps run in a single pass: the sanitizer renders straight into the escaper
+     * (a cached sanitize result is escaped instead when available).
+     * <p>
+     * 살균 후 이스케이프한 안전한 출력 문자열을 반환합니다. 살균기가 이스케이퍼로 직접 렌더링하므로 한 번의 패스로 처리됩니다
+     * (캐시된 살균 결과가 있으면 그것을 이스케이프합니다).
+     *
+     * @param input The string to process. / 처리할 문자열
+     * @return A sanitized and escaped string. / 살균 및 이스케이프된 문자열
+     */
+    public String toSafeOutput(String input) {
+        if (input == null) {
+            return "";
+        }
+        String cached = htmlChannel.cached(input);
+        if (cached != null) {
+            SanitizeCost cost = SanitizeCost.current();
+            if (cost == null) {
+                return HtmlEscaper.escape(cached);
+            }
+            long start = System.nanoTime();
+            String escaped = HtmlEscaper.escape(cached);
+            cost.recordSanitize(1, input.length(), cost.computed(), System.nanoTime() - start);
+            return escaped;
+        }
+        return toSafeOutput(input, new StringBuilder(input.length() + 16)).toString();
+    }
+
+    /**
+     * Sanitizes and escapes into a builder in a single pass.
+     * <p>
+     * 살균과 이스케이프를 한 번의 패스로 빌더에 기록합니다.
+     *
+     * @param input The string to process; {@code null} appends nothing. / 처리할 문자열 (null이면 기록하지 않음)
+     * @param out   The target buffer. / 대상 버퍼
+     * @return {@code out}
+     */
+    public StringBuilder toSafeOutput(String input, StringBuilder out) {
+        try {
+            toSafeOutput(input, (Appendable) out);
+        } catch (IOException e) {
+            // StringBuilder does not throw.
+            throw new UncheckedIOException(e);
+        }
+        return out;
+    }
+
+    /**
+     * Sanitizes and escapes into an {@link Appendable} in a single pass, without intermediate strings.
+     * <p>
+     * 중간 문자열 없이 살균과 이스케이프를 한 번의 패스로 {@link Appendable}에 기록합니다.
+     *
+     * @param input The string to process; {@code null} appends nothing. / 처리할 문자열 (null이면 기록하지 않음)
+     * @param out   The target. / 대상
+     * @throws IOException If writing fails. / 쓰기 실패 시
+     */
+    public void toSafeOutput(String input, Appendable out) throws IOException {
+        if (input == null) {
+            return;
+        }
+        SanitizeCost cost = SanitizeCost.current();
+        if (cost == null) {
+            writeSafeOutput(input, out);
+            return;
+        }
+        int computed = cost.computed();
+        long start = System.nanoTime();
+        writeSafeOutput(input, out);
+        cost.recordSanitize(1, input.length(), computed, System.nanoTime() - start);
+    }
+
+    private void writeSafeOutput(String input, Appendable out) throws IOException {
+        String cached = htmlChannel.cached(input);
+        if (cached != null) {
+            HtmlEscaper.escape(cached, 0, cached.length(), out);
+            return;
+        }
+        SanitizeCost cost = SanitizeCost.current();
+        if (cost != null) {
+            cost.recordComputed();
+        }
+        StreamingSanitizer.sanitize(htmlChannel.policy(), input, HtmlEscaper.escaping(out));
+    }
+
+    /**
+     * Runs a single warm-up pass for the given input: every policy is applied directly
+     * (bypassing the sanitize caches) and the detector runs without logging.
+     * Intended to let the JIT compile the hot paths before real traffic arrives.
+     * <p>
+     * 워밍업 1회를 수행합니다. 캐시를 거치지 않고 모든 정책을 직접 적용하며,
+     * 탐지 로직은 로그 없이 실행됩니다. 실제 트래픽 이전에 JIT 컴파일을 유도하기 위한 용도입니다.
+     *
+     * @param input The warm-up sample. / 워밍업 샘플
+     */
+    public void warmUp(String input) {
+        if (input == null) {
+            return;
+        }
+        for (PolicyChannel channel : channels()) {
+            channel.policy().sanitize(input);
+        }
+        checkXssPatterns(input, false);
+        HtmlEscaper.escape(input);
+    }
+
+    /**
+     * Removes the given inputs from every sanitize cache. No-op when caching is disabled.
+     * <p>
+     * 주어진 입력값들을 모든 sanitize 캐시에서 제거합니다. 캐시 비활성화 시 아무 동작도 하지 않습니다.
+     *
+     * @param inputs The cache keys to invalidate. / 무효화할 캐시 키
+     */
+    public void invalidate(Iterable<String> inputs) {
+        if (!sanitizeCacheEnabled || inputs == null) {
+            return;
+        }
+        for (PolicyChannel channel : channels()) {
+            channel.invalidateAll(inputs);
+        }
+        verdictEngine.cache().invalidateAll(inputs);
+    }
+
+    /**
+     * How sanitize cache misses are loaded.
+     * <p>
+     * sanitize 캐시 미스의 적재 방식입니다.
+     */
+    public enum CacheLoading {
+        /**
+         * Caffeine computes the value atomically inside the map, holding a hash-bin lock for the whole
+         * sanitization. A slow value blocks unrelated keys of the same bin and pins virtual threads.
+         * <p>
+         * Caffeine이 맵 내부에서 원자적으로 계산하며 살균하는 동안 해시 빈 잠금을 잡습니다. 느린 값은 같은 빈의 다른 키를
+         * 막고 가상 스레드를 고정(pin)시킵니다.
+         */
+        COMPUTE,
+        /**
+         * An in-flight future is published under the lock and the sanitizer runs on the calling thread after
+         * it is released; concurrent callers of the same input wait on the future instead of computing again.
+         * <p>
+         * 잠금 안에서는 진행 중 future만 등록하고, 살균은 잠금이 풀린 뒤 호출 스레드에서 실행합니다. 같은 입력의 동시 호출자는
+         * 다시 계산하지 않고 future를 기다립니다.
+         */
+        ASYNC
+    }
+
+    /**
+     * Builder for {@link XssShield}. Only the HTML policy is required; the strict and form-input policies
+     * default to a policy that allows no markup, caches and sampled detection are off by default.
+     * <p>
+     * {@link XssShield} 빌더입니다. HTML 정책만 필수이며, 엄격/폼 입력 정책은 기본적으로 마크업을 허용하지 않고
+     * 캐시와 샘플링 탐지는 기본적으로 비활성화되어 있습니다.
+     */
+    public static final class Builder {
+        private static final PolicyFactory NO_MARKUP = new HtmlPolicyBuilder().toFactory();
+
+        private PolicyFactory htmlPolicy;
+        private PolicyFactory strictPolicy = NO_MARKUP;
+        private PolicyFactory formInputPolicy = NO_MARKUP;
+        private int sanitizeCacheMaxEntries;
+        private CacheLoading cacheLoading = CacheLoading.COMPUTE;
+        private int localCacheSlots;
+        private int localCacheMaxLength;
+        private String policyVersion;
+        private double sampleRate = -1;
+        private boolean samplePerRequest;
+        private Duration flaggedClientTtl;
+        private int flaggedClientMaxEntries;
+        private Level detectionLogLevel = Level.WARN;
+        private Supplier<? extends ClientInfo> clientInfo = () -> null;
+        private OverloadController overloadController;
+        private AttackTracker attackTracker;
+        private int detectionCacheCapacity;
+        private int detectionCacheMaxLength;
+        private long documentCacheMaxCharacters;
+        private SanitizeL2Cache l2Cache;
+        private Duration l2LookupTimeout;
+        private int l2WriteQueueCapacity;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the default policy, used by {@code sanitize}, {@code toSafeOutput} and {@code checkSafety}.
+         * <p>
+         * 기본 정책을 설정합니다.
+         */
+        public Builder htmlPolicy(PolicyFactory htmlPolicy) {
+            this.htmlPolicy = htmlPolicy;
+            return this;
+        }
+
+        public Builder strictPolicy(PolicyFactory strictPolicy) {
+            this.strictPolicy = strictPolicy;
+            return this;
+        }
+
+        public Builder formInputPolicy(PolicyFactory formInputPolicy) {
+            this.formInputPolicy = formInputPolicy;
+            return this;
+        }
+
+        /**
+         * Enables the per-policy sanitize caches (and the verdict cache) with the given bound.
+         * <p>
+         * 주어진 크기로 정책별 sanitize 캐시(및 판정 캐시)를 활성화합니다.
+         */
+        public Builder sanitizeCache(int maxEntries) {
+            if (maxEntries < 1) {
+                throw new IllegalArgumentException("maxEntries must be >= 1");
+            }
+            this.sanitizeCacheMaxEntries = maxEntries;
+            return this;
+        }
+
+        /**
+         * Puts a per-thread, direct-mapped L0 cache in front of each sanitize cache (requires {@link #sanitizeCache(int)}).
+         * Virtual threads bypass it.
+         * <p>
+         * 각 sanitize 캐시 앞에 스레드별 직접 사상 L0 캐시를 둡니다({@link #sanitizeCache(int)} 필요). 가상 스레드는 사용하지 않습니다.
+         *
+         * @param slots     Entries per thread and policy, rounded up to a power of two. / 스레드·정책별 엔트리 수 (2의 거듭제곱으로 올림)
+         * @param maxLength Longest input and result kept, which bounds the memory per thread. / 저장할 입력·결과의 최대 길이 (스레드당 메모리 상한)
+         */
+        public Builder localCache(int slots, int maxLength) {
+            if (slots < 1 || maxLength < 1) {
+                throw new IllegalArgumentException("slots and maxLength must be >= 1");
+            }
+            this.localCacheSlots = slots;
+            this.localCacheMaxLength = maxLength;
+            return this;
+        }
+
+        /**
+         * Sets how sanitize cache misses are loaded (default {@link CacheLoading#COMPUTE}).
+         * <p>
+         * sanitize 캐시 미스의 적재 방식을 설정합니다. (기본값: {@link CacheLoading#COMPUTE})
+         */
+        public Builder cacheLoading(CacheLoading cacheLoading) {
+            if (cacheLoading == null) {
+                throw new IllegalArgumentException("cacheLoading must not be null");
+            }
+            this.cacheLoading = cacheLoading;
+            return this;
+        }
+
+        /**
+         * Sets a version string mixed into policy fingerprints of shared and persisted caches.
+         * <p>
+         * 공유/영속 캐시의 정책 지문에 섞이는 버전 문자열을 설정합니다.
+         */
+        public Builder policyVersion(String policyVersion) {
+            this.policyVersion = policyVersion;
+            return this;
+        }
+
+        /**
+         * Switches pattern detection to sampled mode.
+         * <p>
+         * 패턴 탐지를 샘플링 모드로 전환합니다.
+         *
+         * @param sampleRate              Fraction of plain values (or requests) inspected, 0.0 to 1.0. / 검사 비율
+         * @param perRequest              Decide once per {@link ClientInfo} instead of per value. / 요청 단위 결정 여부
+         * @param flaggedClientTtl        How long a client stays fully inspected after a detection. / 탐지 후 전수 검사 유지 시간
+         * @param flaggedClientMaxEntries Maximum number of flagged clients remembered. / 기억할 최대 클라이언트 수
+         */
+        public Builder sampledDetection(double sampleRate, boolean perRequest, Duration flaggedClientTtl, int flaggedClientMaxEntries) {
+            if (sampleRate < 0.0 || sampleRate > 1.0) {
+                throw new IllegalArgumentException("sampleRate must be between 0.0 and 1.0");
+            }
+            this.sampleRate = sampleRate;
+            this.samplePerRequest = perRequest;
+            this.flaggedClientTtl = flaggedClientTtl;
+            this.flaggedClientMaxEntries = flaggedClientMaxEntries;
+            return this;
+        }
+
+        /**
+         * Sets the level at which detected patterns are logged (default {@code WARN}).
+         * <p>
+         * 탐지된 패턴을 기록할 로그 레벨을 설정합니다. (기본값: WARN)
+         */
+        public Builder detectionLogLevel(Level detectionLogLevel) {
+            this.detectionLogLevel = detectionLogLevel;
+            return this;
+        }
+
+        /**
+         * Supplies the caller of the current unit of work for detection logs and sampling; may return {@code null}.
+         * <p>
+         * 탐지 로그와 샘플링에 사용할 현재 작업의 호출자 정보를 제공합니다. {@code null}을 반환할 수 있습니다.
+         */
+        public Builder clientInfo(Supplier<? extends ClientInfo> clientInfo) {
+            this.clientInfo = clientInfo;
+            return this;
+        }
+
+        public Builder overloadController(OverloadController overloadController) {
+            this.overloadController = overloadController;
+            return this;
+        }
+
+        /**
+         * Counts detections per {@link ClientInfo#getClientIp() client IP} in the given tracker.
+         * <p>
+         * 탐지 횟수를 {@link ClientInfo#getClientIp() 클라이언트 IP}별로 주어진 추적기에 집계합니다.
+         */
+        public Builder attackTracker(AttackTracker attackTracker) {
+            this.attackTracker = attackTracker;
+            return this;
+        }
+
+        /**
+         * Caches {@code containsXssPattern} results in a fixed-size primitive table.
+         * <p>
+         * {@code containsXssPattern} 결과를 고정 크기 원시 테이블에 캐시합니다.
+         *
+         * @param capacity  Number of slots, rounded up to a power of two. / 슬롯 수 (2의 거듭제곱으로 올림)
+         * @param maxLength Longest input that is cached. / 캐시할 최대 입력 길이
+         */
+        public Builder detectionCache(int capacity, int maxLength) {
+            if (capacity < 1 || maxLength < 0) {
+                throw new IllegalArgumentException("capacity must be >= 1 and maxLength >= 0");
+            }
+            this.detectionCacheCapacity = capacity;
+            this.detectionCacheMaxLength = maxLength;
+            return this;
+        }
+
+        /**
+         * Enables block-incremental {@link XssShield#sanitizeDocument(String)} with a block cache bounded by characters.
+         * <p>
+         * 문자 수로 제한되는 블록 캐시와 함께 블록 단위 증분 {@link XssShield#sanitizeDocument(String)}를 활성화합니다.
+         *
+         * @param maxCharacters Upper bound of cached block input plus output characters. / 캐시할 블록 입력+출력 문자 수 상한
+         */
+        public Builder documentCache(long maxCharacters) {
+            if (maxCharacters < 1) {
+                throw new IllegalArgumentException("maxCharacters must be >= 1");
+            }
+            this.documentCacheMaxCharacters = maxCharacters;
+            return this;
+        }
+
+        /**
+         * Places a shared second-level cache behind the local sanitize caches (requires {@link #sanitizeCache(int)}).
+         * <p>
+         * 로컬 sanitize 캐시 뒤에 공유 2차 캐시를 연결합니다({@link #sanitizeCache(int)} 필요).
+         */
+        public Builder secondLevelCache(SanitizeL2Cache l2Cache, Duration lookupTimeout, int writeQueueCapacity) {
+            this.l2Cache = l2Cache;
+            this.l2LookupTimeout = lookupTimeout;
+            this.l2WriteQueueCapacity = writeQueueCapacity;
+            return this;
+        }
+
+        public XssShield build() {
+            if (htmlPolicy == null || strictPolicy == null || formInputPolicy == null) {
+                throw new IllegalStateException("htmlPolicy must be set and policies must not be null");
+            }
+            if (clientInfo == null || detectionLogLevel == null) {
+                throw new IllegalStateException("clientInfo and detectionLogLevel must not be null");
+            }
+            if (l2Cache != null && sanitizeCacheMaxEntries == 0) {
+                throw new IllegalStateException("secondLevelCache requires sanitizeCache");
+            }
+            if (localCacheSlots > 0 && sanitizeCacheMaxEntries == 0) {
+                throw new IllegalStateException("localCache requires sanitizeCache");
+            }
+            return new XssShield(this);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.uniguri.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event emitted when the detector finds an XSS pattern.
+ * <p>
+ * 탐지 로직이 XSS 패턴을 발견했을 때 기록되는 JFR 이벤트입니다.
+ */
+@Name(DetectionEvent.NAME)
+@Label("XSS Shield Detection")
+@Category("XSS Shield")
+@Description("An XSS pattern was found by the detector")
+@StackTrace(false)
+public final class DetectionEvent extends jdk.jfr.Event {
+
+    public static final String NAME = "com.uniguri.xssshield.Detection";
+
+    @Label("Pattern Id")
+    @Description("Index of the matching pattern in the detector's pattern table")
+    public int patternId;
+
+    @Label("Pattern")
+    public String pattern;
+
+    @Label("Decode Layer")
+    @Description("Representation the pattern was found in: PLAIN, HTML_ENTITY, URL or BASE64")
+    public String decodeLayer;
+
+    @Label("Input Length")
+    public int inputLength;
+}
@@ -0,0 +1,30 @@
+package com.uniguri.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event emitted for every decision of the XSS servlet filter.
+ * The event duration covers the decision itself, not the rest of the filter chain.
+ * <p>
+ * XSS 서블릿 필터의 판단마다 기록되는 JFR 이벤트입니다. 이벤트 시간은 필터 체인 전체가 아닌 판단 자체만 포함합니다.
+ */
+@Name(FilterDecisionEvent.NAME)
+@Label("XSS Shield Filter Decision")
+@Category("XSS Shield")
+@Description("Whether a request was excluded from, wrapped by or rejected by the XSS filter")
+@StackTrace(false)
+public final class FilterDecisionEvent extends jdk.jfr.Event {
+
+    public static final String NAME = "com.uniguri.xssshield.FilterDecision";
+
+    @Label("Request URI")
+    public String uri;
+
+    @Label("Decision")
+    @Description("EXCLUDED, BLOCKED, DETECTED, PASSED, WRAPPED or REJECTED")
+    public String decision;
+}
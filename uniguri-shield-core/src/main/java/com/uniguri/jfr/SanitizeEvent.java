@@ -0,0 +1,32 @@
+package com.uniguri.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event emitted for every sanitize call of {@code XssShield}.
+ * <p>
+ * {@code XssShield}의 sanitize 호출마다 기록되는 JFR 이벤트입니다.
+ */
+@Name(SanitizeEvent.NAME)
+@Label("XSS Shield Sanitize")
+@Category("XSS Shield")
+@Description("Sanitization of one value by an XSS Shield policy")
+@StackTrace(false)
+public final class SanitizeEvent extends jdk.jfr.Event {
+
+    public static final String NAME = "com.uniguri.xssshield.Sanitize";
+
+    @Label("Policy")
+    public String policy;
+
+    @Label("Input Length")
+    @Description("Length of the input in UTF-16 code units")
+    public int inputLength;
+
+    @Label("Cache Hit")
+    public boolean cacheHit;
+}
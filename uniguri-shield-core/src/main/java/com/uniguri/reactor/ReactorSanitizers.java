@@ -0,0 +1,43 @@
+package com.uniguri.reactor;
+
+import com.uniguri.SanitizingProcessor;
+import org.reactivestreams.Publisher;
+import reactor.adapter.JdkFlowAdapter;
+import reactor.core.publisher.Flux;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Reactor adapter for {@link SanitizingProcessor}. Usable only when {@code reactor-core} is on the classpath;
+ * the core module does not depend on it.
+ * <pre>{@code
+ * Flux<Event> sanitized = events.transform(ReactorSanitizers.transformer(() ->
+ *         SanitizingProcessor.<Event, Event>mapping(e -> e.withBody(shield.sanitize(e.body()))).build()));
+ * }</pre>
+ * <p>
+ * {@link SanitizingProcessor}의 Reactor 어댑터입니다. {@code reactor-core}가 클래스패스에 있을 때만 사용할 수 있으며,
+ * 코어 모듈은 Reactor에 의존하지 않습니다.
+ */
+public final class ReactorSanitizers {
+
+    private ReactorSanitizers() {
+    }
+
+    /**
+     * Returns a {@link Flux#transform} function that routes every subscription through a fresh processor,
+     * so demand from the Reactor subscriber reaches the source through the processor's backpressure.
+     * <p>
+     * 구독마다 새 프로세서를 거치도록 하는 {@link Flux#transform} 함수를 반환합니다.
+     * Reactor 구독자의 요청은 프로세서의 백프레셔를 거쳐 소스에 전달됩니다.
+     *
+     * @param processors Creates one processor per subscription. / 구독마다 프로세서를 생성
+     */
+    public static <T, R> Function<Publisher<T>, Flux<R>> transformer(Supplier<? extends SanitizingProcessor<T, R>> processors) {
+        return source -> Flux.defer(() -> {
+            SanitizingProcessor<T, R> processor = processors.get();
+            JdkFlowAdapter.publisherToFlowPublisher(source).subscribe(processor);
+            return JdkFlowAdapter.flowPublisherToFlux(processor);
+        });
+    }
+}
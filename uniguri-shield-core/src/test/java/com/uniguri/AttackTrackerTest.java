@@ -0,0 +1,165 @@
+package com.uniguri;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.owasp.html.HtmlPolicyBuilder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("클라이언트별 공격 추적 테스트")
+class AttackTrackerTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+    private AttackTracker tracker(int threshold) {
+        return AttackTracker.builder()
+                .threshold(threshold)
+                .halfLife(Duration.ofMinutes(1))
+                .nanoClock(clock::get)
+                .build();
+    }
+
+    @Test
+    @DisplayName("탐지 횟수가 임계값에 도달하면 공격자로 판단한다")
+    void flagsClientAtThreshold() {
+        AttackTracker tracker = tracker(3);
+        assertEquals(1, tracker.record("10.0.0.1"));
+        assertEquals(2, tracker.record("10.0.0.1"));
+        assertFalse(tracker.isOffender("10.0.0.1"));
+        assertEquals(3, tracker.record("10.0.0.1"));
+        assertTrue(tracker.isOffender("10.0.0.1"));
+        assertFalse(tracker.isOffender("10.0.0.2"));
+        assertFalse(tracker.isOffender(null));
+        assertEquals(3, tracker.getRecorded());
+    }
+
+    @Test
+    @DisplayName("반감기마다 카운트가 절반으로 줄어든다")
+    void decaysByHalfLife() {
+        AttackTracker tracker = tracker(10);
+        for (int i = 0; i < 12; i++) {
+            tracker.record("10.0.0.1");
+        }
+        assertTrue(tracker.isOffender("10.0.0.1"));
+
+        clock.addAndGet(Duration.ofSeconds(59).toNanos());
+        assertEquals(12, tracker.estimate("10.0.0.1"));
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertEquals(6, tracker.estimate("10.0.0.1"));
+        assertFalse(tracker.isOffender("10.0.0.1"));
+        clock.addAndGet(Duration.ofHours(1).toNanos());
+        assertEquals(0, tracker.estimate("10.0.0.1"));
+    }
+
+    @Test
+    @DisplayName("많은 클라이언트가 있어도 메모리는 고정이며 과소 집계하지 않는다")
+    void boundedMemoryWithoutUndercount() {
+        AttackTracker tracker = tracker(5);
+        long memory = tracker.getMemoryBytes();
+        assertEquals(4096L * 4 * Integer.BYTES, memory);
+        for (int i = 0; i < 5; i++) {
+            tracker.record("203.0.113.7");
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 3_000; i++) {
+            String ip = "10." + (i >> 16 & 0xFF) + "." + (i >> 8 & 0xFF) + "." + (i & 0xFF);
+            tracker.record(ip);
+        }
+        for (int i = 0; i < 3_000; i++) {
+            String ip = "10." + (i >> 16 & 0xFF) + "." + (i >> 8 & 0xFF) + "." + (i & 0xFF);
+            if (tracker.isOffender(ip)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(tracker.isOffender("203.0.113.7"));
+        assertEquals(memory, tracker.getMemoryBytes());
+        assertTrue(falsePositives < 30, "false positives: " + falsePositives);
+    }
+
+    @Test
+    @DisplayName("동시 기록이 유실되지 않는다")
+    void concurrentRecordsAreNotLost() throws Exception {
+        AttackTracker tracker = AttackTracker.builder().threshold(1_000_000).stripes(4).build();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        tracker.record("10.0.0." + (i % 4));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        for (int i = 0; i < 4; i++) {
+            assertTrue(tracker.estimate("10.0.0." + i) >= 20_000);
+        }
+        assertEquals(80_000, tracker.getRecorded());
+    }
+
+    @Test
+    @DisplayName("XssShield의 탐지가 클라이언트 IP별로 집계된다")
+    void shieldRecordsDetections() {
+        AttackTracker tracker = tracker(2);
+        ClientInfo client = new ClientInfo("/search", "198.51.100.4", "curl");
+        XssShield shield = XssShield.builder()
+                .htmlPolicy(new HtmlPolicyBuilder().allowElements("b").toFactory())
+                .clientInfo(() -> client)
+                .attackTracker(tracker)
+                .build();
+
+        assertFalse(shield.containsXssPattern("hello"));
+        assertTrue(shield.containsXssPattern("<script>alert(1)</script>"));
+        assertFalse(tracker.isOffender("198.51.100.4"));
+        assertTrue(shield.containsXssPattern("<img src=x onerror=alert(1)>"));
+        assertSame(tracker, shield.getAttackTracker());
+        assertTrue(tracker.isOffender("198.51.100.4"));
+        tracker.clear();
+        assertEquals(0, tracker.estimate("198.51.100.4"));
+    }
+
+    @Test
+    @DisplayName("안전성 판정은 정책이 바꾸거나 캐시된 공격 판정도 매번 집계한다")
+    void countsEveryUnsafeVerdict() {
+        AttackTracker tracker = tracker(100);
+        ClientInfo client = new ClientInfo("/comments", "198.51.100.7", "curl");
+        XssShield shield = XssShield.builder()
+                .htmlPolicy(new HtmlPolicyBuilder().allowElements("b").toFactory())
+                .sanitizeCache(100)
+                .clientInfo(() -> client)
+                .attackTracker(tracker)
+                .build();
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(SafetyVerdict.Reason.POLICY_REWRITE, shield.checkSafety("<script>alert(1)</script>").getReason());
+        }
+        assertFalse(shield.isSafeString("<script>alert(1)</script>"));
+        assertEquals(4, tracker.estimate("198.51.100.7"));
+
+        // Inputs the policy merely re-encodes are not attacks.
+        assertFalse(shield.isSafeString("Tom & Jerry"));
+        assertEquals(4, tracker.estimate("198.51.100.7"));
+    }
+
+    @Test
+    @DisplayName("잘못된 설정은 거부된다")
+    void rejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> AttackTracker.builder().threshold(0));
+        assertThrows(IllegalArgumentException.class, () -> AttackTracker.builder().depth(0));
+        assertThrows(IllegalArgumentException.class, () -> AttackTracker.builder().halfLife(Duration.ZERO));
+    }
+}
@@ -0,0 +1,181 @@
+package com.uniguri;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.owasp.html.HtmlPolicyBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("병렬 배치 살균 테스트")
+class BatchSanitizerTest {
+
+    private static final XssShield SHIELD = XssShield.builder()
+            .htmlPolicy(new HtmlPolicyBuilder().allowElements("b", "p").toFactory())
+            .build();
+    private static final String[] VALUES = {
+            "plain text", "<b>bold</b>", "<script>alert(1)</script>hi", "quote \" and \\ slash",
+            "line\nbreak\ttab", "한글 <img src=x onerror=alert(1)>", "a, b, \"c\"", "<p onclick=\"x()\">p</p>", ""
+    };
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("JSONL의 선택된 경로만 살균하고 나머지는 바이트 그대로 보존한다")
+    void sanitizesSelectedJsonPaths() throws IOException {
+        Random random = new Random(38);
+        StringBuilder input = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 3000; i++) {
+            String body = VALUES[random.nextInt(VALUES.length)];
+            String name = VALUES[random.nextInt(VALUES.length)];
+            String other = VALUES[random.nextInt(VALUES.length)];
+            String tag = VALUES[random.nextInt(VALUES.length)];
+            String template = "{\"id\": %d, \"body\":%s,\"author\":{\"name\":%s, \"body\":%s},\"tags\":[%s, 1, null],\"other\":%s}";
+            input.append(String.format(template, i, json(body), json(name), json(other), json(tag), json(other)))
+                    .append(i % 7 == 0 ? "\r\n" : "\n");
+            expected.append(String.format(template, i, json(body, SHIELD::sanitize), json(name, SHIELD::strictSanitize),
+                            json(other), json(tag, SHIELD::sanitize), json(other)))
+                    .append(i % 7 == 0 ? "\r\n" : "\n");
+        }
+        input.append("{\"body\": \"<script>unterminated}\n");
+        expected.append("{\"body\": \"<script>unterminated}\n");
+        Path in = write("export.jsonl", input.toString());
+        Path out = dir.resolve("export.sanitized.jsonl");
+
+        BatchSanitizer.Report report = BatchSanitizer.builder(BatchSanitizer.Format.JSONL)
+                .field("body", SHIELD::sanitize)
+                .field("author.name", SHIELD::strictSanitize)
+                .field("tags", SHIELD::sanitize)
+                .chunkSize(4096)
+                .parallelism(4)
+                .build()
+                .run(in, out);
+
+        assertEquals(expected.toString(), Files.readString(out));
+        assertEquals(3001, report.getRecords());
+        assertEquals(1, report.getMalformedRecords());
+        assertTrue(report.getModifiedRecords() > 0 && report.getModifiedFields() >= report.getModifiedRecords());
+        assertEquals(Files.size(in), report.getInputOffset());
+        assertEquals(Files.size(out), report.getOutputOffset());
+        assertTrue(report.getRecordsPerSecond() > 0);
+    }
+
+    @Test
+    @DisplayName("CSV는 인용된 줄바꿈을 레코드 경계로 보지 않고 헤더 이름으로 컬럼을 선택한다")
+    void sanitizesCsvColumns() throws IOException {
+        // Values that were quoted stay quoted after sanitizing.
+        StringBuilder input = new StringBuilder("id,comment,note\n");
+        StringBuilder expected = new StringBuilder("id,comment,note\n");
+        for (int i = 0; i < 2000; i++) {
+            String comment = VALUES[i % VALUES.length];
+            String note = VALUES[(i * 3) % VALUES.length];
+            input.append(i).append(',').append(csv(comment)).append(',').append(csv(note)).append('\n');
+            String sanitized = csv(comment).startsWith("\"") ? quote(SHIELD.sanitize(comment)) : csv(SHIELD.sanitize(comment));
+            expected.append(i).append(',').append(sanitized).append(',').append(csv(note)).append('\n');
+        }
+        Path in = write("export.csv", input.toString());
+        Path out = dir.resolve("export.sanitized.csv");
+
+        BatchSanitizer.Report report = BatchSanitizer.builder(BatchSanitizer.Format.CSV)
+                .field("comment", SHIELD::sanitize)
+                .chunkSize(1000)
+                .parallelism(3)
+                .build()
+                .run(in, out);
+
+        assertEquals(expected.toString(), Files.readString(out));
+        assertEquals(2000, report.getRecords());
+        assertEquals(0, report.getMalformedRecords());
+
+        assertThrows(IllegalArgumentException.class, () -> BatchSanitizer.builder(BatchSanitizer.Format.CSV)
+                .field("missing", SHIELD::sanitize).build().run(in, dir.resolve("unused.csv")));
+    }
+
+    @Test
+    @DisplayName("실패 후 다시 실행하면 체크포인트 위치부터 이어서 처리한다")
+    void resumesFromCheckpoint() throws IOException {
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            input.append("{\"n\":").append(i).append(",\"body\":").append(json(VALUES[i % VALUES.length])).append("}\n");
+        }
+        Path in = write("resume.jsonl", input.toString());
+        Path reference = dir.resolve("reference.jsonl");
+        Path out = dir.resolve("resume.sanitized.jsonl");
+        Path checkpoint = dir.resolve("resume.checkpoint");
+        BatchSanitizer.builder(BatchSanitizer.Format.JSONL).field("body", SHIELD::sanitize).chunkSize(2048).build()
+                .run(in, reference);
+
+        List<BatchSanitizer.Report> reports = new ArrayList<>();
+        BatchSanitizer failing = BatchSanitizer.builder(BatchSanitizer.Format.JSONL)
+                .field("body", SHIELD::sanitize)
+                .chunkSize(2048)
+                .checkpoint(checkpoint, Duration.ZERO)
+                .progressListener(report -> {
+                    reports.add(report);
+                    if (reports.size() == 10) {
+                        throw new IllegalStateException("simulated crash");
+                    }
+                })
+                .build();
+        assertThrows(IllegalStateException.class, () -> failing.run(in, out));
+        assertTrue(Files.exists(checkpoint));
+        long checkpointOffset = reports.get(9).getInputOffset();
+
+        BatchSanitizer.Report resumed = BatchSanitizer.builder(BatchSanitizer.Format.JSONL)
+                .field("body", SHIELD::sanitize)
+                .chunkSize(2048)
+                .checkpoint(checkpoint, Duration.ZERO)
+                .build()
+                .run(in, out);
+
+        assertEquals(checkpointOffset, resumed.getResumedFrom());
+        assertEquals(5000, resumed.getRecords());
+        assertEquals(Files.readString(reference), Files.readString(out));
+        assertFalse(Files.exists(checkpoint));
+    }
+
+    private Path write(String name, String content) throws IOException {
+        return Files.writeString(dir.resolve(name), content, StandardCharsets.UTF_8);
+    }
+
+    private static String json(String value, UnaryOperator<String> sanitizer) {
+        return json(sanitizer.apply(value));
+    }
+
+    private static String json(String value) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\t' -> sb.append("\\t");
+                default -> sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    private static String csv(String value) {
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return quote(value);
+        }
+        return value;
+    }
+
+    private static String quote(String value) {
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
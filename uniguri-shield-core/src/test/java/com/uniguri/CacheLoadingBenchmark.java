@@ -0,0 +1,216 @@
+package com.uniguri;
+
+import org.owasp.html.HtmlPolicyBuilder;
+import org.owasp.html.PolicyFactory;
+import org.owasp.html.Sanitizers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contention benchmark for the sanitize cache loading modes (not part of the test run).
+ * <p>
+ * Hundreds of concurrent tasks sanitize small values while a few callers keep loading large, slow documents. The
+ * small values mix pre-warmed hits, hot misses (a small key set that rotates every millisecond, so many tasks miss on
+ * the same fresh keys at once) and cold misses (unique keys). Reports throughput and latency percentiles per key kind
+ * and {@link XssShield.CacheLoading} mode. Tasks run on virtual threads when the JVM has them (Java 21+), otherwise on
+ * as many platform threads.
+ * <pre>gradle :uniguri-shield-core:cacheLoadingBenchmark [-Pthreads=500] [-Pseconds=10]</pre>
+ * <p>
+ * sanitize 캐시 적재 방식의 경합 벤치마크입니다(테스트 실행에는 포함되지 않음). 수백 개의 동시 작업이 작은 값을 살균하는 동안
+ * 일부 호출자가 크고 느린 문서를 계속 적재합니다. 작은 값은 미리 적재된 적중, 1밀리초마다 바뀌는 소수의 키(여러 작업이 같은 새 키를
+ * 동시에 놓침), 매번 새로운 키를 섞으며, 키 종류와 방식별 처리량과 지연 시간 백분위를 출력합니다.
+ * Java 21 이상이면 가상 스레드, 아니면 같은 수의 플랫폼 스레드에서 실행합니다.
+ */
+public final class CacheLoadingBenchmark {
+
+    private static final PolicyFactory POLICY = Sanitizers.FORMATTING.and(Sanitizers.LINKS).and(Sanitizers.BLOCKS)
+            .and(new HtmlPolicyBuilder().allowElements("table", "tr", "td").toFactory());
+
+    private static final String[] KINDS = {"hit", "hot-miss", "cold"};
+    private static final int HIT = 0;
+    private static final int HOT_MISS = 1;
+    private static final int COLD = 2;
+
+    private CacheLoadingBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int threads = Integer.getInteger("threads", 500);
+        int seconds = Integer.getInteger("seconds", 10);
+        String[] hot = new String[2_000];
+        for (int i = 0; i < hot.length; i++) {
+            hot[i] = "<b>tag " + i + "</b> & <i>term</i>";
+        }
+        StringBuilder large = new StringBuilder();
+        while (large.length() < 512 * 1024) {
+            large.append("<table><tr><td><a href=\"https://example.com\">cell</a><script>x</script></td></tr></table>");
+        }
+        ExecutorService virtual = virtualThreads();
+        ExecutorService executor = virtual != null ? virtual : Executors.newFixedThreadPool(threads);
+        System.out.printf("threads=%d (%s), seconds=%d%n", threads, virtual != null ? "virtual" : "platform", seconds);
+        try {
+            for (XssShield.CacheLoading loading : XssShield.CacheLoading.values()) {
+                run(executor, loading, threads, seconds, hot, large.toString());
+            }
+        } finally {
+            executor.shutdownNow();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+
+    private static void run(ExecutorService executor, XssShield.CacheLoading loading, int threads, int seconds,
+                            String[] hot, String large) throws Exception {
+        XssShield shield = XssShield.builder()
+                .htmlPolicy(POLICY)
+                .sanitizeCache(hot.length * 2)
+                .cacheLoading(loading)
+                .build();
+        for (String value : hot) {
+            shield.sanitize(value);
+        }
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Histogram[]>> results = new ArrayList<>();
+        List<Future<Long>> largeResults = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int task = t;
+            if (t % 50 == 0) {
+                largeResults.add(executor.submit(() -> {
+                    start.await();
+                    long documents = 0;
+                    while (System.nanoTime() < end) {
+                        // A fresh suffix per round keeps the large document a miss every time.
+                        shield.sanitize(large + task + ':' + documents++);
+                    }
+                    return documents;
+                }));
+                continue;
+            }
+            results.add(executor.submit(() -> {
+                start.await();
+                Histogram[] latencies = {new Histogram(), new Histogram(), new Histogram()};
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long cold = 0;
+                while (System.nanoTime() < end) {
+                    int roll = random.nextInt(100);
+                    int kind;
+                    String value;
+                    if (roll < 80) {
+                        kind = HIT;
+                        value = hot[random.nextInt(hot.length)];
+                    } else if (roll < 90) {
+                        kind = HOT_MISS;
+                        value = "<b>miss " + random.nextInt(16) + "</b> @" + TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+                    } else {
+                        kind = COLD;
+                        value = "<i>cold " + task + ':' + cold++ + "</i>";
+                    }
+                    long begin = System.nanoTime();
+                    shield.sanitize(value);
+                    latencies[kind].record(System.nanoTime() - begin);
+                }
+                return latencies;
+            }));
+        }
+        start.countDown();
+        Histogram[] merged = {new Histogram(), new Histogram(), new Histogram()};
+        for (Future<Histogram[]> result : results) {
+            Histogram[] latencies = result.get();
+            for (int kind = 0; kind < merged.length; kind++) {
+                merged[kind].add(latencies[kind]);
+            }
+        }
+        long documents = 0;
+        for (Future<Long> result : largeResults) {
+            documents += result.get();
+        }
+        long operations = 0;
+        for (Histogram histogram : merged) {
+            operations += histogram.count;
+        }
+        System.out.printf("%-8s small ops/s=%,12d  large docs/s=%,8d%n", loading, operations / seconds, documents / seconds);
+        for (int kind = 0; kind < merged.length; kind++) {
+            Histogram histogram = merged[kind];
+            System.out.printf("  %-9s ops/s=%,12d  p50=%,9dns  p99=%,11dns  max=%,13dns%n", KINDS[kind],
+                    histogram.count / seconds, histogram.percentile(0.50), histogram.percentile(0.99), histogram.max);
+        }
+    }
+
+    /**
+     * Log-linear latency histogram: 16 sub-buckets per power of two, so every recorded value is kept at a fixed
+     * memory cost and percentiles are accurate to within about 6%.
+     */
+    private static final class Histogram {
+
+        private static final int SUB_BITS = 4;
+        private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+        private final long[] buckets = new long[64 * SUB_BUCKETS];
+        private long count;
+        private long max;
+
+        void record(long nanos) {
+            long value = Math.max(nanos, 0);
+            buckets[index(value)]++;
+            count++;
+            max = Math.max(max, value);
+        }
+
+        void add(Histogram other) {
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] += other.buckets[i];
+            }
+            count += other.count;
+            max = Math.max(max, other.max);
+        }
+
+        long percentile(double p) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(p * count);
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= Math.max(rank, 1)) {
+                    return Math.min(upperBound(i), max);
+                }
+            }
+            return max;
+        }
+
+        private static int index(long value) {
+            if (value < SUB_BUCKETS) {
+                return (int) value;
+            }
+            int magnitude = 63 - Long.numberOfLeadingZeros(value);
+            int sub = (int) (value >>> (magnitude - SUB_BITS)) & (SUB_BUCKETS - 1);
+            return (magnitude - SUB_BITS + 1) * SUB_BUCKETS + sub;
+        }
+
+        private static long upperBound(int index) {
+            if (index < SUB_BUCKETS) {
+                return index;
+            }
+            int magnitude = index / SUB_BUCKETS + SUB_BITS - 1;
+            long sub = index % SUB_BUCKETS;
+            return ((SUB_BUCKETS + sub + 1) << (magnitude - SUB_BITS)) - 1;
+        }
+    }
+
+    /** Java 21+ virtual-thread executor, looked up reflectively so that the benchmark still compiles for Java 17. */
+    private static ExecutorService virtualThreads() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.uniguri;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.owasp.html.HtmlPolicyBuilder;
+import org.owasp.html.HtmlStreamEventReceiverWrapper;
+import org.owasp.html.PolicyFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("캐시 비동기 적재 테스트")
+class CacheLoadingTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger slowComputations = new AtomicInteger();
+
+    /** Text starting with "slow" blocks until {@link #release} opens. */
+    private final PolicyFactory blocking = new HtmlPolicyBuilder()
+            .withPreprocessor(receiver -> new HtmlStreamEventReceiverWrapper(receiver) {
+                @Override
+                public void text(String text) {
+                    if (text.startsWith("slow")) {
+                        slowComputations.incrementAndGet();
+                        try {
+                            release.await(30, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                    underlying.text(text);
+                }
+            })
+            .toFactory();
+
+    private XssShield shield() {
+        return XssShield.builder()
+                .htmlPolicy(blocking)
+                .sanitizeCache(20_000)
+                .cacheLoading(XssShield.CacheLoading.ASYNC)
+                .build();
+    }
+
+    @Test
+    @DisplayName("같은 입력의 동시 적재는 한 번만 계산하고 다른 키는 기다리지 않는다")
+    void deduplicatesWithoutBlockingOtherKeys() throws Exception {
+        XssShield shield = shield();
+        ExecutorService pool = Executors.newFixedThreadPool(9);
+        try {
+            List<Future<String>> slow = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                slow.add(pool.submit(() -> shield.sanitize("slow <b>value</b>")));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (slowComputations.get() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            assertEquals(1, slowComputations.get());
+
+            // Unrelated keys (many, so some share a hash bin with the slow one) finish while it is still running.
+            Future<?> others = pool.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    assertEquals("value " + i, shield.sanitize("value " + i));
+                }
+            });
+            others.get(10, TimeUnit.SECONDS);
+            for (Future<String> future : slow) {
+                assertFalse(future.isDone());
+            }
+
+            release.countDown();
+            for (Future<String> future : slow) {
+                assertEquals("slow value", future.get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(1, slowComputations.get());
+        } finally {
+            release.countDown();
+            pool.shutdownNow();
+        }
+        SanitizeCacheView view = shield.getSanitizeCacheViews().get(0);
+        assertEquals(10_001, view.getEstimatedSize());
+        assertEquals("slow value", shield.sanitize("slow <b>value</b>"));
+    }
+
+    @Test
+    @DisplayName("계산이 실패하면 대기자에게 같은 예외가 전달되고 다음 호출은 다시 계산한다")
+    void failuresAreNotCached() {
+        AtomicInteger calls = new AtomicInteger();
+        PolicyFactory failing = new HtmlPolicyBuilder()
+                .withPreprocessor(receiver -> {
+                    if (calls.incrementAndGet() == 1) {
+                        throw new IllegalStateException("boom");
+                    }
+                    return receiver;
+                })
+                .toFactory();
+        XssShield shield = XssShield.builder()
+                .htmlPolicy(failing)
+                .sanitizeCache(10)
+                .cacheLoading(XssShield.CacheLoading.ASYNC)
+                .build();
+
+        assertThrows(IllegalStateException.class, () -> shield.sanitize("x"));
+        assertEquals("x", shield.sanitize("x"));
+        assertEquals("x", shield.sanitize("x"));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    @DisplayName("비동기 모드에서도 통계, 일괄 살균, 무효화가 동작한다")
+    void cacheFeaturesWork() {
+        XssShield shield = XssShield.builder()
+                .htmlPolicy(new HtmlPolicyBuilder().allowElements("b").toFactory())
+                .sanitizeCache(100)
+                .cacheLoading(XssShield.CacheLoading.ASYNC)
+                .build();
+        assertEquals("<b>a</b>", shield.sanitize("<b>a</b><i>"));
+        assertEquals("<b>a</b>", shield.sanitize("<b>a</b><i>"));
+        assertEquals(List.of("<b>a</b>", "c"), shield.sanitizeAll(List.of("<b>a</b><i>", "<i>c</i>")));
+        SanitizeCacheView view = shield.getSanitizeCacheViews().get(0);
+        assertEquals(2, view.getEstimatedSize());
+        assertEquals(2, view.getStats().hitCount());
+
+        shield.invalidate(List.of("<b>a</b><i>"));
+        assertEquals(1, view.getEstimatedSize());
+    }
+}
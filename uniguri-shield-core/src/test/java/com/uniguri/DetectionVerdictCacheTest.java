@@ -0,0 +1,153 @@
+package com.uniguri;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.owasp.html.HtmlPolicyBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("탐지 결과 캐시 테스트")
+class DetectionVerdictCacheTest {
+
+    @Test
+    @DisplayName("지문은 인스턴스별 비밀 키에 의존하며 String.hashCode 충돌로 적중을 만들 수 없다")
+    void fingerprintsAreKeyedPerInstance() {
+        DetectionVerdictCache first = new DetectionVerdictCache(1024, 64);
+        DetectionVerdictCache second = new DetectionVerdictCache(1024, 64);
+        assertEquals(first.fingerprint("hello"), first.fingerprint("hello"));
+        assertNotEquals(first.fingerprint("hello"), second.fingerprint("hello"));
+
+        // "Aa" and "BB" share String.hashCode() and length.
+        first.put("Aa", false);
+        assertEquals(DetectionVerdictCache.UNKNOWN, first.get("BB"));
+        assertEquals(DetectionVerdictCache.CLEAN, first.get("Aa"));
+    }
+
+    @Test
+    @DisplayName("저장한 결과를 그대로 돌려주고 길이 제한을 넘는 입력은 캐시하지 않는다")
+    void storesResults() {
+        DetectionVerdictCache cache = new DetectionVerdictCache(1024, 16);
+        assertEquals(DetectionVerdictCache.UNKNOWN, cache.get("hello"));
+        cache.put("hello", false);
+        cache.put("<script>", true);
+        assertEquals(DetectionVerdictCache.CLEAN, cache.get("hello"));
+        assertEquals(DetectionVerdictCache.FOUND, cache.get("<script>"));
+        cache.put("hello", true);
+        assertEquals(DetectionVerdictCache.FOUND, cache.get("hello"));
+
+        String longValue = "x".repeat(17);
+        cache.put(longValue, true);
+        assertEquals(DetectionVerdictCache.UNKNOWN, cache.get(longValue));
+        assertEquals(3, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        cache.clear();
+        assertEquals(DetectionVerdictCache.UNKNOWN, cache.get("hello"));
+    }
+
+    @Test
+    @DisplayName("용량을 넘으면 클럭 방식으로 축출하며 메모리는 고정이다")
+    void evictsWithFixedFootprint() {
+        DetectionVerdictCache cache = new DetectionVerdictCache(256, 64);
+        assertEquals(256, cache.getCapacity());
+        assertEquals(256L * 14, cache.getMemoryBytes());
+        for (int i = 0; i < 10_000; i++) {
+            cache.put("term-" + i, (i & 1) == 0);
+        }
+        assertTrue(cache.getEvictionCount() >= 10_000 - 256);
+        int present = 0;
+        for (int i = 0; i < 10_000; i++) {
+            int result = cache.get("term-" + i);
+            if (result != DetectionVerdictCache.UNKNOWN) {
+                present++;
+                assertEquals((i & 1) == 0 ? DetectionVerdictCache.FOUND : DetectionVerdictCache.CLEAN, result);
+            }
+        }
+        assertTrue(present > 0 && present <= 256, "present: " + present);
+    }
+
+    @Test
+    @DisplayName("자주 조회되는 엔트리는 클럭 축출에서 살아남는다")
+    void referencedEntriesSurvive() {
+        DetectionVerdictCache cache = new DetectionVerdictCache(128, 64);
+        cache.put("hot", false);
+        for (int i = 0; i < 5_000; i++) {
+            assertEquals(DetectionVerdictCache.CLEAN, cache.get("hot"), "lost after " + i);
+            cache.put("cold-" + i, false);
+        }
+    }
+
+    @Test
+    @DisplayName("동시 읽기/쓰기에서 잘못된 결과를 돌려주지 않는다")
+    void concurrentAccessNeverReturnsWrongResult() throws Exception {
+        DetectionVerdictCache cache = new DetectionVerdictCache(512, 64);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int seed = t;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 50_000; i++) {
+                        int n = (i * 31 + seed) % 2_000;
+                        String value = "v" + n;
+                        int result = cache.get(value);
+                        if (result == DetectionVerdictCache.UNKNOWN) {
+                            cache.put(value, n % 3 == 0);
+                        } else {
+                            assertEquals(n % 3 == 0 ? DetectionVerdictCache.FOUND : DetectionVerdictCache.CLEAN, result);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("캐시 적중도 공격 추적에 집계된다")
+    void cachedDetectionsStillCount() {
+        AttackTracker tracker = AttackTracker.builder().threshold(3).build();
+        ClientInfo client = new ClientInfo("/search", "198.51.100.4", "curl");
+        XssShield shield = XssShield.builder()
+                .htmlPolicy(new HtmlPolicyBuilder().toFactory())
+                .clientInfo(() -> client)
+                .attackTracker(tracker)
+                .detectionCache(1024, 256)
+                .build();
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(shield.containsXssPattern("<script>alert(1)</script>"));
+            assertFalse(shield.containsXssPattern("summer sale"));
+        }
+        DetectionVerdictCache cache = shield.getDetectionCache();
+        assertEquals(4, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertTrue(tracker.isOffender("198.51.100.4"));
+    }
+
+    @Test
+    @DisplayName("통과 여부를 정하는 scanXssPattern은 캐시된 판정을 사용하지 않는다")
+    void scanIgnoresCachedVerdicts() {
+        XssShield shield = XssShield.builder()
+                .htmlPolicy(new HtmlPolicyBuilder().toFactory())
+                .detectionCache(1024, 256)
+                .build();
+        String attack = "<script>alert(1)</script>";
+        // Stands in for a colliding entry: a wrong CLEAN verdict stored under the attack's key.
+        shield.getDetectionCache().put(attack, false);
+
+        assertFalse(shield.containsXssPattern(attack));
+        assertTrue(shield.scanXssPattern(attack));
+    }
+}
@@ -0,0 +1,111 @@
+package com.uniguri;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.owasp.html.HtmlPolicyBuilder;
+import org.owasp.html.HtmlStreamEventReceiverWrapper;
+import org.owasp.html.PolicyFactory;
+import org.owasp.html.Sanitizers;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("블록 단위 증분 문서 살균 테스트")
+class IncrementalSanitizerTest {
+
+    private static final PolicyFactory RICH = Sanitizers.FORMATTING.and(Sanitizers.BLOCKS).and(Sanitizers.LINKS)
+            .and(Sanitizers.TABLES).and(Sanitizers.IMAGES).and(Sanitizers.STYLES);
+    private static final PolicyFactory NARROW = new HtmlPolicyBuilder().allowElements("b", "p").toFactory();
+
+    private static final String[] FRAGMENTS = {
+            "<p>문단 & 텍스트</p>", "<div class=x>블록</div>", "<b><div>x</div></b>", "<p><div>y</div></p>",
+            "<table><tr><td>셀</td></tr></table>", "<ul><li>하나</li><li>둘</li></ul>", "<a href=\"javascript:x\">링크</a>",
+            "<a href='https://example.com' title=\"a>b\">ok</a>", "<img src=x onerror=alert(1)>", "<br/>", "<hr>",
+            "text < 3 &amp; more", "<p>unclosed", "</div>", "<script>alert(1)</script>", "<!-- note -->",
+            "<i>x<b>y</i>z</b>", "<span style=\"color:red\">빨강</span>", "<p><b>a<i>b</i></b></p>", " \n",
+            "<option>o</option>", "<li>orphan</li>", "<h1 onclick=x>제목</h1>", "<p>a<br>b</p>", "&lt;x&gt;",
+            "<font color=red>f</font>", "<svg><path/></svg>", "<p a=b/>x</p>", "<b\n>줄바꿈</b\n>", "<td>cell</td>",
+            "<div><li>x</li></div>", "<table><td>t</td></table>", "<select><option>o</option></select>", "<dl><dt>d</dt></dl>",
+            "<pre>\n코드</pre>", "<blockquote><p>인용</p></blockquote>", "<tr><td>r</td></tr>", "<u>x</u>", "<center>c</center>",
+    };
+
+    @Test
+    @DisplayName("블록을 이어 붙인 결과는 전체 살균 결과와 같다")
+    void matchesFullSanitize() {
+        Random random = new Random(7);
+        for (PolicyFactory policy : new PolicyFactory[]{RICH, NARROW}) {
+            IncrementalSanitizer incremental = new IncrementalSanitizer(policy, 1_000_000);
+            for (int i = 0; i < 5_000; i++) {
+                StringBuilder document = new StringBuilder();
+                for (int n = random.nextInt(8); n > 0; n--) {
+                    document.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+                }
+                String html = document.toString();
+                assertEquals(policy.sanitize(html), incremental.sanitize(html), html);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("편집된 문서는 바뀐 블록만 다시 살균한다")
+    void reusesUnchangedBlocks() {
+        IncrementalSanitizer incremental = new IncrementalSanitizer(RICH, 1_000_000);
+        StringBuilder document = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            document.append("<p>문단 ").append(i).append(" <b>굵게</b><img src=x onerror=y></p>\n");
+        }
+        String original = document.toString();
+        assertEquals(RICH.sanitize(original), incremental.sanitize(original));
+        // 100 paragraphs plus the trailing newline.
+        assertEquals(101, incremental.getBlockStats().missCount());
+
+        String edited = original.replace("문단 42 ", "문단 42 수정됨 ");
+        assertEquals(RICH.sanitize(edited), incremental.sanitize(edited));
+        assertEquals(102, incremental.getBlockStats().missCount());
+        assertEquals(100, incremental.getBlockStats().hitCount());
+        assertEquals(0, incremental.getFullPassCount());
+    }
+
+    @Test
+    @DisplayName("블록 경계는 최상위 종료 태그 직후이며 균형이 맞지 않으면 분할하지 않는다")
+    void blockBoundaries() {
+        assertEquals(List.of("<p>a</p>", "\n<div><p>b</p></div>", "<br>tail"),
+                IncrementalSanitizer.split("<p>a</p>\n<div><p>b</p></div><br>tail"));
+        assertEquals(List.of("<p>a</p>", "<li>b</li><p>c</p><p>d</p>"),
+                IncrementalSanitizer.split("<p>a</p><li>b</li><p>c</p><p>d</p>"));
+        assertEquals(List.of("plain"), IncrementalSanitizer.split("plain"));
+        assertEquals(List.of(""), IncrementalSanitizer.split(""));
+        assertEquals(List.of("<a title=\"</a>\">x</a>"), IncrementalSanitizer.split("<a title=\"</a>\">x</a>"));
+        assertNull(IncrementalSanitizer.split("<p>unclosed"));
+        assertNull(IncrementalSanitizer.split("<b><i>x</b></i>"));
+        assertNull(IncrementalSanitizer.split("<p>a</p><script>s</script>"));
+        assertNull(IncrementalSanitizer.split("<p>a</p><!-- c -->"));
+        assertNull(IncrementalSanitizer.split("<div/>"));
+        assertNull(IncrementalSanitizer.split("<a href=/x/>y</a>"));
+        assertNull(IncrementalSanitizer.split("<p>a</p><"));
+    }
+
+    @Test
+    @DisplayName("전처리가 있는 정책과 분할할 수 없는 문서는 한 번에 살균한다")
+    void fallsBackToFullPass() {
+        PolicyFactory upper = new HtmlPolicyBuilder().allowElements("p")
+                .withPreprocessor(receiver -> new HtmlStreamEventReceiverWrapper(receiver) {
+                    @Override
+                    public void text(String text) {
+                        underlying.text(text.toUpperCase());
+                    }
+                })
+                .toFactory();
+        IncrementalSanitizer custom = new IncrementalSanitizer(upper, 1_000);
+        assertEquals("<p>A</p><p>B</p>", custom.sanitize("<p>a</p><p>b</p>"));
+        assertEquals(1, custom.getFullPassCount());
+
+        XssShield shield = XssShield.builder().htmlPolicy(RICH).documentCache(10_000).build();
+        assertEquals(RICH.sanitize("<p>x<p>y"), shield.sanitizeDocument("<p>x<p>y"));
+        assertEquals(1, shield.getDocumentSanitizer().getFullPassCount());
+        assertNull(shield.sanitizeDocument(null));
+        assertNull(XssShield.builder().htmlPolicy(RICH).build().getDocumentSanitizer());
+    }
+}
@@ -0,0 +1,76 @@
+package com.uniguri;
+
+import org.owasp.html.HtmlPolicyBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Multi-threaded scaling benchmark of the per-thread L0 sanitize cache (not part of the test run).
+ * <p>
+ * Platform threads repeatedly sanitize a handful of very hot values (empty string, common search terms)
+ * with and without the L0 cache, doubling the thread count up to the number of processors.
+ * <pre>gradle :uniguri-shield-core:localCacheBenchmark [-Pseconds=3]</pre>
+ * <p>
+ * 스레드별 L0 sanitize 캐시의 멀티스레드 확장성 벤치마크입니다(테스트 실행에는 포함되지 않음).
+ * 빈 문자열, 흔한 검색어처럼 매우 자주 쓰이는 값을 L0 캐시 유무에 따라 반복 살균하며, 스레드 수를 프로세서 수까지 두 배씩 늘립니다.
+ */
+public final class LocalCacheBenchmark {
+
+    private static final String[] HOT = {"", "shoes", "red dress", "iphone", "sale", "<b>new</b>", "laptop", "tv"};
+
+    private LocalCacheBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int seconds = Integer.getInteger("seconds", 3);
+        int processors = Runtime.getRuntime().availableProcessors();
+        System.out.printf("%8s %18s %18s %8s%n", "threads", "shared ops/s", "L0 ops/s", "speedup");
+        for (int threads = 1; threads <= processors; threads *= 2) {
+            long shared = run(false, threads, seconds);
+            long local = run(true, threads, seconds);
+            System.out.printf("%8d %,18d %,18d %7.2fx%n", threads, shared, local, (double) local / Math.max(1, shared));
+        }
+    }
+
+    private static long run(boolean local, int threads, int seconds) throws Exception {
+        XssShield.Builder builder = XssShield.builder()
+                .htmlPolicy(new HtmlPolicyBuilder().allowElements("b").toFactory())
+                .sanitizeCache(10_000);
+        if (local) {
+            builder.localCache(256, 32);
+        }
+        XssShield shield = builder.build();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        List<Future<Long>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int offset = t;
+            results.add(pool.submit(() -> {
+                start.await();
+                long operations = 0;
+                int i = offset;
+                while (System.nanoTime() < end) {
+                    for (int n = 0; n < 1_000; n++) {
+                        shield.sanitize(HOT[i++ & (HOT.length - 1)]);
+                    }
+                    operations += 1_000;
+                }
+                return operations;
+            }));
+        }
+        start.countDown();
+        long total = 0;
+        for (Future<Long> result : results) {
+            total += result.get();
+        }
+        pool.shutdown();
+        return total / seconds;
+    }
+}
@@ -0,0 +1,119 @@
+package com.uniguri;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.owasp.html.HtmlPolicyBuilder;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("스레드별 L0 캐시 테스트")
+class LocalSanitizeCacheTest {
+
+    private static XssShield shield() {
+        return XssShield.builder()
+                .htmlPolicy(new HtmlPolicyBuilder().allowElements("b").toFactory())
+                .sanitizeCache(100)
+                .localCache(16, 32)
+                .build();
+    }
+
+    @Test
+    @DisplayName("반복 조회는 공유 캐시를 거치지 않는다")
+    void hotKeysSkipSharedCache() {
+        XssShield shield = shield();
+        SanitizeCacheView view = shield.getSanitizeCacheViews().get(0);
+        assertEquals("<b>a</b>", shield.sanitize("<b>a</b><i>"));
+        for (int i = 0; i < 100; i++) {
+            assertEquals("<b>a</b>", shield.sanitize("<b>a</b><i>"));
+            assertEquals("", shield.sanitize(""));
+        }
+        assertEquals(0, view.getStats().hitCount());
+        assertEquals(2, view.getStats().missCount());
+    }
+
+    @Test
+    @DisplayName("긴 값은 L0에 저장하지 않는다")
+    void longValuesAreNotKept() {
+        XssShield shield = shield();
+        SanitizeCacheView view = shield.getSanitizeCacheViews().get(0);
+        String value = "x".repeat(33);
+        shield.sanitize(value);
+        shield.sanitize(value);
+        assertEquals(1, view.getStats().hitCount());
+
+        LocalSanitizeCache cache = new LocalSanitizeCache(16, 8);
+        cache.put("short", "y".repeat(9), cache.generation());
+        assertNull(cache.get("short"), "result longer than maxLength");
+    }
+
+    @Test
+    @DisplayName("충돌하는 키는 슬롯을 덮어쓰며 잘못된 결과를 돌려주지 않는다")
+    void collisionsOverwrite() {
+        LocalSanitizeCache cache = new LocalSanitizeCache(1, 32);
+        assertEquals(1, cache.slots());
+        cache.put("a", "A", cache.generation());
+        assertEquals("A", cache.get("a"));
+        cache.put("b", "B", cache.generation());
+        assertNull(cache.get("a"));
+        assertEquals("B", cache.get("b"));
+        assertEquals("B", cache.get(new String("b")));
+    }
+
+    @Test
+    @DisplayName("스레드마다 별도 테이블을 쓰고 무효화는 모든 스레드에 반영된다")
+    void perThreadTablesAndInvalidation() throws Exception {
+        LocalSanitizeCache cache = new LocalSanitizeCache(16, 32);
+        cache.put("k", "v", cache.generation());
+        AtomicReference<String> seen = new AtomicReference<>("unset");
+        Thread other = new Thread(() -> {
+            seen.set(cache.get("k"));
+            cache.put("k", "other", cache.generation());
+        });
+        other.start();
+        other.join();
+        assertNull(seen.get());
+        assertEquals("v", cache.get("k"));
+
+        cache.invalidate();
+        assertNull(cache.get("k"));
+    }
+
+    @Test
+    @DisplayName("조회 시작 후 무효화되었으면 이전에 읽은 결과를 저장하지 않는다")
+    void dropsResultsLoadedBeforeInvalidation() {
+        LocalSanitizeCache cache = new LocalSanitizeCache(16, 32);
+        int generation = cache.generation();
+        assertNull(cache.get("k"));
+        cache.invalidate();
+        cache.put("k", "stale", generation);
+        assertNull(cache.get("k"));
+        cache.put("k", "fresh", cache.generation());
+        assertEquals("fresh", cache.get("k"));
+    }
+
+    @Test
+    @DisplayName("XssShield 무효화가 L0 엔트리도 제거한다")
+    void shieldInvalidationClearsLocalEntries() {
+        XssShield shield = shield();
+        SanitizeCacheView view = shield.getSanitizeCacheViews().get(0);
+        shield.sanitize("<b>a</b><i>");
+        shield.invalidate(List.of("<b>a</b><i>"));
+        shield.sanitize("<b>a</b><i>");
+        assertEquals(2, view.getStats().missCount());
+        view.invalidateAll();
+        shield.sanitize("<b>a</b><i>");
+        assertEquals(3, view.getStats().missCount());
+    }
+
+    @Test
+    @DisplayName("공유 캐시 없이 L0 캐시만 설정할 수 없다")
+    void requiresSanitizeCache() {
+        assertThrows(IllegalStateException.class, () -> XssShield.builder()
+                .htmlPolicy(new HtmlPolicyBuilder().toFactory())
+                .localCache(16, 32)
+                .build());
+    }
+}
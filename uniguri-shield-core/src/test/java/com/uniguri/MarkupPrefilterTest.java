@@ -0,0 +1,59 @@
+package com.uniguri;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.owasp.html.HtmlPolicyBuilder;
+import org.owasp.html.PolicyFactory;
+import org.owasp.html.Sanitizers;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("마크업 사전 필터 테스트")
+class MarkupPrefilterTest {
+
+    private static final PolicyFactory[] POLICIES = {
+            new HtmlPolicyBuilder().toFactory(),
+            new HtmlPolicyBuilder().allowElements("p", "b", "a").allowUrlProtocols("https").allowAttributes("href").onElements("a").toFactory(),
+            Sanitizers.FORMATTING.and(Sanitizers.LINKS).and(Sanitizers.BLOCKS)
+    };
+
+    @Test
+    @DisplayName("무해하다고 판정한 모든 BMP 문자는 정책을 그대로 통과한다")
+    void inertCharactersAreFixedPoints() {
+        int inert = 0;
+        for (int c = 0; c <= 0xFFFF; c++) {
+            String value = "a" + (char) c + "b";
+            if (!MarkupPrefilter.isInert(value)) {
+                continue;
+            }
+            inert++;
+            for (PolicyFactory policy : POLICIES) {
+                assertEquals(value, policy.sanitize(value), () -> "U+" + Integer.toHexString(value.charAt(1)));
+            }
+        }
+        assertTrue(inert > 60_000);
+        for (String markup : new String[]{"<b>", "a&amp;", "x=1", "'", "\"", "a+b", "me@host", "`", "{{x}}", "😀", "＜"}) {
+            assertFalse(MarkupPrefilter.isInert(markup), markup);
+        }
+    }
+
+    @Test
+    @DisplayName("무해한 문자로 만든 임의 문자열은 정책을 그대로 통과하며 배열 구간 검사와 일치한다")
+    void randomInertStringsAreFixedPoints() {
+        String alphabet = "abcXYZ019 .,;:!?-_/()[]}#$%^*~|\\\t\n\r가나다한글日本語éü€";
+        Random random = new Random(40);
+        for (int i = 0; i < 20_000; i++) {
+            char[] chars = new char[2 + random.nextInt(60)];
+            for (int k = 0; k < chars.length; k++) {
+                chars[k] = alphabet.charAt(random.nextInt(alphabet.length()));
+            }
+            String value = new String(chars, 1, chars.length - 1);
+            assertTrue(MarkupPrefilter.isInert(chars, 1, chars.length - 1));
+            for (PolicyFactory policy : POLICIES) {
+                assertEquals(value, policy.sanitize(value));
+            }
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.uniguri;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.owasp.html.HtmlPolicyBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Flow 기반 스트림 살균 프로세서 테스트")
+class SanitizingProcessorTest {
+
+    private static final XssShield SHIELD = XssShield.builder()
+            .htmlPolicy(new HtmlPolicyBuilder().allowElements("b").toFactory())
+            .sanitizeCache(1000)
+            .build();
+
+    @Test
+    @DisplayName("하위 요청과 prefetch를 넘어서 상위에 요청하지 않는다")
+    void respectsDemand() throws InterruptedException {
+        RangePublisher source = new RangePublisher(1000);
+        SanitizingProcessor<String, String> processor = SanitizingProcessor.builder(SHIELD::sanitizeAll)
+                .prefetch(16)
+                .batchSize(4)
+                .build();
+        source.subscribe(processor);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        processor.subscribe(subscriber);
+
+        subscriber.request(5);
+        assertEquals(5, subscriber.items.size());
+        assertEquals(16, source.requested.get());
+
+        subscriber.request(Long.MAX_VALUE);
+        assertTrue(subscriber.completed.await(5, TimeUnit.SECONDS));
+        assertEquals(1000, subscriber.items.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("item " + i + " x", subscriber.items.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("작업 스레드에서 실행해도 기본적으로 입력 순서를 유지한다")
+    void keepsOrderOnWorkerPool() throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(4);
+        try {
+            AtomicInteger concurrent = new AtomicInteger();
+            AtomicInteger maxConcurrent = new AtomicInteger();
+            SanitizingProcessor<String, String> processor = SanitizingProcessor.<String, String>builder(items -> {
+                        maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+                        try {
+                            Thread.sleep(ThreadLocalRandom.current().nextInt(3));
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        concurrent.decrementAndGet();
+                        return SHIELD.sanitizeAll(items);
+                    })
+                    .executor(workers, 3)
+                    .batchSize(8)
+                    .build();
+            RangePublisher source = new RangePublisher(2000);
+            source.subscribe(processor);
+            RecordingSubscriber subscriber = new RecordingSubscriber();
+            processor.subscribe(subscriber);
+            subscriber.request(Long.MAX_VALUE);
+
+            assertTrue(subscriber.completed.await(10, TimeUnit.SECONDS));
+            assertEquals(2000, subscriber.items.size());
+            for (int i = 0; i < 2000; i++) {
+                assertEquals("item " + i + " x", subscriber.items.get(i));
+            }
+            assertTrue(maxConcurrent.get() <= 3);
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("순서를 유지하지 않으면 모든 항목을 도착 순서와 무관하게 전달한다")
+    void deliversUnordered() throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(4);
+        try {
+            SanitizingProcessor<String, String> processor = SanitizingProcessor.<String, String>mapping(SHIELD::strictSanitize)
+                    .executor(workers, 4)
+                    .ordered(false)
+                    .build();
+            RangePublisher source = new RangePublisher(1000);
+            source.subscribe(processor);
+            RecordingSubscriber subscriber = new RecordingSubscriber();
+            processor.subscribe(subscriber);
+            subscriber.request(Long.MAX_VALUE);
+
+            assertTrue(subscriber.completed.await(10, TimeUnit.SECONDS));
+            List<String> sorted = new ArrayList<>(subscriber.items);
+            List<String> expected = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                expected.add("item " + i + " x");
+            }
+            Collections.sort(sorted);
+            Collections.sort(expected);
+            assertEquals(expected, sorted);
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("배치 함수가 실패하면 상위를 취소하고 오류를 전달한다")
+    void failsAndCancelsUpstream() throws InterruptedException {
+        RangePublisher source = new RangePublisher(100);
+        SanitizingProcessor<String, String> processor = SanitizingProcessor.<String, String>mapping(value -> {
+            if (value.startsWith("item 10 ")) {
+                throw new IllegalStateException("boom");
+            }
+            return value;
+        }).batchSize(1).build();
+        source.subscribe(processor);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        processor.subscribe(subscriber);
+        subscriber.request(Long.MAX_VALUE);
+
+        assertTrue(subscriber.completed.await(5, TimeUnit.SECONDS));
+        assertEquals(10, subscriber.items.size());
+        assertEquals("boom", subscriber.error.getMessage());
+        assertTrue(source.cancelled);
+    }
+
+    @Test
+    @DisplayName("sanitizeAll은 배치 단위로 캐시를 조회하고 입력 순서대로 반환한다")
+    void sanitizesBatchesThroughCache() {
+        XssShield shield = XssShield.builder()
+                .htmlPolicy(new HtmlPolicyBuilder().allowElements("b").toFactory())
+                .sanitizeCache(100)
+                .build();
+        List<String> inputs = Arrays.asList("<b>a</b>", "<i>b</i>", null, "<b>a</b>");
+        assertEquals(Arrays.asList("<b>a</b>", "b", null, "<b>a</b>"), shield.sanitizeAll(inputs));
+
+        assertEquals(List.of("<b>a</b>", "b", "c"), shield.sanitizeAll(List.of("<b>a</b>", "<i>b</i>", "c<script>x</script>")));
+        assertEquals(3, shield.getSanitizeCacheViews().get(0).getStats().hitCount());
+    }
+
+    /** Emits "item i <script>" strings synchronously, only as far as requested. */
+    private static final class RangePublisher implements Flow.Publisher<String> {
+
+        private final int count;
+        private final AtomicLong requested = new AtomicLong();
+        private volatile boolean cancelled;
+
+        RangePublisher(int count) {
+            this.count = count;
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super String> subscriber) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                private final AtomicLong demand = new AtomicLong();
+                private final AtomicInteger wip = new AtomicInteger();
+                private int index;
+
+                @Override
+                public void request(long n) {
+                    requested.addAndGet(n);
+                    demand.addAndGet(n);
+                    if (wip.getAndIncrement() != 0) {
+                        return;
+                    }
+                    do {
+                        while (demand.get() > 0 && index < count && !cancelled) {
+                            demand.decrementAndGet();
+                            subscriber.onNext("item " + index++ + " <script>s</script>x");
+                        }
+                        if (index == count && !cancelled) {
+                            index++;
+                            subscriber.onComplete();
+                        }
+                    } while (wip.decrementAndGet() != 0);
+                }
+
+                @Override
+                public void cancel() {
+                    cancelled = true;
+                }
+            });
+        }
+    }
+
+    private static final class RecordingSubscriber implements Flow.Subscriber<String> {
+
+        final List<String> items = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch completed = new CountDownLatch(1);
+        volatile Throwable error;
+        private volatile Flow.Subscription subscription;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(String item) {
+            items.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            completed.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed.countDown();
+        }
+
+        void request(long n) {
+            subscription.request(n);
+        }
+    }
+}
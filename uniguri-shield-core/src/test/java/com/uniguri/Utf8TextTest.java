@@ -0,0 +1,161 @@
+package com.uniguri;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.owasp.html.HtmlPolicyBuilder;
+import org.owasp.html.HtmlStreamEventReceiverWrapper;
+import org.owasp.html.PolicyFactory;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("UTF-8 / CharSequence 살균 API 테스트")
+class Utf8TextTest {
+
+    private static final PolicyFactory HTML = new HtmlPolicyBuilder().allowElements("b").toFactory();
+
+    private final XssShield shield = XssShield.builder().htmlPolicy(HTML).sanitizeCache(100).build();
+
+    @Test
+    @DisplayName("UTF-8 바이트 판정은 디코딩 후 문자 판정과 일치하고 잘못된 시퀀스는 무해하지 않다")
+    void byteCheckMatchesCharCheck() {
+        Random random = new Random(42);
+        String[] alphabet = {"a", "b", " ", "<", "&", "\"", "{", "\t", "\n", "한", "글", "é", "\u00A0", "\u0085", "﹠", "😀"};
+        for (int i = 0; i < 20_000; i++) {
+            StringBuilder value = new StringBuilder();
+            for (int n = random.nextInt(12); n > 0; n--) {
+                value.append(alphabet[random.nextInt(alphabet.length)]);
+            }
+            String text = value.toString();
+            byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            assertEquals(MarkupPrefilter.isInert(text), Utf8Text.isInert(ByteBuffer.wrap(bytes)), text);
+            ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+            assertEquals(MarkupPrefilter.isInert(text), Utf8Text.isInert(direct), text);
+        }
+        assertFalse(Utf8Text.isInert(ByteBuffer.wrap(new byte[]{'a', (byte) 0xC3})), "truncated");
+        assertFalse(Utf8Text.isInert(ByteBuffer.wrap(new byte[]{(byte) 0xC1, (byte) 0xA1})), "overlong 2-byte");
+        assertFalse(Utf8Text.isInert(ByteBuffer.wrap(new byte[]{(byte) 0xE0, (byte) 0x82, (byte) 0xA0})), "overlong 3-byte");
+        assertFalse(Utf8Text.isInert(ByteBuffer.wrap(new byte[]{(byte) 0xED, (byte) 0xA0, (byte) 0x80})), "encoded surrogate");
+    }
+
+    @Test
+    @DisplayName("깨끗한 바이트 배열은 같은 인스턴스를 반환한다")
+    void cleanByteArrayIsReturnedAsIs() {
+        byte[] clean = "안녕하세요 hello".getBytes(StandardCharsets.UTF_8);
+        assertSame(clean, shield.sanitizeUtf8(clean));
+        byte[] fixedPoint = "<b>굵게</b>".getBytes(StandardCharsets.UTF_8);
+        assertSame(fixedPoint, shield.sanitizeUtf8(fixedPoint));
+        byte[] dirty = "<b>굵게</b><script>x</script>".getBytes(StandardCharsets.UTF_8);
+        assertEquals("<b>굵게</b>", new String(shield.sanitizeUtf8(dirty), StandardCharsets.UTF_8));
+        assertEquals("굵게", new String(shield.strictSanitizeUtf8(fixedPoint), StandardCharsets.UTF_8));
+        assertNull(shield.sanitizeUtf8((byte[]) null));
+    }
+
+    @Test
+    @DisplayName("깨끗한 버퍼는 건드리지 않고, 아니면 출력 버퍼에 UTF-8로 쓴다")
+    void byteBuffers() {
+        for (boolean direct : new boolean[]{false, true}) {
+            ByteBuffer clean = buffer("prefix|값 그대로", direct);
+            clean.position(7);
+            ByteBuffer output = direct ? ByteBuffer.allocateDirect(64) : ByteBuffer.allocate(64);
+            assertFalse(shield.sanitizeUtf8(clean, output));
+            assertEquals(7, clean.position());
+            assertEquals(0, output.position());
+
+            ByteBuffer dirty = buffer("<i>기울임</i> & 끝", direct);
+            assertTrue(shield.sanitizeUtf8(dirty, output));
+            assertFalse(dirty.hasRemaining());
+            output.flip();
+            assertEquals("기울임 &amp; 끝", StandardCharsets.UTF_8.decode(output).toString());
+        }
+    }
+
+    @Test
+    @DisplayName("출력 버퍼가 부족하면 두 버퍼 모두 변경하지 않고 예외를 던진다")
+    void overflowLeavesBuffersUnchanged() {
+        ByteBuffer input = buffer("<i>가나다라마바사</i>", false);
+        ByteBuffer output = ByteBuffer.allocate(8);
+        output.put((byte) 'x');
+        assertThrows(BufferOverflowException.class, () -> shield.sanitizeUtf8(input, output));
+        assertEquals(0, input.position());
+        assertEquals(1, output.position());
+    }
+
+    @Test
+    @DisplayName("CharSequence는 문자열과 같은 결과를 낸다")
+    void charSequences() throws IOException {
+        String[] values = {"plain text 한글", "<b>x</b><img src=x onerror=1>", "a & b", "{{x}}"};
+        for (String value : values) {
+            for (CharSequence view : new CharSequence[]{value, new StringBuilder(value), CharBuffer.wrap(value)}) {
+                StringBuilder out = new StringBuilder();
+                shield.sanitize(view, out);
+                assertEquals(shield.sanitize(value), out.toString(), value);
+                out.setLength(0);
+                shield.strictSanitize(view, out);
+                assertEquals(shield.strictSanitize(value), out.toString(), value);
+            }
+        }
+        StringBuilder large = new StringBuilder();
+        while (large.length() <= StreamingSanitizer.DEFAULT_CHUNK_SIZE) {
+            large.append("<p>para</p><b>bold</b> & ");
+        }
+        StringBuilder out = new StringBuilder();
+        shield.sanitize(large, out);
+        assertEquals(HTML.sanitize(large.toString()), out.toString());
+    }
+
+    @Test
+    @DisplayName("잘못된 UTF-8은 살균 결과가 같아도 원본 바이트로 통과시키지 않는다")
+    void malformedInputIsNeverPassedThrough() {
+        byte[][] malformed = {
+                {'a', (byte) 0xC3},
+                {(byte) 0xC0, (byte) 0xBC, 's', 'c', 'r', 'i', 'p', 't', (byte) 0xC0, (byte) 0xBE},
+                {(byte) 0xE0, (byte) 0x80, (byte) 0xBC},
+                {(byte) 0xED, (byte) 0xA0, (byte) 0x80, 'x'},
+                {'<', 'b', '>', (byte) 0xFF, '<', '/', 'b', '>'}
+        };
+        for (byte[] input : malformed) {
+            String expected = HTML.sanitize(new String(input, StandardCharsets.UTF_8));
+            byte[] sanitized = shield.sanitizeUtf8(input);
+            assertNotSame(input, sanitized);
+            assertEquals(expected, new String(sanitized, StandardCharsets.UTF_8));
+            assertNotNull(Utf8Text.decodeExact(ByteBuffer.wrap(sanitized)), "well-formed output");
+
+            ByteBuffer output = ByteBuffer.allocate(64);
+            assertTrue(shield.sanitizeUtf8(ByteBuffer.wrap(input), output));
+            output.flip();
+            assertEquals(expected, StandardCharsets.UTF_8.decode(output).toString());
+        }
+        byte[] valid = "<b>굵게</b>".getBytes(StandardCharsets.UTF_8);
+        assertSame(valid, shield.sanitizeUtf8(valid));
+    }
+
+    @Test
+    @DisplayName("텍스트 전처리가 있는 정책에는 무해 판정 지름길을 쓰지 않는다")
+    void preprocessedPoliciesSkipInertShortcut() {
+        PolicyFactory upper = new HtmlPolicyBuilder()
+                .withPreprocessor(receiver -> new HtmlStreamEventReceiverWrapper(receiver) {
+                    @Override
+                    public void text(String text) {
+                        underlying.text(text.toUpperCase());
+                    }
+                })
+                .toFactory();
+        assertTrue(MarkupPrefilter.appliesTo(HTML));
+        assertFalse(MarkupPrefilter.appliesTo(upper));
+        XssShield custom = XssShield.builder().htmlPolicy(upper).build();
+        assertEquals("ABC", new String(custom.sanitizeUtf8("abc".getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8));
+    }
+
+    private static ByteBuffer buffer(String text, boolean direct) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = direct ? ByteBuffer.allocateDirect(bytes.length) : ByteBuffer.allocate(bytes.length);
+        return buffer.put(bytes).flip();
+    }
+}
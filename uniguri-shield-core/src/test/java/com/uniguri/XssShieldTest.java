@@ -0,0 +1,72 @@
+package com.uniguri;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.owasp.html.HtmlPolicyBuilder;
+import org.owasp.html.PolicyFactory;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Spring 없는 코어 엔진 테스트")
+class XssShieldTest {
+
+    private static final PolicyFactory HTML = new HtmlPolicyBuilder().allowElements("p", "b").toFactory();
+
+    @Test
+    @DisplayName("코어 모듈은 Spring과 서블릿 API 없이 동작한다")
+    void runsWithoutSpring() {
+        assertThrows(ClassNotFoundException.class, () -> Class.forName("org.springframework.web.util.HtmlUtils"));
+        assertThrows(ClassNotFoundException.class, () -> Class.forName("jakarta.servlet.http.HttpServletRequest"));
+
+        XssShield shield = XssShield.builder().htmlPolicy(HTML).build();
+        assertEquals("<p>hi</p>", shield.sanitize("<p>hi</p><script>x()</script>"));
+        assertEquals("hi", shield.strictSanitize("<b>hi</b>"));
+        assertEquals("&lt;b&gt; &amp; &#39;", shield.escape("<b> & '"));
+        assertEquals("&lt;b&gt;x&lt;/b&gt;", shield.toSafeOutput("<b>x</b><img src=y>"));
+        assertTrue(shield.containsXssPattern("&lt;script&gt;alert(1)&lt;/script&gt;"));
+        assertTrue(shield.isSafeString("<p>plain</p>"));
+        assertEquals(SafetyVerdict.Reason.POLICY_REWRITE, shield.checkSafety("a<i>b</i>").getReason());
+    }
+
+    @Test
+    @DisplayName("빌더로 캐시, 샘플링 탐지, 호출자 정보를 구성한다")
+    void configuresThroughBuilder() throws IOException {
+        ClientInfo client = new ClientInfo("job-42", "10.0.0.9", "batch");
+        XssShield shield = XssShield.builder()
+                .htmlPolicy(HTML)
+                .sanitizeCache(100)
+                .sampledDetection(0.0, true, Duration.ofMinutes(1), 100)
+                .clientInfo(() -> client)
+                .build();
+
+        assertEquals(3, shield.getSanitizeCacheViews().size());
+        shield.sanitize("<p>a</p>");
+        shield.sanitize("<p>a</p>");
+        SanitizeCacheView html = shield.getSanitizeCacheViews().get(0);
+        assertEquals("html", html.getPolicy());
+        assertEquals(1, html.getStats().hitCount());
+
+        // Plain values are skipped at rate 0 until the client is flagged by a value with markup.
+        assertFalse(shield.containsXssPattern("eval(x)"));
+        assertTrue(shield.containsXssPattern("<script>x</script>"));
+        assertTrue(shield.containsXssPattern("eval(x)"));
+
+        StringWriter out = new StringWriter();
+        shield.sanitize(new StringReader("<p>doc<script>s</script></p>"), out);
+        assertEquals("<p>doc</p>", out.toString());
+    }
+
+    @Test
+    @DisplayName("HTML 정책은 필수이며 2차 캐시는 로컬 캐시가 필요하다")
+    void validatesBuilder() {
+        assertThrows(IllegalStateException.class, () -> XssShield.builder().build());
+        assertThrows(IllegalStateException.class, () -> XssShield.builder().htmlPolicy(HTML)
+                .secondLevelCache(new InMemorySanitizeL2Cache(10), Duration.ofMillis(5), 10).build());
+        assertThrows(IllegalArgumentException.class, () -> XssShield.builder().sampledDetection(2.0, true, Duration.ZERO, 1));
+    }
+}
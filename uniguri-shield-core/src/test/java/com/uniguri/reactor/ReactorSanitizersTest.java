@@ -0,0 +1,45 @@
+package com.uniguri.reactor;
+
+import com.uniguri.SanitizingProcessor;
+import com.uniguri.XssShield;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.owasp.html.HtmlPolicyBuilder;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Reactor 어댑터 테스트")
+class ReactorSanitizersTest {
+
+    private static final XssShield SHIELD = XssShield.builder()
+            .htmlPolicy(new HtmlPolicyBuilder().allowElements("b").toFactory())
+            .build();
+
+    record Comment(int id, String body) {
+    }
+
+    @Test
+    @DisplayName("Flux.transform으로 레코드 필드를 살균하며 요청량을 지킨다")
+    void transformsFluxWithBackpressure() {
+        AtomicLong upstreamRequested = new AtomicLong();
+        Flux<Comment> comments = Flux.range(0, 100)
+                .map(i -> new Comment(i, "<b>c" + i + "</b><img src=x onerror=alert(1)>"))
+                .doOnRequest(upstreamRequested::addAndGet);
+
+        Flux<Comment> sanitized = comments.transform(ReactorSanitizers.transformer(() ->
+                SanitizingProcessor.<Comment, Comment>mapping(c -> new Comment(c.id(), SHIELD.sanitize(c.body())))
+                        .prefetch(8)
+                        .build()));
+
+        StepVerifier.create(sanitized, 3)
+                .expectNext(new Comment(0, "<b>c0</b>"), new Comment(1, "<b>c1</b>"), new Comment(2, "<b>c2</b>"))
+                .then(() -> assertEquals(8, upstreamRequested.get()))
+                .thenRequest(Long.MAX_VALUE)
+                .expectNextCount(97)
+                .verifyComplete();
+    }
+}